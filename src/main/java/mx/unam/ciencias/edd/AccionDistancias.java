@@ -0,0 +1,19 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para recibir las distancias desde cada origen de un lote, como
+ * las calcula {@link GraficaCongelada#distancias(int[],int,AccionDistancias)}.
+ */
+@FunctionalInterface
+public interface AccionDistancias {
+
+    /**
+     * Recibe las distancias desde un origen. El arreglo es del hilo que las
+     * calculó y lo reutiliza para el siguiente origen, así que sólo es válido
+     * durante la llamada; hay que copiar lo que se quiera conservar.
+     * @param origen el identificador del origen.
+     * @param distancias las distancias desde el origen, por identificador;
+     *        {@link Double#POSITIVE_INFINITY} para los inalcanzables.
+     */
+    public void actua(int origen, double[] distancias);
+}
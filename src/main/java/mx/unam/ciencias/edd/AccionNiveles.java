@@ -0,0 +1,19 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para recibir los niveles BFS desde cada origen de un lote, como
+ * los calcula {@link GraficaCongelada#niveles(int[],int,AccionNiveles)}.
+ */
+@FunctionalInterface
+public interface AccionNiveles {
+
+    /**
+     * Recibe los niveles desde un origen. El arreglo es del hilo que los
+     * calculó y lo reutiliza para el siguiente origen, así que sólo es válido
+     * durante la llamada; hay que copiar lo que se quiera conservar.
+     * @param origen el identificador del origen.
+     * @param niveles los niveles desde el origen, por identificador; -1 para
+     *        los inalcanzables.
+     */
+    public void actua(int origen, int[] niveles);
+}
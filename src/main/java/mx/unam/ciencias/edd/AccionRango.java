@@ -0,0 +1,16 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para lo que hace una {@link Rango} sobre cada pedazo de su rango
+ * de identificadores.
+ */
+@FunctionalInterface
+interface AccionRango {
+
+    /**
+     * Actúa sobre los identificadores en [inicio, fin).
+     * @param inicio el primer identificador del pedazo.
+     * @param fin el identificador siguiente al último del pedazo.
+     */
+    public void actua(int inicio, int fin);
+}
@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para realizar acciones sobre vértices de gráficas de enteros.
+ */
+@FunctionalInterface
+public interface AccionVerticeGraficaInt {
+
+    /**
+     * Realiza una acción sobre un vértice de gráfica de enteros.
+     * @param elemento el elemento del vértice sobre el que se realizará la
+     *        acción.
+     */
+    public void actua(int elemento);
+}
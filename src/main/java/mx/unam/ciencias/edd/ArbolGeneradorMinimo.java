@@ -0,0 +1,39 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para árboles generadores de peso mínimo, como los regresan {@link
+ * Grafica#prim} y {@link Grafica#kruskal}. Si la gráfica original no es
+ * conexa, el árbol es en realidad un bosque: un árbol generador de peso
+ * mínimo por cada componente conexa.
+ */
+public class ArbolGeneradorMinimo<T> {
+
+    /* El árbol, como gráfica. */
+    private Grafica<T> arbol;
+    /* El peso total de sus aristas. */
+    private double peso;
+
+    /* Construye el resultado; sólo las gráficas lo construyen. */
+    ArbolGeneradorMinimo(Grafica<T> arbol, double peso) {
+        this.arbol = arbol;
+        this.peso = peso;
+    }
+
+    /**
+     * Regresa el árbol como una gráfica nueva, con los mismos elementos que
+     * la original, agregados en el mismo orden, y sólo las aristas del árbol
+     * con sus pesos.
+     * @return el árbol como una gráfica.
+     */
+    public Grafica<T> getArbol() {
+        return arbol;
+    }
+
+    /**
+     * Regresa el peso total de las aristas del árbol.
+     * @return el peso total de las aristas del árbol.
+     */
+    public double getPeso() {
+        return peso;
+    }
+}
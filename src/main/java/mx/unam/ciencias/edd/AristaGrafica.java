@@ -0,0 +1,55 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para aristas de gráficas, como las regresa {@link Grafica#aristas}.
+ * Una arista es un valor inmutable: no cambia si después se modifica la
+ * gráfica, aunque sus extremos sigan siendo los vértices de ella.
+ */
+public class AristaGrafica<T> {
+
+    /* El primer extremo. */
+    private VerticeGrafica<T> a;
+    /* El segundo extremo. */
+    private VerticeGrafica<T> b;
+    /* El peso. */
+    private double peso;
+
+    /* Construye una arista; sólo las gráficas construyen aristas. */
+    AristaGrafica(VerticeGrafica<T> a, VerticeGrafica<T> b, double peso) {
+        this.a = a;
+        this.b = b;
+        this.peso = peso;
+    }
+
+    /**
+     * Regresa el primer extremo de la arista.
+     * @return el primer extremo de la arista.
+     */
+    public VerticeGrafica<T> getA() {
+        return a;
+    }
+
+    /**
+     * Regresa el segundo extremo de la arista.
+     * @return el segundo extremo de la arista.
+     */
+    public VerticeGrafica<T> getB() {
+        return b;
+    }
+
+    /**
+     * Regresa el peso de la arista.
+     * @return el peso de la arista.
+     */
+    public double getPeso() {
+        return peso;
+    }
+
+    /**
+     * Regresa una representación en cadena de la arista.
+     * @return una representación en cadena de la arista.
+     */
+    @Override public String toString() {
+        return "(" + a.get() + ", " + b.get() + ")";
+    }
+}
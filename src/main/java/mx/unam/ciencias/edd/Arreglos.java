@@ -10,32 +10,63 @@ public class Arreglos {
     /* Constructor privado para evitar instanciación. */
     private Arreglos() {}
 
+    /* Tamaño debajo del cual QuickSort ordena por inserción. */
+    private static final int CORTE_INSERCION = 16;
+
     /**
-     * Ordena el arreglo recibido usando QickSort.
+     * Ordena el arreglo recibido usando QickSort. El pivote es la mediana del
+     * primero, el de en medio y el último, y la partición deja los elementos
+     * iguales al pivote repartidos en ambos lados, así que un arreglo ya
+     * ordenado o con muchos elementos repetidos (aristas con el mismo peso,
+     * por ejemplo) no degenera en tiempo cuadrático. Sólo se hace recursión
+     * sobre la parte más chica, así que la pila crece a lo más
+     * logarítmicamente.
      * @param <T> tipo del que puede ser el arreglo.
      * @param arreglo el arreglo a ordenar.
      * @param comparador el comparador para ordenar el arreglo.
      */
     public static <T> void
     quickSort(T[] arreglo, Comparator<T> comparador) {
-      quickSort(arreglo, comparador, arreglo.length-1, 0, arreglo.length-1);
+      quickSort(arreglo, comparador, 0, arreglo.length-1);
     }
     private static <T> void
-    quickSort(T[] a, Comparator<T> c, int pib, int izq, int der){
-      if(pib <= izq)
-        return;
-      while(c.compare(a[izq], a[pib]) < 0)
-        izq++;
-      while(c.compare(a[der], a[pib]) >= 0){
-          if(der--==izq){
-            swap(a, izq, pib);
-            quickSort(a, c, der, 0, der); //izq
-            quickSort(a, c, pib, izq+1, pib); //der
-            return;
-          }
+    quickSort(T[] a, Comparator<T> c, int izq, int der){
+      while(der - izq >= CORTE_INSERCION){
+        T pivote = mediana(a, c, izq, izq + (der-izq)/2, der);
+        int i = izq-1, j = der+1;
+        while(true){
+          while(c.compare(a[++i], pivote) < 0);
+          while(c.compare(a[--j], pivote) > 0);
+          if(i >= j)
+            break;
+          swap(a, i, j);
+        }
+        if(j - izq < der - j){
+          quickSort(a, c, izq, j);
+          izq = j+1;
+        } else {
+          quickSort(a, c, j+1, der);
+          der = j;
+        }
+      }
+      for(int i = izq+1; i <= der; i++){
+        T t = a[i];
+        int j = i;
+        for(; j > izq && c.compare(a[j-1], t) > 0; j--)
+          a[j] = a[j-1];
+        a[j] = t;
+      }
+    }
+    private static <T> T
+    mediana(T[] a, Comparator<T> c, int x, int y, int z){
+      if(c.compare(a[y], a[x]) < 0)
+        swap(a, x, y);
+      if(c.compare(a[z], a[y]) < 0){
+        swap(a, y, z);
+        if(c.compare(a[y], a[x]) < 0)
+          swap(a, x, y);
       }
-      swap(a, izq, der);
-      quickSort(a, c, pib, izq, der);
+      return a[y];
     }
 
     /**
@@ -0,0 +1,153 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la bitácora de cambios de una {@link Grafica}. Cada cambio a la
+ * gráfica se le avisa a los observadores suscritos en cuanto se hace, y se
+ * agrega al final de la bitácora con la siguiente versión; la bitácora guarda
+ * los últimos cambios hasta su capacidad, en un arreglo circular, para que se
+ * puedan repasar los cambios desde una versión dada.
+ *
+ * Eliminar un vértice se registra primero como la desconexión de cada una de
+ * sus aristas y después como la eliminación del vértice ya aislado, así que
+ * quien lleve la cuenta de las aristas no tiene que mirar la gráfica. Las
+ * bitácoras se obtienen con {@link Grafica#activaBitacora}.
+ */
+public class BitacoraGrafica<T> {
+
+    /* La capacidad. */
+    private int capacidad;
+    /* Los tipos de los cambios guardados. */
+    private TipoCambio[] tipos;
+    /* Los primeros elementos de los cambios guardados. */
+    private T[] as;
+    /* Los segundos elementos de los cambios guardados. */
+    private T[] bs;
+    /* Los pesos de los cambios guardados. */
+    private double[] pesos;
+    /* La versión del siguiente cambio. */
+    private long version;
+    /* Los observadores. */
+    private Lista<ObservadorGrafica<T>> observadores;
+
+    /* Construye una bitácora vacía con la capacidad recibida. */
+    BitacoraGrafica(int capacidad) {
+        if (capacidad < 0)
+            throw new IllegalArgumentException("Capacidad inválida");
+        this.capacidad = capacidad;
+        int n = Math.min(capacidad, 16);
+        tipos = new TipoCambio[n];
+        as = nuevoArreglo(n);
+        bs = nuevoArreglo(n);
+        pesos = new double[n];
+        observadores = new Lista<ObservadorGrafica<T>>();
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
+    }
+
+    /**
+     * Regresa la capacidad de la bitácora: cuántos de los últimos cambios
+     * guarda.
+     * @return la capacidad de la bitácora.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Regresa la versión actual: el número de cambios registrados desde que
+     * se activó la bitácora, que es la versión que tendrá el siguiente.
+     * @return la versión actual.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Regresa la versión del cambio más viejo que sigue guardado.
+     * @return la versión del cambio más viejo que sigue guardado; es igual a
+     *         la versión actual si no hay ninguno.
+     */
+    public long getInicio() {
+        return Math.max(0, version - capacidad);
+    }
+
+    /**
+     * Suscribe un observador, que recibirá cada cambio a la gráfica en cuanto
+     * se haga.
+     * @param observador el observador.
+     * @throws IllegalArgumentException si el observador es <code>null</code>.
+     */
+    public void suscribe(ObservadorGrafica<T> observador) {
+        if (observador == null)
+            throw new IllegalArgumentException();
+        observadores.agrega(observador);
+    }
+
+    /**
+     * Cancela la suscripción de un observador. Si no estaba suscrito, no pasa
+     * nada.
+     * @param observador el observador.
+     */
+    public void cancela(ObservadorGrafica<T> observador) {
+        observadores.elimina(observador);
+    }
+
+    /**
+     * Le pasa al observador, en orden, los cambios guardados desde la versión
+     * recibida hasta la actual.
+     * @param desde la versión del primer cambio.
+     * @param observador el observador.
+     * @throws IllegalArgumentException si la versión es anterior a la del
+     *         cambio más viejo guardado, o posterior a la actual.
+     */
+    public void paraCadaCambio(long desde, ObservadorGrafica<T> observador) {
+        if (desde < getInicio() || desde > version)
+            throw new IllegalArgumentException("Versión inválida");
+        for (long v = desde; v < version; v++) {
+            int i = (int)(v % capacidad);
+            observador.cambio(new CambioGrafica<T>(v, tipos[i], as[i], bs[i],
+                                                   pesos[i]));
+        }
+    }
+
+    /* Registra un cambio y se lo avisa a los observadores. */
+    void registra(TipoCambio tipo, T a, T b, double peso) {
+        if (capacidad > 0) {
+            if (version < capacidad && version == tipos.length)
+                crece();
+            int i = (int)(version % capacidad);
+            tipos[i] = tipo;
+            as[i] = a;
+            bs[i] = b;
+            pesos[i] = peso;
+        }
+        long v = version++;
+        if (observadores.esVacia())
+            return;
+        CambioGrafica<T> cambio = new CambioGrafica<T>(v, tipo, a, b, peso);
+        for (ObservadorGrafica<T> observador : observadores)
+            observador.cambio(cambio);
+    }
+
+    /* Duplica los arreglos sin pasar de la capacidad. */
+    private void crece() {
+        int n = tipos.length, m = (int)Math.min((long)n * 2, capacidad);
+        TipoCambio[] viejosTipos = tipos;
+        tipos = new TipoCambio[m];
+        System.arraycopy(viejosTipos, 0, tipos, 0, n);
+        T[] viejos = as;
+        as = nuevoArreglo(m);
+        System.arraycopy(viejos, 0, as, 0, n);
+        viejos = bs;
+        bs = nuevoArreglo(m);
+        System.arraycopy(viejos, 0, bs, 0, n);
+        double[] viejosPesos = pesos;
+        pesos = new double[m];
+        System.arraycopy(viejosPesos, 0, pesos, 0, n);
+    }
+}
@@ -0,0 +1,90 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para los cambios que registra una {@link BitacoraGrafica}. Un cambio
+ * tiene su versión (su posición en la bitácora), su tipo, y los elementos y
+ * el peso que le correspondan: los vértices agregados o eliminados sólo
+ * tienen el primer elemento, las aristas tienen los dos y su peso (el nuevo
+ * en {@link TipoCambio#PESO}, el que tenía en {@link TipoCambio#DESCONECTA}),
+ * y {@link TipoCambio#LIMPIA} no tiene ninguno.
+ */
+public class CambioGrafica<T> {
+
+    /* La versión del cambio. */
+    private long version;
+    /* El tipo del cambio. */
+    private TipoCambio tipo;
+    /* Los elementos del cambio. */
+    private T a, b;
+    /* El peso del cambio. */
+    private double peso;
+
+    /* Construye un cambio. */
+    CambioGrafica(long version, TipoCambio tipo, T a, T b, double peso) {
+        this.version = version;
+        this.tipo = tipo;
+        this.a = a;
+        this.b = b;
+        this.peso = peso;
+    }
+
+    /**
+     * Regresa la versión del cambio: cuántos cambios se registraron antes
+     * que él.
+     * @return la versión del cambio.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Regresa el tipo del cambio.
+     * @return el tipo del cambio.
+     */
+    public TipoCambio getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Regresa el primer elemento del cambio.
+     * @return el primer elemento del cambio, o <code>null</code> si es una
+     *         limpieza.
+     */
+    public T getA() {
+        return a;
+    }
+
+    /**
+     * Regresa el segundo elemento del cambio.
+     * @return el segundo elemento del cambio, o <code>null</code> si no es
+     *         de una arista.
+     */
+    public T getB() {
+        return b;
+    }
+
+    /**
+     * Regresa el peso de la arista del cambio.
+     * @return el peso de la arista del cambio, o 0 si no es de una arista.
+     */
+    public double getPeso() {
+        return peso;
+    }
+
+    /**
+     * Regresa una representación en cadena del cambio.
+     * @return una representación en cadena del cambio.
+     */
+    @Override public String toString() {
+        switch (tipo) {
+        case AGREGA:
+        case ELIMINA:
+            return String.format("%d: %s %s", version, tipo, a);
+        case LIMPIA:
+            return String.format("%d: %s", version, tipo);
+        default:
+            return String.format("%d: %s (%s, %s) %s", version, tipo, a, b,
+                                 peso);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Clase para cargar gráficas de archivos con listas de aristas. El archivo se
+ * mapea a memoria por ventanas de a lo más {@link #VENTANA} bytes, los
+ * enteros se leen directamente de los bytes sin crear cadenas, y la gráfica
+ * se construye de una sola pasada al final, con cada vecindad del tamaño
+ * exacto.
+ *
+ * Hay dos formatos:
+ *
+ * <ul>
+ * <li>De texto: una arista por línea, con los dos enteros de sus extremos
+ *     separados por espacios, tabuladores o comas. Lo que siga al segundo
+ *     entero en la línea (un peso, por ejemplo) se ignora, igual que las
+ *     líneas vacías y las que comienzan con <code>#</code> o
+ *     <code>%</code>.</li>
+ * <li>Binario: una sucesión de pares de enteros de 32 bits con signo, en
+ *     orden <i>little-endian</i>, sin encabezado.</li>
+ * </ul>
+ *
+ * En ambos los vértices se agregan en el orden en que aparecen por primera
+ * vez en el archivo y todas las aristas tienen peso 1; las aristas repetidas
+ * (en cualquier dirección) se agregan una sola vez, y los lazos se ignoran
+ * aunque su vértice sí se agrega.
+ */
+public class CargadorGrafica {
+
+    /** Número máximo de bytes que se mapean a la vez; es múltiplo de 8. */
+    public static final int VENTANA = 1 << 30;
+
+    /* Número de enteros que se copian a la vez del formato binario. */
+    private static final int BLOQUE = 1 << 13;
+
+    /* El identificador denso de cada entero del archivo. */
+    private DiccionarioEnteros ids;
+    /* Los enteros del archivo por identificador denso. */
+    private int[] elementos;
+    /* El número de vértices. */
+    private int n;
+    /* Las aristas empacadas como (a << 32) | b, con a < b. */
+    private long[] aristas;
+    /* El número de aristas leídas, con repeticiones. */
+    private int m;
+    /* La siguiente posición por leer en la ventana actual. */
+    private int posicion;
+
+    /* Construye un cargador con espacio para el número de aristas
+       recibido. */
+    private CargadorGrafica(long estimadas) {
+        int k = (int)Math.max(16, Math.min(estimadas, Integer.MAX_VALUE - 8));
+        aristas = new long[k];
+        elementos = new int[16];
+        ids = new DiccionarioEnteros();
+    }
+
+    /**
+     * Carga una gráfica de un archivo de texto con una lista de aristas.
+     * @param ruta la ruta del archivo.
+     * @return la gráfica con los vértices y aristas del archivo.
+     * @throws IOException si hay un error al leer el archivo, o si su formato
+     *         es inválido.
+     */
+    public static Grafica<Integer> cargaTexto(String ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(ruta),
+                                                  StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            /* Una línea con dos enteros chicos ocupa unos diez bytes. */
+            CargadorGrafica cargador = new CargadorGrafica(tamano / 10);
+            long inicio = 0;
+            while (inicio < tamano) {
+                int largo = (int)Math.min(VENTANA, tamano - inicio);
+                MappedByteBuffer ventana =
+                    canal.map(FileChannel.MapMode.READ_ONLY, inicio, largo);
+                int fin = largo;
+                /* Salvo en la última ventana, se corta en el último salto de
+                   línea para que ningún entero quede partido. */
+                if (inicio + largo < tamano) {
+                    while (fin > 0 && ventana.get(fin - 1) != '\n')
+                        fin--;
+                    if (fin == 0)
+                        throw new IOException("Línea demasiado larga en el " +
+                                              "byte " + inicio);
+                }
+                cargador.leeTexto(ventana, fin, inicio);
+                inicio += fin;
+            }
+            return cargador.construye();
+        }
+    }
+
+    /**
+     * Carga una gráfica de un archivo binario con una lista de aristas.
+     * @param ruta la ruta del archivo.
+     * @return la gráfica con los vértices y aristas del archivo.
+     * @throws IOException si hay un error al leer el archivo, o si su tamaño
+     *         no es múltiplo de 8.
+     */
+    public static Grafica<Integer> cargaBinaria(String ruta)
+        throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(ruta),
+                                                  StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano % 8 != 0)
+                throw new IOException("El tamaño del archivo no es múltiplo " +
+                                      "de 8");
+            if (tamano / 8 > Integer.MAX_VALUE)
+                throw new IOException("Demasiadas aristas");
+            CargadorGrafica cargador = new CargadorGrafica(tamano / 8);
+            int[] bloque = new int[BLOQUE];
+            for (long inicio = 0; inicio < tamano; inicio += VENTANA) {
+                int largo = (int)Math.min(VENTANA, tamano - inicio);
+                MappedByteBuffer ventana =
+                    canal.map(FileChannel.MapMode.READ_ONLY, inicio, largo);
+                ventana.order(ByteOrder.LITTLE_ENDIAN);
+                IntBuffer enteros = ventana.asIntBuffer();
+                while (enteros.hasRemaining()) {
+                    int k = Math.min(BLOQUE, enteros.remaining());
+                    enteros.get(bloque, 0, k);
+                    for (int i = 0; i < k; i += 2)
+                        cargador.arista(bloque[i], bloque[i+1]);
+                }
+            }
+            return cargador.construye();
+        }
+    }
+
+    /* Lee las aristas de los primeros fin bytes de la ventana, que comienza
+       en el byte base del archivo. */
+    private void leeTexto(MappedByteBuffer ventana, int fin, long base)
+        throws IOException {
+        posicion = 0;
+        while (posicion < fin) {
+            byte c = ventana.get(posicion);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                posicion++;
+                continue;
+            }
+            if (c != '#' && c != '%') {
+                int a = entero(ventana, fin, base);
+                int b = entero(ventana, fin, base);
+                arista(a, b);
+            }
+            while (posicion < fin && ventana.get(posicion) != '\n')
+                posicion++;
+        }
+    }
+
+    /* Lee un entero a partir de la posición actual, saltándose los
+       separadores que lo precedan, y deja la posición justo después de él. */
+    private int entero(MappedByteBuffer ventana, int fin, long base)
+        throws IOException {
+        int i = posicion;
+        byte c;
+        while (i < fin && ((c = ventana.get(i)) == ' ' || c == '\t' ||
+                           c == ','))
+            i++;
+        boolean negativo = i < fin && ventana.get(i) == '-';
+        if (negativo)
+            i++;
+        int inicio = i;
+        long valor = 0;
+        while (i < fin) {
+            int d = ventana.get(i) - '0';
+            if (d < 0 || d > 9)
+                break;
+            valor = valor * 10 + d;
+            if (valor > (long)Integer.MAX_VALUE + 1)
+                throw new IOException("Entero fuera de rango en el byte " +
+                                      (base + inicio));
+            i++;
+        }
+        if (i == inicio)
+            throw new IOException("Se esperaba un entero en el byte " +
+                                  (base + i));
+        if (negativo)
+            valor = -valor;
+        if (valor > Integer.MAX_VALUE)
+            throw new IOException("Entero fuera de rango en el byte " +
+                                  (base + inicio));
+        posicion = i;
+        return (int)valor;
+    }
+
+    /* Registra la arista entre los enteros a y b del archivo. */
+    private void arista(int a, int b) {
+        int x = id(a), y = id(b);
+        if (x == y)
+            return;
+        if (m == aristas.length)
+            aristas = Arrays.copyOf(aristas, (int)Math.min(2L * m,
+                                                           Integer.MAX_VALUE - 8));
+        aristas[m++] = x < y ? ((long)x << 32) | y : ((long)y << 32) | x;
+    }
+
+    /* Regresa el identificador denso del entero, asignándole uno nuevo si es
+       la primera vez que aparece. */
+    private int id(int elemento) {
+        int i = ids.get(elemento);
+        if (i != -1)
+            return i;
+        if (n == elementos.length)
+            elementos = Arrays.copyOf(elementos, n * 2);
+        ids.agrega(elemento, n);
+        elementos[n] = elemento;
+        return n++;
+    }
+
+    /* Ordena las aristas para descartar las repetidas, cuenta los grados y
+       construye la gráfica. */
+    private Grafica<Integer> construye() {
+        Arrays.sort(aristas, 0, m);
+        int[] grados = new int[n];
+        int k = 0;
+        for (int i = 0; i < m; i++) {
+            if (k > 0 && aristas[k-1] == aristas[i])
+                continue;
+            aristas[k++] = aristas[i];
+            grados[(int)(aristas[i] >>> 32)]++;
+            grados[(int)aristas[i]]++;
+        }
+        Integer[] vertices = new Integer[n];
+        for (int i = 0; i < n; i++)
+            vertices[i] = elementos[i];
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        grafica.carga(vertices, grados, aristas, k);
+        return grafica;
+    }
+}
@@ -0,0 +1,348 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Clase para medidas de centralidad de los vértices de una {@link Grafica}:
+ * grado, PageRank, cercanía e intermediación. Al construirse congela la
+ * gráfica (ver {@link Grafica#congela}), así que todas las medidas trabajan
+ * sobre identificadores densos y arreglos de <code>double</code>, y no ven
+ * los cambios que se hagan a la gráfica después.
+ *
+ * PageRank reparte cada iteración entre varios hilos por rangos de vértices;
+ * la cercanía y la intermediación se aproximan con recorridos desde una
+ * muestra de orígenes, que se reparten entre los hilos como en {@link
+ * GraficaCongelada#niveles(int[],int,AccionNiveles)}. Con tantas muestras
+ * como vértices, las aproximaciones son exactas.
+ */
+public class Centralidad<T> {
+
+    /* Clase interna privada para el estado de un hilo en la aproximación de
+       la intermediación, que se reutiliza de un origen al siguiente. */
+    private class Brandes {
+
+        /* Las distancias desde el origen; -1 si no se ha alcanzado. */
+        public int[] distancias;
+        /* El número de trayectorias más cortas desde el origen. */
+        public double[] trayectorias;
+        /* La dependencia acumulada de cada vértice. */
+        public double[] dependencias;
+        /* Los vértices en el orden en que los alcanzó el BFS. */
+        public int[] orden;
+        /* La intermediación acumulada por este hilo. */
+        public double[] acumulada;
+
+        /* Construye el estado. */
+        public Brandes() {
+            int n = congelada.getElementos();
+            distancias = new int[n];
+            trayectorias = new double[n];
+            dependencias = new double[n];
+            orden = new int[n];
+            acumulada = new double[n];
+        }
+
+        /* Agrega las dependencias de los demás vértices respecto al origen
+           s: un BFS cuenta las trayectorias más cortas y después se recorre
+           el orden al revés acumulando las dependencias en los predecesores,
+           que son los vecinos un nivel más arriba. */
+        public void acumula(int s) {
+            int[] desplazamientos = congelada.desplazamientos;
+            int[] destinos = congelada.destinos;
+            Arrays.fill(distancias, -1);
+            Arrays.fill(trayectorias, 0);
+            Arrays.fill(dependencias, 0);
+            int inicio = 0, fin = 0;
+            orden[fin++] = s;
+            distancias[s] = 0;
+            trayectorias[s] = 1;
+            while (inicio < fin) {
+                int v = orden[inicio++];
+                for (int j = desplazamientos[v]; j < desplazamientos[v+1];
+                     j++) {
+                    int u = destinos[j];
+                    if (distancias[u] == -1) {
+                        distancias[u] = distancias[v] + 1;
+                        orden[fin++] = u;
+                    }
+                    if (distancias[u] == distancias[v] + 1)
+                        trayectorias[u] += trayectorias[v];
+                }
+            }
+            for (int i = fin - 1; i > 0; i--) {
+                int w = orden[i];
+                double c = (1 + dependencias[w]) / trayectorias[w];
+                for (int j = desplazamientos[w]; j < desplazamientos[w+1];
+                     j++) {
+                    int v = destinos[j];
+                    if (distancias[v] == distancias[w] - 1)
+                        dependencias[v] += trayectorias[v] * c;
+                }
+                acumulada[w] += dependencias[w];
+            }
+        }
+    }
+
+    /* Número de vértices por debajo del cual una tarea deja de dividirse. */
+    private static final int PEDAZO = 1 << 14;
+
+    /* La gráfica congelada. */
+    private GraficaCongelada<T> congelada;
+    /* El número de hilos. */
+    private int hilos;
+    /* Las iteraciones de la última llamada a PageRank. */
+    private int iteraciones;
+
+    /**
+     * Construye las medidas de centralidad para la gráfica recibida, que se
+     * congela en este momento.
+     * @param grafica la gráfica.
+     * @param hilos el número de hilos a usar.
+     * @throws IllegalArgumentException si el número de hilos es menor que 1.
+     */
+    public Centralidad(Grafica<T> grafica, int hilos) {
+        if (hilos < 1)
+            throw new IllegalArgumentException("Número de hilos inválido");
+        congelada = grafica.congela();
+        this.hilos = hilos;
+    }
+
+    /**
+     * Regresa la centralidad de grado de cada elemento: su grado entre
+     * <i>n</i>-1.
+     * @return un diccionario con la centralidad de grado de cada elemento.
+     */
+    public Diccionario<T, Double> grado() {
+        int n = congelada.getElementos();
+        double[] grados = new double[n];
+        for (int i = 0; i < n; i++)
+            grados[i] = n > 1 ? congelada.getGrado(i) / (double)(n - 1) : 0;
+        return diccionario(grados);
+    }
+
+    /**
+     * Calcula el PageRank de cada elemento por iteración de potencias. En cada
+     * iteración cada vértice recibe (1-<i>d</i>)/<i>n</i> más <i>d</i> veces
+     * la suma del PageRank de sus vecinos dividido entre el grado de cada
+     * uno; lo de los vértices aislados se reparte entre todos por igual, así
+     * que los valores siempre suman 1. Los vértices se reparten entre los
+     * hilos y cada uno jala los valores de sus vecinos, así que no hay
+     * escrituras compartidas. Se itera hasta que la suma de los cambios
+     * absolutos sea menor que la tolerancia.
+     * @param amortiguamiento el factor de amortiguamiento <i>d</i>, entre 0
+     *        y 1; el usual es 0.85.
+     * @param tolerancia la tolerancia.
+     * @param maximo el número máximo de iteraciones.
+     * @return un diccionario con el PageRank de cada elemento.
+     * @throws IllegalArgumentException si el amortiguamiento no está entre 0
+     *         y 1, si la tolerancia no es positiva o si el máximo de
+     *         iteraciones es menor que 1.
+     */
+    public Diccionario<T, Double> pageRank(double amortiguamiento,
+                                           double tolerancia, int maximo) {
+        if (!(amortiguamiento >= 0 && amortiguamiento <= 1) ||
+            !(tolerancia > 0) || maximo < 1)
+            throw new IllegalArgumentException();
+        int n = congelada.getElementos();
+        int[] desplazamientos = congelada.desplazamientos;
+        int[] destinos = congelada.destinos;
+        double[] rango = new double[n];
+        double[] siguiente = new double[n];
+        /* El PageRank de cada vértice entre su grado, que es lo que reparte
+           a cada vecino. */
+        double[] aportacion = new double[n];
+        Arrays.fill(rango, 1.0 / n);
+        DoubleAdder cambio = new DoubleAdder();
+        ForkJoinPool alberca = new ForkJoinPool(hilos);
+        try {
+            for (iteraciones = 1; iteraciones <= maximo; iteraciones++) {
+                double aislados = 0;
+                for (int i = 0; i < n; i++) {
+                    int grado = desplazamientos[i+1] - desplazamientos[i];
+                    if (grado == 0) {
+                        aislados += rango[i];
+                        aportacion[i] = 0;
+                    } else {
+                        aportacion[i] = rango[i] / grado;
+                    }
+                }
+                double base = (1 - amortiguamiento) / n +
+                    amortiguamiento * aislados / n;
+                double[] r = rango, s = siguiente;
+                cambio.reset();
+                alberca.invoke(new Rango(0, n, PEDAZO, (inicio, fin) -> {
+                            double c = 0;
+                            for (int v = inicio; v < fin; v++) {
+                                double suma = 0;
+                                for (int j = desplazamientos[v];
+                                     j < desplazamientos[v+1]; j++)
+                                    suma += aportacion[destinos[j]];
+                                s[v] = base + amortiguamiento * suma;
+                                c += Math.abs(s[v] - r[v]);
+                            }
+                            cambio.add(c);
+                        }));
+                rango = s;
+                siguiente = r;
+                if (cambio.sum() < tolerancia)
+                    break;
+            }
+        } finally {
+            alberca.shutdown();
+        }
+        iteraciones = Math.min(iteraciones, maximo);
+        return diccionario(rango);
+    }
+
+    /**
+     * Regresa el número de iteraciones que hizo la última llamada a {@link
+     * #pageRank}.
+     * @return el número de iteraciones de la última llamada a {@link
+     *         #pageRank}, o 0 si no se ha llamado.
+     */
+    public int getIteraciones() {
+        return iteraciones;
+    }
+
+    /**
+     * Aproxima la cercanía de cada elemento: si <i>r</i> vértices
+     * (incluyéndolo) son alcanzables desde él y la suma de sus distancias en
+     * aristas a ellos es <i>D</i>, su cercanía es (<i>r</i>-1)/(<i>n</i>-1)
+     * por (<i>r</i>-1)/<i>D</i>, que en gráficas conexas es el inverso de la
+     * distancia promedio. <i>r</i> y <i>D</i> se estiman con BFS desde una
+     * muestra al azar de orígenes, escalando por <i>n</i> entre el tamaño de
+     * la muestra (Eppstein y Wang).
+     * @param muestras el número de orígenes; si es mayor o igual al número
+     *        de vértices, se usan todos y el resultado es exacto.
+     * @param semilla la semilla para escoger los orígenes.
+     * @return un diccionario con la cercanía de cada elemento.
+     * @throws IllegalArgumentException si el número de muestras es menor que
+     *         1.
+     */
+    public Diccionario<T, Double> cercania(int muestras, long semilla) {
+        int n = congelada.getElementos();
+        int[] origenes = muestra(muestras, semilla);
+        double escala = n / (double)origenes.length;
+        /* Cada hilo acumula en sus propios arreglos, que se suman al
+           final. */
+        Lista<long[]> sumas = new Lista<long[]>();
+        Lista<int[]> alcances = new Lista<int[]>();
+        ThreadLocal<long[]> suma = ThreadLocal.withInitial(() -> {
+                long[] a = new long[n];
+                synchronized (sumas) {
+                    sumas.agrega(a);
+                }
+                return a;
+            });
+        ThreadLocal<int[]> alcance = ThreadLocal.withInitial(() -> {
+                int[] a = new int[n];
+                synchronized (alcances) {
+                    alcances.agrega(a);
+                }
+                return a;
+            });
+        congelada.niveles(origenes, hilos, (s, niveles) -> {
+                long[] d = suma.get();
+                int[] r = alcance.get();
+                for (int v = 0; v < n; v++)
+                    if (niveles[v] > 0) {
+                        d[v] += niveles[v];
+                        r[v]++;
+                    }
+            });
+        double[] cercanias = new double[n];
+        for (int v = 0; v < n; v++) {
+            long d = 0;
+            long r = 0;
+            for (long[] a : sumas)
+                d += a[v];
+            for (int[] a : alcances)
+                r += a[v];
+            if (d > 0 && n > 1) {
+                double alcanzables = r * escala;
+                cercanias[v] = (alcanzables / (n - 1)) *
+                    (alcanzables / (d * escala));
+            }
+        }
+        return diccionario(cercanias);
+    }
+
+    /**
+     * Aproxima la intermediación de cada elemento: la suma, sobre todas las
+     * parejas de otros vértices, de la fracción de sus trayectorias más
+     * cortas que pasan por él. Se usa el algoritmo de Brandes desde una
+     * muestra al azar de orígenes, escalando por <i>n</i> entre el tamaño de
+     * la muestra; cada hilo reutiliza sus arreglos en todos los orígenes que
+     * le tocan y acumula en el suyo, y al final se suman.
+     * @param muestras el número de orígenes; si es mayor o igual al número
+     *        de vértices, se usan todos y el resultado es exacto.
+     * @param semilla la semilla para escoger los orígenes.
+     * @return un diccionario con la intermediación de cada elemento.
+     * @throws IllegalArgumentException si el número de muestras es menor que
+     *         1.
+     */
+    public Diccionario<T, Double> intermediacion(int muestras, long semilla) {
+        int n = congelada.getElementos();
+        int[] origenes = muestra(muestras, semilla);
+        Lista<Brandes> estados = new Lista<Brandes>();
+        ThreadLocal<Brandes> estado = ThreadLocal.withInitial(() -> {
+                Brandes b = new Brandes();
+                synchronized (estados) {
+                    estados.agrega(b);
+                }
+                return b;
+            });
+        ForkJoinPool alberca = new ForkJoinPool(hilos);
+        try {
+            /* Cada origen cuesta un recorrido completo, así que se reparten
+               de uno en uno. */
+            alberca.invoke(new Rango(0, origenes.length, 1, (inicio, fin) -> {
+                        for (int i = inicio; i < fin; i++)
+                            estado.get().acumula(origenes[i]);
+                    }));
+        } finally {
+            alberca.shutdown();
+        }
+        /* En una gráfica no dirigida cada pareja se cuenta dos veces. */
+        double escala = n / (double)origenes.length / 2;
+        double[] intermediaciones = new double[n];
+        for (Brandes b : estados)
+            for (int v = 0; v < n; v++)
+                intermediaciones[v] += b.acumulada[v] * escala;
+        return diccionario(intermediaciones);
+    }
+
+    /* Escoge al azar min(muestras, n) identificadores distintos, con un
+       Fisher-Yates parcial. */
+    private int[] muestra(int muestras, long semilla) {
+        if (muestras < 1)
+            throw new IllegalArgumentException("Número de muestras inválido");
+        int n = congelada.getElementos();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++)
+            ids[i] = i;
+        int k = Math.min(muestras, n);
+        if (k == n)
+            return ids;
+        Random random = new Random(semilla);
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int t = ids[i];
+            ids[i] = ids[j];
+            ids[j] = t;
+        }
+        return Arrays.copyOf(ids, k);
+    }
+
+    /* Regresa un diccionario con el valor de cada elemento, por
+       identificador. */
+    private Diccionario<T, Double> diccionario(double[] valores) {
+        Diccionario<T, Double> d = new Diccionario<T, Double>(valores.length);
+        for (int i = 0; i < valores.length; i++)
+            d.agrega(congelada.get(i), valores[i]);
+        return d;
+    }
+}
@@ -0,0 +1,52 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interfaz para convertir elementos en bytes y de regreso, para guardarlos
+ * en archivos. Para todo elemento <code>e</code> se debe cumplir que
+ * <code>decodifica(codifica(e))</code> sea igual a <code>e</code>.
+ */
+public interface CodificadorElementos<T> {
+
+    /** Codificador para enteros, con cuatro bytes cada uno. */
+    public static final CodificadorElementos<Integer> ENTEROS =
+        new CodificadorElementos<Integer>() {
+            @Override public byte[] codifica(Integer elemento) {
+                return ByteBuffer.allocate(4).putInt(elemento).array();
+            }
+            @Override public Integer decodifica(byte[] bytes) {
+                if (bytes.length != 4)
+                    throw new IllegalArgumentException("Entero inválido");
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+
+    /** Codificador para cadenas, en UTF-8. */
+    public static final CodificadorElementos<String> CADENAS =
+        new CodificadorElementos<String>() {
+            @Override public byte[] codifica(String elemento) {
+                return elemento.getBytes(StandardCharsets.UTF_8);
+            }
+            @Override public String decodifica(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+
+    /**
+     * Codifica un elemento.
+     * @param elemento el elemento a codificar.
+     * @return los bytes del elemento.
+     */
+    public byte[] codifica(T elemento);
+
+    /**
+     * Decodifica un elemento.
+     * @param bytes los bytes del elemento.
+     * @return el elemento.
+     * @throws IllegalArgumentException si los bytes no corresponden a un
+     *         elemento válido.
+     */
+    public T decodifica(byte[] bytes);
+}
@@ -0,0 +1,290 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para las componentes conexas de una {@link Grafica}, que se
+ * actualizan con cada cambio de su {@link BitacoraGrafica} sin recorrer toda
+ * la gráfica. Cada vértice sabe a qué componente pertenece, y cada componente
+ * su tamaño.
+ *
+ * Conectar dos componentes le pone a los vértices de la más chica la
+ * componente de la más grande, así que cada vértice cambia de componente
+ * <i>O</i>(log <i>n</i>) veces en total. Al desconectar dos vértices se
+ * hacen dos BFS a la vez, uno desde cada uno, avanzando un vértice en cada
+ * uno por turnos: si se encuentran siguen en la misma componente, y si uno
+ * se acaba primero, lo que recorrió es una componente nueva. El trabajo es
+ * proporcional a lo que recorrió el más chico de los dos, no a la gráfica.
+ *
+ * El estado de cada vértice se guarda en arreglos indexados por su
+ * identificador denso en la gráfica, como en {@link
+ * DistanciasIncrementales}.
+ */
+public class ComponentesIncrementales<T> implements ObservadorGrafica<T> {
+
+    /* Clase interna privada para componentes. */
+    private static class Componente {
+
+        /* El número de vértices de la componente. */
+        public int tamano;
+
+        /* Crea una componente con el tamaño recibido. */
+        public Componente(int tamano) {
+            this.tamano = tamano;
+        }
+    }
+
+    /* La gráfica. */
+    private Grafica<T> grafica;
+    /* El número de vértices. */
+    private int n;
+    /* El elemento de cada identificador. */
+    private T[] elementos;
+    /* La componente de cada vértice. */
+    private Componente[] componente;
+    /* La marca del último recorrido que visitó a cada vértice. */
+    private int[] marcas;
+    /* El número de componentes. */
+    private int componentes;
+    /* La última marca usada. */
+    private int marca;
+    /* Las colas de los recorridos, que se reutilizan. */
+    private int[] colaA, colaB;
+
+    /**
+     * Calcula las componentes conexas de la gráfica recibida, y las suscribe
+     * a su bitácora; si la bitácora no está activa, se activa con capacidad
+     * 0.
+     * @param grafica la gráfica.
+     */
+    public ComponentesIncrementales(Grafica<T> grafica) {
+        this.grafica = grafica;
+        colaA = new int[16];
+        colaB = new int[16];
+        inicializa();
+        grafica.activaBitacora(0).suscribe(this);
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
+    }
+
+    /**
+     * Regresa el número de componentes conexas.
+     * @return el número de componentes conexas.
+     */
+    public int getComponentes() {
+        return componentes;
+    }
+
+    /**
+     * Regresa el número de vértices de la componente del elemento recibido.
+     * @param elemento el elemento.
+     * @return el número de vértices de su componente.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getTamano(T elemento) {
+        return componente[id(elemento)].tamano;
+    }
+
+    /**
+     * Nos dice si dos elementos están en la misma componente.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b están en la misma componente,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no están en la gráfica.
+     */
+    public boolean conectados(T a, T b) {
+        return componente[id(a)] == componente[id(b)];
+    }
+
+    /**
+     * Actualiza las componentes con un cambio de la gráfica.
+     * @param cambio el cambio.
+     */
+    @Override public void cambio(CambioGrafica<T> cambio) {
+        switch (cambio.getTipo()) {
+        case AGREGA:
+            agrega(cambio.getA());
+            break;
+        case ELIMINA:
+            elimina(cambio.getA());
+            break;
+        case CONECTA:
+            une(id(cambio.getA()), id(cambio.getB()));
+            break;
+        case DESCONECTA:
+            separa(id(cambio.getA()), id(cambio.getB()));
+            break;
+        case LIMPIA:
+            inicializa();
+            break;
+        default:
+            break;
+        }
+    }
+
+    /* Calcula las componentes desde cero, con un BFS desde cada vértice que
+       no tenga componente. */
+    private void inicializa() {
+        n = grafica.getElementos();
+        int m = Math.max(16, n);
+        elementos = nuevoArreglo(m);
+        componente = new Componente[m];
+        marcas = new int[m];
+        componentes = 0;
+        for (int i = 0; i < n; i++)
+            elementos[i] = grafica.elementoDenso(i);
+        for (int i = 0; i < n; i++) {
+            if (componente[i] != null)
+                continue;
+            Componente c = new Componente(0);
+            componentes++;
+            componente[i] = c;
+            colaA[0] = i;
+            int cabeza = 0, rabo = 1;
+            while (cabeza < rabo) {
+                int x = colaA[cabeza++];
+                for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                    int y = grafica.vecinoDenso(x, k);
+                    if (componente[y] == null) {
+                        componente[y] = c;
+                        colaA = mete(colaA, rabo++, y);
+                    }
+                }
+            }
+            c.tamano = rabo;
+        }
+    }
+
+    /* Agrega un vértice nuevo, que la gráfica pone al final, en su propia
+       componente. */
+    private void agrega(T elemento) {
+        if (n == componente.length) {
+            T[] viejos = elementos;
+            elementos = nuevoArreglo(n * 2);
+            System.arraycopy(viejos, 0, elementos, 0, n);
+            Componente[] viejas = componente;
+            componente = new Componente[n * 2];
+            System.arraycopy(viejas, 0, componente, 0, n);
+            int[] m = new int[n * 2];
+            System.arraycopy(marcas, 0, m, 0, n);
+            marcas = m;
+        }
+        elementos[n] = elemento;
+        componente[n] = new Componente(1);
+        marcas[n] = 0;
+        n++;
+        componentes++;
+    }
+
+    /* Quita un vértice eliminado, que ya estaba aislado y por lo tanto era
+       su propia componente: como en la gráfica, el último vértice ocupa su
+       lugar. */
+    private void elimina(T elemento) {
+        int u = --n;
+        int i = elementos[u].equals(elemento) ? u :
+            grafica.idDenso(elementos[u]);
+        elementos[i] = elementos[u];
+        componente[i] = componente[u];
+        marcas[i] = marcas[u];
+        elementos[u] = null;
+        componente[u] = null;
+        componentes--;
+    }
+
+    /* Une las componentes de a y b, si son distintas: los vértices de la más
+       chica pasan a la más grande. */
+    private void une(int a, int b) {
+        if (componente[a] == componente[b])
+            return;
+        if (componente[a].tamano > componente[b].tamano) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        Componente chica = componente[a], grande = componente[b];
+        componente[a] = grande;
+        colaA[0] = a;
+        int cabeza = 0, rabo = 1;
+        while (cabeza < rabo) {
+            int x = colaA[cabeza++];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (componente[y] == chica) {
+                    componente[y] = grande;
+                    colaA = mete(colaA, rabo++, y);
+                }
+            }
+        }
+        grande.tamano += chica.tamano;
+        componentes--;
+    }
+
+    /* Revisa si a y b, que estaban en la misma componente, siguen conectados
+       después de quitar su arista, con dos BFS por turnos. */
+    private void separa(int a, int b) {
+        int marcaA = ++marca, marcaB = ++marca;
+        marcas[a] = marcaA;
+        marcas[b] = marcaB;
+        colaA[0] = a;
+        colaB[0] = b;
+        int cabezaA = 0, raboA = 1, cabezaB = 0, raboB = 1;
+        while (cabezaA < raboA && cabezaB < raboB) {
+            int x = colaA[cabezaA++];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (marcas[y] == marcaB)
+                    return;
+                if (marcas[y] != marcaA) {
+                    marcas[y] = marcaA;
+                    colaA = mete(colaA, raboA++, y);
+                }
+            }
+            x = colaB[cabezaB++];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (marcas[y] == marcaA)
+                    return;
+                if (marcas[y] != marcaB) {
+                    marcas[y] = marcaB;
+                    colaB = mete(colaB, raboB++, y);
+                }
+            }
+        }
+        /* Se acabó un recorrido sin encontrar al otro: lo que recorrió es
+           una componente nueva. */
+        int[] cola = cabezaA == raboA ? colaA : colaB;
+        int c = cabezaA == raboA ? raboA : raboB;
+        Componente nueva = new Componente(c);
+        componente[a].tamano -= c;
+        for (int i = 0; i < c; i++)
+            componente[cola[i]] = nueva;
+        componentes++;
+    }
+
+    /* Regresa el identificador denso del elemento, o lanza una excepción si
+       no está. */
+    private int id(T elemento) {
+        int i = elemento == null ? -1 : grafica.idDenso(elemento);
+        if (i == -1)
+            throw new NoSuchElementException();
+        return i;
+    }
+
+    /* Pone el identificador en la posición i de la cola, que crece si hace
+       falta, y regresa la cola. */
+    private static int[] mete(int[] cola, int i, int x) {
+        if (i == cola.length) {
+            int[] vieja = cola;
+            cola = new int[i * 2];
+            System.arraycopy(vieja, 0, cola, 0, i);
+        }
+        cola[i] = x;
+        return cola;
+    }
+}
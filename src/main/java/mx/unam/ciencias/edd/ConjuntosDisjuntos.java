@@ -0,0 +1,136 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para conjuntos disjuntos (<i>union-find</i>) sobre los enteros 0,
+ * 1, ..., <i>n</i>-1. Cada conjunto se representa con un árbol guardado en
+ * un arreglo de padres; las uniones cuelgan el árbol de menor rango del de
+ * mayor rango y las búsquedas comprimen las trayectorias, así que cualquier
+ * secuencia de <i>m</i> operaciones toma tiempo <i>O</i>(<i>m</i>
+ * α(<i>n</i>)).
+ */
+public class ConjuntosDisjuntos {
+
+    /* El padre de cada elemento; las raíces son su propio padre. */
+    private int[] padres;
+    /* El rango de cada raíz: una cota superior de la altura de su árbol. */
+    private byte[] rangos;
+    /* El número de elementos. */
+    private int elementos;
+    /* El número de conjuntos. */
+    private int conjuntos;
+
+    /**
+     * Construye una estructura sin elementos.
+     */
+    public ConjuntosDisjuntos() {
+        this(0);
+    }
+
+    /**
+     * Construye una estructura con los elementos 0, ..., <i>n</i>-1, cada uno
+     * en su propio conjunto.
+     * @param n el número de elementos.
+     * @throws IllegalArgumentException si n es negativo.
+     */
+    public ConjuntosDisjuntos(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        padres = new int[Math.max(n, 16)];
+        rangos = new byte[padres.length];
+        for (int i = 0; i < n; i++)
+            padres[i] = i;
+        elementos = conjuntos = n;
+    }
+
+    /**
+     * Agrega un nuevo elemento, en su propio conjunto.
+     * @return el nuevo elemento, que es igual al número de elementos que había
+     *         antes de agregarlo.
+     */
+    public int agrega() {
+        if (elementos == padres.length) {
+            int[] viejos = padres;
+            padres = new int[elementos * 2];
+            System.arraycopy(viejos, 0, padres, 0, elementos);
+            byte[] viejosRangos = rangos;
+            rangos = new byte[elementos * 2];
+            System.arraycopy(viejosRangos, 0, rangos, 0, elementos);
+        }
+        padres[elementos] = elementos;
+        conjuntos++;
+        return elementos++;
+    }
+
+    /**
+     * Regresa el representante del conjunto del elemento recibido. Dos
+     * elementos están en el mismo conjunto si y sólo si tienen el mismo
+     * representante.
+     * @param x el elemento.
+     * @return el representante del conjunto del elemento.
+     * @throws ExcepcionIndiceInvalido si el elemento es inválido.
+     */
+    public int encuentra(int x) {
+        if (x < 0 || x >= elementos)
+            throw new ExcepcionIndiceInvalido("Elemento inválido");
+        /* Partición a la mitad: cada elemento en el camino pasa a apuntar a
+           su abuelo, sin recursión. */
+        while (padres[x] != x) {
+            padres[x] = padres[padres[x]];
+            x = padres[x];
+        }
+        return x;
+    }
+
+    /**
+     * Une los conjuntos de los elementos recibidos.
+     * @param x el primer elemento.
+     * @param y el segundo elemento.
+     * @return <code>true</code> si los elementos estaban en conjuntos
+     *         distintos, <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los elementos es inválido.
+     */
+    public boolean une(int x, int y) {
+        x = encuentra(x);
+        y = encuentra(y);
+        if (x == y)
+            return false;
+        if (rangos[x] < rangos[y]) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        padres[y] = x;
+        if (rangos[x] == rangos[y])
+            rangos[x]++;
+        conjuntos--;
+        return true;
+    }
+
+    /**
+     * Nos dice si dos elementos están en el mismo conjunto.
+     * @param x el primer elemento.
+     * @param y el segundo elemento.
+     * @return <code>true</code> si los elementos están en el mismo conjunto,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los elementos es inválido.
+     */
+    public boolean mismoConjunto(int x, int y) {
+        return encuentra(x) == encuentra(y);
+    }
+
+    /**
+     * Regresa el número de elementos.
+     * @return el número de elementos.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de conjuntos.
+     * @return el número de conjuntos.
+     */
+    public int getConjuntos() {
+        return conjuntos;
+    }
+}
@@ -0,0 +1,248 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para diccionarios (<em>hash tables</em>). Un diccionario asocia llaves
+ * con valores; las colisiones se resuelven con listas ligadas (encadenamiento)
+ * en cada entrada del arreglo, y el arreglo crece al doble cuando la carga
+ * rebasa {@link #MAXIMA_CARGA}. Ni las llaves ni los valores pueden ser
+ * <code>null</code>.
+ */
+public class Diccionario<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para entradas. */
+    private class Entrada {
+
+        /* La llave. */
+        public K llave;
+        /* El valor. */
+        public V valor;
+        /* La dispersión de la llave. */
+        public int dispersion;
+        /* La siguiente entrada en la misma cubeta. */
+        public Entrada siguiente;
+
+        /* Construye una nueva entrada. */
+        public Entrada(K llave, V valor, int dispersion, Entrada siguiente) {
+            this.llave = llave;
+            this.valor = valor;
+            this.dispersion = dispersion;
+            this.siguiente = siguiente;
+        }
+    }
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<V> {
+
+        /* La cubeta actual. */
+        private int indice;
+        /* La siguiente entrada. */
+        private Entrada siguiente;
+
+        /* Construye un nuevo iterador, colocándose en la primera entrada. */
+        public Iterador() {
+            indice = -1;
+            avanza();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (siguiente == null)
+                throw new NoSuchElementException();
+            V valor = siguiente.valor;
+            siguiente = siguiente.siguiente;
+            if (siguiente == null)
+                avanza();
+            return valor;
+        }
+
+        /* Avanza a la siguiente cubeta no vacía. */
+        private void avanza() {
+            while (siguiente == null && ++indice < entradas.length)
+                siguiente = entradas[indice];
+        }
+    }
+
+    /** Máxima carga permitida antes de crecer el arreglo. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima. */
+    private static final int MINIMA_CAPACIDAD = 16;
+
+    /* Las cubetas. */
+    private Entrada[] entradas;
+    /* El número de elementos. */
+    private int elementos;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Entrada[] nuevoArreglo(int n) {
+        return (Entrada[])Array.newInstance(Entrada.class, n);
+    }
+
+    /**
+     * Construye un diccionario con la capacidad mínima.
+     */
+    public Diccionario() {
+        this(MINIMA_CAPACIDAD);
+    }
+
+    /**
+     * Construye un diccionario con espacio para el número de elementos
+     * recibido sin tener que crecer.
+     * @param capacidad el número de elementos que esperamos guardar.
+     */
+    public Diccionario(int capacidad) {
+        int n = MINIMA_CAPACIDAD;
+        while (n < capacidad / MAXIMA_CARGA && n < (1 << 30))
+            n <<= 1;
+        entradas = nuevoArreglo(n);
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException();
+        int d = dispersa(llave);
+        int i = d & (entradas.length - 1);
+        for (Entrada e = entradas[i]; e != null; e = e.siguiente)
+            if (e.dispersion == d && llave.equals(e.llave)) {
+                e.valor = valor;
+                return;
+            }
+        entradas[i] = new Entrada(llave, valor, d, entradas[i]);
+        if (++elementos > entradas.length * MAXIMA_CARGA)
+            crece();
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave, o <code>null</code> si la
+     *         llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        Entrada e = busca(llave);
+        return e == null ? null : e.valor;
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return busca(llave) != null;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new NoSuchElementException();
+        int d = dispersa(llave);
+        int i = d & (entradas.length - 1);
+        Entrada anterior = null;
+        for (Entrada e = entradas[i]; e != null; e = e.siguiente) {
+            if (e.dispersion == d && llave.equals(e.llave)) {
+                if (anterior == null)
+                    entradas[i] = e.siguiente;
+                else
+                    anterior.siguiente = e.siguiente;
+                elementos--;
+                return;
+            }
+            anterior = e;
+        }
+        throw new NoSuchElementException();
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Borra todos los elementos del diccionario.
+     */
+    public void limpia() {
+        entradas = nuevoArreglo(MINIMA_CAPACIDAD);
+        elementos = 0;
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+
+    /* Mezcla los bits altos de la dispersión de la llave con los bajos, porque
+       sólo usamos los bajos para escoger la cubeta. */
+    private static int dispersa(Object llave) {
+        int h = llave.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /* Regresa la entrada con la llave recibida, o null si no existe. */
+    private Entrada busca(K llave) {
+        if (llave == null)
+            return null;
+        int d = dispersa(llave);
+        for (Entrada e = entradas[d & (entradas.length - 1)]; e != null;
+             e = e.siguiente)
+            if (e.dispersion == d && llave.equals(e.llave))
+                return e;
+        return null;
+    }
+
+    /* Duplica el número de cubetas y redistribuye las entradas. */
+    private void crece() {
+        Entrada[] viejas = entradas;
+        entradas = nuevoArreglo(viejas.length << 1);
+        int mascara = entradas.length - 1;
+        for (Entrada e: viejas)
+            while (e != null) {
+                Entrada siguiente = e.siguiente;
+                int i = e.dispersion & mascara;
+                e.siguiente = entradas[i];
+                entradas[i] = e;
+                e = siguiente;
+            }
+    }
+}
@@ -0,0 +1,161 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para diccionarios de enteros a enteros no negativos. A diferencia de
+ * {@link Diccionario}, las llaves y los valores se guardan directamente en
+ * arreglos de enteros, sin envolverlos en objetos; las colisiones se
+ * resuelven con direccionamiento abierto y sondeo lineal, y los arreglos
+ * crecen al doble cuando la carga rebasa {@link #MAXIMA_CARGA}.
+ */
+class DiccionarioEnteros {
+
+    /** Máxima carga permitida antes de crecer los arreglos. */
+    public static final double MAXIMA_CARGA = 0.5;
+
+    /* Capacidad mínima. */
+    private static final int MINIMA_CAPACIDAD = 16;
+
+    /* Las llaves. */
+    private int[] llaves;
+    /* Los valores más uno; un cero indica una entrada vacía. */
+    private int[] valores;
+    /* El número de elementos. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario con la capacidad mínima.
+     */
+    public DiccionarioEnteros() {
+        this(MINIMA_CAPACIDAD);
+    }
+
+    /**
+     * Construye un diccionario con espacio para el número de elementos
+     * recibido sin tener que crecer.
+     * @param capacidad el número de elementos que esperamos guardar.
+     */
+    public DiccionarioEnteros(int capacidad) {
+        int n = MINIMA_CAPACIDAD;
+        while (n < capacidad / MAXIMA_CARGA && n < (1 << 30))
+            n <<= 1;
+        llaves = new int[n];
+        valores = new int[n];
+    }
+
+    /**
+     * Agrega un valor al diccionario con la llave proporcionada; si la llave
+     * ya estaba, su valor se reemplaza.
+     * @param llave la llave.
+     * @param valor el valor.
+     * @throws IllegalArgumentException si el valor es negativo.
+     */
+    public void agrega(int llave, int valor) {
+        if (valor < 0)
+            throw new IllegalArgumentException();
+        int i = ranura(llave);
+        if (valores[i] == 0 && ++elementos > llaves.length * MAXIMA_CARGA) {
+            crece();
+            i = ranura(llave);
+        }
+        llaves[i] = llave;
+        valores[i] = valor + 1;
+    }
+
+    /**
+     * Regresa el valor asociado a la llave proporcionada.
+     * @param llave la llave.
+     * @return el valor asociado a la llave, o -1 si la llave no está en el
+     *         diccionario.
+     */
+    public int get(int llave) {
+        return valores[ranura(llave)] - 1;
+    }
+
+    /**
+     * Nos dice si una llave está en el diccionario.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int llave) {
+        return get(llave) != -1;
+    }
+
+    /**
+     * Elimina la llave recibida del diccionario. Las entradas que siguen en
+     * el mismo grupo de ranuras ocupadas se recorren hacia atrás, así que no
+     * quedan lápidas.
+     * @param llave la llave a eliminar.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public void elimina(int llave) {
+        int i = ranura(llave);
+        if (valores[i] == 0)
+            throw new NoSuchElementException();
+        valores[i] = 0;
+        elementos--;
+        int mascara = llaves.length - 1;
+        for (int j = (i + 1) & mascara; valores[j] != 0;
+             j = (j + 1) & mascara) {
+            int k = dispersa(llaves[j]) & mascara;
+            /* La entrada en j se queda si su ranura ideal k está
+               (cíclicamente) en (i, j]. */
+            boolean seQueda = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (!seQueda) {
+                llaves[i] = llaves[j];
+                valores[i] = valores[j];
+                valores[j] = 0;
+                i = j;
+            }
+        }
+    }
+
+    /**
+     * Elimina todas las entradas del diccionario.
+     */
+    public void limpia() {
+        llaves = new int[MINIMA_CAPACIDAD];
+        valores = new int[MINIMA_CAPACIDAD];
+        elementos = 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el diccionario.
+     * @return el número de elementos en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /* Regresa la ranura de la llave, o la ranura vacía donde iría. */
+    private int ranura(int llave) {
+        int mascara = llaves.length - 1;
+        int i = dispersa(llave) & mascara;
+        while (valores[i] != 0 && llaves[i] != llave)
+            i = (i + 1) & mascara;
+        return i;
+    }
+
+    /* Dispersión multiplicativa; revuelve los bits para que llaves
+       consecutivas no queden en ranuras consecutivas. */
+    private static int dispersa(int llave) {
+        int h = llave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Duplica los arreglos y vuelve a acomodar las entradas. */
+    private void crece() {
+        int[] viejasLlaves = llaves;
+        int[] viejosValores = valores;
+        llaves = new int[viejasLlaves.length * 2];
+        valores = new int[viejosValores.length * 2];
+        for (int i = 0; i < viejasLlaves.length; i++)
+            if (viejosValores[i] != 0) {
+                int j = ranura(viejasLlaves[i]);
+                llaves[j] = viejasLlaves[i];
+                valores[j] = viejosValores[i];
+            }
+    }
+}
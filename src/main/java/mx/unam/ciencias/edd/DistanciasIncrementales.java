@@ -0,0 +1,364 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para las distancias en aristas desde un origen a todos los vértices
+ * de una {@link Grafica}, que se reparan con cada cambio de su {@link
+ * BitacoraGrafica} sin repetir el BFS completo.
+ *
+ * Cada vértice guarda su distancia y su <i>soporte</i>: cuántos de sus
+ * vecinos están a un paso menos del origen. Al conectar dos vértices, si uno
+ * queda más cerca, un BFS desde él baja las distancias sólo de los vértices
+ * que mejoran. Al desconectar, si el más lejano se queda sin soporte, se
+ * juntan los vértices que se quedan sin soporte en cadena (los únicos cuya
+ * distancia puede cambiar), se les calcula una distancia tentativa desde sus
+ * vecinos no afectados, y se fijan en orden de distancia mezclando esas
+ * tentativas ordenadas con una cola, como en Dijkstra con pesos 1. En ambos
+ * casos el trabajo es proporcional a los vértices cuya distancia cambia y a
+ * sus vecinos.
+ *
+ * El estado de cada vértice se guarda en arreglos indexados por su
+ * identificador denso en la gráfica, que se mueven igual que los de la
+ * gráfica cuando se elimina un vértice, así que recorrer una arista no cuesta
+ * ninguna búsqueda en un diccionario.
+ */
+public class DistanciasIncrementales<T> implements ObservadorGrafica<T> {
+
+    /* La gráfica. */
+    private Grafica<T> grafica;
+    /* El origen. */
+    private T origen;
+    /* El número de vértices. */
+    private int n;
+    /* El elemento de cada identificador. */
+    private T[] elementos;
+    /* La distancia al origen de cada vértice; -1 si es inalcanzable. */
+    private int[] distancia;
+    /* Cuántos vecinos de cada vértice están a su distancia - 1. */
+    private int[] soporte;
+    /* La marca de la última reparación que tocó a cada vértice. */
+    private int[] marcas;
+    /* La distancia de cada vértice antes de la reparación. */
+    private int[] anterior;
+    /* La distancia tentativa de cada vértice durante la reparación. */
+    private int[] tentativa;
+    /* La última marca usada. */
+    private int marca;
+    /* Los vértices que cambian en una reparación, y la cola de la
+       reparación; se reutilizan. */
+    private int[] cambiados, cola;
+    /* Las tentativas de los cambiados empacadas con su identificador, como
+       (tentativa << 32) | id, para ordenarlas; se reutilizan. */
+    private long[] ordenados;
+
+    /**
+     * Calcula las distancias desde el origen a todos los vértices de la
+     * gráfica recibida, y las suscribe a su bitácora; si la bitácora no está
+     * activa, se activa con capacidad 0. Si el origen se elimina de la
+     * gráfica, todos los vértices quedan inalcanzables hasta que se vuelva a
+     * agregar.
+     * @param grafica la gráfica.
+     * @param origen el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public DistanciasIncrementales(Grafica<T> grafica, T origen) {
+        if (!grafica.contiene(origen))
+            throw new NoSuchElementException();
+        this.grafica = grafica;
+        this.origen = origen;
+        cambiados = new int[16];
+        cola = new int[16];
+        ordenados = new long[16];
+        inicializa();
+        grafica.activaBitacora(0).suscribe(this);
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
+    }
+
+    /**
+     * Regresa el origen.
+     * @return el origen.
+     */
+    public T getOrigen() {
+        return origen;
+    }
+
+    /**
+     * Regresa la distancia en aristas del origen al elemento recibido.
+     * @param elemento el elemento.
+     * @return la distancia en aristas del origen al elemento, o -1 si es
+     *         inalcanzable.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getDistancia(T elemento) {
+        return distancia[id(elemento)];
+    }
+
+    /**
+     * Repara las distancias con un cambio de la gráfica.
+     * @param cambio el cambio.
+     */
+    @Override public void cambio(CambioGrafica<T> cambio) {
+        switch (cambio.getTipo()) {
+        case AGREGA:
+            agrega(cambio.getA());
+            break;
+        case ELIMINA:
+            elimina(cambio.getA());
+            break;
+        case CONECTA:
+            conecta(id(cambio.getA()), id(cambio.getB()));
+            break;
+        case DESCONECTA:
+            desconecta(id(cambio.getA()), id(cambio.getB()));
+            break;
+        case LIMPIA:
+            inicializa();
+            break;
+        default:
+            break;
+        }
+    }
+
+    /* Calcula las distancias y los soportes desde cero con un BFS. */
+    private void inicializa() {
+        n = grafica.getElementos();
+        int m = Math.max(16, n);
+        elementos = nuevoArreglo(m);
+        distancia = new int[m];
+        soporte = new int[m];
+        marcas = new int[m];
+        anterior = new int[m];
+        tentativa = new int[m];
+        for (int i = 0; i < n; i++) {
+            elementos[i] = grafica.elementoDenso(i);
+            distancia[i] = -1;
+        }
+        int o = grafica.idDenso(origen);
+        if (o == -1)
+            return;
+        distancia[o] = 0;
+        int rabo = 0;
+        cola = mete(cola, rabo++, o);
+        for (int i = 0; i < rabo; i++) {
+            int x = cola[i];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (distancia[y] == -1) {
+                    distancia[y] = distancia[x] + 1;
+                    cola = mete(cola, rabo++, y);
+                }
+                if (distancia[y] == distancia[x] + 1)
+                    soporte[y]++;
+            }
+        }
+    }
+
+    /* Agrega el estado de un vértice nuevo, que la gráfica pone al final. */
+    private void agrega(T elemento) {
+        if (n == distancia.length) {
+            T[] viejos = elementos;
+            elementos = nuevoArreglo(n * 2);
+            System.arraycopy(viejos, 0, elementos, 0, n);
+            distancia = crece(distancia);
+            soporte = crece(soporte);
+            marcas = crece(marcas);
+            anterior = crece(anterior);
+            tentativa = crece(tentativa);
+        }
+        elementos[n] = elemento;
+        distancia[n] = elemento.equals(origen) ? 0 : -1;
+        soporte[n] = 0;
+        marcas[n] = 0;
+        n++;
+    }
+
+    /* Quita el estado de un vértice eliminado, que ya estaba aislado: como en
+       la gráfica, el último vértice ocupa su lugar. */
+    private void elimina(T elemento) {
+        int u = --n;
+        int i = elementos[u].equals(elemento) ? u :
+            grafica.idDenso(elementos[u]);
+        elementos[i] = elementos[u];
+        distancia[i] = distancia[u];
+        soporte[i] = soporte[u];
+        marcas[i] = marcas[u];
+        elementos[u] = null;
+    }
+
+    /* Repara las distancias después de conectar a con b. */
+    private void conecta(int a, int b) {
+        if (lejania(a) > lejania(b)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        if (distancia[a] == -1)
+            return;
+        int d = distancia[a] + 1;
+        if (distancia[b] == d)
+            soporte[b]++;
+        if (distancia[b] != -1 && distancia[b] <= d)
+            return;
+        /* b mejora: un BFS desde él baja a los que mejoran. Como las
+           distancias nuevas salen en orden, cada vértice cambia una vez. */
+        int m = ++marca;
+        anterior[b] = distancia[b];
+        distancia[b] = d;
+        marcas[b] = m;
+        int c = 0;
+        cambiados = mete(cambiados, c++, b);
+        for (int i = 0; i < c; i++) {
+            int x = cambiados[i];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (marcas[y] != m && lejania(y) > distancia[x] + 1) {
+                    anterior[y] = distancia[y];
+                    distancia[y] = distancia[x] + 1;
+                    marcas[y] = m;
+                    cambiados = mete(cambiados, c++, y);
+                }
+            }
+        }
+        soportes(c, m, true);
+    }
+
+    /* Repara las distancias después de desconectar a de b. */
+    private void desconecta(int a, int b) {
+        if (lejania(a) > lejania(b)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        if (distancia[a] == -1 || distancia[b] != distancia[a] + 1 ||
+            --soporte[b] > 0)
+            return;
+        /* Se juntan los vértices que se quedan sin soporte. */
+        int m = ++marca;
+        marcas[b] = m;
+        int c = 0;
+        cambiados = mete(cambiados, c++, b);
+        for (int i = 0; i < c; i++) {
+            int x = cambiados[i];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (marcas[y] != m && distancia[y] == distancia[x] + 1 &&
+                    --soporte[y] == 0) {
+                    marcas[y] = m;
+                    cambiados = mete(cambiados, c++, y);
+                }
+            }
+        }
+        /* Su distancia tentativa sale de sus vecinos no afectados. */
+        if (ordenados.length < c)
+            ordenados = new long[Math.max(c, ordenados.length * 2)];
+        for (int i = 0; i < c; i++) {
+            int x = cambiados[i];
+            int t = Integer.MAX_VALUE;
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (marcas[y] != m && distancia[y] != -1)
+                    t = Math.min(t, distancia[y] + 1);
+            }
+            tentativa[x] = t;
+            ordenados[i] = ((long)t << 32) | x;
+        }
+        for (int i = 0; i < c; i++) {
+            int x = cambiados[i];
+            anterior[x] = distancia[x];
+            distancia[x] = -1;
+        }
+        Arrays.sort(ordenados, 0, c);
+        /* Se fijan en orden de distancia: el siguiente es el menor entre el
+           primero de los ordenados y el primero de la cola, cuyas tentativas
+           nunca bajan. La tentativa de un ordenado sólo puede bajar si entra
+           a la cola, que lo fija antes. */
+        int i = 0, cabeza = 0, rabo = 0;
+        while (true) {
+            while (i < c && distancia[(int)ordenados[i]] != -1)
+                i++;
+            while (cabeza < rabo && distancia[cola[cabeza]] != -1)
+                cabeza++;
+            int x;
+            if (cabeza < rabo &&
+                (i == c || tentativa[cola[cabeza]] <=
+                 tentativa[(int)ordenados[i]]))
+                x = cola[cabeza++];
+            else if (i < c &&
+                     tentativa[(int)ordenados[i]] != Integer.MAX_VALUE)
+                x = (int)ordenados[i++];
+            else
+                break;
+            distancia[x] = tentativa[x];
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (marcas[y] == m && distancia[y] == -1 &&
+                    distancia[x] + 1 < tentativa[y]) {
+                    tentativa[y] = distancia[x] + 1;
+                    cola = mete(cola, rabo++, y);
+                }
+            }
+        }
+        soportes(c, m, false);
+    }
+
+    /* Recalcula el soporte de los c vértices cambiados y corrige el de sus
+       vecinos no cambiados: se les suma si ahora tienen a un vértice cambiado
+       a un paso menos, y se les resta si lo tenían antes y resta es
+       verdadero; al desconectar eso ya se hizo al juntar los afectados. */
+    private void soportes(int c, int m, boolean resta) {
+        for (int i = 0; i < c; i++) {
+            int x = cambiados[i];
+            soporte[x] = 0;
+            for (int k = 0, g = grafica.gradoDenso(x); k < g; k++) {
+                int y = grafica.vecinoDenso(x, k);
+                if (distancia[x] > 0 && distancia[y] == distancia[x] - 1)
+                    soporte[x]++;
+                if (marcas[y] == m || distancia[y] == -1)
+                    continue;
+                if (resta && anterior[x] != -1 &&
+                    distancia[y] == anterior[x] + 1)
+                    soporte[y]--;
+                if (distancia[x] != -1 && distancia[y] == distancia[x] + 1)
+                    soporte[y]++;
+            }
+        }
+    }
+
+    /* Regresa la distancia del vértice, con los inalcanzables al final. */
+    private int lejania(int x) {
+        return distancia[x] == -1 ? Integer.MAX_VALUE : distancia[x];
+    }
+
+    /* Regresa el identificador denso del elemento, o lanza una excepción si
+       no está. */
+    private int id(T elemento) {
+        int i = elemento == null ? -1 : grafica.idDenso(elemento);
+        if (i == -1)
+            throw new NoSuchElementException();
+        return i;
+    }
+
+    /* Pone el identificador en la posición i del arreglo, que crece si hace
+       falta, y regresa el arreglo. */
+    private static int[] mete(int[] a, int i, int x) {
+        if (i == a.length)
+            a = crece(a);
+        a[i] = x;
+        return a;
+    }
+
+    /* Regresa una copia del arreglo del doble de tamaño. */
+    private static int[] crece(int[] a) {
+        int[] b = new int[a.length * 2];
+        System.arraycopy(a, 0, b, 0, a.length);
+        return b;
+    }
+}
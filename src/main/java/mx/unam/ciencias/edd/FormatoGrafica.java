@@ -0,0 +1,435 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Clase para guardar gráficas en archivos binarios y recuperarlas. La
+ * escritura y la lectura van por bloques de {@link #BLOQUE} bytes sobre un
+ * {@link FileChannel}, así que nunca se tiene el archivo completo en
+ * memoria.
+ *
+ * El formato (versión {@link #VERSION}) es, con los enteros de tamaño fijo
+ * en orden <i>big-endian</i> y los demás como <i>varints</i> (siete bits
+ * por byte, el bit alto indica que sigue otro byte):
+ *
+ * <ol>
+ * <li>El encabezado: los bytes <code>EDDG</code>, un byte con la versión,
+ *     un byte de banderas (bit 0: hay elementos; bit 1: hay pesos), y el
+ *     número de vértices <i>n</i> y de aristas <i>m</i>.</li>
+ * <li>La tabla de vértices, en el orden en que fueron agregados: por cada
+ *     uno su grado y, si hay elementos, el número de bytes del elemento
+ *     codificado seguido de ellos.</li>
+ * <li>Las adyacencias: por cada vértice <i>i</i>, el número de vecinos
+ *     <i>j</i> &gt; <i>i</i> y, en orden creciente, la diferencia de cada
+ *     uno con el anterior (el primero con <i>i</i>); si hay pesos, cada
+ *     diferencia va seguida del peso como <code>double</code>. Cada arista
+ *     aparece una sola vez.</li>
+ * <li>El CRC-32 de todo lo anterior, en cuatro bytes.</li>
+ * </ol>
+ *
+ * Los pesos sólo se guardan si alguno es distinto de 1.
+ */
+public class FormatoGrafica {
+
+    /* Clase interna privada para escribir por bloques. */
+    private static class Salida {
+
+        /* El canal. */
+        private FileChannel canal;
+        /* El bloque. */
+        private ByteBuffer bloque;
+        /* El CRC de lo escrito. */
+        private CRC32 crc;
+
+        /* Construye una salida sobre el canal. */
+        public Salida(FileChannel canal) {
+            this.canal = canal;
+            bloque = ByteBuffer.allocateDirect(BLOQUE);
+            crc = new CRC32();
+        }
+
+        /* Se asegura de que quepan k bytes en el bloque. */
+        private void asegura(int k) throws IOException {
+            if (bloque.remaining() < k)
+                vacia();
+        }
+
+        /* Escribe el bloque en el canal. */
+        private void vacia() throws IOException {
+            bloque.flip();
+            ByteBuffer copia = bloque.duplicate();
+            crc.update(copia);
+            while (bloque.hasRemaining())
+                canal.write(bloque);
+            bloque.clear();
+        }
+
+        /* Escribe un byte. */
+        public void escribeByte(int b) throws IOException {
+            asegura(1);
+            bloque.put((byte)b);
+        }
+
+        /* Escribe un entero no negativo como varint. */
+        public void escribeVarint(int v) throws IOException {
+            asegura(5);
+            while ((v & ~0x7F) != 0) {
+                bloque.put((byte)((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            bloque.put((byte)v);
+        }
+
+        /* Escribe un doble. */
+        public void escribeDoble(double d) throws IOException {
+            asegura(8);
+            bloque.putDouble(d);
+        }
+
+        /* Escribe un arreglo de bytes, por pedazos si no cabe en el
+           bloque. */
+        public void escribeBytes(byte[] bytes) throws IOException {
+            int i = 0;
+            while (i < bytes.length) {
+                if (!bloque.hasRemaining())
+                    vacia();
+                int k = Math.min(bloque.remaining(), bytes.length - i);
+                bloque.put(bytes, i, k);
+                i += k;
+            }
+        }
+
+        /* Vacía el bloque y escribe el CRC de todo lo escrito. */
+        public void termina() throws IOException {
+            vacia();
+            bloque.putInt((int)crc.getValue());
+            bloque.flip();
+            while (bloque.hasRemaining())
+                canal.write(bloque);
+        }
+    }
+
+    /* Clase interna privada para leer por bloques. */
+    private static class Entrada {
+
+        /* El canal. */
+        private FileChannel canal;
+        /* El bloque. */
+        private ByteBuffer bloque;
+        /* El CRC de lo leído. */
+        private CRC32 crc;
+        /* Hasta dónde del bloque se ha calculado el CRC. */
+        private int marca;
+
+        /* Construye una entrada sobre el canal. */
+        public Entrada(FileChannel canal) {
+            this.canal = canal;
+            bloque = ByteBuffer.allocateDirect(BLOQUE);
+            bloque.flip();
+            crc = new CRC32();
+        }
+
+        /* Agrega al CRC los bytes del bloque que ya se leyeron. */
+        private void digiere() {
+            ByteBuffer leidos = bloque.duplicate();
+            leidos.limit(bloque.position());
+            leidos.position(marca);
+            crc.update(leidos);
+            marca = bloque.position();
+        }
+
+        /* Se asegura de que haya k bytes por leer en el bloque. */
+        private void asegura(int k) throws IOException {
+            if (bloque.remaining() >= k)
+                return;
+            digiere();
+            bloque.compact();
+            while (bloque.position() < k)
+                if (canal.read(bloque) == -1)
+                    throw new IOException("Archivo truncado");
+            bloque.flip();
+            marca = 0;
+        }
+
+        /* Lee un byte. */
+        public int leeByte() throws IOException {
+            asegura(1);
+            return bloque.get() & 0xFF;
+        }
+
+        /* Lee un entero no negativo escrito como varint. */
+        public int leeVarint() throws IOException {
+            int v = 0;
+            for (int corrimiento = 0; corrimiento < 32; corrimiento += 7) {
+                if (!bloque.hasRemaining())
+                    asegura(1);
+                int b = bloque.get();
+                if (corrimiento == 28 && (b & 0x70) != 0)
+                    throw new IOException("Varint fuera de rango");
+                v |= (b & 0x7F) << corrimiento;
+                if ((b & 0x80) == 0) {
+                    if (v < 0)
+                        throw new IOException("Varint fuera de rango");
+                    return v;
+                }
+            }
+            throw new IOException("Varint fuera de rango");
+        }
+
+        /* Lee un doble. */
+        public double leeDoble() throws IOException {
+            asegura(8);
+            return bloque.getDouble();
+        }
+
+        /* Regresa el número de bytes que faltan por leer. */
+        public long restantes() throws IOException {
+            return canal.size() - canal.position() + bloque.remaining();
+        }
+
+        /* Lee k bytes, por pedazos si no caben en el bloque. */
+        public byte[] leeBytes(int k) throws IOException {
+            if (k > restantes())
+                throw new IOException("Archivo truncado");
+            byte[] bytes = new byte[k];
+            int i = 0;
+            while (i < k) {
+                asegura(1);
+                int c = Math.min(bloque.remaining(), k - i);
+                bloque.get(bytes, i, c);
+                i += c;
+            }
+            return bytes;
+        }
+
+        /* Lee el CRC al final del archivo y lo compara con el de lo
+           leído. */
+        public void termina() throws IOException {
+            digiere();
+            asegura(4);
+            marca = bloque.position() + 4;
+            if (bloque.getInt() != (int)crc.getValue())
+                throw new IOException("El CRC no coincide");
+            if (bloque.hasRemaining() || canal.position() != canal.size())
+                throw new IOException("Bytes de más al final del archivo");
+        }
+    }
+
+    /** La versión del formato. */
+    public static final int VERSION = 1;
+
+    /** El tamaño de los bloques de lectura y escritura. */
+    public static final int BLOQUE = 1 << 20;
+
+    /* Los bytes mágicos al inicio del archivo. */
+    private static final byte[] MAGIA = { 'E', 'D', 'D', 'G' };
+
+    /* Bandera para archivos con elementos. */
+    private static final int ELEMENTOS = 1;
+    /* Bandera para archivos con pesos. */
+    private static final int PESOS = 2;
+
+    /* Constructor privado para evitar instanciación. */
+    private FormatoGrafica() {}
+
+    /**
+     * Guarda una gráfica sin sus elementos; al recuperarla, cada vértice
+     * tendrá como elemento su posición en el orden en que fueron agregados.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica a guardar.
+     * @param ruta la ruta del archivo.
+     * @throws IOException si hay un error al escribir el archivo.
+     */
+    public static <T> void escribe(Grafica<T> grafica, String ruta)
+        throws IOException {
+        escribe(grafica, ruta, null);
+    }
+
+    /**
+     * Guarda una gráfica con sus elementos.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica a guardar.
+     * @param ruta la ruta del archivo.
+     * @param codificador el codificador para los elementos, o
+     *        <code>null</code> para no guardarlos.
+     * @throws IOException si hay un error al escribir el archivo.
+     */
+    public static <T> void escribe(Grafica<T> grafica, String ruta,
+                                   CodificadorElementos<T> codificador)
+        throws IOException {
+        int n = grafica.getElementos();
+        int[] orden = grafica.ordenDenso();
+        int[] posiciones = new int[n];
+        boolean pesos = false;
+        int maximo = 0;
+        for (int i = 0; i < n; i++) {
+            posiciones[orden[i]] = i;
+            int grado = grafica.gradoDenso(i);
+            maximo = Math.max(maximo, grado);
+            for (int k = 0; k < grado && !pesos; k++)
+                pesos = grafica.pesoDenso(i, k) != 1;
+        }
+        try (FileChannel canal =
+             FileChannel.open(Paths.get(ruta), StandardOpenOption.WRITE,
+                              StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING)) {
+            Salida salida = new Salida(canal);
+            for (byte b : MAGIA)
+                salida.escribeByte(b);
+            salida.escribeByte(VERSION);
+            salida.escribeByte((codificador != null ? ELEMENTOS : 0) |
+                               (pesos ? PESOS : 0));
+            salida.escribeVarint(n);
+            salida.escribeVarint(grafica.getAristas());
+            for (int i = 0; i < n; i++) {
+                salida.escribeVarint(grafica.gradoDenso(orden[i]));
+                if (codificador != null) {
+                    byte[] bytes = codificador.codifica(
+                        grafica.elementoDenso(orden[i]));
+                    salida.escribeVarint(bytes.length);
+                    salida.escribeBytes(bytes);
+                }
+            }
+            /* Cada vecino mayor se empaca como (j << 32) | k, con k su
+               índice en la vecindad, para ordenarlos sin perder su peso. */
+            long[] mayores = new long[maximo];
+            for (int i = 0; i < n; i++) {
+                int id = orden[i], c = 0;
+                for (int k = 0; k < grafica.gradoDenso(id); k++) {
+                    int j = posiciones[grafica.vecinoDenso(id, k)];
+                    if (j > i)
+                        mayores[c++] = ((long)j << 32) | k;
+                }
+                Arrays.sort(mayores, 0, c);
+                salida.escribeVarint(c);
+                int anterior = i;
+                for (int k = 0; k < c; k++) {
+                    int j = (int)(mayores[k] >>> 32);
+                    salida.escribeVarint(j - anterior);
+                    if (pesos)
+                        salida.escribeDoble(grafica.pesoDenso(id,
+                                                              (int)mayores[k]));
+                    anterior = j;
+                }
+            }
+            salida.termina();
+        }
+    }
+
+    /**
+     * Recupera una gráfica de un archivo, con la posición de cada vértice en
+     * la tabla de vértices como su elemento. Si el archivo tiene elementos,
+     * se ignoran.
+     * @param ruta la ruta del archivo.
+     * @return la gráfica guardada en el archivo.
+     * @throws IOException si hay un error al leer el archivo, o si su formato
+     *         es inválido.
+     */
+    public static Grafica<Integer> lee(String ruta) throws IOException {
+        return lee(ruta, null, false);
+    }
+
+    /**
+     * Recupera una gráfica de un archivo con elementos.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param ruta la ruta del archivo.
+     * @param codificador el codificador para los elementos.
+     * @return la gráfica guardada en el archivo.
+     * @throws IOException si hay un error al leer el archivo, si su formato
+     *         es inválido, o si no tiene elementos.
+     * @throws IllegalArgumentException si el codificador es
+     *         <code>null</code>.
+     */
+    public static <T> Grafica<T> lee(String ruta,
+                                     CodificadorElementos<T> codificador)
+        throws IOException {
+        if (codificador == null)
+            throw new IllegalArgumentException("Codificador nulo");
+        return lee(ruta, codificador, true);
+    }
+
+    /* Recupera una gráfica; si no se usan los elementos del archivo, los
+       elementos son las posiciones de los vértices. */
+    @SuppressWarnings("unchecked")
+    private static <T> Grafica<T> lee(String ruta,
+                                      CodificadorElementos<T> codificador,
+                                      boolean conElementos)
+        throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(ruta),
+                                                  StandardOpenOption.READ)) {
+            Entrada entrada = new Entrada(canal);
+            for (byte b : MAGIA)
+                if (entrada.leeByte() != b)
+                    throw new IOException("El archivo no es una gráfica");
+            int version = entrada.leeByte();
+            if (version != VERSION)
+                throw new IOException("Versión no soportada: " + version);
+            int banderas = entrada.leeByte();
+            if ((banderas & ~(ELEMENTOS | PESOS)) != 0)
+                throw new IOException("Banderas inválidas");
+            boolean elementos = (banderas & ELEMENTOS) != 0;
+            boolean pesos = (banderas & PESOS) != 0;
+            if (conElementos && !elementos)
+                throw new IOException("El archivo no tiene elementos");
+            int n = entrada.leeVarint();
+            int m = entrada.leeVarint();
+            /* Cada vértice y cada arista ocupan al menos un byte; así un
+               encabezado corrupto no nos hace reservar memoria de más. */
+            if (n > entrada.restantes() || m > entrada.restantes())
+                throw new IOException("Archivo truncado");
+
+            Grafica<T> grafica = new Grafica<T>();
+            grafica.reserva(n);
+            int[] grados = new int[n];
+            for (int i = 0; i < n; i++) {
+                grados[i] = entrada.leeVarint();
+                T elemento = (T)Integer.valueOf(i);
+                if (elementos) {
+                    byte[] bytes = entrada.leeBytes(entrada.leeVarint());
+                    if (conElementos) {
+                        try {
+                            elemento = codificador.decodifica(bytes);
+                        } catch (IllegalArgumentException iae) {
+                            throw new IOException("Elemento inválido", iae);
+                        }
+                        if (elemento == null || grafica.contiene(elemento))
+                            throw new IOException("Elemento inválido");
+                    }
+                }
+                grafica.agregaDenso(elemento, grados[i]);
+            }
+
+            for (int i = 0; i < n; i++) {
+                int c = entrada.leeVarint();
+                int j = i;
+                for (int k = 0; k < c; k++) {
+                    int diferencia = entrada.leeVarint();
+                    if (diferencia == 0 || diferencia >= n - j)
+                        throw new IOException("Vecino inválido");
+                    j += diferencia;
+                    double peso = pesos ? entrada.leeDoble() : 1;
+                    if (!(peso > 0))
+                        throw new IOException("Peso inválido");
+                    if (grafica.gradoDenso(i) == grados[i] ||
+                        grafica.gradoDenso(j) == grados[j])
+                        throw new IOException("Grado inválido");
+                    grafica.conectaDenso(i, j, peso);
+                }
+            }
+            entrada.termina();
+            if (grafica.getAristas() != m)
+                throw new IOException("Número de aristas inválido");
+            for (int i = 0; i < n; i++)
+                if (grafica.gradoDenso(i) != grados[i])
+                    throw new IOException("Grado inválido");
+            grafica.revisaDensidad();
+            return grafica;
+        }
+    }
+}
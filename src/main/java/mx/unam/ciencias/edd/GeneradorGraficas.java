@@ -0,0 +1,437 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Clase para generar gráficas sintéticas reproducibles, para medir el
+ * rendimiento de los algoritmos sobre gráficas. Los vértices son los enteros
+ * de 0 a <i>n</i>-1, las aristas tienen peso 1 y no hay lazos ni aristas
+ * repetidas; la misma semilla produce siempre las mismas aristas en el mismo
+ * orden.
+ *
+ * Las aristas se generan una sola vez en un arreglo, empacadas como en
+ * {@link CargadorGrafica}, y con ellas se construye una {@link Grafica} o una
+ * {@link GraficaInt} de una sola pasada, con cada vecindad del tamaño exacto
+ * (la versión congelada sale de {@link Grafica#congela}); o se agregan una
+ * por una con <code>conecta</code>, para medir eso.
+ *
+ * Hay cuatro familias:
+ *
+ * <ul>
+ * <li>Erdős–Rényi: cada pareja de vértices es arista con probabilidad
+ *     <i>p</i>, independientemente. En lugar de echar un volado por pareja
+ *     se salta de una arista a la siguiente con una variable geométrica, así
+ *     que toma tiempo <i>O</i>(<i>n</i> + <i>m</i>) y no
+ *     <i>O</i>(<i>n</i><sup>2</sup>).</li>
+ * <li>Barabási–Albert: se empieza con una gráfica completa de <i>k</i>+1
+ *     vértices, y cada vértice nuevo se conecta con <i>k</i> vértices
+ *     distintos, elegidos con probabilidad proporcional a su grado: se escoge
+ *     un extremo al azar de las aristas que ya hay. Los grados siguen una ley
+ *     de potencias, con unos cuantos centros de grado muy grande.</li>
+ * <li>Rejilla: los vértices de una rejilla de renglones por columnas, cada
+ *     uno conectado con el de su derecha y el de abajo.</li>
+ * <li>Regular al azar: todos los vértices tienen grado <i>d</i>. Se
+ *     emparejan al azar las <i>d</i> puntas de cada vértice; si una pareja
+ *     daría un lazo o una arista repetida, se intercambia con una arista ya
+ *     puesta. Si <i>d</i> es más de la mitad de <i>n</i>-1 se genera el
+ *     complemento, que es (<i>n</i>-1-<i>d</i>)-regular. La gráfica no es
+ *     exactamente uniforme entre todas las <i>d</i>-regulares, pero no tiene
+ *     sesgo por el orden de los vértices.</li>
+ * </ul>
+ */
+public class GeneradorGraficas {
+
+    /* Número máximo de aristas que caben en el arreglo. */
+    private static final int MAXIMO_ARISTAS = Integer.MAX_VALUE - 8;
+
+    /* El número de vértices. */
+    private int n;
+    /* Las aristas empacadas como (a << 32) | b, con a < b. */
+    private long[] aristas;
+    /* El número de aristas. */
+    private int m;
+
+    /* Construye un generador de n vértices con espacio para el número de
+       aristas recibido. */
+    private GeneradorGraficas(int n, long estimadas) {
+        if (estimadas > MAXIMO_ARISTAS)
+            throw new IllegalArgumentException("Demasiadas aristas");
+        this.n = n;
+        aristas = new long[(int)Math.max(16, estimadas)];
+    }
+
+    /**
+     * Genera una gráfica de Erdős–Rényi: cada pareja de vértices es arista
+     * con probabilidad <i>p</i>.
+     * @param n el número de vértices.
+     * @param p la probabilidad de cada arista.
+     * @param semilla la semilla del generador de números aleatorios.
+     * @return el generador con las aristas de la gráfica.
+     * @throws IllegalArgumentException si n es negativo, si p no está entre
+     *         0 y 1, o si se esperan más aristas de las que caben en un
+     *         arreglo.
+     */
+    public static GeneradorGraficas erdosRenyi(int n, double p, long semilla) {
+        if (n < 0 || !(p >= 0 && p <= 1))
+            throw new IllegalArgumentException("Parámetros inválidos");
+        long posibles = (long)n * (n - 1) / 2;
+        /* Con holgura de unas desviaciones estándar para no crecer. */
+        double media = posibles * p;
+        long estimadas = (long)(media + 4 * Math.sqrt(media) + 16);
+        GeneradorGraficas g =
+            new GeneradorGraficas(n, Math.min(estimadas, posibles));
+        if (p == 0)
+            return g;
+        if (p == 1) {
+            for (int b = 1; b < n; b++)
+                for (int a = 0; a < b; a++)
+                    g.arista(a, b);
+            return g;
+        }
+        Random random = new Random(semilla);
+        double lq = Math.log(1 - p);
+        /* La pareja actual es (w, v), con w < v; se recorren en orden por v
+           y luego por w, saltándose las que no son aristas. */
+        long tope = (long)n * n;
+        long w = -1;
+        int v = 1;
+        while (v < n) {
+            double salto = Math.log(1 - random.nextDouble()) / lq;
+            w += 1 + (long)Math.min(salto, tope);
+            while (w >= v && v < n) {
+                w -= v;
+                v++;
+            }
+            if (v < n)
+                g.arista((int)w, v);
+        }
+        return g;
+    }
+
+    /**
+     * Genera una gráfica de Barabási–Albert, en la que cada vértice nuevo se
+     * conecta con <i>k</i> vértices anteriores distintos, con probabilidad
+     * proporcional a su grado. Los primeros <i>k</i>+1 vértices forman una
+     * gráfica completa.
+     * @param n el número de vértices.
+     * @param k el número de aristas de cada vértice nuevo.
+     * @param semilla la semilla del generador de números aleatorios.
+     * @return el generador con las aristas de la gráfica.
+     * @throws IllegalArgumentException si k es menor que 1 o no es menor que
+     *         n, o si hay más aristas de las que caben en un arreglo.
+     */
+    public static GeneradorGraficas barabasiAlbert(int n, int k,
+                                                   long semilla) {
+        if (k < 1 || k >= n)
+            throw new IllegalArgumentException("Parámetros inválidos");
+        long total = (long)k * (k + 1) / 2 + (long)(n - k - 1) * k;
+        if (2 * total > MAXIMO_ARISTAS)
+            throw new IllegalArgumentException("Demasiadas aristas");
+        GeneradorGraficas g = new GeneradorGraficas(n, total);
+        Random random = new Random(semilla);
+        /* Cada vértice aparece en las puntas tantas veces como su grado. */
+        int[] puntas = new int[(int)(2 * total)];
+        int p = 0;
+        for (int b = 1; b <= k; b++)
+            for (int a = 0; a < b; a++) {
+                g.arista(a, b);
+                puntas[p++] = a;
+                puntas[p++] = b;
+            }
+        /* El último vértice nuevo que eligió a cada vértice, más 1. */
+        int[] marcas = new int[n];
+        int[] elegidos = new int[k];
+        for (int v = k + 1; v < n; v++) {
+            int c = 0;
+            while (c < k) {
+                int u = puntas[random.nextInt(p)];
+                if (marcas[u] != v + 1) {
+                    marcas[u] = v + 1;
+                    elegidos[c++] = u;
+                }
+            }
+            for (int i = 0; i < k; i++) {
+                g.arista(elegidos[i], v);
+                puntas[p++] = elegidos[i];
+                puntas[p++] = v;
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Genera una rejilla de renglones por columnas. El vértice del renglón
+     * <i>r</i> y la columna <i>c</i> es <i>r</i>&middot;columnas +
+     * <i>c</i>, y está conectado con el de su derecha y el de abajo.
+     * @param renglones el número de renglones.
+     * @param columnas el número de columnas.
+     * @return el generador con las aristas de la gráfica.
+     * @throws IllegalArgumentException si renglones o columnas son negativos,
+     *         o si hay más vértices o aristas de las que caben en un arreglo.
+     */
+    public static GeneradorGraficas rejilla(int renglones, int columnas) {
+        if (renglones < 0 || columnas < 0 ||
+            (long)renglones * columnas > MAXIMO_ARISTAS)
+            throw new IllegalArgumentException("Parámetros inválidos");
+        int n = renglones * columnas;
+        long total = (long)renglones * Math.max(0, columnas - 1) +
+            (long)columnas * Math.max(0, renglones - 1);
+        GeneradorGraficas g = new GeneradorGraficas(n, total);
+        for (int r = 0; r < renglones; r++)
+            for (int c = 0; c < columnas; c++) {
+                int v = r * columnas + c;
+                if (c + 1 < columnas)
+                    g.arista(v, v + 1);
+                if (r + 1 < renglones)
+                    g.arista(v, v + columnas);
+            }
+        return g;
+    }
+
+    /**
+     * Genera una gráfica regular al azar, en la que todos los vértices tienen
+     * grado <i>d</i>.
+     * @param n el número de vértices.
+     * @param d el grado de cada vértice.
+     * @param semilla la semilla del generador de números aleatorios.
+     * @return el generador con las aristas de la gráfica.
+     * @throws IllegalArgumentException si d es negativo o no es menor que n,
+     *         si n&middot;d es impar, o si hay más aristas de las que caben en
+     *         un arreglo.
+     */
+    public static GeneradorGraficas regular(int n, int d, long semilla) {
+        if (d < 0 || (d >= n && d > 0) || ((long)n * d) % 2 != 0)
+            throw new IllegalArgumentException("Parámetros inválidos");
+        Random random = new Random(semilla);
+        if (2 * d <= n - 1 || d == 0)
+            return empareja(n, d, random);
+        /* Se genera el complemento y se toman las parejas que le faltan. */
+        int c = n - 1 - d;
+        GeneradorGraficas complemento = empareja(n, c, random);
+        int[] inicios = new int[n + 1];
+        int[] vecinos = complemento.vecinos(inicios);
+        GeneradorGraficas g = new GeneradorGraficas(n, (long)n * d / 2);
+        for (int a = 0; a < n; a++) {
+            Arrays.sort(vecinos, inicios[a], inicios[a+1]);
+            int j = inicios[a];
+            for (int b = a + 1; b < n; b++) {
+                while (j < inicios[a+1] && vecinos[j] < b)
+                    j++;
+                if (j == inicios[a+1] || vecinos[j] != b)
+                    g.arista(a, b);
+            }
+        }
+        return g;
+    }
+
+    /* Genera una gráfica d-regular emparejando puntas al azar, con d a lo
+       más la mitad de n-1 para que siempre haya aristas con las cuales
+       intercambiar. */
+    private static GeneradorGraficas empareja(int n, int d, Random random) {
+        long total = (long)n * d;
+        if (total > MAXIMO_ARISTAS)
+            throw new IllegalArgumentException("Demasiadas aristas");
+        GeneradorGraficas g = new GeneradorGraficas(n, total / 2);
+        /* Los vecinos de cada vértice v están en [v·d, v·d + grados[v]). */
+        int[] vecinos = new int[(int)total];
+        int[] grados = new int[n];
+        int[] puntas = new int[(int)total];
+        for (int i = 0; i < total; i++)
+            puntas[i] = i / d;
+        int r = (int)total;
+        while (r > 0) {
+            int i = random.nextInt(r);
+            int u = puntas[i];
+            puntas[i] = puntas[--r];
+            i = random.nextInt(r);
+            int v = puntas[i];
+            puntas[i] = puntas[--r];
+            if (u != v && !adyacentes(vecinos, grados, d, u, v)) {
+                g.arista(u, v);
+                pon(vecinos, grados, d, u, v);
+                continue;
+            }
+            /* Se quita una arista x-y al azar y se ponen u-x y v-y. */
+            boolean intercambio = false;
+            for (int intento = 0; intento < 64 && g.m > 0; intento++) {
+                int e = random.nextInt(g.m);
+                int x = (int)(g.aristas[e] >>> 32), y = (int)g.aristas[e];
+                if (random.nextBoolean()) {
+                    int t = x;
+                    x = y;
+                    y = t;
+                }
+                if (x == u || y == v || adyacentes(vecinos, grados, d, u, x) ||
+                    adyacentes(vecinos, grados, d, v, y))
+                    continue;
+                quita(vecinos, grados, d, x, y);
+                pon(vecinos, grados, d, u, x);
+                pon(vecinos, grados, d, v, y);
+                g.aristas[e] = empaca(u, x);
+                g.arista(Math.min(v, y), Math.max(v, y));
+                intercambio = true;
+                break;
+            }
+            /* Si no hubo con quién intercambiar, las puntas regresan. */
+            if (!intercambio) {
+                puntas[r++] = u;
+                puntas[r++] = v;
+            }
+        }
+        return g;
+    }
+
+    /* Nos dice si u y v son vecinos en la tabla de vecinos. */
+    private static boolean adyacentes(int[] vecinos, int[] grados, int d,
+                                      int u, int v) {
+        if (grados[v] < grados[u]) {
+            int t = u;
+            u = v;
+            v = t;
+        }
+        for (int j = u * d; j < u * d + grados[u]; j++)
+            if (vecinos[j] == v)
+                return true;
+        return false;
+    }
+
+    /* Pone a u y v como vecinos en la tabla de vecinos. */
+    private static void pon(int[] vecinos, int[] grados, int d, int u, int v) {
+        vecinos[u * d + grados[u]++] = v;
+        vecinos[v * d + grados[v]++] = u;
+    }
+
+    /* Quita a u y v como vecinos de la tabla de vecinos; el lugar de cada uno
+       lo ocupa el último. */
+    private static void quita(int[] vecinos, int[] grados, int d,
+                              int u, int v) {
+        for (int k = 0; k < 2; k++) {
+            for (int j = u * d; j < u * d + grados[u]; j++)
+                if (vecinos[j] == v) {
+                    vecinos[j] = vecinos[u * d + --grados[u]];
+                    break;
+                }
+            int t = u;
+            u = v;
+            v = t;
+        }
+    }
+
+    /* Empaca la arista entre a y b, con el menor arriba. */
+    private static long empaca(int a, int b) {
+        return a < b ? ((long)a << 32) | b : ((long)b << 32) | a;
+    }
+
+    /* Agrega la arista entre a y b, con a < b. */
+    private void arista(int a, int b) {
+        if (m == aristas.length) {
+            if (m == MAXIMO_ARISTAS)
+                throw new IllegalArgumentException("Demasiadas aristas");
+            aristas = Arrays.copyOf(aristas, (int)Math.min(2L * m,
+                                                           MAXIMO_ARISTAS));
+        }
+        aristas[m++] = ((long)a << 32) | b;
+    }
+
+    /* Regresa los vecinos de cada vértice v en [inicios[v], inicios[v+1]),
+       llenando los inicios. */
+    private int[] vecinos(int[] inicios) {
+        int[] grados = grados();
+        for (int v = 0; v < n; v++)
+            inicios[v + 1] = inicios[v] + grados[v];
+        int[] vecinos = new int[2 * m];
+        int[] siguiente = Arrays.copyOf(inicios, n);
+        for (int k = 0; k < m; k++) {
+            int a = (int)(aristas[k] >>> 32), b = (int)aristas[k];
+            vecinos[siguiente[a]++] = b;
+            vecinos[siguiente[b]++] = a;
+        }
+        return vecinos;
+    }
+
+    /* Regresa el grado de cada vértice. */
+    private int[] grados() {
+        int[] grados = new int[n];
+        for (int k = 0; k < m; k++) {
+            grados[(int)(aristas[k] >>> 32)]++;
+            grados[(int)aristas[k]]++;
+        }
+        return grados;
+    }
+
+    /**
+     * Regresa el número de vértices de la gráfica generada.
+     * @return el número de vértices de la gráfica generada.
+     */
+    public int getElementos() {
+        return n;
+    }
+
+    /**
+     * Regresa el número de aristas de la gráfica generada.
+     * @return el número de aristas de la gráfica generada.
+     */
+    public int getAristas() {
+        return m;
+    }
+
+    /**
+     * Construye una gráfica con los vértices y aristas generados, de una sola
+     * pasada y con cada vecindad del tamaño exacto.
+     * @return una gráfica nueva con los vértices y aristas generados.
+     */
+    public Grafica<Integer> grafica() {
+        Integer[] elementos = new Integer[n];
+        for (int v = 0; v < n; v++)
+            elementos[v] = v;
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        grafica.carga(elementos, grados(), aristas, m);
+        return grafica;
+    }
+
+    /**
+     * Construye una gráfica de enteros con los vértices y aristas generados,
+     * de una sola pasada y con cada vecindad del tamaño exacto.
+     * @return una gráfica de enteros nueva con los vértices y aristas
+     *         generados.
+     */
+    public GraficaInt graficaInt() {
+        int[] elementos = new int[n];
+        for (int v = 0; v < n; v++)
+            elementos[v] = v;
+        GraficaInt grafica = new GraficaInt();
+        grafica.carga(elementos, grados(), aristas, m);
+        return grafica;
+    }
+
+    /**
+     * Agrega a la gráfica recibida los vértices generados y los conecta uno
+     * por uno con {@link Grafica#conecta(Object,Object)}, en el orden en que
+     * se generaron.
+     * @param grafica la gráfica.
+     * @throws IllegalArgumentException si alguno de los vértices ya estaba en
+     *         la gráfica, o si alguna de las aristas ya estaba.
+     */
+    public void conecta(Grafica<Integer> grafica) {
+        for (int v = 0; v < n; v++)
+            grafica.agrega(v);
+        for (int k = 0; k < m; k++)
+            grafica.conecta((int)(aristas[k] >>> 32), (int)aristas[k]);
+    }
+
+    /**
+     * Agrega a la gráfica de enteros recibida los vértices generados y los
+     * conecta uno por uno con {@link GraficaInt#conecta}, en el orden en que
+     * se generaron.
+     * @param grafica la gráfica de enteros.
+     * @throws IllegalArgumentException si alguno de los vértices ya estaba en
+     *         la gráfica, o si alguna de las aristas ya estaba.
+     */
+    public void conecta(GraficaInt grafica) {
+        for (int v = 0; v < n; v++)
+            grafica.agrega(v);
+        for (int k = 0; k < m; k++)
+            grafica.conecta((int)(aristas[k] >>> 32), (int)aristas[k]);
+    }
+}
@@ -1,66 +1,183 @@
 package mx.unam.ciencias.edd;
 
-import java.util.Iterator;
+import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Clase para gráficas. Una gráfica es un conjunto de vértices y aristas, tales
  * que las aristas son un subconjunto del producto cruz de los vértices.
+ *
+ * Cuando la densidad de la gráfica (sus aristas entre <i>n</i>(<i>n</i>-1)/2)
+ * rebasa el umbral de densidad (ver {@link #setUmbralDensidad}), la gráfica
+ * pasa sola a modo denso: mantiene además una matriz de adyacencia de bits,
+ * con la que {@link #sonVecinos} toma tiempo <i>O</i>(1) y {@link #bfs} y
+ * {@link #dfs} cuentan de 64 en 64 vértices cuántos vecinos de cada vértice
+ * faltan por visitar, y sólo recorren su vecindad hasta encontrarlos, sin
+ * cambiar el orden del recorrido. Las vecindades siguen indexando las
+ * posiciones de sus vecinos, así que {@link #getPeso}, {@link #setPeso},
+ * {@link #desconecta} y {@link #elimina} cuestan lo mismo en ambos modos; la
+ * matriz ocupa <i>n</i><sup>2</sup>/8 bytes más, que en una gráfica densa es
+ * poco junto a sus aristas. La gráfica regresa a modo disperso cuando su
+ * densidad baja de la mitad del umbral, para no cambiar de un modo a otro con
+ * cada arista.
  */
-public class Grafica<T> implements Coleccion<T> {
+public class Grafica<T> extends GraficaLigada<T, Grafica<T>.Vertice>
+    implements Coleccion<T> {
 
-    /* Clase interna privada para iteradores. */
-    private class Iterador implements Iterator<T> {
+    /** Umbral de densidad por omisión para pasar a modo denso. */
+    public static final double UMBRAL_DENSIDAD = 0.1;
 
-        /* Iterador auxiliar. */
-        private Iterator<Vertice> iterador;
+    /* Número de vértices por debajo del cual la gráfica nunca es densa. */
+    private static final int MINIMO_DENSO = 64;
 
-        /* Construye un nuevo iterador, auxiliándose de la lista de vértices. */
-        public Iterador() {
-            iterador =  vertices.iterator();
+    /* Clase interna privada para recorrer por pedazos los elementos, en el
+       orden de los identificadores densos. */
+    private class IteradorElementos implements Spliterator<T> {
+
+        /* El siguiente identificador. */
+        private int id;
+        /* El identificador después del último. */
+        private int fin;
+
+        /* Construye un iterador para los identificadores en [id, fin). */
+        public IteradorElementos(int id, int fin) {
+            this.id = id;
+            this.fin = fin;
+        }
+
+        /* Le pasa el siguiente elemento a la acción, si hay. */
+        @Override public boolean tryAdvance(Consumer<? super T> accion) {
+            if (id >= fin)
+                return false;
+            accion.accept(densos[id++].elemento);
+            return true;
+        }
+
+        /* Le pasa los elementos restantes a la acción. */
+        @Override public void forEachRemaining(Consumer<? super T> accion) {
+            for (; id < fin; id++)
+                accion.accept(densos[id].elemento);
+        }
+
+        /* Parte el rango a la mitad. */
+        @Override public Spliterator<T> trySplit() {
+            int mitad = (id + fin) >>> 1;
+            if (mitad <= id)
+                return null;
+            IteradorElementos izquierdo = new IteradorElementos(id, mitad);
+            id = mitad;
+            return izquierdo;
         }
 
-        /* Nos dice si hay un siguiente elemento. */
-        @Override public boolean hasNext() {
-            return iterador.hasNext();
+        /* Regresa el número de elementos restantes. */
+        @Override public long estimateSize() {
+            return fin - id;
         }
 
-        /* Regresa el siguiente elemento. */
-        @Override public T next() {
-            return iterador.next().elemento;
+        /* Regresa las características del iterador. */
+        @Override public int characteristics() {
+            return SIZED | SUBSIZED | NONNULL | DISTINCT;
         }
     }
 
-    /* Clase interna privada para vértices. */
-    private class Vertice implements VerticeGrafica<T> {
+    /* Clase interna privada para recorrer por pedazos las aristas. Cada
+       arista sale del extremo agregado primero a la gráfica. */
+    private class IteradorAristas implements Spliterator<AristaGrafica<T>> {
 
-        /* El elemento del vértice. */
-        public T elemento;
-        /* El color del vértice. */
-        public Color color;
-        /* La lista de vecinos del vértice. */
-        public Lista<Vertice> vecinos;
+        /* El identificador del vértice actual. */
+        private int id;
+        /* El identificador después del último. */
+        private int fin;
+        /* El siguiente vecino por revisar del vértice actual. */
+        private int k;
 
-        /* Crea un nuevo vértice a partir de un elemento. */
-        public Vertice(T elemento) {
-          this.elemento = elemento;
-	        color = Color.NINGUNO;
-	        vecinos = new Lista<Vertice>();
+        /* Construye un iterador para los vértices en [id, fin). */
+        public IteradorAristas(int id, int fin) {
+            this.id = id;
+            this.fin = fin;
         }
 
-        /* Regresa el elemento del vértice. */
-        @Override public T get() {
-            return elemento;
+        /* Le pasa la siguiente arista a la acción, si hay. */
+        @Override public boolean
+        tryAdvance(Consumer<? super AristaGrafica<T>> accion) {
+            for (; id < fin; id++, k = 0) {
+                Vertice v = densos[id];
+                while (k < v.vecinos.getGrado()) {
+                    Vertice u = v.vecinos.get(k);
+                    double peso = v.vecinos.getPeso(k++);
+                    if (v.orden < u.orden) {
+                        accion.accept(new AristaGrafica<T>(v, u, peso));
+                        return true;
+                    }
+                }
+            }
+            return false;
         }
 
-        /* Regresa el grado del vértice. */
-        @Override public int getGrado() {
-            return vecinos.getElementos();
+        /* Le pasa las aristas restantes a la acción. */
+        @Override public void
+        forEachRemaining(Consumer<? super AristaGrafica<T>> accion) {
+            for (; id < fin; id++, k = 0) {
+                Vertice v = densos[id];
+                for (; k < v.vecinos.getGrado(); k++) {
+                    Vertice u = v.vecinos.get(k);
+                    if (v.orden < u.orden)
+                        accion.accept(new AristaGrafica<T>(
+                                          v, u, v.vecinos.getPeso(k)));
+                }
+            }
         }
 
-        /* Regresa el color del vértice. */
-        @Override public Color getColor() {
-            return color;
+        /* Parte a la mitad los vértices que faltan después del actual. */
+        @Override public Spliterator<AristaGrafica<T>> trySplit() {
+            int mitad = (id + 1 + fin) >>> 1;
+            if (mitad <= id + 1)
+                return null;
+            IteradorAristas derecho = new IteradorAristas(mitad, fin);
+            fin = mitad;
+            return derecho;
+        }
+
+        /* Estima las aristas restantes con el grado promedio. */
+        @Override public long estimateSize() {
+            int n = elementos;
+            return n == 0 ? 0 : (long)aristas * (fin - id) / n;
+        }
+
+        /* Regresa las características del iterador. */
+        @Override public int characteristics() {
+            return NONNULL;
+        }
+    }
+
+    /* Clase interna para vértices; es visible en el paquete sólo porque
+       GraficaLigada la recibe como parámetro. */
+    class Vertice extends VerticeLigado<T, Vertice> {
+
+        /* La vecindad del vértice. */
+        public Vecindad<Vertice> vecinos;
+        /* El orden en que fue agregado el vértice; no cambia al eliminar
+           otros vértices, a diferencia del identificador. */
+        public long orden;
+        /* La dispersión del elemento, guardada para la huella. */
+        public int dispersion;
+
+        /* Crea un nuevo vértice con espacio para el número de vecinos
+           recibido. */
+        public Vertice(T elemento, int grado) {
+            super(elemento);
+            dispersion = elemento.hashCode();
+            vecinos = new Vecindad<Vertice>(grado);
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return vecinos.getGrado();
         }
 
         /* Regresa un iterable para los vecinos. */
@@ -68,57 +185,62 @@ public class Grafica<T> implements Coleccion<T> {
             return vecinos;
         }
 
-        private boolean iguales(Vertice v){
-          if(!elemento.equals(v.elemento))
-            return false;
-          if(vecinos.getElementos()!=v.vecinos.getElementos())
-            return false;
-          for (Vertice u: v.vecinos)
-            if(!esVecino(u))
-              return false;
-          return true;
-        }
-        private boolean esVecino(Vertice v){
-          for (Vertice u: vecinos)
-            if(u.elemento.equals(v.elemento))
-              return true;
-          return false;
+        /* Regresa la vecindad que siguen los recorridos. */
+        @Override public Vecindad<Vertice> vecindad() {
+            return vecinos;
         }
 
-        private void enchufa(Vertice v){
+        private void enchufa(Vertice v, double peso){
           if(v==null)
             return;
-          vecinos.agrega(v);
+          vecinos.agrega(v, peso);
         }
 
         private void desenchufa(Vertice v){
           if(v==null)
             return;
-          if(!vecinos.contiene(v))
-            throw new IllegalArgumentException();
-          vecinos.elimina(v);
+          try {
+              vecinos.elimina(v);
+          } catch (NoSuchElementException nsee) {
+              throw new IllegalArgumentException();
+          }
         }
     }
 
-    /* Vértices. */
-    private Lista<Vertice> vertices;
+    /* Índice de los vértices por su elemento. */
+    private Diccionario<T, Vertice> indice;
     /* Número de aristas. */
     private int aristas;
+    /* Las componentes conexas, sobre los identificadores densos. */
+    private ConjuntosDisjuntos componentes;
+    /* Si hay que reconstruir las componentes antes de usarlas. */
+    private boolean componentesSucias;
+    /* El orden que le toca al siguiente vértice agregado. */
+    private long siguienteOrden;
+    /* La huella estructural: la suma de la huella de cada vértice y de cada
+       arista, que no depende del orden en que fueron agregados. */
+    private long huella;
+    /* La bitácora de cambios; null si no está activa. */
+    private BitacoraGrafica<T> bitacora;
+    /* La matriz de adyacencia; null mientras la gráfica no es densa. */
+    private MatrizAdyacencia matriz;
+    /* La densidad a partir de la cual la gráfica pasa a modo denso. */
+    private double umbralDensidad = UMBRAL_DENSIDAD;
 
-    /**
-     * Constructor único.
-     */
-    public Grafica() {
-        vertices = new Lista<Vertice>();
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @Override @SuppressWarnings("unchecked") Vertice[] nuevoArreglo(int n) {
+        return (Vertice[])Array.newInstance(Vertice.class, n);
     }
 
     /**
-     * Regresa el número de elementos en la gráfica. El número de elementos es
-     * igual al número de vértices.
-     * @return el número de elementos en la gráfica.
+     * Constructor único.
      */
-    @Override public int getElementos() {
-        return vertices.getElementos();
+    public Grafica() {
+        indice = new Diccionario<T, Vertice>();
+        densos = nuevoArreglo(16);
+        componentes = new ConjuntosDisjuntos();
     }
 
     /**
@@ -138,10 +260,107 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void agrega(T elemento) {
       if(elemento==null)
         throw new IllegalArgumentException();
-      Vertice v = new Vertice(elemento);
       if(busca(elemento)!=null)
         throw new IllegalArgumentException();
-      vertices.agrega(v);
+      agregaDenso(elemento, 4);
+      revisaDensidad();
+      if (bitacora != null)
+          bitacora.registra(TipoCambio.AGREGA, elemento, null, 0);
+    }
+
+    /* Reserva en la gráfica, que debe estar vacía, espacio para n vértices, y
+       deja las componentes para reconstruirse cuando se pidan. */
+    void reserva(int n) {
+        indice = new Diccionario<T, Vertice>(n);
+        matriz = null;
+        densos = nuevoArreglo(Math.max(n, 16));
+        componentesSucias = true;
+    }
+
+    /* Agrega un vértice para el elemento recibido, que no debe estar en la
+       gráfica, con espacio para el número de vecinos recibido; regresa su
+       identificador denso. */
+    int agregaDenso(T elemento, int grado) {
+        Vertice v = new Vertice(elemento, grado);
+        int n = elementos;
+        v.orden = siguienteOrden++;
+        engancha(v);
+        indice.agrega(elemento, v);
+        huella += huella(v);
+        if (!componentesSucias)
+            componentes.agrega();
+        if (matriz != null)
+            matriz.agrega(n);
+        return n;
+    }
+
+    /* Conecta los vértices con los identificadores densos recibidos, sin
+       verificar que sean distintos ni que no estén ya conectados. Las
+       componentes se reconstruirán cuando se pidan: unirlas aquí en cargas
+       masivas saltaría al azar por la memoria. */
+    void conectaDenso(int a, int b, double peso) {
+        densos[a].vecinos.agrega(densos[b], peso);
+        densos[b].vecinos.agrega(densos[a], peso);
+        if (matriz != null)
+            matriz.conecta(a, b);
+        aristas++;
+        huella += huella(densos[a], densos[b]);
+        componentesSucias = true;
+    }
+
+    /* Regresa los identificadores densos de los vértices en el orden en que
+       fueron agregados. */
+    int[] ordenDenso() {
+        int[] orden = new int[elementos];
+        int k = 0;
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            orden[k++] = v.id;
+        return orden;
+    }
+
+    /* Regresa el identificador denso del vértice del elemento recibido, o -1
+       si no está en la gráfica. */
+    int idDenso(T elemento) {
+        Vertice v = busca(elemento);
+        return v == null ? -1 : v.id;
+    }
+
+    /* Regresa el elemento del vértice con el identificador denso recibido. */
+    T elementoDenso(int id) {
+        return densos[id].elemento;
+    }
+
+    /* Regresa el grado del vértice con el identificador denso recibido. */
+    int gradoDenso(int id) {
+        return densos[id].vecinos.getGrado();
+    }
+
+    /* Regresa el identificador denso del k-ésimo vecino del vértice con el
+       identificador denso recibido. */
+    int vecinoDenso(int id, int k) {
+        return densos[id].vecinos.get(k).id;
+    }
+
+    /* Regresa el peso de la arista hacia el k-ésimo vecino del vértice con el
+       identificador denso recibido. */
+    double pesoDenso(int id, int k) {
+        return densos[id].vecinos.getPeso(k);
+    }
+
+    /* Llena la gráfica, que debe estar vacía, de una sola pasada: agrega un
+       vértice por cada elemento recibido, en orden, y las primeras m aristas
+       del arreglo, cada una empacada como (a << 32) | b con a < b índices en
+       el arreglo de elementos y con peso 1. Los elementos deben ser
+       distintos y las aristas no deben repetirse; los grados sirven para
+       reservar exactamente el espacio de cada vecindad. */
+    void carga(T[] elementos, int[] grados, long[] aristas, int m) {
+        int n = elementos.length;
+        reserva(n);
+        for (int i = 0; i < n; i++)
+            agregaDenso(elementos[i], grados[i]);
+        for (int k = 0; k < m; k++)
+            conectaDenso((int)(aristas[k] >>> 32), (int)aristas[k], 1);
+        revisaDensidad();
     }
 
     /**
@@ -154,15 +373,40 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b.
      */
     public void conecta(T a, T b) {
+        conecta(a, b, 1);
+    }
+
+    /**
+     * Conecta dos elementos de la gráfica con una arista de peso dado. Los
+     * elementos deben estar en la gráfica.
+     * @param a el primer elemento a conectar.
+     * @param b el segundo elemento a conectar.
+     * @param peso el peso de la nueva arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b ya están conectados, si a es
+     *         igual a b, o si el peso es no positivo.
+     */
+    public void conecta(T a, T b, double peso) {
         Vertice va = busca(a);
         Vertice vb = busca(b);
-        if(va!=null && (a.equals(b) || va.vecinos.contiene(vb)))
+        if(va!=null && vb!=null && (a.equals(b) || adyacentes(va, vb)))
          throw new IllegalArgumentException();
         if(va==null || vb==null)
           throw new NoSuchElementException();
-        va.enchufa(vb);
-        vb.enchufa(va);
+        if(!(peso>0))
+          throw new IllegalArgumentException("Peso no positivo");
+        va.enchufa(vb, peso);
+        vb.enchufa(va, peso);
         aristas++;
+        huella += huella(va, vb);
+        if(!componentesSucias)
+          componentes.une(va.id, vb.id);
+        if (matriz != null)
+            matriz.conecta(va.id, vb.id);
+        else
+            revisaDensidad();
+        if (bitacora != null)
+            bitacora.registra(TipoCambio.CONECTA, a, b, peso);
     }
 
     /**
@@ -178,9 +422,20 @@ public class Grafica<T> implements Coleccion<T> {
       Vertice vb = busca(b);
       if(va==null || vb==null)
         throw new NoSuchElementException();
+      if (!adyacentes(va, vb))
+          throw new IllegalArgumentException();
+      double peso = bitacora != null ? va.vecinos.peso(vb) : 0;
       va.desenchufa(vb);
       vb.desenchufa(va);
       aristas--;
+      huella -= huella(va, vb);
+      componentesSucias = true;
+      if (matriz != null) {
+          matriz.desconecta(va.id, vb.id);
+          revisaDensidad();
+      }
+      if (bitacora != null)
+          bitacora.registra(TipoCambio.DESCONECTA, a, b, peso);
     }
 
     /**
@@ -194,7 +449,10 @@ public class Grafica<T> implements Coleccion<T> {
 
     /**
      * Elimina un elemento de la gráfica. El elemento tiene que estar contenido
-     * en la gráfica.
+     * en la gráfica. Toma tiempo <i>O</i>(grado) esperado: cada vecino lo saca
+     * de su vecindad (ver {@link Vecindad}), el vértice sale de la lista de
+     * vértices por sus apuntadores, y el último identificador denso ocupa el
+     * suyo.
      * @param elemento el elemento a eliminar.
      * @throws NoSuchElementException si el elemento no está contenido en la
      *         gráfica.
@@ -203,12 +461,30 @@ public class Grafica<T> implements Coleccion<T> {
         Vertice v = busca(elemento);
         if(v==null)
           throw new NoSuchElementException();
+        /* Con bitácora, cada arista se desconecta y se registra por separado,
+           empezando por el último vecino para no mover a los demás. */
+        if (bitacora != null)
+            while (v.vecinos.getGrado() > 0)
+                desconecta(elemento,
+                           v.vecinos.get(v.vecinos.getGrado() - 1).elemento);
         for(Vertice u: v.vecinos){
           u.desenchufa(v);
-          v.desenchufa(u);
           aristas--;
+          huella -= huella(v, u);
+          if (matriz != null)
+              matriz.desconecta(v.id, u.id);
         }
-        vertices.elimina(v);
+        huella -= huella(v);
+        v.vecinos.limpia();
+        indice.elimina(elemento);
+        desengancha(v);
+        componentesSucias = true;
+        if (matriz != null) {
+            matriz.mueve(elementos, v.id);
+            revisaDensidad();
+        }
+        if (bitacora != null)
+            bitacora.registra(TipoCambio.ELIMINA, elemento, null, 0);
     }
 
     /**
@@ -224,7 +500,51 @@ public class Grafica<T> implements Coleccion<T> {
         Vertice vb = busca(b);
         if(va==null || vb==null)
           throw new NoSuchElementException();
-        return va.vecinos.contiene(vb);
+        return adyacentes(va, vb);
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los vértices que contienen a
+     * los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista que comparten los vértices que contienen a
+     *         los elementos recibidos.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if(va==null || vb==null)
+          throw new NoSuchElementException();
+        if(!adyacentes(va, vb))
+          throw new IllegalArgumentException();
+        return va.vecinos.peso(vb);
+    }
+
+    /**
+     * Define el peso de la arista que comparten los vértices que contienen a
+     * los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @param peso el nuevo peso de la arista que comparten los vértices que
+     *        contienen a los elementos recibidos.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados, o si peso
+     *         es no positivo.
+     */
+    public void setPeso(T a, T b, double peso) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if(va==null || vb==null)
+          throw new NoSuchElementException();
+        if(!adyacentes(va, vb) || !(peso>0))
+          throw new IllegalArgumentException();
+        va.vecinos.setPeso(vb, peso);
+        vb.vecinos.setPeso(va, peso);
+        if (bitacora != null)
+            bitacora.registra(TipoCambio.PESO, a, b, peso);
     }
 
     /**
@@ -234,12 +554,10 @@ public class Grafica<T> implements Coleccion<T> {
      * @return el vértice correspondiente el elemento recibido.
      */
     public VerticeGrafica<T> vertice(T elemento) {
-      if(elemento==null)
-        return null;
-      for(Vertice u: vertices)
-        if(elemento.equals(u.elemento))
-          return u;
-      throw new NoSuchElementException();
+      Vertice v = busca(elemento);
+      if(v==null)
+        throw new NoSuchElementException();
+      return v;
     }
 
     /**
@@ -256,72 +574,627 @@ public class Grafica<T> implements Coleccion<T> {
     }
 
     /**
-     * Nos dice si la gráfica es conexa.
+     * Nos dice si la gráfica es conexa. Las componentes conexas se mantienen
+     * al agregar vértices y aristas, así que el método toma tiempo constante
+     * salvo después de desconectar o eliminar, cuando primero se reconstruyen
+     * en tiempo <i>O</i>(<i>n</i> + <i>m</i>).
      * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
      *         otro caso.
      */
     public boolean esConexa() {
-      if(vertices.getElementos()<2)
-        return true;
-      int[] i= {0};
-      Vertice v = vertices.getPrimero();
-      recorreYLimpia(v.elemento, (l)->i[0]++, new Cola<Vertice>(), Color.NEGRO);
-	    return i[0]==vertices.getElementos();
+      return componentes()<=1;
     }
 
     /**
-     * Realiza la acción recibida en cada uno de los vértices de la gráfica, en
-     * el orden en que fueron agregados.
+     * Regresa el número de componentes conexas de la gráfica. Igual que
+     * {@link #esConexa}, toma tiempo constante salvo después de desconectar o
+     * eliminar.
+     * @return el número de componentes conexas de la gráfica.
+     */
+    public int componentes() {
+      if(componentesSucias){
+        int n = elementos;
+        componentes = new ConjuntosDisjuntos(n);
+        for (int i = 0; i < n; i++)
+          for (int k = 0; k < densos[i].vecinos.getGrado(); k++)
+            if(densos[i].vecinos.get(k).id > i)
+              componentes.une(i, densos[i].vecinos.get(k).id);
+        componentesSucias = false;
+      }
+      return componentes.getConjuntos();
+    }
+
+    /**
+     * Realiza la acción recibida en cada una de las aristas de la gráfica,
+     * una sola vez por arista y sin modificar el color de los vértices. Las
+     * aristas salen del extremo agregado primero, en el orden en que fueron
+     * agregados, y de cada uno en el orden de sus vecinos. No se crea ningún
+     * objeto por arista.
      * @param accion la acción a realizar.
      */
-    public void paraCadaVertice(AccionVerticeGrafica<T> accion) {
-        for (Vertice v: vertices)
-          accion.actua(v);
+    public void paraCadaArista(AccionAristaGrafica<T> accion) {
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            for (int k = 0; k < v.vecinos.getGrado(); k++) {
+                Vertice u = v.vecinos.get(k);
+                if (v.orden < u.orden)
+                    accion.actua(v, u, v.vecinos.getPeso(k));
+            }
+    }
+
+    /**
+     * Regresa un {@link Spliterator} para los elementos de la gráfica. Se
+     * parte por rangos de identificadores densos, así que el orden no es
+     * necesariamente el orden en que fueron agregados. La gráfica no debe
+     * modificarse mientras se usa.
+     * @return un {@link Spliterator} para los elementos de la gráfica.
+     */
+    @Override public Spliterator<T> spliterator() {
+        return new IteradorElementos(0, elementos);
+    }
+
+    /**
+     * Regresa un {@link Stream} para los elementos de la gráfica, en el mismo
+     * orden que {@link #spliterator}.
+     * @return un {@link Stream} para los elementos de la gráfica.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Regresa un {@link Stream} para las aristas de la gráfica, cada una una
+     * sola vez y sin modificar el color de los vértices. Se parte por rangos
+     * de identificadores densos, así que puede usarse en paralelo; el orden
+     * no está especificado. La gráfica no debe modificarse mientras se usa.
+     * @return un {@link Stream} para las aristas de la gráfica.
+     */
+    public Stream<AristaGrafica<T>> aristas() {
+        return StreamSupport.stream(
+            new IteradorAristas(0, elementos), false);
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por BFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido no modifica el color de los vértices.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
-      recorreYLimpia(elemento, accion, new Cola<Vertice>(), Color.NEGRO);
+      recorrido((Vertice) vertice(elemento), accion, new Cola<Vertice>(),
+                matriz);
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por DFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido no modifica el color de los vértices.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
-      recorreYLimpia(elemento, accion, new Pila<Vertice>(), Color.NEGRO);
+      recorrido((Vertice) vertice(elemento), accion, new Pila<Vertice>(),
+                matriz);
     }
 
     /**
-     * Nos dice si la gráfica es vacía.
-     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
-     *         otro caso.
+     * Regresa el número de aristas en una trayectoria más corta entre los dos
+     * elementos recibidos, sin tomar en cuenta los pesos. Se hace BFS desde
+     * los dos extremos a la vez, expandiendo siempre la frontera más chica,
+     * y se termina en cuanto se tocan; en gráficas grandes se visita una
+     * fracción mínima de lo que visitaría un BFS completo desde uno de ellos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el número de aristas en una trayectoria más corta entre a y b,
+     *         o -1 si no están conectados.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public int distancia(T a, T b) {
+        Vertice s = (Vertice) vertice(a);
+        Vertice t = (Vertice) vertice(b);
+        DiccionarioEnteros padresS = new DiccionarioEnteros();
+        DiccionarioEnteros padresT = new DiccionarioEnteros();
+        int u = encuentro(s, t, padresS, padresT);
+        if (u == -1)
+            return -1;
+        int d = 0;
+        for (int x = u; x != s.id; x = padresS.get(x))
+            d++;
+        for (int x = u; x != t.id; x = padresT.get(x))
+            d++;
+        return d;
+    }
+
+    /**
+     * Regresa una trayectoria más corta entre los dos elementos recibidos,
+     * sin tomar en cuenta los pesos, con el mismo BFS bidireccional que
+     * {@link #distancia}.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return una trayectoria más corta entre a y b, incluyéndolos a ambos.
+     *         Si los vértices no están conectados, se regresa una lista vacía.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> camino(T a, T b) {
+        Vertice s = (Vertice) vertice(a);
+        Vertice t = (Vertice) vertice(b);
+        DiccionarioEnteros padresS = new DiccionarioEnteros();
+        DiccionarioEnteros padresT = new DiccionarioEnteros();
+        int u = encuentro(s, t, padresS, padresT);
+        Lista<VerticeGrafica<T>> camino = new Lista<VerticeGrafica<T>>();
+        if (u == -1)
+            return camino;
+        for (int x = u; x != s.id; x = padresS.get(x))
+            camino.agregaInicio(densos[x]);
+        camino.agregaInicio(s);
+        for (int x = u; x != t.id; )
+            camino.agregaFinal(densos[x = padresT.get(x)]);
+        return camino;
+    }
+
+    /* Regresa el número de vértices que visita el BFS bidireccional entre a y
+       b; es visible en el paquete para poder compararlo con un BFS
+       completo. */
+    int visitadosBidireccional(T a, T b) {
+        DiccionarioEnteros padresS = new DiccionarioEnteros();
+        DiccionarioEnteros padresT = new DiccionarioEnteros();
+        encuentro((Vertice) vertice(a), (Vertice) vertice(b),
+                  padresS, padresT);
+        return padresS.getElementos() + padresT.getElementos();
+    }
+
+    /* Hace BFS desde s y desde t, un nivel completo a la vez y siempre del
+       lado con la frontera más chica, guardando el padre de cada vértice
+       visitado en el diccionario de su lado (los orígenes son su propio
+       padre). Como los padres se guardan en diccionarios, el costo depende
+       sólo de lo visitado y no del tamaño de la gráfica. Regresa el
+       identificador del primer vértice visitado desde ambos lados, o -1 si
+       alguna frontera se vacía antes.
+
+       Antes de expandir un nivel, las bolas de radio dS alrededor de s y dT
+       alrededor de t son ajenas, así que la distancia es al menos dS+dT+1; el
+       primer vértice en común aparece al expandir y da una trayectoria de
+       exactamente ese largo, así que es más corta y se puede parar ahí. */
+    private int encuentro(Vertice s, Vertice t,
+                          DiccionarioEnteros padresS,
+                          DiccionarioEnteros padresT) {
+        padresS.agrega(s.id, s.id);
+        padresT.agrega(t.id, t.id);
+        if (s == t)
+            return s.id;
+        int[] fronteraS = { s.id }, fronteraT = { t.id };
+        int nS = 1, nT = 1;
+        int[] siguiente = new int[16];
+        while (nS > 0 && nT > 0) {
+            boolean ladoS = nS <= nT;
+            int[] frontera = ladoS ? fronteraS : fronteraT;
+            int n = ladoS ? nS : nT;
+            DiccionarioEnteros propios = ladoS ? padresS : padresT;
+            DiccionarioEnteros ajenos = ladoS ? padresT : padresS;
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                Vertice v = densos[frontera[i]];
+                for (int k = 0; k < v.vecinos.getGrado(); k++) {
+                    int u = v.vecinos.get(k).id;
+                    if (propios.contiene(u))
+                        continue;
+                    propios.agrega(u, v.id);
+                    if (ajenos.contiene(u))
+                        return u;
+                    if (m == siguiente.length)
+                        siguiente = Arrays.copyOf(siguiente, m * 2);
+                    siguiente[m++] = u;
+                }
+            }
+            /* La frontera vieja se reutiliza para el siguiente nivel. */
+            if (ladoS) {
+                fronteraS = siguiente;
+                nS = m;
+            } else {
+                fronteraT = siguiente;
+                nT = m;
+            }
+            siguiente = frontera;
+        }
+        return -1;
+    }
+
+    /**
+     * Regresa una versión inmutable de la gráfica, representada con arreglos
+     * compactos (<i>compressed sparse row</i>): los vértices reciben
+     * identificadores densos en el orden en que fueron agregados, y los
+     * vecinos de cada uno quedan contiguos en un solo arreglo de enteros, con
+     * los pesos en otro arreglo paralelo. La gráfica congelada no cambia si
+     * después se modifica ésta.
+     * @return una versión inmutable de la gráfica.
+     */
+    public GraficaCongelada<T> congela() {
+        int n = getElementos();
+        int[] ids = new int[n];
+        @SuppressWarnings("unchecked") T[] elementos = (T[])new Object[n];
+        int k = 0;
+        for (Vertice v = cabeza; v != null; v = v.siguiente) {
+            ids[v.id] = k;
+            elementos[k++] = v.elemento;
+        }
+        int[] desplazamientos = new int[n+1];
+        int[] destinos = new int[2*aristas];
+        double[] pesos = new double[2*aristas];
+        int j = 0;
+        k = 0;
+        for (Vertice v = cabeza; v != null; v = v.siguiente) {
+            desplazamientos[k++] = j;
+            for (int i = 0; i < v.vecinos.getGrado(); i++) {
+                pesos[j] = v.vecinos.getPeso(i);
+                destinos[j++] = ids[v.vecinos.get(i).id];
+            }
+        }
+        desplazamientos[n] = j;
+        return new GraficaCongelada<T>(elementos, desplazamientos, destinos,
+                                       pesos);
+    }
+
+    /**
+     * Calcula la trayectoria de peso mínimo entre el elemento de origen y el
+     * elemento destino, usando el algoritmo de Dijkstra con un {@link
+     * MonticuloMinimo}.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code>
+     *         y el vértice <code>destino</code>. Si los vértices no están
+     *         conectados, se regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        return dijkstra(origen, destino, false);
+    }
+
+    /**
+     * Calcula la trayectoria de peso mínimo entre el elemento de origen y el
+     * elemento destino, usando el algoritmo de Dijkstra con el montículo
+     * indicado. Un {@link MonticuloMinimo} cuesta O((<i>n</i>+<i>m</i>) log
+     * <i>n</i>) en el peor caso y un {@link MonticuloArreglo} cuesta
+     * O(<i>n</i><sup>2</sup>), pero la densidad no basta para escoger: el
+     * montículo mínimo sólo paga log <i>n</i> por arista cuando la arista
+     * reduce una distancia, y con pesos al azar casi ninguna lo hace. El
+     * arreglo sólo conviene en gráficas densas con pesos que reducen las
+     * distancias una y otra vez.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param conArreglo si se usa un {@link MonticuloArreglo} en lugar de un
+     *        {@link MonticuloMinimo}.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code>
+     *         y el vértice <code>destino</code>. Si los vértices no están
+     *         conectados, se regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino,
+                                             boolean conArreglo) {
+        Vertice s = (Vertice) vertice(origen);
+        Vertice t = (Vertice) vertice(destino);
+        Vertice[] padres = nuevoArreglo(elementos);
+        double[] d = dijkstra(s, t, padres, conArreglo);
+        Lista<VerticeGrafica<T>> trayectoria = new Lista<VerticeGrafica<T>>();
+        if (d[t.id] == Double.POSITIVE_INFINITY)
+            return trayectoria;
+        for (Vertice v = t; v != null; v = padres[v.id])
+            trayectoria.agregaInicio(v);
+        return trayectoria;
+    }
+
+    /**
+     * Calcula el peso de las trayectorias de peso mínimo desde el elemento de
+     * origen a todos los elementos de la gráfica, usando el algoritmo de
+     * Dijkstra con un {@link MonticuloMinimo}.
+     * @param origen el vértice origen.
+     * @return un diccionario con la distancia desde el origen a cada elemento
+     *         de la gráfica; los elementos inalcanzables tienen distancia
+     *         {@link Double#POSITIVE_INFINITY}.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public Diccionario<T, Double> distancias(T origen) {
+        return distancias(origen, false);
+    }
+
+    /**
+     * Calcula el peso de las trayectorias de peso mínimo desde el elemento de
+     * origen a todos los elementos de la gráfica, usando el algoritmo de
+     * Dijkstra con el montículo indicado; {@link
+     * #dijkstra(Object,Object,boolean)} explica cuándo conviene cada uno.
+     * @param origen el vértice origen.
+     * @param conArreglo si se usa un {@link MonticuloArreglo} en lugar de un
+     *        {@link MonticuloMinimo}.
+     * @return un diccionario con la distancia desde el origen a cada elemento
+     *         de la gráfica; los elementos inalcanzables tienen distancia
+     *         {@link Double#POSITIVE_INFINITY}.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public Diccionario<T, Double> distancias(T origen, boolean conArreglo) {
+        Vertice s = (Vertice) vertice(origen);
+        int n = elementos;
+        double[] d = dijkstra(s, null, nuevoArreglo(n), conArreglo);
+        Diccionario<T, Double> distancias = new Diccionario<T, Double>(n);
+        for (int i = 0; i < n; i++)
+            distancias.agrega(densos[i].elemento, d[i]);
+        return distancias;
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre el elemento de origen y el
+     * elemento destino usando A*: como Dijkstra, pero el montículo ordena los
+     * vértices por el peso desde el origen más la estimación de la heurística
+     * hasta el destino, así que se expanden primero los que parecen ir hacia
+     * él. Sólo entran al {@link MonticuloMinimo} los vértices descubiertos.
+     * Si la heurística nunca sobreestima, la trayectoria es de peso mínimo;
+     * si además es consistente (nunca baja más que el peso de una arista),
+     * ningún vértice se expande dos veces. Con la heurística constante 0 es
+     * exactamente Dijkstra con parada temprana.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param heuristica la heurística.
+     * @return la trayectoria, su peso y el número de vértices expandidos.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public TrayectoriaMinima<T> aEstrella(T origen, T destino,
+                                         Heuristica<T> heuristica) {
+        Vertice s = (Vertice) vertice(origen);
+        Vertice t = (Vertice) vertice(destino);
+        int n = elementos;
+        @SuppressWarnings("unchecked") ValorIndexable<Vertice>[] valores =
+            (ValorIndexable<Vertice>[])new ValorIndexable[n];
+        /* El peso desde el origen y la estimación al destino; sólo son
+           válidos para los vértices con valor. */
+        double[] pesos = new double[n];
+        double[] estimaciones = new double[n];
+        Vertice[] padres = nuevoArreglo(n);
+        long[] cerrados = new long[(n + 63) >>> 6];
+        MonticuloMinimo<ValorIndexable<Vertice>> abiertos =
+            new MonticuloMinimo<ValorIndexable<Vertice>>();
+        estimaciones[s.id] = heuristica.estima(s.elemento, t.elemento);
+        valores[s.id] = new ValorIndexable<Vertice>(s, estimaciones[s.id]);
+        abiertos.agrega(valores[s.id]);
+        int expandidos = 0;
+        boolean encontrado = false;
+        while (!abiertos.esVacia()) {
+            Vertice v = abiertos.elimina().getElemento();
+            cerrados[v.id >>> 6] |= 1L << v.id;
+            expandidos++;
+            if (v == t) {
+                encontrado = true;
+                break;
+            }
+            for (int k = 0; k < v.vecinos.getGrado(); k++) {
+                Vertice u = v.vecinos.get(k);
+                double p = pesos[v.id] + v.vecinos.getPeso(k);
+                ValorIndexable<Vertice> vu = valores[u.id];
+                if (vu == null) {
+                    estimaciones[u.id] = heuristica.estima(u.elemento,
+                                                           t.elemento);
+                    vu = valores[u.id] = new ValorIndexable<Vertice>(
+                        u, p + estimaciones[u.id]);
+                    pesos[u.id] = p;
+                    padres[u.id] = v;
+                    abiertos.agrega(vu);
+                } else if (p < pesos[u.id]) {
+                    pesos[u.id] = p;
+                    padres[u.id] = v;
+                    vu.setValor(p + estimaciones[u.id]);
+                    /* Con una heurística inconsistente un vértice cerrado
+                       puede mejorar; entonces se vuelve a abrir. */
+                    if ((cerrados[u.id >>> 6] & (1L << u.id)) != 0) {
+                        cerrados[u.id >>> 6] &= ~(1L << u.id);
+                        abiertos.agrega(vu);
+                    } else {
+                        abiertos.reordena(vu);
+                    }
+                }
+            }
+        }
+        Lista<VerticeGrafica<T>> trayectoria = new Lista<VerticeGrafica<T>>();
+        if (!encontrado)
+            return new TrayectoriaMinima<T>(trayectoria,
+                                            Double.POSITIVE_INFINITY,
+                                            expandidos);
+        for (Vertice v = t; v != null; v = padres[v.id])
+            trayectoria.agregaInicio(v);
+        return new TrayectoriaMinima<T>(trayectoria, pesos[t.id], expandidos);
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo con el algoritmo de Prim. Todos
+     * los vértices entran a un {@link MonticuloMinimo} con el peso de la
+     * arista más ligera que los une al árbol (infinito al principio), y cada
+     * vez que una arista mejora ese peso se reordena el montículo; toma tiempo
+     * <i>O</i>(<i>m</i> log <i>n</i>), y conviene en gráficas densas. Si la
+     * gráfica no es conexa, se regresa un árbol por componente.
+     * @return un árbol generador de peso mínimo y su peso.
+     */
+    public ArbolGeneradorMinimo<T> prim() {
+        int n = elementos;
+        @SuppressWarnings("unchecked") ValorIndexable<Vertice>[] valores =
+            (ValorIndexable<Vertice>[])new ValorIndexable[n];
+        Lista<ValorIndexable<Vertice>> l = new Lista<ValorIndexable<Vertice>>();
+        for (Vertice v = cabeza; v != null; v = v.siguiente) {
+            valores[v.id] = new ValorIndexable<Vertice>(v,
+                                                        Double.POSITIVE_INFINITY);
+            l.agrega(valores[v.id]);
+        }
+        MonticuloMinimo<ValorIndexable<Vertice>> monticulo =
+            new MonticuloMinimo<ValorIndexable<Vertice>>(l, n);
+        int[] padres = new int[n];
+        long[] enArbol = new long[(n + 63) >>> 6];
+        int[] a = new int[n], b = new int[n];
+        double[] pesos = new double[n];
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            ValorIndexable<Vertice> minimo = monticulo.elimina();
+            Vertice v = minimo.getElemento();
+            enArbol[v.id >>> 6] |= 1L << v.id;
+            /* Con peso infinito el vértice comienza una nueva componente. */
+            if (minimo.getValor() != Double.POSITIVE_INFINITY) {
+                a[k] = padres[v.id];
+                b[k] = v.id;
+                pesos[k++] = minimo.getValor();
+            }
+            for (int i = 0; i < v.vecinos.getGrado(); i++) {
+                int u = v.vecinos.get(i).id;
+                double peso = v.vecinos.getPeso(i);
+                if ((enArbol[u >>> 6] & (1L << u)) == 0 &&
+                    peso < valores[u].getValor()) {
+                    valores[u].setValor(peso);
+                    padres[u] = v.id;
+                    monticulo.reordena(valores[u]);
+                }
+            }
+        }
+        return arbolGenerador(a, b, pesos, k);
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo con el algoritmo de Kruskal.
+     * Las aristas se ordenan por peso con {@link Arreglos#quickSort} y se
+     * agregan en ese orden mientras unan componentes distintas, que se
+     * mantienen en unos {@link ConjuntosDisjuntos}; toma tiempo
+     * <i>O</i>(<i>m</i> log <i>m</i>), y conviene en gráficas dispersas. Si
+     * la gráfica no es conexa, se regresa un árbol por componente.
+     * @return un árbol generador de peso mínimo y su peso.
      */
-    @Override public boolean esVacia() {
-	       return vertices.esVacia();
+    public ArbolGeneradorMinimo<T> kruskal() {
+        int n = elementos;
+        @SuppressWarnings("unchecked") AristaGrafica<T>[] ordenadas =
+            (AristaGrafica<T>[])new AristaGrafica[aristas];
+        int[] m = { 0 };
+        paraCadaArista((x, y, peso) ->
+                       ordenadas[m[0]++] = new AristaGrafica<T>(x, y, peso));
+        Arreglos.quickSort(ordenadas,
+                           (x, y) -> Double.compare(x.getPeso(), y.getPeso()));
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(n);
+        int[] a = new int[n], b = new int[n];
+        double[] pesos = new double[n];
+        int k = 0;
+        for (int i = 0; i < ordenadas.length && k < n - 1; i++) {
+            int x = ((Vertice)ordenadas[i].getA()).id;
+            int y = ((Vertice)ordenadas[i].getB()).id;
+            if (conjuntos.une(x, y)) {
+                a[k] = x;
+                b[k] = y;
+                pesos[k++] = ordenadas[i].getPeso();
+            }
+        }
+        return arbolGenerador(a, b, pesos, k);
+    }
+
+    /* Construye el árbol generador con las primeras k aristas recibidas, entre
+       identificadores densos, y los mismos vértices de la gráfica en el mismo
+       orden. */
+    private ArbolGeneradorMinimo<T> arbolGenerador(int[] a, int[] b,
+                                                   double[] pesos, int k) {
+        int n = elementos;
+        int[] grados = new int[n];
+        double peso = 0;
+        for (int i = 0; i < k; i++) {
+            grados[a[i]]++;
+            grados[b[i]]++;
+            peso += pesos[i];
+        }
+        Grafica<T> arbol = new Grafica<T>();
+        arbol.reserva(n);
+        int[] ids = new int[n];
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            ids[v.id] = arbol.agregaDenso(v.elemento, grados[v.id]);
+        for (int i = 0; i < k; i++)
+            arbol.conectaDenso(ids[a[i]], ids[b[i]], pesos[i]);
+        arbol.revisaDensidad();
+        return new ArbolGeneradorMinimo<T>(arbol, peso);
     }
 
     /**
      * Limpia la gráfica de vértices y aristas, dejándola vacía.
      */
     @Override public void limpia() {
-        vertices = new Lista<Vertice>();
+        indice = new Diccionario<T, Vertice>();
+        vacia();
         aristas = 0;
+        huella = 0;
+        componentes = new ConjuntosDisjuntos();
+        componentesSucias = false;
+        matriz = null;
+        if (bitacora != null)
+            bitacora.registra(TipoCambio.LIMPIA, null, null, 0);
+    }
+
+    /**
+     * Nos dice si la gráfica está en modo denso, con matriz de adyacencia.
+     * @return <code>true</code> si la gráfica está en modo denso,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esDensa() {
+        return matriz != null;
+    }
+
+    /**
+     * Regresa el umbral de densidad para pasar a modo denso.
+     * @return el umbral de densidad.
+     */
+    public double getUmbralDensidad() {
+        return umbralDensidad;
+    }
+
+    /**
+     * Define el umbral de densidad para pasar a modo denso, y cambia de modo
+     * en ese momento si hace falta. La gráfica nunca es densa si tiene menos
+     * de 64 vértices; con un umbral mayor que 1, nunca es densa.
+     * @param umbral el nuevo umbral de densidad.
+     * @throws IllegalArgumentException si el umbral no es positivo.
+     */
+    public void setUmbralDensidad(double umbral) {
+        if (!(umbral > 0))
+            throw new IllegalArgumentException("Umbral no positivo");
+        umbralDensidad = umbral;
+        revisaDensidad();
+    }
+
+    /**
+     * Activa la bitácora de cambios de la gráfica, que guarda los últimos
+     * cambios hasta la capacidad recibida y se los avisa a sus observadores
+     * (ver {@link BitacoraGrafica}). Si ya estaba activa, se regresa la misma
+     * sin cambiar su capacidad. Mientras la bitácora está activa, cada cambio
+     * cuesta además registrarlo y avisarlo.
+     * @param capacidad el número de cambios a guardar; con 0 sólo se avisa
+     *        a los observadores.
+     * @return la bitácora de la gráfica.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public BitacoraGrafica<T> activaBitacora(int capacidad) {
+        if (capacidad < 0)
+            throw new IllegalArgumentException("Capacidad inválida");
+        if (bitacora == null)
+            bitacora = new BitacoraGrafica<T>(capacidad);
+        return bitacora;
+    }
+
+    /**
+     * Regresa la bitácora de cambios de la gráfica.
+     * @return la bitácora de cambios de la gráfica, o <code>null</code> si
+     *         no está activa.
+     */
+    public BitacoraGrafica<T> getBitacora() {
+        return bitacora;
+    }
+
+    /**
+     * Desactiva la bitácora de cambios de la gráfica; sus observadores dejan
+     * de recibir cambios.
+     */
+    public void desactivaBitacora() {
+        bitacora = null;
     }
 
     /**
@@ -329,23 +1202,23 @@ public class Grafica<T> implements Coleccion<T> {
      * @return una representación en cadena de la gráfica.
      */
     @Override public String toString() {
-      String s[] = {"{"};
-      for (Vertice v: vertices)
-        s[0] += v.elemento+", ";
-      s[0] += "}, {";
-      for (Vertice v: vertices){
-        Vertice w = (Vertice) v;
-        w.color = Color.NEGRO;
-        for (Vertice u: w.vecinos)
-          if(!u.color.equals(Color.NEGRO))
-            s[0] += String.format("(%d, %d), ", w.elemento, u.elemento);
-      }
-      s[0] += "}";
-      return s[0];
+        StringBuilder sb = new StringBuilder("{");
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            sb.append(v.elemento).append(", ");
+        sb.append("}, {");
+        paraCadaArista((a, b, peso) -> sb.append('(').append(a.get())
+                       .append(", ").append(b.get()).append("), "));
+        sb.append('}');
+        return sb.toString();
     }
 
     /**
-     * Nos dice si la gráfica es igual al objeto recibido.
+     * Nos dice si la gráfica es igual al objeto recibido. Dos gráficas son
+     * iguales si tienen los mismos elementos y las mismas aristas entre
+     * ellos, sin importar el orden en que se agregaron ni los pesos. Si las
+     * huellas estructurales difieren, el método toma tiempo constante; si
+     * coinciden, busca cada vértice y cada arista en la otra gráfica en
+     * tiempo <i>O</i>(<i>n</i> + <i>m</i>) esperado.
      * @param objeto el objeto con el que hay que comparar.
      * @return <tt>true</tt> si la gráfica es igual al objeto recibido;
      *         <tt>false</tt> en otro caso.
@@ -354,60 +1227,140 @@ public class Grafica<T> implements Coleccion<T> {
         if (objeto == null || getClass() != objeto.getClass())
             return false;
         @SuppressWarnings("unchecked") Grafica<T> grafica = (Grafica<T>)objeto;
-        if(vertices.getElementos()!=grafica.vertices.getElementos())
-          return false;
-        for (Vertice v: grafica.vertices)
-          if(!contiene(v))
+        if (elementos != grafica.elementos ||
+            aristas != grafica.aristas || huella != grafica.huella)
             return false;
-	      return true;
-    }
-    private boolean contiene(Vertice v){
-      for (Vertice u: vertices)
-        if(u.iguales(v))
-          return true;
-      return false;
+        /* Primero se empareja cada vértice con el de la otra gráfica, por
+           identificador denso, para que revisar las vecindades no tenga que
+           volver a buscar por elemento. */
+        int n = elementos;
+        Vertice[] pares = nuevoArreglo(n);
+        for (int i = 0; i < n; i++) {
+            Vertice u = grafica.busca(densos[i].elemento);
+            if (u == null ||
+                u.vecinos.getGrado() != densos[i].vecinos.getGrado())
+                return false;
+            pares[i] = u;
+        }
+        /* En modo denso la matriz de la otra gráfica responde sin buscar en
+           la vecindad. */
+        MatrizAdyacencia m = grafica.matriz;
+        for (int i = 0; i < n; i++) {
+            Vecindad<Vertice> vecinos = densos[i].vecinos;
+            for (int k = 0; k < vecinos.getGrado(); k++) {
+                Vertice u = pares[i], w = pares[vecinos.get(k).id];
+                if (m != null ? !m.sonVecinos(u.id, w.id) :
+                    !u.vecinos.contiene(w))
+                    return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Regresa un iterador para iterar la gráfica. La gráfica se itera en el
-     * orden en que fueron agregados sus elementos.
-     * @return un iterador para iterar la gráfica.
+     * Regresa un código de dispersión para la gráfica, consistente con
+     * {@link #equals}: se obtiene de la huella estructural, que se mantiene
+     * al agregar, eliminar, conectar y desconectar, así que toma tiempo
+     * constante.
+     * @return un código de dispersión para la gráfica.
      */
-    @Override public Iterator<T> iterator() {
-        return new Iterador();
+    @Override public int hashCode() {
+        return (int)(huella ^ (huella >>> 32));
+    }
+
+    /* Nos dice si dos vértices son vecinos, con la matriz si la hay. */
+    private boolean adyacentes(Vertice a, Vertice b) {
+        return matriz != null ? matriz.sonVecinos(a.id, b.id) :
+            a.vecinos.contiene(b);
+    }
+
+    /* Pasa a modo denso si la densidad rebasa el umbral, o a modo disperso
+       si baja de la mitad del umbral. Las construcciones masivas con
+       reserva, agregaDenso y conectaDenso tienen que llamarlo al final. */
+    void revisaDensidad() {
+        long n = elementos;
+        double posibles = n * (n - 1) / 2.0;
+        if (matriz == null) {
+            if (n >= MINIMO_DENSO && aristas > umbralDensidad * posibles)
+                densifica();
+        } else if (n < MINIMO_DENSO ||
+                   aristas < umbralDensidad / 2 * posibles) {
+            matriz = null;
+        }
+    }
+
+    /* Construye la matriz de adyacencia. */
+    private void densifica() {
+        MatrizAdyacencia m = new MatrizAdyacencia(densos.length);
+        for (int i = 0; i < elementos; i++)
+            m.agrega(i);
+        for (int i = 0; i < elementos; i++) {
+            Vecindad<Vertice> vecinos = densos[i].vecinos;
+            for (int k = 0; k < vecinos.getGrado(); k++)
+                m.conecta(i, vecinos.get(k).id);
+        }
+        matriz = m;
     }
 
     private Vertice busca(T e){
-      try{
-        return (Vertice) vertice(e);
-      }catch (NoSuchElementException err) {
-        return null;
-      }
+      return indice.get(e);
     }
 
-    private void recorrido(T e,
-                           AccionVerticeGrafica<T> accion,
-                           MeteSaca<Vertice> ms,
-                           Color c){
-      Vertice v =(Vertice) vertice(e);
-      v.color = c;
-      ms.mete(v);
-      while(!ms.esVacia()){
-        v = ms.saca();
-        accion.actua(v);
-        for (Vertice u: v.vecinos)
-          if(!u.color.equals(c)){
-            u.color = c;
-            ms.mete(u);
-          }
-      }
+    /* Regresa la huella de un vértice. */
+    private long huella(Vertice v) {
+        return mezcla(v.dispersion);
     }
 
-    private void recorreYLimpia(T e,
-                           AccionVerticeGrafica<T> accion,
-                           MeteSaca<Vertice> ms,
-                           Color c){
-       recorrido(e, accion, ms, c);
-       recorrido(e, (vl)->{}, ms, Color.NINGUNO);
+    /* Regresa la huella de la arista entre dos vértices; es simétrica. */
+    private long huella(Vertice a, Vertice b) {
+        long x = Math.min(a.dispersion, b.dispersion);
+        long y = Math.max(a.dispersion, b.dispersion);
+        return mezcla(mezcla(x ^ 0x5DEECE66DL) + y);
+    }
+
+    /* El finalizador de SplitMix64: revuelve los bits para que la suma de
+       huellas no se cancele con facilidad. */
+    private static long mezcla(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /* Algoritmo de Dijkstra desde s; si t no es null se detiene en cuanto
+       sabe la distancia a t. Regresa las distancias por identificador denso y
+       deja en padres el vértice anterior en cada trayectoria mínima. */
+    private double[] dijkstra(Vertice s, Vertice t, Vertice[] padres,
+                              boolean conArreglo) {
+        int n = elementos;
+        @SuppressWarnings("unchecked") ValorIndexable<Vertice>[] valores =
+            (ValorIndexable<Vertice>[])new ValorIndexable[n];
+        Lista<ValorIndexable<Vertice>> l = new Lista<ValorIndexable<Vertice>>();
+        for (int i = 0; i < n; i++) {
+            double d = densos[i] == s ? 0 : Double.POSITIVE_INFINITY;
+            valores[i] = new ValorIndexable<Vertice>(densos[i], d);
+            l.agrega(valores[i]);
+        }
+        MonticuloDijkstra<ValorIndexable<Vertice>> monticulo = conArreglo ?
+            new MonticuloArreglo<ValorIndexable<Vertice>>(l, n) :
+            new MonticuloMinimo<ValorIndexable<Vertice>>(l, n);
+        while (!monticulo.esVacia()) {
+            ValorIndexable<Vertice> minimo = monticulo.elimina();
+            Vertice v = minimo.getElemento();
+            if (minimo.getValor() == Double.POSITIVE_INFINITY || v == t)
+                break;
+            for (int k = 0; k < v.vecinos.getGrado(); k++) {
+                ValorIndexable<Vertice> u = valores[v.vecinos.get(k).id];
+                double d = minimo.getValor() + v.vecinos.getPeso(k);
+                if (d < u.getValor()) {
+                    u.setValor(d);
+                    padres[v.vecinos.get(k).id] = v;
+                    monticulo.reordena(u);
+                }
+            }
+        }
+        double[] distancias = new double[n];
+        for (int i = 0; i < n; i++)
+            distancias[i] = valores[i].getValor();
+        return distancias;
     }
 }
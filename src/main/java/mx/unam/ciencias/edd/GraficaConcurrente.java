@@ -0,0 +1,584 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clase para gráficas que pueden usarse desde varios hilos a la vez. Los
+ * vértices se encuentran en un índice concurrente, así que agregar un
+ * elemento o buscarlo no bloquea a nadie; la vecindad de cada vértice está
+ * protegida por uno de varios candados de lectura y escritura (las
+ * <i>franjas</i>), escogido por la dispersión de su elemento. Conectar o
+ * desconectar dos elementos toma sólo los candados de escritura de sus dos
+ * franjas, y preguntar si son vecinos sólo el de lectura de una, así que las
+ * consultas avanzan en paralelo entre ellas y con las escrituras a otras
+ * franjas.
+ *
+ * Los recorridos no copian la gráfica: siguen las vecindades mismas, toman
+ * sólo el candado de lectura de la franja del vértice que expanden, y marcan
+ * los visitados en un diccionario propio, así que varios pueden correr al
+ * mismo tiempo y las escrituras siguen mientras tanto. Cada vecindad se lee
+ * completa, así que un recorrido nunca ve una escritura a medias; si además
+ * hace falta que refleje un solo estado de toda la gráfica, se puede recorrer
+ * una {@link #instantanea}, que se toma con los candados de lectura de todas
+ * las franjas. Eliminar un vértice o limpiar la gráfica toma los candados de
+ * escritura de todas las franjas. Los candados siempre se toman en orden de
+ * franja, así que no hay abrazos mortales.
+ */
+public class GraficaConcurrente<T> implements Coleccion<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Iterador auxiliar. */
+        private Iterator<T> iterador;
+
+        /* Construye un nuevo iterador, auxiliándose del índice. */
+        public Iterador() {
+            iterador = indice.keySet().iterator();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return iterador.hasNext();
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            return iterador.next();
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice implements VerticeGrafica<T> {
+
+        /* El elemento del vértice. */
+        public T elemento;
+        /* La vecindad del vértice, protegida por el candado de su franja. */
+        public Vecindad<Vertice> vecinos;
+        /* La franja del vértice. */
+        public int franja;
+        /* El orden en que fue agregado el vértice. */
+        public long orden;
+        /* Si el vértice sigue en la gráfica; sólo cambia con los candados de
+           escritura de todas las franjas. */
+        public boolean vivo;
+
+        /* Crea un nuevo vértice. */
+        public Vertice(T elemento) {
+            this.elemento = elemento;
+            int h = elemento.hashCode();
+            franja = (h ^ (h >>> 16)) & (franjas.length - 1);
+            orden = siguienteOrden.getAndIncrement();
+            vecinos = new Vecindad<Vertice>();
+            vivo = true;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elemento;
+        }
+
+        /* Regresa el grado del vértice, con el candado de lectura de su
+           franja. */
+        @Override public int getGrado() {
+            ReentrantReadWriteLock.ReadLock candado =
+                franjas[franja].readLock();
+            candado.lock();
+            try {
+                return vecinos.getGrado();
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        /* Las gráficas concurrentes no colorean sus vértices. */
+        @Override public Color getColor() {
+            return Color.NINGUNO;
+        }
+
+        /* Regresa una copia de los vecinos, tomada con el candado de lectura
+           de su franja. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            Lista<Vertice> lista = new Lista<Vertice>();
+            ReentrantReadWriteLock.ReadLock candado =
+                franjas[franja].readLock();
+            candado.lock();
+            try {
+                for (Vertice u: vecinos)
+                    lista.agrega(u);
+            } finally {
+                candado.unlock();
+            }
+            return lista;
+        }
+    }
+
+    /* Índice de los vértices por su elemento. */
+    private ConcurrentHashMap<T, Vertice> indice;
+    /* Los candados de las franjas; son una potencia de 2. */
+    private ReentrantReadWriteLock[] franjas;
+    /* Número de aristas. */
+    private AtomicInteger aristas;
+    /* El orden que le toca al siguiente vértice agregado. */
+    private AtomicLong siguienteOrden;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArreglo(int n) {
+        return (Vertice[])Array.newInstance(Vertice.class, n);
+    }
+
+    /**
+     * Construye una gráfica vacía con cuatro franjas por procesador.
+     */
+    public GraficaConcurrente() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construye una gráfica vacía con por lo menos el número de franjas
+     * recibido; se redondea a la siguiente potencia de 2.
+     * @param franjas el número de franjas.
+     * @throws IllegalArgumentException si el número de franjas es menor que
+     *         1 o mayor que 2<sup>16</sup>.
+     */
+    public GraficaConcurrente(int franjas) {
+        if (franjas < 1 || franjas > (1 << 16))
+            throw new IllegalArgumentException("Número de franjas inválido");
+        int k = Integer.highestOneBit(franjas);
+        if (k < franjas)
+            k <<= 1;
+        this.franjas = new ReentrantReadWriteLock[k];
+        for (int i = 0; i < k; i++)
+            this.franjas[i] = new ReentrantReadWriteLock();
+        indice = new ConcurrentHashMap<T, Vertice>();
+        aristas = new AtomicInteger();
+        siguienteOrden = new AtomicLong();
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    @Override public int getElementos() {
+        return indice.size();
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return aristas.get();
+    }
+
+    /**
+     * Agrega un nuevo elemento a la gráfica. No toma ningún candado.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code> o
+     *         ya había sido agregado a la gráfica.
+     */
+    @Override public void agrega(T elemento) {
+        if (elemento == null ||
+            indice.putIfAbsent(elemento, new Vertice(elemento)) != null)
+            throw new IllegalArgumentException();
+    }
+
+    /**
+     * Conecta dos elementos de la gráfica. Los elementos deben estar en la
+     * gráfica. El peso de la arista que conecte a los elementos será 1.
+     * @param a el primer elemento a conectar.
+     * @param b el segundo elemento a conectar.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b ya están conectados, o si a es
+     *         igual a b.
+     */
+    public void conecta(T a, T b) {
+        conecta(a, b, 1);
+    }
+
+    /**
+     * Conecta dos elementos de la gráfica con una arista de peso dado. Los
+     * elementos deben estar en la gráfica. Toma los candados de escritura de
+     * las franjas de los dos.
+     * @param a el primer elemento a conectar.
+     * @param b el segundo elemento a conectar.
+     * @param peso el peso de la nueva arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b ya están conectados, si a es
+     *         igual a b, o si el peso es no positivo.
+     */
+    public void conecta(T a, T b, double peso) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if (va == vb || !(peso > 0))
+            throw new IllegalArgumentException();
+        bloquea(va, vb);
+        try {
+            vivos(va, vb);
+            if (va.vecinos.contiene(vb))
+                throw new IllegalArgumentException();
+            va.vecinos.agrega(vb, peso);
+            vb.vecinos.agrega(va, peso);
+            aristas.incrementAndGet();
+        } finally {
+            desbloquea(va, vb);
+        }
+    }
+
+    /**
+     * Desconecta dos elementos de la gráfica. Los elementos deben estar en la
+     * gráfica y estar conectados entre ellos. Toma los candados de escritura
+     * de las franjas de los dos.
+     * @param a el primer elemento a desconectar.
+     * @param b el segundo elemento a desconectar.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public void desconecta(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if (va == vb)
+            throw new IllegalArgumentException();
+        bloquea(va, vb);
+        try {
+            vivos(va, vb);
+            if (!va.vecinos.contiene(vb))
+                throw new IllegalArgumentException();
+            va.vecinos.elimina(vb);
+            vb.vecinos.elimina(va);
+            aristas.decrementAndGet();
+        } finally {
+            desbloquea(va, vb);
+        }
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return elemento != null && indice.containsKey(elemento);
+    }
+
+    /**
+     * Elimina un elemento de la gráfica, junto con sus aristas. El elemento
+     * tiene que estar contenido en la gráfica. Toma los candados de escritura
+     * de todas las franjas, porque sus vecinos pueden estar en cualquiera.
+     * @param elemento el elemento a eliminar.
+     * @throws NoSuchElementException si el elemento no está contenido en la
+     *         gráfica.
+     */
+    @Override public void elimina(T elemento) {
+        Vertice v = busca(elemento);
+        bloqueaTodas(false);
+        try {
+            if (!v.vivo)
+                throw new NoSuchElementException();
+            for (Vertice u: v.vecinos)
+                u.vecinos.elimina(v);
+            aristas.addAndGet(-v.vecinos.getGrado());
+            v.vecinos.limpia();
+            v.vivo = false;
+            indice.remove(elemento, v);
+        } finally {
+            desbloqueaTodas(false);
+        }
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados. Los elementos
+     * deben estar en la gráfica. Toma el candado de lectura de la franja del
+     * primero.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        ReentrantReadWriteLock.ReadLock candado =
+            franjas[va.franja].readLock();
+        candado.lock();
+        try {
+            return va.vecinos.contiene(vb);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los dos elementos. Toma el
+     * candado de lectura de la franja del primero.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista que comparten los dos elementos.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        ReentrantReadWriteLock.ReadLock candado =
+            franjas[va.franja].readLock();
+        candado.lock();
+        try {
+            if (!va.vecinos.contiene(vb))
+                throw new IllegalArgumentException();
+            return va.vecinos.peso(vb);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa el grado del vértice del elemento recibido. Toma el candado de
+     * lectura de su franja.
+     * @param elemento el elemento.
+     * @return el grado del vértice del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getGrado(T elemento) {
+        Vertice v = busca(elemento);
+        ReentrantReadWriteLock.ReadLock candado =
+            franjas[v.franja].readLock();
+        candado.lock();
+        try {
+            return v.vecinos.getGrado();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa una copia de la gráfica como {@link Grafica}, con los vértices
+     * en el orden en que fueron agregados. Se toman los candados de lectura
+     * de todas las franjas mientras se copian las aristas, así que la copia
+     * es un estado en el que estuvo la gráfica: las consultas y otras
+     * instantáneas siguen mientras tanto, y las escrituras esperan a que
+     * termine.
+     * @return una copia de la gráfica.
+     */
+    public Grafica<T> instantanea() {
+        bloqueaTodas(true);
+        try {
+            /* Los elementos se pueden seguir agregando sin candados, así que
+               el arreglo crece si hace falta. */
+            Vertice[] vertices = nuevoArreglo(indice.size());
+            int n = 0;
+            for (Vertice v: indice.values()) {
+                if (!v.vivo)
+                    continue;
+                if (n == vertices.length) {
+                    Vertice[] viejos = vertices;
+                    vertices = nuevoArreglo(Math.max(n * 2, 16));
+                    System.arraycopy(viejos, 0, vertices, 0, n);
+                }
+                vertices[n++] = v;
+            }
+            if (n < vertices.length) {
+                Vertice[] viejos = vertices;
+                vertices = nuevoArreglo(n);
+                System.arraycopy(viejos, 0, vertices, 0, n);
+            }
+            Comparator<Vertice> porOrden =
+                (u, v) -> Long.compare(u.orden, v.orden);
+            Arreglos.quickSort(vertices, porOrden);
+            /* Los identificadores de la copia van en un diccionario propio,
+               para que varias instantáneas puedan tomarse a la vez. */
+            Diccionario<Vertice, Integer> ids =
+                new Diccionario<Vertice, Integer>(n);
+            Grafica<T> grafica = new Grafica<T>();
+            grafica.reserva(n);
+            for (Vertice v: vertices)
+                ids.agrega(v, grafica.agregaDenso(v.elemento,
+                                                  v.vecinos.getGrado()));
+            for (int i = 0; i < n; i++) {
+                Vecindad<Vertice> vecinos = vertices[i].vecinos;
+                for (int k = 0; k < vecinos.getGrado(); k++) {
+                    Vertice u = vecinos.get(k);
+                    if (vertices[i].orden < u.orden)
+                        grafica.conectaDenso(i, ids.get(u),
+                                             vecinos.getPeso(k));
+                }
+            }
+            grafica.revisaDensidad();
+            return grafica;
+        } finally {
+            desbloqueaTodas(true);
+        }
+    }
+
+    /**
+     * Realiza la acción recibida en los vértices alcanzables desde el
+     * elemento recibido, en el orden determinado por BFS. Al expandir cada
+     * vértice se lee su vecindad con el candado de lectura de su franja; la
+     * acción se realiza sin candados, así que puede modificar la gráfica. Se
+     * siguen todas las aristas que existan durante todo el recorrido; las que
+     * se agreguen o se eliminen mientras tanto pueden seguirse o no, y los
+     * vértices eliminados antes de expandirse se saltan. Los vértices que
+     * recibe la acción toman el candado de su franja al consultar su grado o
+     * sus vecinos.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorrido(elemento, accion, new Cola<Vertice>());
+    }
+
+    /**
+     * Realiza la acción recibida en los vértices alcanzables desde el
+     * elemento recibido, en el orden determinado por DFS. Los candados y lo
+     * que ve el recorrido de las escrituras simultáneas son como en {@link
+     * #bfs}.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorrido(elemento, accion, new Pila<Vertice>());
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return indice.isEmpty();
+    }
+
+    /**
+     * Limpia la gráfica de vértices y aristas, dejándola vacía. Toma los
+     * candados de escritura de todas las franjas.
+     */
+    @Override public void limpia() {
+        bloqueaTodas(false);
+        try {
+            /* Como en elimina, cada vértice se saca del índice junto con
+               marcarlo; vaciar el índice de golpe sacaría también a los
+               agregados después de recorrerlo, que seguirían vivos. */
+            for (Vertice v: indice.values()) {
+                v.vecinos.limpia();
+                v.vivo = false;
+                indice.remove(v.elemento, v);
+            }
+            aristas.set(0);
+        } finally {
+            desbloqueaTodas(false);
+        }
+    }
+
+    /**
+     * Regresa un iterador para iterar los elementos de la gráfica. Como el
+     * índice es concurrente, el iterador no falla si la gráfica cambia
+     * mientras se usa, pero puede o no ver esos cambios.
+     * @return un iterador para iterar los elementos de la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /* Regresa el vértice del elemento, o lanza una excepción si no está. */
+    private Vertice busca(T elemento) {
+        Vertice v = elemento == null ? null : indice.get(elemento);
+        if (v == null)
+            throw new NoSuchElementException();
+        return v;
+    }
+
+    /* Recorre la gráfica desde el vértice del elemento. Cada vértice se
+       expande con el candado de lectura de su franja, y la acción se realiza
+       ya sin él; los visitados se marcan al meterlos en un diccionario propio
+       del recorrido. */
+    private void recorrido(T elemento, AccionVerticeGrafica<T> accion,
+                           MeteSaca<Vertice> ms) {
+        Vertice v = busca(elemento);
+        Diccionario<Vertice, Vertice> visitados =
+            new Diccionario<Vertice, Vertice>();
+        visitados.agrega(v, v);
+        ms.mete(v);
+        boolean origen = true;
+        while (!ms.esVacia()) {
+            v = ms.saca();
+            ReentrantReadWriteLock.ReadLock candado =
+                franjas[v.franja].readLock();
+            candado.lock();
+            try {
+                if (!v.vivo) {
+                    if (origen)
+                        throw new NoSuchElementException();
+                    continue;
+                }
+                for (int k = 0; k < v.vecinos.getGrado(); k++) {
+                    Vertice u = v.vecinos.get(k);
+                    if (!visitados.contiene(u)) {
+                        visitados.agrega(u, u);
+                        ms.mete(u);
+                    }
+                }
+            } finally {
+                candado.unlock();
+            }
+            origen = false;
+            accion.actua(v);
+        }
+    }
+
+    /* Lanza una excepción si alguno de los vértices ya fue eliminado; debe
+       llamarse con sus candados tomados. */
+    private void vivos(Vertice a, Vertice b) {
+        if (!a.vivo || !b.vivo)
+            throw new NoSuchElementException();
+    }
+
+    /* Toma los candados de escritura de las franjas de a y b, en orden. */
+    private void bloquea(Vertice a, Vertice b) {
+        int i = Math.min(a.franja, b.franja), j = Math.max(a.franja, b.franja);
+        franjas[i].writeLock().lock();
+        if (j != i)
+            franjas[j].writeLock().lock();
+    }
+
+    /* Suelta los candados de escritura de las franjas de a y b. */
+    private void desbloquea(Vertice a, Vertice b) {
+        franjas[a.franja].writeLock().unlock();
+        if (b.franja != a.franja)
+            franjas[b.franja].writeLock().unlock();
+    }
+
+    /* Toma los candados de lectura o de escritura de todas las franjas, en
+       orden. */
+    private void bloqueaTodas(boolean lectura) {
+        for (ReentrantReadWriteLock franja: franjas)
+            if (lectura)
+                franja.readLock().lock();
+            else
+                franja.writeLock().lock();
+    }
+
+    /* Suelta los candados de lectura o de escritura de todas las franjas. */
+    private void desbloqueaTodas(boolean lectura) {
+        for (ReentrantReadWriteLock franja: franjas)
+            if (lectura)
+                franja.readLock().unlock();
+            else
+                franja.writeLock().unlock();
+    }
+}
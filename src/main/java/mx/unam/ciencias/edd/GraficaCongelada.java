@@ -0,0 +1,808 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase para gráficas inmutables. Se obtienen con {@link Grafica#congela} y
+ * guardan las aristas en arreglos compactos (<i>compressed sparse row</i>):
+ * cada vértice tiene un identificador denso entre 0 y <i>n</i>-1, y los
+ * identificadores de los vecinos del vértice <i>i</i> están en las posiciones
+ * <code>desplazamientos[i]</code> a <code>desplazamientos[i+1]-1</code> del
+ * arreglo <code>destinos</code>, con los pesos de las aristas en las mismas
+ * posiciones del arreglo <code>pesos</code>.
+ *
+ * Como nada en ella cambia, varios hilos pueden recorrerla al mismo tiempo.
+ * Los vértices de una gráfica congelada siempre tienen color {@link
+ * Color#NINGUNO}.
+ */
+public class GraficaCongelada<T> implements Iterable<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Índice del iterador. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < elementos.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if (indice >= elementos.length)
+                throw new NoSuchElementException();
+            return elementos[indice++];
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice implements VerticeGrafica<T> {
+
+        /* El identificador del vértice. */
+        public int id;
+
+        /* Crea un nuevo vértice a partir de su identificador. */
+        public Vertice(int id) {
+            this.id = id;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elementos[id];
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return desplazamientos[id+1] - desplazamientos[id];
+        }
+
+        /* Regresa el color del vértice. */
+        @Override public Color getColor() {
+            return Color.NINGUNO;
+        }
+
+        /* Regresa un iterable para los vecinos. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            Iterable<Vertice> vecinos = () -> new IteradorVecinos(id);
+            return vecinos;
+        }
+    }
+
+    /* Clase interna privada para iteradores de vecinos. */
+    private class IteradorVecinos implements Iterator<Vertice> {
+
+        /* La posición del siguiente vecino en destinos. */
+        private int j;
+        /* Dónde terminan los vecinos en destinos. */
+        private int fin;
+
+        /* Construye un iterador para los vecinos del vértice. */
+        public IteradorVecinos(int id) {
+            j = desplazamientos[id];
+            fin = desplazamientos[id+1];
+        }
+
+        /* Nos dice si hay un siguiente vecino. */
+        @Override public boolean hasNext() {
+            return j < fin;
+        }
+
+        /* Regresa el siguiente vecino. */
+        @Override public Vertice next() {
+            if (j >= fin)
+                throw new NoSuchElementException();
+            return vertices[destinos[j++]];
+        }
+    }
+
+    /* Clase interna privada para expandir en paralelo un pedazo de la
+       frontera de un BFS por niveles. */
+    private class Expansion extends RecursiveAction {
+
+        /* Versión para serialización. */
+        private static final long serialVersionUID = 1L;
+
+        /* La frontera actual y el pedazo que le toca a la tarea. */
+        private int[] frontera;
+        private int inicio, fin;
+        /* El estado compartido del recorrido. */
+        private ExpansionParalela estado;
+
+        /* Construye una tarea para frontera[inicio..fin). */
+        public Expansion(int[] frontera, int inicio, int fin,
+                         ExpansionParalela estado) {
+            this.frontera = frontera;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.estado = estado;
+        }
+
+        /* Divide el pedazo mientras sea grande; si no, lo expande. */
+        @Override protected void compute() {
+            if (fin - inicio > PEDAZO) {
+                int mitad = (inicio + fin) >>> 1;
+                invokeAll(new Expansion(frontera, inicio, mitad, estado),
+                          new Expansion(frontera, mitad, fin, estado));
+                return;
+            }
+            int[] local = new int[PEDAZO];
+            int k = 0;
+            long examinadas = 0;
+            for (int i = inicio; i < fin; i++) {
+                int v = frontera[i];
+                examinadas += desplazamientos[v+1] - desplazamientos[v];
+                for (int j = desplazamientos[v]; j < desplazamientos[v+1]; j++) {
+                    int u = destinos[j];
+                    if (!estado.reclama(u))
+                        continue;
+                    estado.niveles[u] = estado.nivel;
+                    if (k == local.length) {
+                        estado.publica(local, k);
+                        k = 0;
+                    }
+                    local[k++] = u;
+                }
+            }
+            estado.publica(local, k);
+            estado.examinadas.addAndGet(examinadas);
+        }
+    }
+
+    /* Clase interna privada para el estado compartido por las tareas de un
+       BFS paralelo. */
+    private class ExpansionParalela {
+
+        /* Los vértices ya alcanzados, como conjunto de bits. */
+        public AtomicLongArray visitados;
+        /* Los niveles por identificador. */
+        public int[] niveles;
+        /* El nivel que se está asignando. */
+        public int nivel;
+        /* La siguiente frontera y cuántos vértices tiene. */
+        public int[] siguiente;
+        public AtomicInteger tamanio;
+        /* Las aristas examinadas. */
+        public AtomicLong examinadas;
+
+        /* Construye el estado para un recorrido. */
+        public ExpansionParalela() {
+            int n = elementos.length;
+            visitados = new AtomicLongArray((n + 63) >>> 6);
+            niveles = new int[n];
+            siguiente = new int[n];
+            tamanio = new AtomicInteger();
+            examinadas = new AtomicLong();
+        }
+
+        /* Marca al vértice como alcanzado; regresa true sólo al hilo que lo
+           marcó primero. */
+        public boolean reclama(int u) {
+            int i = u >>> 6;
+            long bit = 1L << u;
+            long palabra = visitados.get(i);
+            while ((palabra & bit) == 0) {
+                if (visitados.compareAndSet(i, palabra, palabra | bit))
+                    return true;
+                palabra = visitados.get(i);
+            }
+            return false;
+        }
+
+        /* Copia los vértices del búfer local a la siguiente frontera. */
+        public void publica(int[] local, int k) {
+            if (k == 0)
+                return;
+            int i = tamanio.getAndAdd(k);
+            System.arraycopy(local, 0, siguiente, i, k);
+        }
+    }
+
+    /* Clase interna privada para el estado de un hilo en un lote de
+       recorridos: todo se reserva una vez por hilo y se reutiliza de un
+       origen al siguiente. */
+    private class Trabajador {
+
+        /* Las distancias o los niveles del origen actual. */
+        public double[] distancias;
+        public int[] niveles;
+        /* La cola del BFS. */
+        public int[] cola;
+        /* El montículo de Dijkstra y el valor indexable de cada vértice. */
+        public MonticuloMinimo<ValorIndexable<Integer>> monticulo;
+        public ValorIndexable<Integer>[] valores;
+
+        /* Construye el estado para Dijkstra o para BFS. */
+        @SuppressWarnings("unchecked") public Trabajador(boolean dijkstra) {
+            int n = elementos.length;
+            if (dijkstra) {
+                distancias = new double[n];
+                monticulo = new MonticuloMinimo<ValorIndexable<Integer>>();
+                valores = (ValorIndexable<Integer>[])new ValorIndexable[n];
+                for (int i = 0; i < n; i++)
+                    valores[i] = new ValorIndexable<Integer>(i, 0);
+            } else {
+                niveles = new int[n];
+                cola = new int[n];
+            }
+        }
+
+        /* Calcula las distancias desde s con Dijkstra. Los vértices entran
+           al montículo al descubrirse y sus valores se reordenan al
+           mejorar. */
+        public void dijkstra(int s) {
+            Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+            monticulo.limpia();
+            distancias[s] = 0;
+            valores[s].setValor(0);
+            monticulo.agrega(valores[s]);
+            while (!monticulo.esVacia()) {
+                int v = monticulo.elimina().getElemento();
+                double d = distancias[v];
+                for (int j = desplazamientos[v]; j < desplazamientos[v+1];
+                     j++) {
+                    int u = destinos[j];
+                    double du = d + pesos[j];
+                    if (du < distancias[u]) {
+                        boolean nuevo =
+                            distancias[u] == Double.POSITIVE_INFINITY;
+                        distancias[u] = du;
+                        valores[u].setValor(du);
+                        if (nuevo)
+                            monticulo.agrega(valores[u]);
+                        else
+                            monticulo.reordena(valores[u]);
+                    }
+                }
+            }
+        }
+
+        /* Calcula los niveles desde s con BFS. */
+        public void bfs(int s) {
+            Arrays.fill(niveles, -1);
+            int inicio = 0, fin = 0;
+            cola[fin++] = s;
+            niveles[s] = 0;
+            while (inicio < fin) {
+                int v = cola[inicio++];
+                for (int j = desplazamientos[v]; j < desplazamientos[v+1];
+                     j++) {
+                    int u = destinos[j];
+                    if (niveles[u] == -1) {
+                        niveles[u] = niveles[v] + 1;
+                        cola[fin++] = u;
+                    }
+                }
+            }
+        }
+    }
+
+    /* Clase interna privada para repartir un lote de orígenes entre los
+       hilos. Se divide hasta llegar a un solo origen, para que el robo de
+       tareas equilibre orígenes de costo distinto; cada hilo toma su
+       Trabajador del ThreadLocal del lote. */
+    private class Lote extends RecursiveAction {
+
+        /* Versión para serialización. */
+        private static final long serialVersionUID = 1L;
+
+        /* Los orígenes y el pedazo que le toca a la tarea. */
+        private int[] origenes;
+        private int inicio, fin;
+        /* El estado de cada hilo. */
+        private ThreadLocal<Trabajador> trabajadores;
+        /* A quién entregar los resultados; sólo una es distinta de null. */
+        private AccionDistancias accionDistancias;
+        private AccionNiveles accionNiveles;
+
+        /* Construye una tarea para origenes[inicio..fin). */
+        public Lote(int[] origenes, int inicio, int fin,
+                    ThreadLocal<Trabajador> trabajadores,
+                    AccionDistancias accionDistancias,
+                    AccionNiveles accionNiveles) {
+            this.origenes = origenes;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.trabajadores = trabajadores;
+            this.accionDistancias = accionDistancias;
+            this.accionNiveles = accionNiveles;
+        }
+
+        /* Divide el pedazo mientras tenga más de un origen; si no, lo
+           recorre. */
+        @Override protected void compute() {
+            if (fin - inicio > 1) {
+                int mitad = (inicio + fin) >>> 1;
+                invokeAll(new Lote(origenes, inicio, mitad, trabajadores,
+                                   accionDistancias, accionNiveles),
+                          new Lote(origenes, mitad, fin, trabajadores,
+                                   accionDistancias, accionNiveles));
+                return;
+            }
+            if (fin == inicio)
+                return;
+            Trabajador t = trabajadores.get();
+            int s = origenes[inicio];
+            if (accionDistancias != null) {
+                t.dijkstra(s);
+                accionDistancias.actua(s, t.distancias);
+            } else {
+                t.bfs(s);
+                accionNiveles.actua(s, t.niveles);
+            }
+        }
+    }
+
+    /* Número de vértices de la frontera por debajo del cual una tarea de BFS
+       paralelo deja de dividirse. */
+    private static final int PEDAZO = 1024;
+    /* Parámetros de Beamer et al. para el BFS de dirección optimizada: se
+       pasa de arriba-abajo a abajo-arriba cuando las aristas de la frontera
+       rebasan 1/ALFA de las aristas de los vértices no alcanzados, y se
+       regresa cuando la frontera tiene menos de n/BETA vértices. */
+    private static final int ALFA = 15;
+    private static final int BETA = 18;
+
+    /* Los elementos, por identificador. */
+    final T[] elementos;
+    /* Dónde comienzan los vecinos de cada vértice en destinos; tiene n+1
+       entradas. */
+    final int[] desplazamientos;
+    /* Los identificadores de los vecinos de todos los vértices. */
+    final int[] destinos;
+    /* El peso de cada arista, paralelo a destinos. */
+    final double[] pesos;
+    /* Los identificadores por elemento. */
+    private Diccionario<T, Integer> ids;
+    /* Los vértices, por identificador. */
+    private Vertice[] vertices;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArreglo(int n) {
+        return (Vertice[])Array.newInstance(Vertice.class, n);
+    }
+
+    /* Construye una gráfica congelada; los arreglos le pertenecen a partir de
+       este momento. */
+    GraficaCongelada(T[] elementos, int[] desplazamientos, int[] destinos,
+                     double[] pesos) {
+        this.elementos = elementos;
+        this.desplazamientos = desplazamientos;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        ids = new Diccionario<T, Integer>(elementos.length);
+        vertices = nuevoArreglo(elementos.length);
+        for (int i = 0; i < elementos.length; i++) {
+            ids.agrega(elementos[i], i);
+            vertices[i] = new Vertice(i);
+        }
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica.
+     * @return el número de elementos en la gráfica.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return destinos.length / 2;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento que queremos verificar.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return ids.contiene(elemento);
+    }
+
+    /**
+     * Regresa el identificador denso del elemento recibido.
+     * @param elemento el elemento del que queremos el identificador.
+     * @return el identificador del elemento, entre 0 y n-1.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getId(T elemento) {
+        Integer id = ids.get(elemento);
+        if (id == null)
+            throw new NoSuchElementException();
+        return id;
+    }
+
+    /**
+     * Regresa el elemento con el identificador recibido.
+     * @param id el identificador.
+     * @return el elemento con el identificador recibido.
+     * @throws ExcepcionIndiceInvalido si el identificador es inválido.
+     */
+    public T get(int id) {
+        if (id < 0 || id >= elementos.length)
+            throw new ExcepcionIndiceInvalido("Identificador inválido");
+        return elementos[id];
+    }
+
+    /**
+     * Regresa el grado del vértice con el identificador recibido.
+     * @param id el identificador.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el identificador es inválido.
+     */
+    public int getGrado(int id) {
+        if (id < 0 || id >= elementos.length)
+            throw new ExcepcionIndiceInvalido("Identificador inválido");
+        return desplazamientos[id+1] - desplazamientos[id];
+    }
+
+    /**
+     * Regresa el identificador del <i>k</i>-ésimo vecino del vértice con el
+     * identificador recibido.
+     * @param id el identificador del vértice.
+     * @param k el índice del vecino, entre 0 y el grado del vértice menos 1.
+     * @return el identificador del <i>k</i>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public int getVecino(int id, int k) {
+        if (k < 0 || k >= getGrado(id))
+            throw new ExcepcionIndiceInvalido("Índice de vecino inválido");
+        return destinos[desplazamientos[id] + k];
+    }
+
+    /**
+     * Regresa el peso de la arista al <i>k</i>-ésimo vecino del vértice con el
+     * identificador recibido.
+     * @param id el identificador del vértice.
+     * @param k el índice del vecino, entre 0 y el grado del vértice menos 1.
+     * @return el peso de la arista al <i>k</i>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public double getPeso(int id, int k) {
+        if (k < 0 || k >= getGrado(id))
+            throw new ExcepcionIndiceInvalido("Índice de vecino inválido");
+        return pesos[desplazamientos[id] + k];
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        int ia = getId(a), ib = getId(b);
+        if (getGrado(ia) > getGrado(ib)) {
+            int t = ia;
+            ia = ib;
+            ib = t;
+        }
+        for (int j = desplazamientos[ia]; j < desplazamientos[ia+1]; j++)
+            if (destinos[j] == ib)
+                return true;
+        return false;
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return vertices[getId(elemento)];
+    }
+
+    /**
+     * Nos dice si la gráfica es conexa.
+     * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esConexa() {
+        if (elementos.length < 2)
+            return true;
+        return recorrido(0, null, true) == elementos.length;
+    }
+
+    /**
+     * Realiza la acción recibida en cada uno de los vértices de la gráfica, en
+     * el orden de sus identificadores.
+     * @param accion la acción a realizar.
+     */
+    public void paraCadaVertice(AccionVerticeGrafica<T> accion) {
+        for (Vertice v: vertices)
+            accion.actua(v);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por BFS, comenzando por el vértice correspondiente al
+     * elemento recibido. El orden es el mismo que el de {@link Grafica#bfs} en
+     * la gráfica que se congeló.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorrido(getId(elemento), accion, true);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por DFS, comenzando por el vértice correspondiente al
+     * elemento recibido. El orden es el mismo que el de {@link Grafica#dfs} en
+     * la gráfica que se congeló.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorrido(getId(elemento), accion, false);
+    }
+
+    /**
+     * Calcula con BFS el nivel de cada vértice, es decir, su distancia en
+     * aristas desde el vértice del elemento recibido.
+     * @param elemento el elemento del vértice origen.
+     * @return los niveles de todos los vértices.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public NivelesBFS niveles(T elemento) {
+        int s = getId(elemento);
+        int[] niveles = new int[elementos.length];
+        for (int i = 0; i < niveles.length; i++)
+            niveles[i] = -1;
+        int[] cola = new int[elementos.length];
+        int inicio = 0, fin = 0;
+        cola[fin++] = s;
+        niveles[s] = 0;
+        long examinadas = 0;
+        while (inicio < fin) {
+            int v = cola[inicio++];
+            examinadas += desplazamientos[v+1] - desplazamientos[v];
+            for (int j = desplazamientos[v]; j < desplazamientos[v+1]; j++) {
+                int u = destinos[j];
+                if (niveles[u] == -1) {
+                    niveles[u] = niveles[v] + 1;
+                    cola[fin++] = u;
+                }
+            }
+        }
+        return new NivelesBFS(niveles, examinadas);
+    }
+
+    /**
+     * Calcula con BFS el nivel de cada vértice usando varios hilos. El
+     * recorrido avanza nivel por nivel: la frontera de cada nivel se reparte
+     * en tareas de <i>fork-join</i>, y cada vértice lo reclama de manera
+     * atómica el primer hilo que lo alcanza. El resultado es idéntico al de
+     * {@link #niveles(Object)}.
+     * @param elemento el elemento del vértice origen.
+     * @param hilos el número de hilos a usar.
+     * @return los niveles de todos los vértices.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     * @throws IllegalArgumentException si el número de hilos es menor que 1.
+     */
+    public NivelesBFS niveles(T elemento, int hilos) {
+        int s = getId(elemento);
+        if (hilos < 1)
+            throw new IllegalArgumentException("Número de hilos inválido");
+        ExpansionParalela estado = new ExpansionParalela();
+        for (int i = 0; i < estado.niveles.length; i++)
+            estado.niveles[i] = -1;
+        int[] frontera = new int[elementos.length];
+        int tamanio = 1;
+        frontera[0] = s;
+        estado.reclama(s);
+        estado.niveles[s] = 0;
+        ForkJoinPool alberca = new ForkJoinPool(hilos);
+        try {
+            while (tamanio > 0) {
+                estado.nivel++;
+                estado.tamanio.set(0);
+                alberca.invoke(new Expansion(frontera, 0, tamanio, estado));
+                int[] t = frontera;
+                frontera = estado.siguiente;
+                estado.siguiente = t;
+                tamanio = estado.tamanio.get();
+            }
+        } finally {
+            alberca.shutdown();
+        }
+        return new NivelesBFS(estado.niveles, estado.examinadas.get());
+    }
+
+    /**
+     * Calcula el nivel de cada vértice con un BFS de dirección optimizada
+     * (Beamer, Asanović y Patterson). Mientras la frontera es pequeña, cada
+     * vértice de la frontera revisa a sus vecinos (arriba-abajo); cuando la
+     * frontera crece, cada vértice no alcanzado busca entre sus vecinos uno
+     * en la frontera y se detiene en el primero (abajo-arriba), lo que en
+     * gráficas de diámetro pequeño evita examinar la mayoría de las aristas.
+     * El resultado es idéntico al de {@link #niveles(Object)}, pero con menos
+     * aristas examinadas.
+     * @param elemento el elemento del vértice origen.
+     * @return los niveles de todos los vértices.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public NivelesBFS nivelesDireccionOptimizada(T elemento) {
+        int s = getId(elemento);
+        int n = elementos.length;
+        int[] niveles = new int[n];
+        for (int i = 0; i < n; i++)
+            niveles[i] = -1;
+        int[] frontera = new int[n];
+        int[] siguiente = new int[n];
+        long[] enFrontera = new long[(n + 63) >>> 6];
+        int tamanio = 1;
+        frontera[0] = s;
+        niveles[s] = 0;
+        long examinadas = 0;
+        long aristasFrontera = desplazamientos[s+1] - desplazamientos[s];
+        long aristasSinVisitar = destinos.length - aristasFrontera;
+        boolean abajoArriba = false;
+        for (int nivel = 1; tamanio > 0; nivel++) {
+            if (!abajoArriba && aristasFrontera > aristasSinVisitar / ALFA)
+                abajoArriba = true;
+            else if (abajoArriba && tamanio < n / BETA)
+                abajoArriba = false;
+            int nuevos = 0;
+            long aristasNuevas = 0;
+            if (abajoArriba) {
+                for (int i = 0; i < enFrontera.length; i++)
+                    enFrontera[i] = 0;
+                for (int i = 0; i < tamanio; i++)
+                    enFrontera[frontera[i] >>> 6] |= 1L << frontera[i];
+                for (int v = 0; v < n; v++) {
+                    if (niveles[v] != -1)
+                        continue;
+                    for (int j = desplazamientos[v];
+                         j < desplazamientos[v+1]; j++) {
+                        examinadas++;
+                        int u = destinos[j];
+                        if ((enFrontera[u >>> 6] & (1L << u)) != 0) {
+                            niveles[v] = nivel;
+                            siguiente[nuevos++] = v;
+                            aristasNuevas += desplazamientos[v+1] -
+                                desplazamientos[v];
+                            break;
+                        }
+                    }
+                }
+            } else {
+                for (int i = 0; i < tamanio; i++) {
+                    int v = frontera[i];
+                    for (int j = desplazamientos[v];
+                         j < desplazamientos[v+1]; j++) {
+                        examinadas++;
+                        int u = destinos[j];
+                        if (niveles[u] == -1) {
+                            niveles[u] = nivel;
+                            siguiente[nuevos++] = u;
+                            aristasNuevas += desplazamientos[u+1] -
+                                desplazamientos[u];
+                        }
+                    }
+                }
+            }
+            aristasSinVisitar -= aristasNuevas;
+            aristasFrontera = aristasNuevas;
+            int[] t = frontera;
+            frontera = siguiente;
+            siguiente = t;
+            tamanio = nuevos;
+        }
+        return new NivelesBFS(niveles, examinadas);
+    }
+
+    /**
+     * Calcula con Dijkstra las distancias desde cada uno de los orígenes
+     * recibidos, repartiéndolos entre varios hilos de una {@link
+     * ForkJoinPool}. Cada hilo reserva una sola vez su {@link
+     * MonticuloMinimo} y su arreglo de distancias y los reutiliza en todos
+     * los orígenes que le tocan, y los resultados se entregan a la acción en
+     * cuanto se calculan, así que la memoria usada es proporcional al número
+     * de hilos y no al de orígenes. La acción se llama desde varios hilos a
+     * la vez, en cualquier orden, y debe estar preparada para ello.
+     * @param origenes los identificadores de los orígenes.
+     * @param hilos el número de hilos a usar.
+     * @param accion la acción que recibe las distancias de cada origen.
+     * @throws ExcepcionIndiceInvalido si algún origen es inválido.
+     * @throws IllegalArgumentException si el número de hilos es menor que 1.
+     */
+    public void distancias(int[] origenes, int hilos,
+                           AccionDistancias accion) {
+        lote(origenes, hilos, true, accion, null);
+    }
+
+    /**
+     * Calcula con BFS los niveles desde cada uno de los orígenes recibidos,
+     * repartiéndolos entre varios hilos igual que {@link
+     * #distancias(int[],int,AccionDistancias)}.
+     * @param origenes los identificadores de los orígenes.
+     * @param hilos el número de hilos a usar.
+     * @param accion la acción que recibe los niveles de cada origen.
+     * @throws ExcepcionIndiceInvalido si algún origen es inválido.
+     * @throws IllegalArgumentException si el número de hilos es menor que 1.
+     */
+    public void niveles(int[] origenes, int hilos, AccionNiveles accion) {
+        lote(origenes, hilos, false, null, accion);
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica, en el orden de los
+     * identificadores.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /* Verifica los argumentos de un lote y lo reparte en una alberca con el
+       número de hilos recibido. */
+    private void lote(int[] origenes, int hilos, boolean dijkstra,
+                      AccionDistancias accionDistancias,
+                      AccionNiveles accionNiveles) {
+        if (hilos < 1)
+            throw new IllegalArgumentException("Número de hilos inválido");
+        for (int s : origenes)
+            if (s < 0 || s >= elementos.length)
+                throw new ExcepcionIndiceInvalido("Identificador inválido");
+        ThreadLocal<Trabajador> trabajadores =
+            ThreadLocal.withInitial(() -> new Trabajador(dijkstra));
+        ForkJoinPool alberca = new ForkJoinPool(hilos);
+        try {
+            alberca.invoke(new Lote(origenes, 0, origenes.length,
+                                    trabajadores, accionDistancias,
+                                    accionNiveles));
+        } finally {
+            alberca.shutdown();
+        }
+    }
+
+    /* Recorre la gráfica desde el vértice con identificador s, con una cola
+       (BFS) o una pila (DFS) de enteros, y regresa el número de vértices
+       visitados. Cada vértice se mete a lo más una vez, así que basta un
+       arreglo de tamaño n para cualquiera de las dos. */
+    private int recorrido(int s, AccionVerticeGrafica<T> accion, boolean cola) {
+        boolean[] visitados = new boolean[elementos.length];
+        int[] pendientes = new int[elementos.length];
+        int inicio = 0, fin = 0;
+        pendientes[fin++] = s;
+        visitados[s] = true;
+        int visitas = 0;
+        while (inicio < fin) {
+            int v = cola ? pendientes[inicio++] : pendientes[--fin];
+            visitas++;
+            if (accion != null)
+                accion.actua(vertices[v]);
+            for (int j = desplazamientos[v]; j < desplazamientos[v+1]; j++) {
+                int u = destinos[j];
+                if (!visitados[u]) {
+                    visitados[u] = true;
+                    pendientes[fin++] = u;
+                }
+            }
+        }
+        return visitas;
+    }
+}
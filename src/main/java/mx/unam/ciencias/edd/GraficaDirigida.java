@@ -0,0 +1,474 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.reflect.Array;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para gráficas dirigidas. A diferencia de {@link Grafica}, conectar a
+ * con b agrega sólo el arco de a hacia b. Los vértices son {@link
+ * VerticeGrafica}, cuyos vecinos son los vértices a los que salen arcos y
+ * cuyo grado es el número de esos arcos; cada vértice guarda además los
+ * vértices de los que le llegan arcos, así que eliminar un vértice toma
+ * tiempo proporcional a sus arcos y no al tamaño de la gráfica.
+ *
+ * El orden topológico, las componentes fuertemente conexas y la detección de
+ * ciclos toman tiempo <i>O</i>(<i>n</i> + <i>m</i>) y no usan recursión, así
+ * que funcionan con gráficas de millones de vértices.
+ */
+public class GraficaDirigida<T>
+    extends GraficaLigada<T, GraficaDirigida<T>.Vertice>
+    implements Coleccion<T> {
+
+    /* Clase interna para vértices; es visible en el paquete sólo porque
+       GraficaLigada la recibe como parámetro. */
+    class Vertice extends VerticeLigado<T, Vertice> {
+
+        /* Los vértices a los que salen arcos de éste. */
+        public Vecindad<Vertice> salientes;
+        /* Los vértices de los que llegan arcos a éste. */
+        public Vecindad<Vertice> entrantes;
+
+        /* Crea un nuevo vértice. */
+        public Vertice(T elemento) {
+            super(elemento);
+            salientes = new Vecindad<Vertice>();
+            entrantes = new Vecindad<Vertice>();
+        }
+
+        /* Regresa el grado de salida del vértice. */
+        @Override public int getGrado() {
+            return salientes.getGrado();
+        }
+
+        /* Regresa un iterable para los vértices a los que salen arcos. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return salientes;
+        }
+
+        /* Los recorridos siguen los arcos que salen del vértice. */
+        @Override public Vecindad<Vertice> vecindad() {
+            return salientes;
+        }
+    }
+
+    /* Índice de los vértices por su elemento. */
+    private Diccionario<T, Vertice> indice;
+    /* Número de arcos. */
+    private int aristas;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @Override @SuppressWarnings("unchecked") Vertice[] nuevoArreglo(int n) {
+        return (Vertice[])Array.newInstance(Vertice.class, n);
+    }
+
+    /**
+     * Constructor único.
+     */
+    public GraficaDirigida() {
+        indice = new Diccionario<T, Vertice>();
+        densos = nuevoArreglo(16);
+    }
+
+    /**
+     * Regresa el número de arcos.
+     * @return el número de arcos.
+     */
+    public int getAristas() {
+        return aristas;
+    }
+
+    /**
+     * Agrega un nuevo elemento a la gráfica.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code> o
+     *         ya había sido agregado a la gráfica.
+     */
+    @Override public void agrega(T elemento) {
+        if (elemento == null || indice.get(elemento) != null)
+            throw new IllegalArgumentException();
+        Vertice v = new Vertice(elemento);
+        engancha(v);
+        indice.agrega(elemento, v);
+    }
+
+    /**
+     * Agrega un arco del primer elemento al segundo, con peso 1. Los
+     * elementos deben estar en la gráfica.
+     * @param a el elemento del que sale el arco.
+     * @param b el elemento al que llega el arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si ya hay un arco de a a b, o si a es
+     *         igual a b.
+     */
+    public void conecta(T a, T b) {
+        conecta(a, b, 1);
+    }
+
+    /**
+     * Agrega un arco del primer elemento al segundo, con el peso dado. Los
+     * elementos deben estar en la gráfica. Puede haber a la vez un arco de a
+     * a b y otro de b a a.
+     * @param a el elemento del que sale el arco.
+     * @param b el elemento al que llega el arco.
+     * @param peso el peso del nuevo arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si ya hay un arco de a a b, si a es
+     *         igual a b, o si el peso es no positivo.
+     */
+    public void conecta(T a, T b, double peso) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if (va == vb || va.salientes.contiene(vb))
+            throw new IllegalArgumentException();
+        if (!(peso > 0))
+            throw new IllegalArgumentException("Peso no positivo");
+        va.salientes.agrega(vb, peso);
+        vb.entrantes.agrega(va, peso);
+        aristas++;
+    }
+
+    /**
+     * Elimina el arco del primer elemento al segundo. Los elementos deben
+     * estar en la gráfica y el arco debe existir.
+     * @param a el elemento del que sale el arco.
+     * @param b el elemento al que llega el arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay arco de a a b.
+     */
+    public void desconecta(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if (!va.salientes.contiene(vb))
+            throw new IllegalArgumentException();
+        va.salientes.elimina(vb);
+        vb.entrantes.elimina(va);
+        aristas--;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return indice.get(elemento) != null;
+    }
+
+    /**
+     * Elimina un elemento de la gráfica, junto con los arcos que salen de él
+     * y los que llegan a él. El elemento tiene que estar contenido en la
+     * gráfica.
+     * @param elemento el elemento a eliminar.
+     * @throws NoSuchElementException si el elemento no está contenido en la
+     *         gráfica.
+     */
+    @Override public void elimina(T elemento) {
+        Vertice v = busca(elemento);
+        for (Vertice u: v.salientes)
+            u.entrantes.elimina(v);
+        for (Vertice u: v.entrantes)
+            u.salientes.elimina(v);
+        aristas -= v.salientes.getGrado() + v.entrantes.getGrado();
+        v.salientes.limpia();
+        v.entrantes.limpia();
+        indice.elimina(elemento);
+        desengancha(v);
+    }
+
+    /**
+     * Nos dice si hay un arco del primer elemento al segundo. Los elementos
+     * deben estar en la gráfica.
+     * @param a el elemento del que sale el arco.
+     * @param b el elemento al que llega el arco.
+     * @return <code>true</code> si hay un arco de a a b, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        return va.salientes.contiene(vb);
+    }
+
+    /**
+     * Regresa el peso del arco del primer elemento al segundo.
+     * @param a el elemento del que sale el arco.
+     * @param b el elemento al que llega el arco.
+     * @return el peso del arco de a a b.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay arco de a a b.
+     */
+    public double getPeso(T a, T b) {
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if (!va.salientes.contiene(vb))
+            throw new IllegalArgumentException();
+        return va.salientes.peso(vb);
+    }
+
+    /**
+     * Regresa el número de arcos que llegan al vértice del elemento recibido.
+     * El grado de salida es el grado de su {@link VerticeGrafica}.
+     * @param elemento el elemento.
+     * @return el número de arcos que llegan al vértice del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getGradoEntrada(T elemento) {
+        return busca(elemento).entrantes.getGrado();
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return busca(elemento);
+    }
+
+    /**
+     * Define el color del vértice recibido.
+     * @param vertice el vértice al que queremos definirle el color.
+     * @param color el nuevo color del vértice.
+     * @throws IllegalArgumentException si el vértice no es válido.
+     */
+    public void setColor(VerticeGrafica<T> vertice, Color color) {
+        if (vertice == null || vertice.getClass() != Vertice.class)
+            throw new IllegalArgumentException("Vértice inválido");
+        Vertice v = (Vertice)vertice;
+        v.color = color;
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * elemento recibido siguiendo los arcos, en el orden determinado por BFS.
+     * El recorrido no modifica el color de los vértices.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorrido(busca(elemento), accion, new Cola<Vertice>(), null);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * elemento recibido siguiendo los arcos, en el orden determinado por DFS.
+     * El recorrido no modifica el color de los vértices.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorrido(busca(elemento), accion, new Pila<Vertice>(), null);
+    }
+
+    /**
+     * Regresa los elementos de la gráfica en orden topológico: si hay un arco
+     * de a a b, a aparece antes que b. Usa el algoritmo de Kahn: se toman
+     * primero los vértices sin arcos de entrada, en el orden en que fueron
+     * agregados, y al tomar un vértice se descuentan sus arcos de salida.
+     * @return los elementos de la gráfica en orden topológico.
+     * @throws IllegalStateException si la gráfica tiene ciclos.
+     */
+    public Lista<T> ordenTopologico() {
+        int n = elementos;
+        int[] orden = new int[n];
+        if (kahn(orden) < n)
+            throw new IllegalStateException("La gráfica tiene ciclos");
+        Lista<T> lista = new Lista<T>();
+        for (int i = 0; i < n; i++)
+            lista.agrega(densos[orden[i]].elemento);
+        return lista;
+    }
+
+    /**
+     * Nos dice si la gráfica tiene ciclos dirigidos. Es el mismo algoritmo de
+     * Kahn que {@link #ordenTopologico}: hay un ciclo si y sólo si algún
+     * vértice nunca se queda sin arcos de entrada.
+     * @return <code>true</code> si la gráfica tiene ciclos, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean tieneCiclos() {
+        int n = elementos;
+        return kahn(new int[n]) < n;
+    }
+
+    /**
+     * Regresa las componentes fuertemente conexas de la gráfica, usando el
+     * algoritmo de Tarjan con una pila explícita en lugar de recursión. Dos
+     * elementos están en la misma componente si cada uno es alcanzable desde
+     * el otro. Las componentes salen en orden topológico inverso: si hay un
+     * arco de la componente A a la componente B, B aparece antes que A.
+     * @return una lista con las componentes fuertemente conexas, cada una
+     *         como una lista de sus elementos.
+     */
+    public Lista<Lista<T>> componentesFuertes() {
+        int n = elementos;
+        /* El índice de cada vértice en el orden de descubrimiento más uno (0
+           si no se ha descubierto), y el menor índice alcanzable desde su
+           subárbol sin salir de la pila. */
+        int[] indices = new int[n];
+        int[] bajos = new int[n];
+        long[] enPila = new long[(n + 63) >>> 6];
+        int[] pila = new int[n];
+        int tope = 0;
+        /* La pila de llamadas: el vértice y el siguiente arco por revisar. */
+        int[] llamadas = new int[n];
+        int[] arcos = new int[n];
+        int profundidad = 0;
+        int contador = 0;
+        Lista<Lista<T>> componentes = new Lista<Lista<T>>();
+        for (Vertice r = cabeza; r != null; r = r.siguiente) {
+            if (indices[r.id] != 0)
+                continue;
+            indices[r.id] = bajos[r.id] = ++contador;
+            pila[tope++] = r.id;
+            enPila[r.id >>> 6] |= 1L << r.id;
+            llamadas[profundidad] = r.id;
+            arcos[profundidad++] = 0;
+            while (profundidad > 0) {
+                int v = llamadas[profundidad-1];
+                Vecindad<Vertice> salientes = densos[v].salientes;
+                int k = arcos[profundidad-1];
+                if (k < salientes.getGrado()) {
+                    arcos[profundidad-1]++;
+                    int w = salientes.get(k).id;
+                    if (indices[w] == 0) {
+                        indices[w] = bajos[w] = ++contador;
+                        pila[tope++] = w;
+                        enPila[w >>> 6] |= 1L << w;
+                        llamadas[profundidad] = w;
+                        arcos[profundidad++] = 0;
+                    } else if ((enPila[w >>> 6] & (1L << w)) != 0) {
+                        bajos[v] = Math.min(bajos[v], indices[w]);
+                    }
+                    continue;
+                }
+                profundidad--;
+                if (profundidad > 0) {
+                    int u = llamadas[profundidad-1];
+                    bajos[u] = Math.min(bajos[u], bajos[v]);
+                }
+                if (bajos[v] == indices[v]) {
+                    Lista<T> componente = new Lista<T>();
+                    int w;
+                    do {
+                        w = pila[--tope];
+                        enPila[w >>> 6] &= ~(1L << w);
+                        componente.agrega(densos[w].elemento);
+                    } while (w != v);
+                    componentes.agrega(componente);
+                }
+            }
+        }
+        return componentes;
+    }
+
+    /**
+     * Limpia la gráfica de vértices y arcos, dejándola vacía.
+     */
+    @Override public void limpia() {
+        indice = new Diccionario<T, Vertice>();
+        vacia();
+        aristas = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena de la gráfica: sus elementos y
+     * sus arcos, cada uno como la pareja (origen, destino).
+     * @return una representación en cadena de la gráfica.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            sb.append(v.elemento).append(", ");
+        sb.append("}, {");
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            for (Vertice u: v.salientes)
+                sb.append('(').append(v.elemento).append(", ")
+                    .append(u.elemento).append("), ");
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si la gráfica es igual al objeto recibido. Dos gráficas
+     * dirigidas son iguales si tienen los mismos elementos y los mismos arcos
+     * entre ellos, sin importar el orden en que se agregaron ni los pesos.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si la gráfica es igual al objeto recibido;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked") GraficaDirigida<T> grafica =
+            (GraficaDirigida<T>)objeto;
+        if (elementos != grafica.elementos ||
+            aristas != grafica.aristas)
+            return false;
+        int n = elementos;
+        Vertice[] pares = nuevoArreglo(n);
+        for (int i = 0; i < n; i++) {
+            Vertice u = grafica.indice.get(densos[i].elemento);
+            if (u == null ||
+                u.salientes.getGrado() != densos[i].salientes.getGrado())
+                return false;
+            pares[i] = u;
+        }
+        for (int i = 0; i < n; i++)
+            for (Vertice u: densos[i].salientes)
+                if (!pares[i].salientes.contiene(pares[u.id]))
+                    return false;
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la gráfica, consistente con
+     * {@link #equals}.
+     * @return un código de dispersión para la gráfica.
+     */
+    @Override public int hashCode() {
+        int h = aristas;
+        for (Vertice v = cabeza; v != null; v = v.siguiente)
+            h += v.elemento.hashCode() * 31 + v.salientes.getGrado();
+        return h;
+    }
+
+    /* Regresa el vértice del elemento. */
+    private Vertice busca(T elemento) {
+        Vertice v = indice.get(elemento);
+        if (v == null)
+            throw new NoSuchElementException();
+        return v;
+    }
+
+    /* Llena el arreglo con los identificadores en orden topológico, con el
+       algoritmo de Kahn, y regresa cuántos vértices acomodó; son menos que
+       todos si y sólo si hay un ciclo. El arreglo mismo sirve de cola. */
+    private int kahn(int[] orden) {
+        int[] entrada = new int[elementos];
+        int rabo = 0;
+        for (Vertice v = cabeza; v != null; v = v.siguiente) {
+            entrada[v.id] = v.entrantes.getGrado();
+            if (entrada[v.id] == 0)
+                orden[rabo++] = v.id;
+        }
+        for (int cabeza = 0; cabeza < rabo; cabeza++) {
+            Vecindad<Vertice> salientes = densos[orden[cabeza]].salientes;
+            for (int k = 0; k < salientes.getGrado(); k++) {
+                int u = salientes.get(k).id;
+                if (--entrada[u] == 0)
+                    orden[rabo++] = u;
+            }
+        }
+        return rabo;
+    }
+}
@@ -0,0 +1,403 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para gráficas de enteros. Ofrece las mismas operaciones que una
+ * {@link Grafica} de {@link Integer}, pero sin objetos por vértice ni por
+ * arista: cada vértice tiene un identificador denso entre 0 y <i>n</i>-1, un
+ * diccionario de enteros traduce elementos a identificadores, y los vecinos
+ * de cada vértice son los identificadores guardados en un arreglo de enteros
+ * que crece al doble.
+ *
+ * Los vecinos se guardan en el mismo orden que en {@link Grafica} (al
+ * eliminar uno su lugar lo ocupa el último), así que BFS y DFS visitan los
+ * vértices en el mismo orden en ambas clases. Como en {@link Vecindad},
+ * mientras el grado es pequeño la pertenencia se decide recorriendo el
+ * arreglo, y cuando el grado rebasa {@link Vecindad#UMBRAL} se mantiene
+ * además un {@link DiccionarioEnteros} del vecino a su posición, para que
+ * preguntar, agregar o eliminar un vecino tome tiempo <i>O</i>(1) esperado.
+ */
+public class GraficaInt {
+
+    /* Los elementos por identificador. */
+    private int[] elementos;
+    /* Los vecinos de cada vértice por identificador. */
+    private int[][] vecinos;
+    /* El grado de cada vértice por identificador. */
+    private int[] grados;
+    /* Las posiciones de los vecinos de cada vértice por identificador; null
+       mientras el grado sea pequeño. */
+    private DiccionarioEnteros[] posiciones;
+    /* El identificador de cada elemento. */
+    private DiccionarioEnteros ids;
+    /* Número de vértices. */
+    private int n;
+    /* Número de aristas. */
+    private int aristas;
+    /* Las componentes conexas, sobre los identificadores. */
+    private ConjuntosDisjuntos componentes;
+    /* Si hay que reconstruir las componentes antes de usarlas. */
+    private boolean componentesSucias;
+
+    /**
+     * Construye una gráfica vacía.
+     */
+    public GraficaInt() {
+        elementos = new int[16];
+        vecinos = new int[16][];
+        grados = new int[16];
+        posiciones = new DiccionarioEnteros[16];
+        ids = new DiccionarioEnteros();
+        componentes = new ConjuntosDisjuntos();
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    public int getElementos() {
+        return n;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return aristas;
+    }
+
+    /**
+     * Agrega un nuevo elemento a la gráfica.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento ya había sido agregado a
+     *         la gráfica.
+     */
+    public void agrega(int elemento) {
+        if (ids.contiene(elemento))
+            throw new IllegalArgumentException();
+        if (n == elementos.length) {
+            int[] viejos = elementos;
+            elementos = new int[n * 2];
+            System.arraycopy(viejos, 0, elementos, 0, n);
+            int[][] viejosVecinos = vecinos;
+            vecinos = new int[n * 2][];
+            System.arraycopy(viejosVecinos, 0, vecinos, 0, n);
+            int[] viejosGrados = grados;
+            grados = new int[n * 2];
+            System.arraycopy(viejosGrados, 0, grados, 0, n);
+            DiccionarioEnteros[] viejasPosiciones = posiciones;
+            posiciones = new DiccionarioEnteros[n * 2];
+            System.arraycopy(viejasPosiciones, 0, posiciones, 0, n);
+        }
+        elementos[n] = elemento;
+        vecinos[n] = new int[4];
+        grados[n] = 0;
+        posiciones[n] = null;
+        ids.agrega(elemento, n);
+        n++;
+        if (!componentesSucias)
+            componentes.agrega();
+    }
+
+    /**
+     * Conecta dos elementos de la gráfica. Los elementos deben estar en la
+     * gráfica.
+     * @param a el primer elemento a conectar.
+     * @param b el segundo elemento a conectar.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b ya están conectados, o si a es
+     *         igual a b.
+     */
+    public void conecta(int a, int b) {
+        int x = id(a), y = id(b);
+        if (x == y || conectados(x, y))
+            throw new IllegalArgumentException();
+        enchufa(x, y);
+        enchufa(y, x);
+        aristas++;
+        if (!componentesSucias)
+            componentes.une(x, y);
+    }
+
+    /**
+     * Desconecta dos elementos de la gráfica. Los elementos deben estar en la
+     * gráfica y estar conectados entre ellos.
+     * @param a el primer elemento a desconectar.
+     * @param b el segundo elemento a desconectar.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public void desconecta(int a, int b) {
+        int x = id(a), y = id(b);
+        if (x == y || !conectados(x, y))
+            throw new IllegalArgumentException();
+        desenchufa(x, y);
+        desenchufa(y, x);
+        aristas--;
+        componentesSucias = true;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return ids.contiene(elemento);
+    }
+
+    /**
+     * Elimina un elemento de la gráfica. El elemento tiene que estar contenido
+     * en la gráfica. El último vértice toma el identificador del eliminado,
+     * así que hay que renombrarlo en las vecindades de sus vecinos.
+     * @param elemento el elemento a eliminar.
+     * @throws NoSuchElementException si el elemento no está contenido en la
+     *         gráfica.
+     */
+    public void elimina(int elemento) {
+        int x = id(elemento);
+        for (int k = 0; k < grados[x]; k++)
+            desenchufa(vecinos[x][k], x);
+        aristas -= grados[x];
+        ids.elimina(elemento);
+        int ultimo = --n;
+        if (x != ultimo) {
+            elementos[x] = elementos[ultimo];
+            vecinos[x] = vecinos[ultimo];
+            grados[x] = grados[ultimo];
+            posiciones[x] = posiciones[ultimo];
+            for (int k = 0; k < grados[x]; k++) {
+                int u = vecinos[x][k];
+                int i = busca(u, ultimo);
+                vecinos[u][i] = x;
+                if (posiciones[u] != null) {
+                    posiciones[u].elimina(ultimo);
+                    posiciones[u].agrega(x, i);
+                }
+            }
+            ids.agrega(elementos[x], x);
+        }
+        vecinos[ultimo] = null;
+        posiciones[ultimo] = null;
+        componentesSucias = true;
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados. Los elementos
+     * deben estar en la gráfica.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en otro
+     *         caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(int a, int b) {
+        int x = id(a), y = id(b);
+        return x != y && conectados(x, y);
+    }
+
+    /**
+     * Regresa el grado del vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return el grado del vértice del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getGrado(int elemento) {
+        return grados[id(elemento)];
+    }
+
+    /**
+     * Nos dice si la gráfica es conexa. Igual que en {@link Grafica}, las
+     * componentes conexas se mantienen al agregar vértices y aristas, y se
+     * reconstruyen después de desconectar o eliminar.
+     * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esConexa() {
+        return componentes() <= 1;
+    }
+
+    /**
+     * Regresa el número de componentes conexas de la gráfica.
+     * @return el número de componentes conexas de la gráfica.
+     */
+    public int componentes() {
+        if (componentesSucias) {
+            componentes = new ConjuntosDisjuntos(n);
+            for (int x = 0; x < n; x++)
+                for (int k = 0; k < grados[x]; k++)
+                    if (vecinos[x][k] > x)
+                        componentes.une(x, vecinos[x][k]);
+            componentesSucias = false;
+        }
+        return componentes.getConjuntos();
+    }
+
+    /**
+     * Realiza la acción recibida en cada uno de los vértices de la gráfica, en
+     * el orden de sus identificadores; es el orden en que fueron agregados
+     * mientras no se elimine ninguno.
+     * @param accion la acción a realizar.
+     */
+    public void paraCadaVertice(AccionVerticeGraficaInt accion) {
+        for (int x = 0; x < n; x++)
+            accion.actua(elementos[x]);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por BFS, comenzando por el vértice correspondiente al
+     * elemento recibido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(int elemento, AccionVerticeGraficaInt accion) {
+        recorrido(id(elemento), accion, true);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por DFS, comenzando por el vértice correspondiente al
+     * elemento recibido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(int elemento, AccionVerticeGraficaInt accion) {
+        recorrido(id(elemento), accion, false);
+    }
+
+    /**
+     * Limpia la gráfica de vértices y aristas, dejándola vacía.
+     */
+    public void limpia() {
+        elementos = new int[16];
+        vecinos = new int[16][];
+        grados = new int[16];
+        posiciones = new DiccionarioEnteros[16];
+        ids.limpia();
+        n = aristas = 0;
+        componentes = new ConjuntosDisjuntos();
+        componentesSucias = false;
+    }
+
+    /* Llena la gráfica, que debe estar vacía, de una sola pasada, como
+       Grafica.carga: agrega un vértice por cada elemento recibido, en orden,
+       y las primeras m aristas del arreglo, cada una empacada como
+       (a << 32) | b con a y b índices en el arreglo de elementos. Los
+       elementos deben ser distintos y las aristas no deben repetirse; los
+       grados sirven para reservar exactamente el espacio de cada vecindad. */
+    void carga(int[] elementos, int[] grados, long[] aristas, int m) {
+        n = elementos.length;
+        int c = Math.max(16, n);
+        this.elementos = Arrays.copyOf(elementos, c);
+        vecinos = new int[c][];
+        this.grados = new int[c];
+        posiciones = new DiccionarioEnteros[c];
+        ids = new DiccionarioEnteros(n);
+        for (int x = 0; x < n; x++) {
+            vecinos[x] = new int[Math.max(1, grados[x])];
+            ids.agrega(elementos[x], x);
+        }
+        for (int k = 0; k < m; k++) {
+            int x = (int)(aristas[k] >>> 32), y = (int)aristas[k];
+            vecinos[x][this.grados[x]++] = y;
+            vecinos[y][this.grados[y]++] = x;
+        }
+        for (int x = 0; x < n; x++)
+            if (this.grados[x] > Vecindad.UMBRAL)
+                indexa(x);
+        this.aristas = m;
+        componentesSucias = true;
+    }
+
+    /* Regresa el identificador del elemento. */
+    private int id(int elemento) {
+        int x = ids.get(elemento);
+        if (x == -1)
+            throw new NoSuchElementException();
+        return x;
+    }
+
+    /* Nos dice si x y y son vecinos, buscando en la vecindad más chica. */
+    private boolean conectados(int x, int y) {
+        return grados[y] < grados[x] ? busca(y, x) != -1 : busca(x, y) != -1;
+    }
+
+    /* Regresa la posición de y en la vecindad de x, o -1 si no está. */
+    private int busca(int x, int y) {
+        if (posiciones[x] != null)
+            return posiciones[x].get(y);
+        int[] v = vecinos[x];
+        for (int k = 0; k < grados[x]; k++)
+            if (v[k] == y)
+                return k;
+        return -1;
+    }
+
+    /* Agrega y al final de la vecindad de x. */
+    private void enchufa(int x, int y) {
+        if (grados[x] == vecinos[x].length) {
+            int[] viejos = vecinos[x];
+            vecinos[x] = new int[grados[x] * 2];
+            System.arraycopy(viejos, 0, vecinos[x], 0, grados[x]);
+        }
+        vecinos[x][grados[x]++] = y;
+        if (posiciones[x] != null)
+            posiciones[x].agrega(y, grados[x] - 1);
+        else if (grados[x] > Vecindad.UMBRAL)
+            indexa(x);
+    }
+
+    /* Elimina y de la vecindad de x; su lugar lo ocupa el último. */
+    private void desenchufa(int x, int y) {
+        int k = busca(x, y);
+        int ultimo = vecinos[x][--grados[x]];
+        vecinos[x][k] = ultimo;
+        if (posiciones[x] != null) {
+            posiciones[x].elimina(y);
+            if (k != grados[x])
+                posiciones[x].agrega(ultimo, k);
+        }
+    }
+
+    /* Crea el diccionario de posiciones con los vecinos actuales de x. */
+    private void indexa(int x) {
+        posiciones[x] = new DiccionarioEnteros(Math.max(grados[x],
+                                                        Vecindad.UMBRAL * 4));
+        for (int k = 0; k < grados[x]; k++)
+            posiciones[x].agrega(vecinos[x][k], k);
+    }
+
+    /* Recorre la gráfica desde x, con una cola si es BFS o una pila si no,
+       ambas en un arreglo: como cada vértice se marca al meterlo, entra a lo
+       más una vez. */
+    private void recorrido(int x, AccionVerticeGraficaInt accion,
+                           boolean bfs) {
+        long[] visitados = new long[(n + 63) >>> 6];
+        int[] pendientes = new int[n];
+        int cabeza = 0, rabo = 0;
+        visitados[x >>> 6] |= 1L << x;
+        pendientes[rabo++] = x;
+        while (cabeza < rabo) {
+            x = bfs ? pendientes[cabeza++] : pendientes[--rabo];
+            accion.actua(elementos[x]);
+            int[] v = vecinos[x];
+            for (int k = 0; k < grados[x]; k++) {
+                int u = v[k];
+                if ((visitados[u >>> 6] & (1L << u)) == 0) {
+                    visitados[u >>> 6] |= 1L << u;
+                    pendientes[rabo++] = u;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase abstracta para lo que comparten {@link Grafica} y {@link
+ * GraficaDirigida}. Los vértices forman una lista en el orden en que fueron
+ * agregados, y cada uno apunta a su anterior y a su siguiente, así que
+ * sacar uno de la lista toma tiempo constante. Un arreglo guarda los
+ * vértices por su identificador denso, y al sacar un vértice el último
+ * ocupa su identificador. La clase también tiene el iterador y los
+ * recorridos BFS y DFS, que siguen la {@link VerticeLigado#vecindad} de
+ * cada vértice.
+ */
+abstract class GraficaLigada<T, V extends VerticeLigado<T, V>>
+    implements Coleccion<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* El siguiente vértice. */
+        private V siguiente;
+
+        /* Construye un nuevo iterador, que empieza en el primer vértice. */
+        public Iterador() {
+            siguiente = cabeza;
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if (siguiente == null)
+                throw new NoSuchElementException();
+            T elemento = siguiente.elemento;
+            siguiente = siguiente.siguiente;
+            return elemento;
+        }
+    }
+
+    /* El primer y el último vértice en el orden en que fueron agregados. */
+    V cabeza, rabo;
+    /* Número de vértices. */
+    int elementos;
+    /* Los vértices por su identificador denso. */
+    V[] densos;
+
+    /* Regresa un arreglo de vértices de tamaño n; lo implementan las
+       subclases, que conocen la clase de sus vértices. */
+    abstract V[] nuevoArreglo(int n);
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Realiza la acción recibida en cada uno de los vértices de la gráfica, en
+     * el orden en que fueron agregados.
+     * @param accion la acción a realizar.
+     */
+    public void paraCadaVertice(AccionVerticeGrafica<T> accion) {
+        for (V v = cabeza; v != null; v = v.siguiente)
+            accion.actua(v);
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica. La gráfica se itera en el
+     * orden en que fueron agregados sus elementos.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /* Agrega el vértice al final de la lista, con el siguiente identificador
+       denso. */
+    void engancha(V v) {
+        int n = elementos;
+        if (n == densos.length) {
+            V[] viejos = densos;
+            densos = nuevoArreglo(n*2);
+            System.arraycopy(viejos, 0, densos, 0, n);
+        }
+        v.id = n;
+        densos[n] = v;
+        if (rabo == null)
+            cabeza = v;
+        else
+            rabo.siguiente = v;
+        v.anterior = rabo;
+        rabo = v;
+        elementos++;
+    }
+
+    /* Saca el vértice de la lista; el último identificador denso ocupa el
+       suyo. */
+    void desengancha(V v) {
+        if (v.anterior == null)
+            cabeza = v.siguiente;
+        else
+            v.anterior.siguiente = v.siguiente;
+        if (v.siguiente == null)
+            rabo = v.anterior;
+        else
+            v.siguiente.anterior = v.anterior;
+        int n = --elementos;
+        densos[v.id] = densos[n];
+        densos[v.id].id = v.id;
+        densos[n] = null;
+    }
+
+    /* Deja la lista vacía. */
+    void vacia() {
+        densos = nuevoArreglo(16);
+        cabeza = rabo = null;
+        elementos = 0;
+    }
+
+    /* Recorre la gráfica desde v y regresa el número de vértices visitados;
+       la acción puede ser null. Los visitados se marcan en un conjunto de
+       bits propio del recorrido, indexado por el identificador denso de cada
+       vértice, así que no hay que limpiar nada al terminar y varios
+       recorridos pueden ejecutarse al mismo tiempo. Si la matriz no es null,
+       se cuentan primero con ella los vecinos sin visitar, y la vecindad se
+       recorre sólo hasta encontrarlos. */
+    int recorrido(V v, AccionVerticeGrafica<T> accion, MeteSaca<V> ms,
+                  MatrizAdyacencia matriz) {
+        long[] visitados = new long[(elementos + 63) >>> 6];
+        visitados[v.id >>> 6] |= 1L << v.id;
+        ms.mete(v);
+        int visitas = 0;
+        while (!ms.esVacia()) {
+            v = ms.saca();
+            visitas++;
+            if (accion != null)
+                accion.actua(v);
+            Vecindad<V> vecinos = v.vecindad();
+            int grado = vecinos.getGrado();
+            int faltan = matriz == null ? grado : matriz.fuera(v.id, visitados);
+            for (int k = 0; k < grado && faltan > 0; k++) {
+                V u = vecinos.get(k);
+                if ((visitados[u.id >>> 6] & (1L << u.id)) == 0) {
+                    visitados[u.id >>> 6] |= 1L << u.id;
+                    ms.mete(u);
+                    faltan--;
+                }
+            }
+        }
+        return visitas;
+    }
+}
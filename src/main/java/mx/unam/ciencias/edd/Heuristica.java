@@ -0,0 +1,20 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para heurísticas de búsqueda en gráficas, como las que usa {@link
+ * Grafica#aEstrella}. Una heurística estima el peso de una trayectoria mínima
+ * entre dos elementos; para que A* encuentre trayectorias de peso mínimo, la
+ * estimación nunca debe ser mayor que el peso real.
+ */
+@FunctionalInterface
+public interface Heuristica<T> {
+
+    /**
+     * Estima el peso de una trayectoria mínima entre dos elementos.
+     * @param elemento el elemento desde el que se estima.
+     * @param destino el elemento al que se quiere llegar.
+     * @return una estimación no negativa del peso de una trayectoria mínima
+     *         del elemento al destino.
+     */
+    public double estima(T elemento, T destino);
+}
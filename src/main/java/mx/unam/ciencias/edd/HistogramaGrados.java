@@ -0,0 +1,104 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para el histograma de los grados de una {@link Grafica}: cuántos
+ * vértices tienen cada grado. Se calcula una vez al construirse y después se
+ * actualiza con cada cambio de la {@link BitacoraGrafica} de la gráfica, en
+ * tiempo constante por cambio.
+ */
+public class HistogramaGrados<T> implements ObservadorGrafica<T> {
+
+    /* La gráfica. */
+    private Grafica<T> grafica;
+    /* El número de vértices con cada grado. */
+    private int[] cuentas;
+    /* El grado máximo; -1 si no hay vértices. */
+    private int maximo;
+
+    /**
+     * Construye el histograma de los grados de la gráfica recibida, y lo
+     * suscribe a su bitácora; si la bitácora no está activa, se activa con
+     * capacidad 0.
+     * @param grafica la gráfica.
+     */
+    public HistogramaGrados(Grafica<T> grafica) {
+        this.grafica = grafica;
+        inicializa();
+        grafica.activaBitacora(0).suscribe(this);
+    }
+
+    /**
+     * Regresa el número de vértices con el grado recibido.
+     * @param grado el grado.
+     * @return el número de vértices con el grado recibido.
+     */
+    public int getCuenta(int grado) {
+        return grado >= 0 && grado < cuentas.length ? cuentas[grado] : 0;
+    }
+
+    /**
+     * Regresa el grado máximo de la gráfica.
+     * @return el grado máximo de la gráfica, o -1 si no tiene vértices.
+     */
+    public int getGradoMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Actualiza el histograma con un cambio de la gráfica.
+     * @param cambio el cambio.
+     */
+    @Override public void cambio(CambioGrafica<T> cambio) {
+        switch (cambio.getTipo()) {
+        case AGREGA:
+            suma(0, 1);
+            break;
+        case ELIMINA:
+            suma(0, -1);
+            break;
+        case CONECTA:
+            mueve(cambio.getA(), 1);
+            mueve(cambio.getB(), 1);
+            break;
+        case DESCONECTA:
+            mueve(cambio.getA(), -1);
+            mueve(cambio.getB(), -1);
+            break;
+        case LIMPIA:
+            inicializa();
+            break;
+        default:
+            break;
+        }
+    }
+
+    /* Calcula el histograma desde cero. */
+    private void inicializa() {
+        cuentas = new int[16];
+        maximo = -1;
+        grafica.paraCadaVertice(v -> suma(v.getGrado(), 1));
+    }
+
+    /* Mueve al elemento de la cuenta de su grado anterior a la del nuevo.
+       Se suma primero al grado nuevo para que, si el elemento tenía el grado
+       máximo, éste baje a lo más un paso y no recorra las cuentas vacías. */
+    private void mueve(T elemento, int delta) {
+        int grado = grafica.vertice(elemento).getGrado();
+        suma(grado, 1);
+        suma(grado - delta, -1);
+    }
+
+    /* Suma delta a la cuenta del grado y actualiza el máximo. */
+    private void suma(int grado, int delta) {
+        if (grado >= cuentas.length) {
+            int[] viejas = cuentas;
+            cuentas = new int[Math.max(grado + 1, cuentas.length * 2)];
+            System.arraycopy(viejas, 0, cuentas, 0, viejas.length);
+        }
+        cuentas[grado] += delta;
+        if (grado > maximo && cuentas[grado] > 0)
+            maximo = grado;
+        while (maximo >= 0 && cuentas[maximo] == 0)
+            maximo--;
+    }
+}
@@ -0,0 +1,121 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la matriz de adyacencia de una gráfica no dirigida, por
+ * identificadores densos. Cada renglón es un arreglo de <code>long</code> con
+ * un bit por vértice, así que preguntar si dos vértices son vecinos toma
+ * tiempo <i>O</i>(1), y la matriz completa ocupa <i>n</i><sup>2</sup>/8
+ * bytes, sin importar cuántas aristas haya.
+ *
+ * Los renglones tienen espacio para la capacidad de la matriz, que crece al
+ * doble cuando se agrega un vértice que no cabe.
+ */
+class MatrizAdyacencia {
+
+    /* Los renglones de la matriz. */
+    private long[][] renglones;
+    /* El número de vértices que caben. */
+    private int capacidad;
+
+    /**
+     * Construye una matriz vacía con espacio para el número de vértices
+     * recibido.
+     * @param capacidad el número de vértices que esperamos guardar.
+     */
+    public MatrizAdyacencia(int capacidad) {
+        this.capacidad = Math.max(capacidad, 64);
+        renglones = new long[this.capacidad][];
+    }
+
+    /**
+     * Le hace espacio al vértice con el identificador recibido, que no debe
+     * tener vecinos.
+     * @param id el identificador del vértice.
+     */
+    public void agrega(int id) {
+        if (id >= capacidad) {
+            int c = Math.max(capacidad * 2, id + 1);
+            long[][] viejos = renglones;
+            renglones = new long[c][];
+            int palabras = (c + 63) >>> 6;
+            for (int i = 0; i < capacidad; i++)
+                if (viejos[i] != null) {
+                    renglones[i] = new long[palabras];
+                    System.arraycopy(viejos[i], 0, renglones[i], 0,
+                                     viejos[i].length);
+                }
+            capacidad = c;
+        }
+        renglones[id] = new long[(capacidad + 63) >>> 6];
+    }
+
+    /**
+     * Conecta dos vértices.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     */
+    public void conecta(int a, int b) {
+        renglones[a][b >>> 6] |= 1L << b;
+        renglones[b][a >>> 6] |= 1L << a;
+    }
+
+    /**
+     * Desconecta dos vértices.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     */
+    public void desconecta(int a, int b) {
+        renglones[a][b >>> 6] &= ~(1L << b);
+        renglones[b][a >>> 6] &= ~(1L << a);
+    }
+
+    /**
+     * Nos dice si dos vértices son vecinos.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean sonVecinos(int a, int b) {
+        return (renglones[a][b >>> 6] & (1L << b)) != 0;
+    }
+
+    /**
+     * Pasa el vértice con identificador <code>de</code> al identificador
+     * <code>a</code>, que no debe tener vecinos, y quita el renglón de
+     * <code>de</code>. Toma tiempo proporcional a <i>n</i>/64 más el grado
+     * del vértice.
+     * @param de el identificador actual del vértice.
+     * @param a el nuevo identificador del vértice.
+     */
+    public void mueve(int de, int a) {
+        long[] renglon = renglones[de];
+        renglones[de] = null;
+        if (de == a)
+            return;
+        renglones[a] = renglon;
+        for (int i = 0; i < renglon.length; i++)
+            for (long w = renglon[i]; w != 0; w &= w - 1) {
+                int v = (i << 6) | Long.numberOfTrailingZeros(w);
+                renglones[v][de >>> 6] &= ~(1L << de);
+                renglones[v][a >>> 6] |= 1L << a;
+            }
+    }
+
+    /**
+     * Regresa cuántos vecinos del vértice no están en el conjunto de bits
+     * recibido, de 64 en 64: es la cuenta de bits del renglón sin los del
+     * conjunto.
+     * @param id el identificador del vértice.
+     * @param conjunto el conjunto de bits, con una palabra por cada 64
+     *        vértices.
+     * @return cuántos vecinos del vértice no están en el conjunto.
+     */
+    public int fuera(int id, long[] conjunto) {
+        long[] renglon = renglones[id];
+        int c = 0;
+        for (int i = 0; i < conjunto.length; i++)
+            c += Long.bitCount(renglon[i] & ~conjunto[i]);
+        return c;
+    }
+}
@@ -120,7 +120,7 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
     @Override public void agrega(T elemento) {
         if(elementos==arbol.length){
           T[] arbolViejo = arbol;
-          arbol = nuevoArreglo(elementos+100);
+          arbol = nuevoArreglo(Math.max(elementos*2, 16));
           elementos = 0;
           for (T e: arbolViejo){
             arbol[elementos] = e;
@@ -189,7 +189,7 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      *         <tt>false</tt> en otro caso.
      */
     @Override public boolean esVacia() {
-        return arbol[0]==null;
+        return elementos==0;
     }
 
     /**
@@ -0,0 +1,101 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * Clase para el resultado de un BFS sobre una {@link GraficaCongelada}: el
+ * nivel (la distancia en aristas desde el origen) de cada vértice, por
+ * identificador denso, y cuántas aristas tuvo que examinar el recorrido
+ * para calcularlos.
+ */
+public class NivelesBFS {
+
+    /* Los niveles por identificador; -1 si el vértice no fue alcanzado. */
+    private int[] niveles;
+    /* El número de vértices alcanzados. */
+    private int visitados;
+    /* El nivel más alto. */
+    private int profundidad;
+    /* El número de aristas examinadas. */
+    private long aristasExaminadas;
+
+    /* Construye el resultado a partir del arreglo de niveles, que le
+       pertenece a partir de este momento. */
+    NivelesBFS(int[] niveles, long aristasExaminadas) {
+        this.niveles = niveles;
+        this.aristasExaminadas = aristasExaminadas;
+        profundidad = -1;
+        for (int nivel : niveles)
+            if (nivel != -1) {
+                visitados++;
+                if (nivel > profundidad)
+                    profundidad = nivel;
+            }
+    }
+
+    /**
+     * Regresa el nivel del vértice con el identificador recibido.
+     * @param id el identificador del vértice.
+     * @return el nivel del vértice, o -1 si no fue alcanzado desde el origen.
+     * @throws ExcepcionIndiceInvalido si el identificador es inválido.
+     */
+    public int getNivel(int id) {
+        if (id < 0 || id >= niveles.length)
+            throw new ExcepcionIndiceInvalido("Identificador inválido");
+        return niveles[id];
+    }
+
+    /**
+     * Regresa el número de vértices alcanzados desde el origen, incluyéndolo.
+     * @return el número de vértices alcanzados.
+     */
+    public int getVisitados() {
+        return visitados;
+    }
+
+    /**
+     * Regresa el nivel más alto alcanzado, o la excentricidad del origen en
+     * su componente conexa.
+     * @return el nivel más alto alcanzado.
+     */
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    /**
+     * Regresa el número de aristas que examinó el recorrido. Cada arista
+     * cuenta una vez por cada extremo desde el que se revisó.
+     * @return el número de aristas examinadas.
+     */
+    public long getAristasExaminadas() {
+        return aristasExaminadas;
+    }
+
+    /**
+     * Nos dice si el resultado es igual al objeto recibido. Sólo se comparan
+     * los niveles, no el número de aristas examinadas.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si el objeto es un resultado con los mismos
+     *         niveles para cada vértice, <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        NivelesBFS otro = (NivelesBFS)objeto;
+        if (niveles.length != otro.niveles.length)
+            return false;
+        for (int i = 0; i < niveles.length; i++)
+            if (niveles[i] != otro.niveles[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para el resultado, consistente con
+     * {@link #equals}: depende sólo de los niveles.
+     * @return un código de dispersión para el resultado.
+     */
+    @Override public int hashCode() {
+        return Arrays.hashCode(niveles);
+    }
+}
@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para quien quiere enterarse de los cambios a una {@link Grafica}
+ * a través de su {@link BitacoraGrafica}.
+ */
+@FunctionalInterface
+public interface ObservadorGrafica<T> {
+
+    /**
+     * Recibe un cambio, que ya se hizo en la gráfica.
+     * @param cambio el cambio.
+     */
+    public void cambio(CambioGrafica<T> cambio);
+}
@@ -0,0 +1,51 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Clase para repartir un rango de identificadores densos entre los hilos de
+ * un {@link java.util.concurrent.ForkJoinPool}: la tarea se divide a la mitad
+ * mientras el rango sea más grande que el pedazo, y cada pedazo se le pasa a
+ * la acción. Con pedazos chicos, el robo de tareas equilibra rangos cuyo
+ * trabajo por identificador varía mucho.
+ */
+class Rango extends RecursiveAction {
+
+    /* Versión para serialización. */
+    private static final long serialVersionUID = 1L;
+
+    /* El rango. */
+    private int inicio, fin;
+    /* El tamaño por debajo del cual ya no se divide. */
+    private int pedazo;
+    /* La acción. */
+    private AccionRango accion;
+
+    /**
+     * Construye una tarea para [inicio, fin).
+     * @param inicio el primer identificador del rango.
+     * @param fin el identificador siguiente al último del rango.
+     * @param pedazo el tamaño por debajo del cual el rango ya no se divide.
+     * @param accion la acción sobre cada pedazo.
+     */
+    public Rango(int inicio, int fin, int pedazo, AccionRango accion) {
+        this.inicio = inicio;
+        this.fin = fin;
+        this.pedazo = pedazo;
+        this.accion = accion;
+    }
+
+    /**
+     * Divide el rango mientras sea más grande que el pedazo; si no, actúa
+     * sobre él.
+     */
+    @Override protected void compute() {
+        if (fin - inicio > pedazo) {
+            int mitad = (inicio + fin) >>> 1;
+            invokeAll(new Rango(inicio, mitad, pedazo, accion),
+                      new Rango(mitad, fin, pedazo, accion));
+            return;
+        }
+        accion.actua(inicio, fin);
+    }
+}
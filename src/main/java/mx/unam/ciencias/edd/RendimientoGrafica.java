@@ -0,0 +1,1550 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.text.NumberFormat;
+
+/**
+ * Mediciones de rendimiento para {@link Grafica}. Recibe el número de vértices
+ * <i>N</i> y, opcionalmente, el nombre de una sección para medir sólo ésa; por
+ * ejemplo:
+ *
+ * <pre>
+ * $ java -cp target/practica7.jar mx.unam.ciencias.edd.RendimientoGrafica 1000000 construccion
+ * </pre>
+ */
+public class RendimientoGrafica {
+
+    /* Semilla para que las mediciones sean reproducibles. */
+    private static final long SEMILLA = 2019;
+
+    /* Formato para los enteros. */
+    private static NumberFormat nf = NumberFormat.getIntegerInstance();
+
+    /* Imprime el uso del programa y lo termina. */
+    private static void uso() {
+        System.err.println("Uso: java -cp practica7.jar " +
+                           "mx.unam.ciencias.edd.RendimientoGrafica N " +
+                           "[sección]");
+        System.exit(1);
+    }
+
+    /* Imprime el tiempo transcurrido y el número de operaciones por
+       segundo. */
+    private static void reporta(String que, long tiempo, long operaciones,
+                                String unidad) {
+        double segundos = tiempo / 1000000000.0;
+        System.out.printf("%2.9f segundos en %s (%s %s por segundo).\n",
+                          segundos, que,
+                          nf.format((long)(operaciones / segundos)), unidad);
+    }
+
+    /* Mide la construcción de una gráfica con N vértices y N-1 aristas: cada
+       vértice nuevo se conecta con uno anterior al azar. */
+    private static void construccion(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("agregar %s vértices", nf.format(N)),
+                tiempoTotal, N, "vértices");
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 1; i < N; i++)
+            grafica.conecta(i, random.nextInt(i));
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("conectar %s aristas", nf.format(N-1)),
+                tiempoTotal, N-1, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            grafica.contiene(random.nextInt(2*N));
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("buscar %s elementos", nf.format(N)),
+                tiempoTotal, N, "búsquedas");
+    }
+
+    /* Mide conectar, preguntar y desconectar aristas en un vértice con grado
+       N-1 (una estrella). */
+    private static void estrella(int N) {
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 1; i < N; i++)
+            grafica.conecta(0, i);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("conectar %s aristas a un mismo vértice",
+                              nf.format(N-1)),
+                tiempoTotal, N-1, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 1; i < N; i++)
+            grafica.sonVecinos(i, 0);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("preguntar por %s aristas de un mismo vértice",
+                              nf.format(N-1)),
+                tiempoTotal, N-1, "preguntas");
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 1; i < N; i++)
+            grafica.desconecta(i, 0);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("desconectar %s aristas de un mismo vértice",
+                              nf.format(N-1)),
+                tiempoTotal, N-1, "aristas");
+    }
+
+    /* Regresa una gráfica con N vértices y alrededor de 4N aristas al
+       azar. */
+    private static Grafica<Integer> aleatoria(int N, Random random) {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < N; i++)
+            grafica.conecta(i, random.nextInt(i));
+        for (int i = 0; i < 3*N; i++) {
+            int a = random.nextInt(N), b = random.nextInt(N);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        return grafica;
+    }
+
+    /* Compara recorridos en la gráfica ligada contra su versión congelada. */
+    private static void congelada(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int R = 10;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        long A = grafica.getAristas();
+
+        tiempoInicial = System.nanoTime();
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("congelar una gráfica con %s vértices y %s " +
+                              "aristas", nf.format(N), nf.format(A)),
+                tiempoTotal, A, "aristas");
+
+        int[] c = { 0 };
+        tiempoInicial = System.nanoTime();
+        for (int r = 0; r < R; r++)
+            grafica.bfs(random.nextInt(N), v -> c[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d BFS en la gráfica ligada", R),
+                tiempoTotal, R * A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int r = 0; r < R; r++)
+            congelada.bfs(random.nextInt(N), v -> c[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d BFS en la gráfica congelada", R),
+                tiempoTotal, R * A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int r = 0; r < R; r++)
+            grafica.dfs(random.nextInt(N), v -> c[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d DFS en la gráfica ligada", R),
+                tiempoTotal, R * A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int r = 0; r < R; r++)
+            congelada.dfs(random.nextInt(N), v -> c[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d DFS en la gráfica congelada", R),
+                tiempoTotal, R * A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int r = 0; r < R; r++)
+            grafica.esConexa();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d esConexa en la gráfica ligada", R),
+                tiempoTotal, R * A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        for (int r = 0; r < R; r++)
+            congelada.esConexa();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d esConexa en la gráfica congelada", R),
+                tiempoTotal, R * A, "aristas");
+    }
+
+    /* Mide Dijkstra desde el vértice 0 con los dos montículos. */
+    private static void dijkstra(Grafica<Integer> grafica, String pesos,
+                                 double p) {
+        long tiempoInicial, tiempoTotal;
+        long A = grafica.getAristas();
+        /* Calentamos la máquina virtual con ambos montículos. */
+        grafica.distancias(1, false);
+        grafica.distancias(1, true);
+
+        tiempoInicial = System.nanoTime();
+        grafica.distancias(0, false);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Dijkstra con MonticuloMinimo, pesos %s, %s " +
+                              "aristas (densidad %1.3f)",
+                              pesos, nf.format(A), p),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        grafica.distancias(0, true);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Dijkstra con MonticuloArreglo, pesos %s, %s " +
+                              "aristas (densidad %1.3f)",
+                              pesos, nf.format(A), p),
+                tiempoTotal, A, "aristas");
+    }
+
+    /* Compara Dijkstra con los dos montículos en gráficas con N vértices y
+       densidades crecientes, para ubicar el punto de cruce. Con pesos al azar
+       casi ninguna arista reduce una distancia ya calculada; con los pesos
+       adversarios (1 en la trayectoria 0, 1, ..., N-1 y N²-iN+1 en cualquier
+       otra arista (i, j) con i < j) casi todas lo hacen, que es el caso en el
+       que se basa el análisis. Con pesos al azar el MonticuloMinimo gana en
+       todas las densidades, así que es el que Grafica usa por omisión. */
+    private static void dijkstra(int N) {
+        Random random = new Random(SEMILLA);
+        double[] densidades = { 0.001, 0.01, 0.05, 0.1, 0.2, 0.4, 0.7, 1.0 };
+        double cruce = 2 / (Math.log(N) / Math.log(2));
+        System.out.printf("Con %s vértices el peor caso predice el cruce " +
+                          "en una densidad de %1.3f.\n", nf.format(N), cruce);
+
+        for (double p : densidades) {
+            Grafica<Integer> grafica = new Grafica<Integer>();
+            for (int i = 0; i < N; i++)
+                grafica.agrega(i);
+            for (int i = 1; i < N; i++)
+                grafica.conecta(i-1, i, 1 + random.nextInt(100));
+            for (int i = 0; i < N; i++)
+                for (int j = i+2; j < N; j++)
+                    if (random.nextDouble() < p)
+                        grafica.conecta(i, j, 1 + random.nextInt(100));
+            dijkstra(grafica, "al azar", p);
+
+            for (int i = 0; i < N; i++)
+                for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos()) {
+                    int j = v.get();
+                    if (j > i)
+                        grafica.setPeso(i, j, j == i + 1 ? 1 :
+                                        (double)N * N - (double)i * N + 1);
+                }
+            dijkstra(grafica, "adversarios", p);
+        }
+    }
+
+    /* Compara el BFS por niveles secuencial contra el paralelo con 1, 2, 4, 8
+       y 16 hilos. */
+    private static void paralelo(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        GraficaCongelada<Integer> congelada = aleatoria(N, random).congela();
+        long A = congelada.getAristas();
+        NivelesBFS esperados = congelada.niveles(0);
+
+        tiempoInicial = System.nanoTime();
+        congelada.niveles(0);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        long secuencial = tiempoTotal;
+        reporta(String.format("BFS secuencial con %s aristas", nf.format(A)),
+                tiempoTotal, A, "aristas");
+
+        for (int hilos = 1; hilos <= 16; hilos *= 2) {
+            congelada.niveles(0, hilos);
+            tiempoInicial = System.nanoTime();
+            NivelesBFS niveles = congelada.niveles(0, hilos);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            if (!niveles.equals(esperados))
+                throw new IllegalStateException("Niveles distintos");
+            reporta(String.format("BFS paralelo con %d hilos (aceleración " +
+                                  "%1.2f)", hilos,
+                                  (double)secuencial / tiempoTotal),
+                    tiempoTotal, A, "aristas");
+        }
+    }
+
+    /* Compara el BFS arriba-abajo contra el de dirección optimizada en una
+       gráfica aleatoria (de diámetro pequeño) con grado promedio 32. */
+    private static void direccion(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        for (int i = 0; i < 12*N; i++) {
+            int a = random.nextInt(N), b = random.nextInt(N);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        long A = congelada.getAristas();
+        congelada.niveles(0);
+        congelada.nivelesDireccionOptimizada(0);
+
+        tiempoInicial = System.nanoTime();
+        NivelesBFS niveles = congelada.niveles(0);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("BFS arriba-abajo con %s aristas, %s " +
+                              "examinadas, %d niveles", nf.format(A),
+                              nf.format(niveles.getAristasExaminadas()),
+                              niveles.getProfundidad()),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        niveles = congelada.nivelesDireccionOptimizada(0);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("BFS de dirección optimizada con %s aristas, " +
+                              "%s examinadas, %d niveles", nf.format(A),
+                              nf.format(niveles.getAristasExaminadas()),
+                              niveles.getProfundidad()),
+                tiempoTotal, A, "aristas");
+    }
+
+    /* Mide llamar esConexa después de cada lote de N/100 aristas mientras se
+       construye un árbol al azar, y luego después de desconectar una arista,
+       que obliga a reconstruir las componentes. */
+    private static void componentes(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+        int lote = Math.max(1, N / 100), consultas = 0;
+        tiempoInicial = System.nanoTime();
+        for (int i = 1; i < N; i++) {
+            grafica.conecta(i, random.nextInt(i));
+            if (i % lote == 0) {
+                grafica.esConexa();
+                consultas++;
+            }
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("conectar %s aristas y consultar esConexa " +
+                              "%d veces", nf.format(N-1), consultas),
+                tiempoTotal, N-1, "aristas");
+
+        grafica.desconecta(1, 0);
+        grafica.conecta(1, 0);
+        tiempoInicial = System.nanoTime();
+        boolean conexa = grafica.esConexa();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("reconstruir componentes (conexa: %b)", conexa),
+                tiempoTotal, N, "vértices");
+    }
+
+    /* Compara cargar una lista de 4N aristas al azar leyendo línea por línea
+       y llamando a conecta, contra CargadorGrafica con los formatos de texto
+       y binario. */
+    private static void carga(int N) throws IOException {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int A = 4*N;
+
+        Path texto = Files.createTempFile("edd", ".txt");
+        Path binario = Files.createTempFile("edd", ".bin");
+        try {
+            ByteBuffer bytes = ByteBuffer.allocate(1 << 16);
+            bytes.order(ByteOrder.LITTLE_ENDIAN);
+            try (BufferedWriter escritor = Files.newBufferedWriter(texto);
+                 FileChannel canal = FileChannel.open(binario,
+                                                      StandardOpenOption.WRITE)) {
+                for (int i = 0; i < A; i++) {
+                    int a = random.nextInt(N), b = random.nextInt(N);
+                    escritor.write(a + " " + b + "\n");
+                    if (!bytes.hasRemaining()) {
+                        bytes.flip();
+                        canal.write(bytes);
+                        bytes.clear();
+                    }
+                    bytes.putInt(a).putInt(b);
+                }
+                bytes.flip();
+                canal.write(bytes);
+            }
+
+            tiempoInicial = System.nanoTime();
+            Grafica<Integer> grafica = new Grafica<Integer>();
+            try (BufferedReader lector = Files.newBufferedReader(texto)) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    String[] campos = linea.split(" ");
+                    int a = Integer.parseInt(campos[0]);
+                    int b = Integer.parseInt(campos[1]);
+                    if (!grafica.contiene(a))
+                        grafica.agrega(a);
+                    if (!grafica.contiene(b))
+                        grafica.agrega(b);
+                    if (a != b && !grafica.sonVecinos(a, b))
+                        grafica.conecta(a, b);
+                }
+            }
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("cargar %s aristas con readLine y conecta",
+                                  nf.format(A)),
+                    tiempoTotal, A, "aristas");
+
+            /* Para que la gráfica anterior no ocupe memoria durante la
+               carga. */
+            grafica = null;
+            tiempoInicial = System.nanoTime();
+            grafica = CargadorGrafica.cargaTexto(texto.toString());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("cargar %s aristas de texto (%s distintas)",
+                                  nf.format(A),
+                                  nf.format(grafica.getAristas())),
+                    tiempoTotal, A, "aristas");
+
+            grafica = null;
+            tiempoInicial = System.nanoTime();
+            grafica = CargadorGrafica.cargaBinaria(binario.toString());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("cargar %s aristas binarias (%s distintas)",
+                                  nf.format(A),
+                                  nf.format(grafica.getAristas())),
+                    tiempoTotal, A, "aristas");
+        } finally {
+            Files.deleteIfExists(texto);
+            Files.deleteIfExists(binario);
+        }
+    }
+
+    /* Mide guardar y recuperar una gráfica aleatoria con FormatoGrafica,
+       con y sin elementos. */
+    private static void formato(int N) throws IOException {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        long A = grafica.getAristas();
+        Path archivo = Files.createTempFile("edd", ".grafica");
+        try {
+            tiempoInicial = System.nanoTime();
+            FormatoGrafica.escribe(grafica, archivo.toString(),
+                                   CodificadorElementos.ENTEROS);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("guardar %s aristas con elementos " +
+                                  "(%.2f bytes por arista)", nf.format(A),
+                                  Files.size(archivo) / (double)A),
+                    tiempoTotal, A, "aristas");
+
+            tiempoInicial = System.nanoTime();
+            Grafica<Integer> leida =
+                FormatoGrafica.lee(archivo.toString(),
+                                   CodificadorElementos.ENTEROS);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("recuperar %s aristas con elementos",
+                                  nf.format(leida.getAristas())),
+                    tiempoTotal, A, "aristas");
+            leida = null;
+
+            tiempoInicial = System.nanoTime();
+            FormatoGrafica.escribe(grafica, archivo.toString());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("guardar %s aristas sin elementos " +
+                                  "(%.2f bytes por arista)", nf.format(A),
+                                  Files.size(archivo) / (double)A),
+                    tiempoTotal, A, "aristas");
+
+            tiempoInicial = System.nanoTime();
+            leida = FormatoGrafica.lee(archivo.toString());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("recuperar %s aristas sin elementos",
+                                  nf.format(leida.getAristas())),
+                    tiempoTotal, A, "aristas");
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    /* Regresa la memoria usada después de pedirle al recolector de basura
+       que libere lo que pueda. */
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /* Compara la memoria por arista y el BFS de Grafica<Integer> contra
+       GraficaInt, con las mismas 4N aristas al azar. */
+    private static void enteros(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        int[] extremos = new int[8*N];
+        for (int i = 1; i < N; i++) {
+            extremos[2*i] = i;
+            extremos[2*i+1] = random.nextInt(i);
+        }
+        for (int i = 2*N; i < 8*N; i++)
+            extremos[i] = random.nextInt(N);
+
+        long antes = memoriaUsada();
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+        for (int i = 2; i < 8*N; i += 2)
+            if (extremos[i] != extremos[i+1] &&
+                !grafica.sonVecinos(extremos[i], extremos[i+1]))
+                grafica.conecta(extremos[i], extremos[i+1]);
+        long A = grafica.getAristas();
+        long memoria = memoriaUsada() - antes;
+        System.out.printf("Grafica<Integer>: %s bytes, %.1f bytes por " +
+                          "arista.\n", nf.format(memoria), memoria / (double)A);
+
+        int[] visitas = { 0 };
+        grafica.bfs(0, v -> visitas[0]++);
+        tiempoInicial = System.nanoTime();
+        grafica.bfs(0, v -> visitas[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("BFS de Grafica<Integer> con %s aristas",
+                              nf.format(A)), tiempoTotal, A, "aristas");
+        grafica = null;
+
+        antes = memoriaUsada();
+        GraficaInt enteros = new GraficaInt();
+        for (int i = 0; i < N; i++)
+            enteros.agrega(i);
+        for (int i = 2; i < 8*N; i += 2)
+            if (extremos[i] != extremos[i+1] &&
+                !enteros.sonVecinos(extremos[i], extremos[i+1]))
+                enteros.conecta(extremos[i], extremos[i+1]);
+        memoria = memoriaUsada() - antes;
+        System.out.printf("GraficaInt: %s bytes, %.1f bytes por arista.\n",
+                          nf.format(memoria), memoria / (double)A);
+
+        enteros.bfs(0, e -> visitas[0]++);
+        tiempoInicial = System.nanoTime();
+        enteros.bfs(0, e -> visitas[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("BFS de GraficaInt con %s aristas",
+                              nf.format(A)), tiempoTotal, A, "aristas");
+    }
+
+    /* Mide recorrer las aristas de una gráfica aleatoria con paraCadaArista,
+       con el Stream de aristas (secuencial y en paralelo) y con toString. */
+    private static void exporta(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        long A = grafica.getAristas();
+        double[] suma = { 0 };
+
+        tiempoInicial = System.nanoTime();
+        grafica.paraCadaArista((a, b, peso) -> suma[0] += peso);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("paraCadaArista con %s aristas", nf.format(A)),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        suma[0] = grafica.aristas().mapToDouble(a -> a.getPeso()).sum();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Stream de %s aristas", nf.format(A)),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        suma[0] = grafica.aristas().parallel()
+            .mapToDouble(a -> a.getPeso()).sum();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Stream paralelo de %s aristas", nf.format(A)),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        String cadena = grafica.toString();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("toString con %s aristas (%s caracteres)",
+                              nf.format(A), nf.format(cadena.length())),
+                tiempoTotal, A, "aristas");
+    }
+
+    /* Mide equals entre una gráfica aleatoria y una copia construida en
+       otro orden, primero iguales y luego con una arista de diferencia. */
+    private static void igualdad(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        long A = grafica.getAristas();
+        Grafica<Integer> copia = new Grafica<Integer>();
+        for (int i = N - 1; i >= 0; i--)
+            copia.agrega(i);
+        grafica.paraCadaArista((a, b, peso) -> copia.conecta(b.get(),
+                                                             a.get()));
+
+        tiempoInicial = System.nanoTime();
+        boolean iguales = grafica.equals(copia);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("equals con %s aristas (%b)", nf.format(A),
+                              iguales),
+                tiempoTotal, N + A, "vértices y aristas");
+
+        copia.desconecta(0, copia.vertice(0).vecinos().iterator().next()
+                         .get());
+        tiempoInicial = System.nanoTime();
+        iguales = grafica.equals(copia);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en equals con una arista de " +
+                          "diferencia (%b).\n", tiempoTotal / 1000000000.0,
+                          iguales);
+    }
+
+    /* Compara Prim contra Kruskal en una gráfica con N vértices y la
+       densidad recibida, con pesos enteros al azar entre 1 y 100. */
+    private static void arbol(Grafica<Integer> grafica, double p) {
+        long tiempoInicial, tiempoTotal;
+        long A = grafica.getAristas();
+
+        tiempoInicial = System.nanoTime();
+        double prim = grafica.prim().getPeso();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Prim con %s aristas (densidad %1.4f)",
+                              nf.format(A), p),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        double kruskal = grafica.kruskal().getPeso();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Kruskal con %s aristas (densidad %1.4f)",
+                              nf.format(A), p),
+                tiempoTotal, A, "aristas");
+        if (prim != kruskal)
+            System.out.printf("¡Los pesos no coinciden! (%f y %f)\n",
+                              prim, kruskal);
+    }
+
+    /* Compara Prim y Kruskal en gráficas con N vértices y densidades
+       crecientes, desde grado promedio 4 hasta la gráfica completa. */
+    private static void arbol(int N) {
+        Random random = new Random(SEMILLA);
+        double[] densidades = { 4.0 / N, 16.0 / N, 0.01, 0.05, 0.1, 0.2,
+                                0.4, 0.7, 1.0 };
+        /* Calentamos la máquina virtual con ambos algoritmos. */
+        Grafica<Integer> calentamiento = aleatoria(Math.min(N, 10000), random);
+        calentamiento.prim();
+        calentamiento.kruskal();
+
+        for (double p : densidades) {
+            if (p > 1)
+                continue;
+            Grafica<Integer> grafica = new Grafica<Integer>();
+            for (int i = 0; i < N; i++)
+                grafica.agrega(i);
+            for (int i = 1; i < N; i++)
+                grafica.conecta(i-1, i, 1 + random.nextInt(100));
+            for (int i = 0; i < N; i++)
+                for (int j = i+2; j < N; j++)
+                    if (random.nextDouble() < p)
+                        grafica.conecta(i, j, 1 + random.nextInt(100));
+            arbol(grafica, p);
+        }
+    }
+
+    /* Compara la distancia en aristas entre parejas al azar con BFS
+       bidireccional contra un BFS completo desde el primer elemento que
+       revisa si ya llegó al segundo. */
+    private static void distancia(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int parejas = 100;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        int[] a = new int[parejas], b = new int[parejas];
+        for (int i = 0; i < parejas; i++) {
+            a[i] = random.nextInt(N);
+            b[i] = random.nextInt(N);
+        }
+        /* Calentamos la máquina virtual. */
+        for (int i = 0; i < parejas; i++)
+            grafica.distancia(a[i], b[i]);
+
+        long visitados = 0;
+        for (int i = 0; i < parejas; i++)
+            visitados += grafica.visitadosBidireccional(a[i], b[i]);
+        long suma = 0;
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < parejas; i++)
+            suma += grafica.distancia(a[i], b[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("distancia bidireccional entre %d parejas " +
+                              "(suma %d, %s vértices visitados en promedio)",
+                              parejas, suma, nf.format(visitados / parejas)),
+                tiempoTotal, parejas, "parejas");
+
+        /* El BFS completo es mucho más lento; basta con unas cuantas. */
+        parejas = 10;
+        int[] encontrados = { 0 };
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < parejas; i++) {
+            int objetivo = b[i];
+            grafica.bfs(a[i], v -> {
+                    if (v.get() == objetivo)
+                        encontrados[0]++;
+                });
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("BFS completo entre %d parejas (%d " +
+                              "encontradas, %s vértices visitados en " +
+                              "promedio)", parejas, encontrados[0],
+                              nf.format(N)),
+                tiempoTotal, parejas, "parejas");
+    }
+
+    /* Compara A* con la distancia de Manhattan contra Dijkstra en una
+       cuadrícula de alrededor de N vértices entre parejas al azar. Como en
+       un mapa de carreteras, el peso de cada arista es su largo (10) más un
+       recargo de hasta 4, así que la heurística es 10 por la distancia de
+       Manhattan. Dijkstra se mide dos veces: el de la gráfica, que mete
+       todos los vértices al montículo, y A* con la heurística 0, que es
+       Dijkstra con parada temprana. */
+    private static void aEstrella(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int lado = (int)Math.sqrt(N);
+        int parejas = 20;
+
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int y = 0; y < lado; y++)
+            for (int x = 0; x < lado; x++) {
+                if (x + 1 < lado)
+                    grafica.conecta(y*lado + x, y*lado + x+1,
+                                    10 + random.nextInt(5));
+                if (y + 1 < lado)
+                    grafica.conecta(y*lado + x, (y+1)*lado + x,
+                                    10 + random.nextInt(5));
+            }
+        Heuristica<Integer> manhattan = (a, b) ->
+            10 * (Math.abs(a % lado - b % lado) +
+                  Math.abs(a / lado - b / lado));
+        Heuristica<Integer> cero = (a, b) -> 0;
+        int[] a = new int[parejas], b = new int[parejas];
+        for (int i = 0; i < parejas; i++) {
+            a[i] = random.nextInt(lado * lado);
+            b[i] = random.nextInt(lado * lado);
+        }
+        /* Calentamos la máquina virtual. */
+        for (int i = 0; i < parejas; i++) {
+            grafica.aEstrella(a[i], b[i], manhattan);
+            grafica.aEstrella(a[i], b[i], cero);
+        }
+
+        long expandidos = 0;
+        double peso = 0;
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < parejas; i++) {
+            TrayectoriaMinima<Integer> t =
+                grafica.aEstrella(a[i], b[i], manhattan);
+            expandidos += t.getExpandidos();
+            peso += t.getPeso();
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("A* con Manhattan en una cuadrícula de %dx%d " +
+                              "(peso total %.0f, %s expandidos en promedio)",
+                              lado, lado, peso,
+                              nf.format(expandidos / parejas)),
+                tiempoTotal, parejas, "parejas");
+
+        expandidos = 0;
+        peso = 0;
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < parejas; i++) {
+            TrayectoriaMinima<Integer> t = grafica.aEstrella(a[i], b[i], cero);
+            expandidos += t.getExpandidos();
+            peso += t.getPeso();
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("A* con heurística 0 en una cuadrícula de " +
+                              "%dx%d (peso total %.0f, %s expandidos en " +
+                              "promedio)", lado, lado, peso,
+                              nf.format(expandidos / parejas)),
+                tiempoTotal, parejas, "parejas");
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < parejas; i++)
+            grafica.dijkstra(a[i], b[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Dijkstra en una cuadrícula de %dx%d",
+                              lado, lado),
+                tiempoTotal, parejas, "parejas");
+    }
+
+    /* Mide el orden topológico, la detección de ciclos y las componentes
+       fuertemente conexas de GraficaDirigida: primero en una trayectoria de
+       N vértices, que con recursión desbordaría la pila, y luego en una
+       gráfica con alrededor de 4N arcos al azar. */
+    private static void dirigida(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+
+        GraficaDirigida<Integer> grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < N; i++)
+            grafica.conecta(i-1, i);
+        long A = grafica.getAristas();
+
+        tiempoInicial = System.nanoTime();
+        grafica.ordenTopologico();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("orden topológico de una trayectoria de %s " +
+                              "vértices", nf.format(N)),
+                tiempoTotal, N + A, "vértices y arcos");
+
+        grafica.conecta(N-1, 0);
+        tiempoInicial = System.nanoTime();
+        int c = grafica.componentesFuertes().getLongitud();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("componentes fuertes de un ciclo de %s " +
+                              "vértices (%d componentes)", nf.format(N), c),
+                tiempoTotal, N + A, "vértices y arcos");
+
+        grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < N; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 4*N; i++) {
+            int a = random.nextInt(N), b = random.nextInt(N);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        A = grafica.getAristas();
+
+        tiempoInicial = System.nanoTime();
+        boolean ciclos = grafica.tieneCiclos();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("detección de ciclos con %s arcos al azar " +
+                              "(%b)", nf.format(A), ciclos),
+                tiempoTotal, N + A, "vértices y arcos");
+
+        tiempoInicial = System.nanoTime();
+        c = grafica.componentesFuertes().getLongitud();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("componentes fuertes con %s arcos al azar " +
+                              "(%s componentes)", nf.format(A), nf.format(c)),
+                tiempoTotal, N + A, "vértices y arcos");
+    }
+
+    /* Mide el rendimiento de los lotes de Dijkstra y BFS desde muchos
+       orígenes sobre una gráfica congelada con alrededor de 4N aristas de
+       pesos al azar, con 1, 2, 4 y 8 hilos, contra Grafica.distancias desde
+       cada origen. */
+    private static void lote(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int k = Math.max(8, Math.min(1000, 2000000 / N));
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        for (int i = 0; i < N; i++)
+            for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos())
+                if (v.get() > i)
+                    grafica.setPeso(i, v.get(), 1 + random.nextInt(100));
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        long A = congelada.getAristas();
+        int[] origenes = new int[k];
+        for (int i = 0; i < k; i++)
+            origenes[i] = random.nextInt(N);
+        double[] suma = new double[1];
+        AccionDistancias acumula = (s, d) -> {
+            double t = 0;
+            for (double x : d)
+                t += x;
+            synchronized (suma) {
+                suma[0] += t;
+            }
+        };
+        /* Calentamos la máquina virtual. */
+        congelada.distancias(origenes, 1, acumula);
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < k / 8; i++)
+            grafica.distancias(origenes[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("Grafica.distancias desde %d orígenes con %s " +
+                              "aristas", k / 8, nf.format(A)),
+                tiempoTotal, k / 8, "orígenes");
+
+        for (int hilos = 1; hilos <= 8; hilos *= 2) {
+            suma[0] = 0;
+            tiempoInicial = System.nanoTime();
+            congelada.distancias(origenes, hilos, acumula);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("lote de Dijkstra desde %d orígenes con %d " +
+                                  "hilos (suma %.0f)", k, hilos, suma[0]),
+                    tiempoTotal, k, "orígenes");
+        }
+
+        for (int hilos = 1; hilos <= 8; hilos *= 2) {
+            long[] alcanzados = new long[1];
+            tiempoInicial = System.nanoTime();
+            congelada.niveles(origenes, hilos, (s, niveles) -> {
+                    long t = 0;
+                    for (int x : niveles)
+                        if (x != -1)
+                            t++;
+                    synchronized (alcanzados) {
+                        alcanzados[0] += t;
+                    }
+                });
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("lote de BFS desde %d orígenes con %d " +
+                                  "hilos (%s alcanzados)", k, hilos,
+                                  nf.format(alcanzados[0])),
+                    tiempoTotal, k, "orígenes");
+        }
+        System.out.printf("Procesadores disponibles: %d.\n",
+                          Runtime.getRuntime().availableProcessors());
+    }
+
+    /* Mide PageRank y las aproximaciones de cercanía e intermediación. */
+    private static void centralidad(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int k = Math.max(8, Math.min(256, 2000000 / N));
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        long A = grafica.getAristas();
+        int hilos = Runtime.getRuntime().availableProcessors();
+
+        tiempoInicial = System.nanoTime();
+        Centralidad<Integer> centralidad =
+            new Centralidad<Integer>(grafica, hilos);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("congelar %s aristas", nf.format(A)),
+                tiempoTotal, A, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        centralidad.pageRank(0.85, 1e-8, 100);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        int iteraciones = centralidad.getIteraciones();
+        reporta(String.format("PageRank con %d hilos (%d iteraciones)",
+                              hilos, iteraciones),
+                tiempoTotal, A * iteraciones, "aristas");
+
+        tiempoInicial = System.nanoTime();
+        centralidad.cercania(k, SEMILLA);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("cercanía con %d muestras y %d hilos", k,
+                              hilos),
+                tiempoTotal, k, "orígenes");
+
+        tiempoInicial = System.nanoTime();
+        centralidad.intermediacion(k, SEMILLA);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("intermediación con %d muestras y %d hilos", k,
+                              hilos),
+                tiempoTotal, k, "orígenes");
+    }
+
+    /* Mide la rotación de vértices: agregar y eliminar centros de grado
+       grande, y eliminar vértices al azar, sobre una gráfica grande. */
+    private static void rotacion(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int grado = Math.max(2, Math.min(N / 10, 10000));
+        int centros = Math.max(10, Math.min(1000, 20000000 / N / grado));
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        tiempoInicial = System.nanoTime();
+        long aristas = 0;
+        for (int c = 0; c < centros; c++) {
+            int centro = N + c;
+            grafica.agrega(centro);
+            for (int k = 0; k < grado; k++) {
+                int v = random.nextInt(N);
+                if (!grafica.sonVecinos(centro, v)) {
+                    grafica.conecta(centro, v);
+                    aristas++;
+                }
+            }
+            grafica.elimina(centro);
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("agregar y eliminar %d centros de grado %d",
+                              centros, grado),
+                tiempoTotal, 2 * aristas, "aristas");
+
+        int k = Math.min(N / 2, 100000);
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < k; i++) {
+            int v = random.nextInt(N);
+            if (grafica.contiene(v))
+                grafica.elimina(v);
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("eliminar %d vértices al azar (quedan %s)", k,
+                              nf.format(grafica.getElementos())),
+                tiempoTotal, k, "vértices");
+    }
+
+    /* Hace k cambios al azar en la gráfica: conecta o desconecta parejas al
+       azar de vértices. */
+    private static void cambia(Grafica<Integer> grafica, int N, int k,
+                               Random random) {
+        for (int i = 0; i < k; i++) {
+            int a = random.nextInt(N), b = random.nextInt(N);
+            if (a == b)
+                continue;
+            if (grafica.sonVecinos(a, b))
+                grafica.desconecta(a, b);
+            else
+                grafica.conecta(a, b);
+        }
+    }
+
+    /* Mide lotes de cambios chicos a una gráfica grande con las componentes,
+       el histograma de grados y las distancias desde un origen suscritos a
+       su bitácora, contra recalcularlos desde cero después de cada lote. */
+    private static void incremental(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int lotes = 10, k = 1000;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        /* Calentamos la máquina virtual. */
+        cambia(grafica, N, k, random);
+        tiempoInicial = System.nanoTime();
+        for (int l = 0; l < lotes; l++)
+            cambia(grafica, N, k, random);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d lotes de %d cambios sin bitácora", lotes,
+                              k),
+                tiempoTotal, lotes * k, "cambios");
+
+        tiempoInicial = System.nanoTime();
+        int c = grafica.componentes();
+        int[] alcanzables = { 0 };
+        grafica.bfs(0, v -> alcanzables[0]++);
+        int[] cuentas = new int[N];
+        grafica.paraCadaVertice(v -> cuentas[v.getGrado()]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("recalcular desde cero %d componentes, un BFS " +
+                              "y el histograma", c),
+                tiempoTotal, N, "vértices");
+
+        tiempoInicial = System.nanoTime();
+        ComponentesIncrementales<Integer> componentes =
+            new ComponentesIncrementales<Integer>(grafica);
+        HistogramaGrados<Integer> histograma =
+            new HistogramaGrados<Integer>(grafica);
+        DistanciasIncrementales<Integer> distancias =
+            new DistanciasIncrementales<Integer>(grafica, 0);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta("inicializar los tres observadores", tiempoTotal, N,
+                "vértices");
+
+        cambia(grafica, N, k, random);
+        tiempoInicial = System.nanoTime();
+        for (int l = 0; l < lotes; l++)
+            cambia(grafica, N, k, random);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("%d lotes de %d cambios con los tres " +
+                              "observadores", lotes, k),
+                tiempoTotal, lotes * k, "cambios");
+        System.out.printf("Componentes: %d; grado máximo: %d; distancia " +
+                          "a %d: %d.\n", componentes.getComponentes(),
+                          histograma.getGradoMaximo(), N - 1,
+                          distancias.getDistancia(N - 1));
+    }
+
+    /* Mide el conteo de triángulos contra probar cada pareja de vecinos con
+       sonVecinos, y sobre la misma gráfica con centros de grado grande. */
+    private static void triangulos(int N) {
+        Random random = new Random(SEMILLA);
+        long tiempoInicial, tiempoTotal;
+        int hilos = Runtime.getRuntime().availableProcessors();
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        long A = grafica.getAristas();
+        tiempoInicial = System.nanoTime();
+        long[] parejas = { 0 };
+        long[] cuenta = { 0 };
+        grafica.paraCadaVertice(v -> {
+                for (VerticeGrafica<Integer> u : v.vecinos())
+                    for (VerticeGrafica<Integer> w : v.vecinos())
+                        if (u.get() < w.get()) {
+                            parejas[0]++;
+                            if (grafica.sonVecinos(u.get(), w.get()))
+                                cuenta[0]++;
+                        }
+            });
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("contar %s triángulos con sonVecinos",
+                              nf.format(cuenta[0] / 3)),
+                tiempoTotal, parejas[0], "parejas");
+
+        /* Calentamos la máquina virtual. */
+        new Triangulos<Integer>(grafica, hilos);
+        for (int h = 1; h <= hilos; h *= 2) {
+            tiempoInicial = System.nanoTime();
+            Triangulos<Integer> triangulos =
+                new Triangulos<Integer>(grafica, h);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("congelar y contar %s triángulos en %s " +
+                                  "aristas con %d hilos",
+                                  nf.format(triangulos.getTriangulos()),
+                                  nf.format(A), h),
+                    tiempoTotal, A, "aristas");
+        }
+
+        int centros = 10, grado = Math.max(2, N / 10);
+        for (int c = 0; c < centros; c++) {
+            grafica.agrega(N + c);
+            for (int k = 0; k < grado; k++) {
+                int v = random.nextInt(N);
+                if (!grafica.sonVecinos(N + c, v))
+                    grafica.conecta(N + c, v);
+            }
+        }
+        A = grafica.getAristas();
+        long caminos = 0;
+        for (int c = 0; c < centros; c++) {
+            long d = grafica.vertice(N + c).getGrado();
+            caminos += d * (d - 1) / 2;
+        }
+        System.out.printf("Con %d centros de grado %d, probar cada pareja " +
+                          "de vecinos costaría %s consultas más.\n", centros,
+                          grado, nf.format(caminos));
+        tiempoInicial = System.nanoTime();
+        Triangulos<Integer> triangulos =
+            new Triangulos<Integer>(grafica, hilos);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("congelar y contar %s triángulos en %s " +
+                              "aristas con %d centros y %d hilos",
+                              nf.format(triangulos.getTriangulos()),
+                              nf.format(A), centros, hilos),
+                tiempoTotal, A, "aristas");
+        System.out.printf("Transitividad: %.6f; coeficiente promedio: " +
+                          "%.6f.\n", triangulos.getTransitividad(),
+                          triangulos.getCoeficientePromedio());
+    }
+
+    /* Construye una gráfica densa al azar con n vértices, en la que cada
+       pareja es arista con probabilidad p, con el umbral de densidad
+       recibido. */
+    private static Grafica<Integer> densa(int n, double p, double umbral,
+                                          Random random) {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        grafica.setUmbralDensidad(umbral);
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n; i++)
+            for (int j = i + 1; j < n; j++)
+                if (random.nextDouble() < p)
+                    grafica.conecta(i, j);
+        return grafica;
+    }
+
+    /* Compara una gráfica densa en modo denso contra la misma gráfica con un
+       umbral que nunca se alcanza: memoria, sonVecinos, BFS y elimina. */
+    private static void densa(int N) {
+        int n = Math.min(N, 5000);
+        double p = 0.2;
+        String[] modos = { "modo denso", "modo disperso" };
+        double[] umbrales = { Grafica.UMBRAL_DENSIDAD, 2 };
+        int consultas = 10000000, recorridos = 20;
+
+        for (int i = 0; i < modos.length; i++) {
+            Random random = new Random(SEMILLA);
+            long antes = memoriaUsada();
+            long tiempoInicial = System.nanoTime();
+            Grafica<Integer> grafica = densa(n, p, umbrales[i], random);
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            long A = grafica.getAristas();
+            reporta(String.format("construir %s aristas en %s", nf.format(A),
+                                  modos[i]), tiempoTotal, A, "aristas");
+            long memoria = memoriaUsada() - antes;
+            System.out.printf("Memoria en %s: %s bytes, %.1f bytes por " +
+                              "arista.\n", modos[i], nf.format(memoria),
+                              memoria / (double)A);
+
+            int[] a = new int[consultas], b = new int[consultas];
+            for (int k = 0; k < consultas; k++) {
+                a[k] = random.nextInt(n);
+                b[k] = random.nextInt(n);
+            }
+            /* Calentamos la máquina virtual. */
+            for (int k = 0; k < consultas / 10; k++)
+                grafica.sonVecinos(a[k], b[k]);
+            int vecinos = 0;
+            tiempoInicial = System.nanoTime();
+            for (int k = 0; k < consultas; k++)
+                if (grafica.sonVecinos(a[k], b[k]))
+                    vecinos++;
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("%s consultas sonVecinos (%s vecinos) en " +
+                                  "%s", nf.format(consultas),
+                                  nf.format(vecinos), modos[i]),
+                    tiempoTotal, consultas, "consultas");
+
+            long[] visitados = { 0 };
+            grafica.bfs(0, v -> visitados[0]++);
+            tiempoInicial = System.nanoTime();
+            for (int k = 0; k < recorridos; k++)
+                grafica.bfs(random.nextInt(n), v -> visitados[0]++);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            reporta(String.format("%d BFS en %s", recorridos, modos[i]),
+                    tiempoTotal, A * recorridos, "aristas");
+
+            /* Eliminamos la mitad de los vértices, los últimos agregados
+               primero, que están al final de las vecindades; la gráfica
+               sigue densa. */
+            long eliminadas = A;
+            tiempoInicial = System.nanoTime();
+            for (int v = n - 1; v >= n - n / 2; v--)
+                grafica.elimina(v);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            eliminadas -= grafica.getAristas();
+            reporta(String.format("eliminar %s vértices (%s aristas) en %s",
+                                  nf.format(n / 2), nf.format(eliminadas),
+                                  modos[i]),
+                    tiempoTotal, eliminadas, "aristas");
+        }
+    }
+
+    /* Regresa el generador de la familia recibida con n vértices y grado
+       promedio cercano a 8. */
+    private static GeneradorGraficas genera(String familia, int n) {
+        switch (familia) {
+        case "erdos-renyi":
+            return GeneradorGraficas.erdosRenyi(n, 8.0 / n, SEMILLA);
+        case "barabasi-albert":
+            return GeneradorGraficas.barabasiAlbert(n, 4, SEMILLA);
+        case "rejilla":
+            int lado = (int)Math.sqrt(n);
+            return GeneradorGraficas.rejilla(lado, n / lado);
+        default:
+            return GeneradorGraficas.regular(n, 8, SEMILLA);
+        }
+    }
+
+    /* Mide las operaciones básicas de Grafica, GraficaInt y GraficaCongelada
+       sobre las gráficas sintéticas de cada familia, con N/100, N/10 y N
+       vértices. */
+    private static void generadores(int N) {
+        String[] familias = { "erdos-renyi", "barabasi-albert", "rejilla",
+                              "regular" };
+        long tiempoInicial, tiempoTotal;
+
+        /* Calentamos la máquina virtual. */
+        for (String familia : familias) {
+            Grafica<Integer> grafica = genera(familia, 10000).grafica();
+            grafica.bfs(0, v -> {});
+            grafica.dfs(0, v -> {});
+            grafica.dijkstra(0, grafica.getElementos() - 1);
+        }
+
+        for (int n = Math.max(100, N / 100); n <= N; n *= 10) {
+            for (String familia : familias) {
+                tiempoInicial = System.nanoTime();
+                GeneradorGraficas generador = genera(familia, n);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                int V = generador.getElementos();
+                long A = generador.getAristas();
+                System.out.printf("%s con %s vértices y %s aristas:\n",
+                                  familia, nf.format(V), nf.format(A));
+                reporta("generar las aristas", tiempoTotal, A, "aristas");
+
+                Grafica<Integer> grafica = new Grafica<Integer>();
+                tiempoInicial = System.nanoTime();
+                generador.conecta(grafica);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta("agregar y conectar uno por uno", tiempoTotal, A,
+                        "aristas");
+                grafica = null;
+
+                tiempoInicial = System.nanoTime();
+                grafica = generador.grafica();
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta("construir de una sola pasada", tiempoTotal, A,
+                        "aristas");
+
+                tiempoInicial = System.nanoTime();
+                boolean conexa = grafica.esConexa();
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta(String.format("esConexa (%s, %s componentes)",
+                                      conexa, nf.format(grafica.componentes())),
+                        tiempoTotal, A, "aristas");
+
+                long[] visitados = { 0 };
+                tiempoInicial = System.nanoTime();
+                grafica.bfs(0, v -> visitados[0]++);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta(String.format("BFS (%s visitados)",
+                                      nf.format(visitados[0])),
+                        tiempoTotal, A, "aristas");
+
+                tiempoInicial = System.nanoTime();
+                grafica.dfs(0, v -> visitados[0]++);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta("DFS", tiempoTotal, A, "aristas");
+
+                tiempoInicial = System.nanoTime();
+                int d = grafica.distancia(0, V - 1);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta(String.format("distancia en aristas (%d)", d),
+                        tiempoTotal, A, "aristas");
+
+                tiempoInicial = System.nanoTime();
+                Lista<VerticeGrafica<Integer>> trayectoria =
+                    grafica.dijkstra(0, V - 1);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta(String.format("Dijkstra (%d vértices en la " +
+                                      "trayectoria)",
+                                      trayectoria.getLongitud()),
+                        tiempoTotal, A, "aristas");
+
+                tiempoInicial = System.nanoTime();
+                GraficaCongelada<Integer> congelada = grafica.congela();
+                congelada.bfs(0, v -> visitados[0]++);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta("congelar y BFS en la congelada", tiempoTotal, A,
+                        "aristas");
+                grafica = null;
+                congelada = null;
+
+                tiempoInicial = System.nanoTime();
+                GraficaInt enteros = generador.graficaInt();
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta("construir GraficaInt de una sola pasada",
+                        tiempoTotal, A, "aristas");
+
+                tiempoInicial = System.nanoTime();
+                enteros.esConexa();
+                enteros.bfs(0, v -> visitados[0]++);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                reporta("esConexa y BFS en GraficaInt", tiempoTotal, 2 * A,
+                        "aristas");
+            }
+            if (n > N / 10)
+                break;
+        }
+    }
+
+    /* Corre durante el tiempo recibido un hilo que conecta y desconecta
+       parejas al azar y el número recibido de hilos que hacen la consulta
+       recibida con parejas al azar; regresa las consultas y las escrituras
+       hechas. */
+    private static long[] mezcla(int N, int lectores, long milis,
+                                 BiPredicate<Integer, Integer> consulta,
+                                 BiPredicate<Integer, Integer> sonVecinos,
+                                 BiConsumer<Integer, Integer> conecta,
+                                 BiConsumer<Integer, Integer> desconecta)
+        throws InterruptedException {
+        AtomicBoolean alto = new AtomicBoolean();
+        long[] cuentas = new long[lectores + 1];
+        Thread[] hilos = new Thread[lectores + 1];
+        for (int h = 0; h <= lectores; h++) {
+            int i = h;
+            hilos[h] = new Thread(() -> {
+                    Random random = new Random(SEMILLA + i);
+                    long c = 0;
+                    while (!alto.get()) {
+                        int a = random.nextInt(N), b = random.nextInt(N);
+                        if (a == b)
+                            continue;
+                        if (i < lectores)
+                            consulta.test(a, b);
+                        else if (sonVecinos.test(a, b))
+                            desconecta.accept(a, b);
+                        else
+                            conecta.accept(a, b);
+                        c++;
+                    }
+                    cuentas[i] = c;
+                });
+        }
+        for (Thread h : hilos)
+            h.start();
+        Thread.sleep(milis);
+        alto.set(true);
+        for (Thread h : hilos)
+            h.join();
+        long consultas = 0;
+        for (int h = 0; h < lectores; h++)
+            consultas += cuentas[h];
+        return new long[] { consultas, cuentas[lectores] };
+    }
+
+    /* Mide consultas y recorridos concurrentes a la gráfica con franjas
+       mientras un hilo escribe, contra una gráfica normal protegida por un
+       solo candado. */
+    private static void concurrente(int N) {
+        Random random = new Random(SEMILLA);
+        long milis = 1000;
+
+        Grafica<Integer> grafica = aleatoria(N, random);
+        GraficaConcurrente<Integer> concurrente =
+            new GraficaConcurrente<Integer>();
+        for (int i = 0; i < N; i++)
+            concurrente.agrega(i);
+        grafica.paraCadaArista((a, b, peso) ->
+                               concurrente.conecta(a.get(), b.get()));
+        Object candado = new Object();
+        BiPredicate<Integer, Integer> sonVecinos = (a, b) -> {
+            synchronized (candado) {
+                return grafica.sonVecinos(a, b);
+            }
+        };
+        BiPredicate<Integer, Integer> recorre = (a, b) -> {
+            synchronized (candado) {
+                grafica.bfs(a, v -> {});
+            }
+            return true;
+        };
+        BiPredicate<Integer, Integer> recorreFranjas = (a, b) -> {
+            concurrente.bfs(a, v -> {});
+            return true;
+        };
+
+        try {
+            for (int lectores = 1; lectores <= 8; lectores *= 2) {
+                long[] c = mezcla(N, lectores, milis, sonVecinos, sonVecinos,
+                                  (a, b) -> {
+                                      synchronized (candado) {
+                                          grafica.conecta(a, b);
+                                      }
+                                  },
+                                  (a, b) -> {
+                                      synchronized (candado) {
+                                          grafica.desconecta(a, b);
+                                      }
+                                  });
+                reporta(String.format("un candado, %d lectores y 1 " +
+                                      "escritor (%s escrituras)", lectores,
+                                      nf.format(c[1])),
+                        milis * 1000000L, c[0], "consultas");
+                c = mezcla(N, lectores, milis, concurrente::sonVecinos,
+                           concurrente::sonVecinos, concurrente::conecta,
+                           concurrente::desconecta);
+                reporta(String.format("franjas, %d lectores y 1 escritor " +
+                                      "(%s escrituras)", lectores,
+                                      nf.format(c[1])),
+                        milis * 1000000L, c[0], "consultas");
+            }
+            for (int lectores = 1; lectores <= 8; lectores *= 2) {
+                long[] c = mezcla(N, lectores, milis, recorre, sonVecinos,
+                                  (a, b) -> {
+                                      synchronized (candado) {
+                                          grafica.conecta(a, b);
+                                      }
+                                  },
+                                  (a, b) -> {
+                                      synchronized (candado) {
+                                          grafica.desconecta(a, b);
+                                      }
+                                  });
+                reporta(String.format("un candado, %d lectores con BFS y 1 " +
+                                      "escritor (%s escrituras)", lectores,
+                                      nf.format(c[1])),
+                        milis * 1000000L, c[0], "recorridos");
+                c = mezcla(N, lectores, milis, recorreFranjas,
+                           concurrente::sonVecinos, concurrente::conecta,
+                           concurrente::desconecta);
+                reporta(String.format("franjas, %d lectores con BFS y 1 " +
+                                      "escritor (%s escrituras)", lectores,
+                                      nf.format(c[1])),
+                        milis * 1000000L, c[0], "recorridos");
+            }
+        } catch (InterruptedException ie) {
+            throw new IllegalStateException(ie);
+        }
+
+        /* Calentamos la máquina virtual. */
+        concurrente.instantanea();
+        long tiempoInicial = System.nanoTime();
+        Grafica<Integer> copia = concurrente.instantanea();
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        reporta(String.format("instantánea de %s aristas",
+                              nf.format(copia.getAristas())),
+                tiempoTotal, copia.getAristas(), "aristas");
+        System.out.printf("Procesadores disponibles: %d.\n",
+                          Runtime.getRuntime().availableProcessors());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2)
+            uso();
+
+        int N = -1;
+        try {
+            N = Integer.parseInt(args[0]);
+        } catch (NumberFormatException nfe) {
+            uso();
+        }
+
+        if (N < 2)
+            uso();
+
+        String seccion = args.length == 2 ? args[1] : null;
+
+        if (seccion == null || seccion.equals("construccion"))
+            construccion(N);
+        if (seccion == null || seccion.equals("estrella"))
+            estrella(N);
+        if (seccion == null || seccion.equals("congelada"))
+            congelada(N);
+        if (seccion == null || seccion.equals("dijkstra"))
+            dijkstra(N);
+        if (seccion == null || seccion.equals("paralelo"))
+            paralelo(N);
+        if (seccion == null || seccion.equals("direccion"))
+            direccion(N);
+        if (seccion == null || seccion.equals("componentes"))
+            componentes(N);
+        if (seccion == null || seccion.equals("carga"))
+            carga(N);
+        if (seccion == null || seccion.equals("formato"))
+            formato(N);
+        if (seccion == null || seccion.equals("enteros"))
+            enteros(N);
+        if (seccion == null || seccion.equals("exporta"))
+            exporta(N);
+        if (seccion == null || seccion.equals("igualdad"))
+            igualdad(N);
+        if (seccion == null || seccion.equals("arbol"))
+            arbol(N);
+        if (seccion == null || seccion.equals("distancia"))
+            distancia(N);
+        if (seccion == null || seccion.equals("aestrella"))
+            aEstrella(N);
+        if (seccion == null || seccion.equals("dirigida"))
+            dirigida(N);
+        if (seccion == null || seccion.equals("lote"))
+            lote(N);
+        if (seccion == null || seccion.equals("centralidad"))
+            centralidad(N);
+        if (seccion == null || seccion.equals("rotacion"))
+            rotacion(N);
+        if (seccion == null || seccion.equals("concurrente"))
+            concurrente(N);
+        if (seccion == null || seccion.equals("incremental"))
+            incremental(N);
+        if (seccion == null || seccion.equals("triangulos"))
+            triangulos(N);
+        if (seccion == null || seccion.equals("densa"))
+            densa(N);
+        if (seccion == null || seccion.equals("generadores"))
+            generadores(N);
+    }
+}
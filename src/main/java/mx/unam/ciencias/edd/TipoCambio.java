@@ -0,0 +1,20 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para los tipos de cambio que registra una {@link
+ * BitacoraGrafica}.
+ */
+public enum TipoCambio {
+    /** Se agregó un vértice. */
+    AGREGA,
+    /** Se eliminó un vértice, que ya no tenía aristas. */
+    ELIMINA,
+    /** Se conectaron dos vértices. */
+    CONECTA,
+    /** Se desconectaron dos vértices. */
+    DESCONECTA,
+    /** Cambió el peso de una arista. */
+    PESO,
+    /** Se limpió la gráfica. */
+    LIMPIA
+}
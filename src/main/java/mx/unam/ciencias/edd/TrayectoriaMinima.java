@@ -0,0 +1,52 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para trayectorias de peso mínimo, como las regresa {@link
+ * Grafica#aEstrella}. Además de la trayectoria y su peso, guarda cuántos
+ * vértices se expandieron para encontrarla, que es la medida del trabajo que
+ * se ahorró la heurística.
+ */
+public class TrayectoriaMinima<T> {
+
+    /* La trayectoria. */
+    private Lista<VerticeGrafica<T>> trayectoria;
+    /* Su peso. */
+    private double peso;
+    /* El número de vértices expandidos. */
+    private int expandidos;
+
+    /* Construye el resultado; sólo las gráficas lo construyen. */
+    TrayectoriaMinima(Lista<VerticeGrafica<T>> trayectoria, double peso,
+                      int expandidos) {
+        this.trayectoria = trayectoria;
+        this.peso = peso;
+        this.expandidos = expandidos;
+    }
+
+    /**
+     * Regresa la trayectoria, del origen al destino incluyéndolos a ambos. Si
+     * no están conectados, regresa una lista vacía.
+     * @return la trayectoria.
+     */
+    public Lista<VerticeGrafica<T>> getTrayectoria() {
+        return trayectoria;
+    }
+
+    /**
+     * Regresa el peso de la trayectoria.
+     * @return el peso de la trayectoria, o {@link Double#POSITIVE_INFINITY}
+     *         si el origen y el destino no están conectados.
+     */
+    public double getPeso() {
+        return peso;
+    }
+
+    /**
+     * Regresa el número de vértices que se expandieron (que se sacaron del
+     * montículo) durante la búsqueda, contando al destino.
+     * @return el número de vértices expandidos.
+     */
+    public int getExpandidos() {
+        return expandidos;
+    }
+}
@@ -0,0 +1,239 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Clase para contar los triángulos de una {@link Grafica}: el total, los de
+ * cada vértice, y los coeficientes de agrupamiento que salen de ellos. Al
+ * construirse congela la gráfica (ver {@link Grafica#congela}) y cuenta todo
+ * de una vez, así que no ve los cambios que se hagan a la gráfica después.
+ *
+ * Los vértices se ordenan por grado y cada arista se orienta del vértice
+ * menor al mayor en ese orden; así ningún vértice tiene más de
+ * <i>O</i>(&radic;<i>m</i>) vecinos hacia adelante, aunque tenga grado muy
+ * grande. Las listas hacia adelante se ordenan, y cada triángulo se
+ * encuentra exactamente una vez, desde su vértice menor, intersecando su
+ * lista con la de cada uno de sus vecinos hacia adelante en una sola pasada.
+ * El trabajo total es <i>O</i>(<i>m</i>&radic;<i>m</i>), y los vértices se
+ * reparten entre los hilos por rangos; cada hilo cuenta en su propio
+ * arreglo, y al final se suman.
+ */
+public class Triangulos<T> {
+
+    /* Número de vértices por debajo del cual una tarea deja de dividirse; es
+       chico porque el trabajo por vértice varía mucho. */
+    private static final int PEDAZO = 1 << 10;
+
+    /* La gráfica congelada. */
+    private GraficaCongelada<T> congelada;
+    /* Los triángulos de cada vértice, por identificador. */
+    private long[] cuentas;
+    /* El total de triángulos. */
+    private long total;
+
+    /**
+     * Cuenta los triángulos de la gráfica recibida, que se congela en este
+     * momento.
+     * @param grafica la gráfica.
+     * @param hilos el número de hilos a usar.
+     * @throws IllegalArgumentException si el número de hilos es menor que 1.
+     */
+    public Triangulos(Grafica<T> grafica, int hilos) {
+        if (hilos < 1)
+            throw new IllegalArgumentException("Número de hilos inválido");
+        congelada = grafica.congela();
+        cuenta(hilos);
+    }
+
+    /* Cuenta los triángulos. Los vértices se renombran por su posición en el
+       orden por grado, para que las listas hacia adelante queden ordenadas
+       por posición y comparar sea comparar enteros. */
+    private void cuenta(int hilos) {
+        int n = congelada.getElementos();
+        int[] desplazamientos = congelada.desplazamientos;
+        int[] destinos = congelada.destinos;
+        /* El orden por grado, desempatando por identificador. */
+        long[] llaves = new long[n];
+        for (int v = 0; v < n; v++)
+            llaves[v] = ((long)(desplazamientos[v+1] - desplazamientos[v])
+                         << 32) | v;
+        Arrays.sort(llaves);
+        int[] posicion = new int[n];
+        int[] id = new int[n];
+        for (int p = 0; p < n; p++) {
+            id[p] = (int)llaves[p];
+            posicion[id[p]] = p;
+        }
+        /* Las listas hacia adelante, por posición. */
+        int[] inicios = new int[n + 1];
+        for (int p = 0; p < n; p++) {
+            int v = id[p], k = 0;
+            for (int j = desplazamientos[v]; j < desplazamientos[v+1]; j++)
+                if (posicion[destinos[j]] > p)
+                    k++;
+            inicios[p + 1] = inicios[p] + k;
+        }
+        int[] adelante = new int[inicios[n]];
+        Lista<long[]> arreglos = new Lista<long[]>();
+        ThreadLocal<long[]> locales = ThreadLocal.withInitial(() -> {
+                long[] a = new long[n];
+                synchronized (arreglos) {
+                    arreglos.agrega(a);
+                }
+                return a;
+            });
+        ForkJoinPool alberca = new ForkJoinPool(hilos);
+        try {
+            alberca.invoke(new Rango(0, n, PEDAZO, (inicio, fin) -> {
+                        for (int p = inicio; p < fin; p++) {
+                            int v = id[p], k = inicios[p];
+                            for (int j = desplazamientos[v];
+                                 j < desplazamientos[v+1]; j++) {
+                                int q = posicion[destinos[j]];
+                                if (q > p)
+                                    adelante[k++] = q;
+                            }
+                            Arrays.sort(adelante, inicios[p], k);
+                        }
+                    }));
+            alberca.invoke(new Rango(0, n, PEDAZO, (inicio, fin) -> {
+                        long[] c = locales.get();
+                        for (int p = inicio; p < fin; p++)
+                            for (int j = inicios[p]; j < inicios[p+1]; j++) {
+                                int q = adelante[j];
+                                c[p] += interseca(adelante, inicios[p],
+                                                  inicios[p+1], inicios[q],
+                                                  inicios[q+1], q, c);
+                            }
+                    }));
+        } finally {
+            alberca.shutdown();
+        }
+        cuentas = new long[n];
+        long suma = 0;
+        for (long[] c : arreglos)
+            for (int p = 0; p < n; p++)
+                cuentas[id[p]] += c[p];
+        for (int v = 0; v < n; v++)
+            suma += cuentas[v];
+        total = suma / 3;
+    }
+
+    /* Interseca los segmentos ordenados [i, fi) y [j, fj) del arreglo: por
+       cada posición w en ambos hay un triángulo con q y w, que se les suma;
+       regresa el número de triángulos encontrados. */
+    private static int interseca(int[] a, int i, int fi, int j, int fj,
+                                 int q, long[] c) {
+        int t = 0;
+        while (i < fi && j < fj) {
+            if (a[i] < a[j]) {
+                i++;
+            } else if (a[i] > a[j]) {
+                j++;
+            } else {
+                c[a[i]]++;
+                t++;
+                i++;
+                j++;
+            }
+        }
+        c[q] += t;
+        return t;
+    }
+
+    /**
+     * Regresa el número total de triángulos de la gráfica.
+     * @return el número total de triángulos de la gráfica.
+     */
+    public long getTriangulos() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de triángulos en los que está el elemento recibido.
+     * @param elemento el elemento.
+     * @return el número de triángulos en los que está el elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public long getTriangulos(T elemento) {
+        return cuentas[congelada.getId(elemento)];
+    }
+
+    /**
+     * Regresa el número de triángulos en los que está cada elemento.
+     * @return un diccionario con el número de triángulos de cada elemento.
+     */
+    public Diccionario<T, Long> triangulos() {
+        int n = congelada.getElementos();
+        Diccionario<T, Long> d = new Diccionario<T, Long>(n);
+        for (int i = 0; i < n; i++)
+            d.agrega(congelada.get(i), cuentas[i]);
+        return d;
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento local del elemento recibido:
+     * la fracción de las parejas de sus vecinos que son vecinos entre sí, que
+     * es el número de sus triángulos entre <i>d</i>(<i>d</i>-1)/2. Es 0 si su
+     * grado <i>d</i> es menor que 2.
+     * @param elemento el elemento.
+     * @return el coeficiente de agrupamiento local del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public double getCoeficiente(T elemento) {
+        return coeficiente(congelada.getId(elemento));
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento local de cada elemento (ver
+     * {@link #getCoeficiente}).
+     * @return un diccionario con el coeficiente de agrupamiento local de cada
+     *         elemento.
+     */
+    public Diccionario<T, Double> coeficientes() {
+        int n = congelada.getElementos();
+        Diccionario<T, Double> d = new Diccionario<T, Double>(n);
+        for (int i = 0; i < n; i++)
+            d.agrega(congelada.get(i), coeficiente(i));
+        return d;
+    }
+
+    /**
+     * Regresa el promedio de los coeficientes de agrupamiento locales de
+     * todos los vértices, contando como 0 los de grado menor que 2.
+     * @return el promedio de los coeficientes de agrupamiento locales, o 0
+     *         si la gráfica es vacía.
+     */
+    public double getCoeficientePromedio() {
+        int n = congelada.getElementos();
+        double suma = 0;
+        for (int i = 0; i < n; i++)
+            suma += coeficiente(i);
+        return n == 0 ? 0 : suma / n;
+    }
+
+    /**
+     * Regresa la transitividad de la gráfica, o coeficiente de agrupamiento
+     * global: tres veces el número de triángulos entre el número de caminos
+     * de dos aristas.
+     * @return la transitividad de la gráfica, o 0 si no tiene caminos de dos
+     *         aristas.
+     */
+    public double getTransitividad() {
+        int n = congelada.getElementos();
+        long caminos = 0;
+        for (int i = 0; i < n; i++) {
+            long d = congelada.getGrado(i);
+            caminos += d * (d - 1) / 2;
+        }
+        return caminos == 0 ? 0 : 3.0 * total / caminos;
+    }
+
+    /* Regresa el coeficiente de agrupamiento local del identificador. */
+    private double coeficiente(int id) {
+        long d = congelada.getGrado(id);
+        return d < 2 ? 0 : 2.0 * cuentas[id] / (d * (d - 1));
+    }
+}
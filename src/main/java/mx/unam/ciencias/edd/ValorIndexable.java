@@ -40,7 +40,7 @@ public class ValorIndexable<T>
      *         si es mayor.
      */
     @Override public int compareTo(ValorIndexable<T> valorIndexable) {
-        return (int) Math.floor(valor-valorIndexable.valor);
+        return Double.compare(valor, valorIndexable.valor);
     }
 
     /**
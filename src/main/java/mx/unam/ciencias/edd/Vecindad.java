@@ -0,0 +1,218 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para la vecindad de un vértice de gráfica. Los vecinos se guardan en
+ * un arreglo que crece al doble, y el peso de la arista hacia cada uno en un
+ * arreglo paralelo; mientras el grado es pequeño la pertenencia
+ * se decide recorriendo el arreglo, y cuando el grado rebasa {@link #UMBRAL}
+ * se mantiene además un diccionario del vecino a su posición, para que
+ * preguntar, agregar o eliminar un vecino tome tiempo <i>O</i>(1) esperado.
+ *
+ * Los vecinos se iteran en el orden en que fueron agregados, salvo que al
+ * eliminar uno su lugar lo ocupa el último; el orden siempre es
+ * determinístico. Los vecinos se comparan por identidad.
+ */
+class Vecindad<V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<V> {
+
+        /* Índice del iterador. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < grado;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (indice >= grado)
+                throw new NoSuchElementException();
+            return vecinos[indice++];
+        }
+    }
+
+    /** Grado a partir del cual se indexan las posiciones de los vecinos. */
+    public static final int UMBRAL = 16;
+
+    /* Los vecinos. */
+    private V[] vecinos;
+    /* Los pesos de las aristas hacia los vecinos. */
+    private double[] pesos;
+    /* El número de vecinos. */
+    private int grado;
+    /* Las posiciones de los vecinos; null mientras el grado sea pequeño. */
+    private Diccionario<V, Integer> posiciones;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private V[] nuevoArreglo(int n) {
+        return (V[])(new Object[n]);
+    }
+
+    /**
+     * Construye una vecindad vacía.
+     */
+    public Vecindad() {
+        this(4);
+    }
+
+    /**
+     * Construye una vecindad vacía con espacio para el número de vecinos
+     * recibido sin tener que crecer.
+     * @param capacidad el número de vecinos que esperamos guardar.
+     */
+    public Vecindad(int capacidad) {
+        capacidad = Math.max(capacidad, 1);
+        vecinos = nuevoArreglo(capacidad);
+        pesos = new double[capacidad];
+    }
+
+    /**
+     * Regresa el número de vecinos.
+     * @return el número de vecinos.
+     */
+    public int getGrado() {
+        return grado;
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo vecino.
+     * @param i el índice del vecino.
+     * @return el <i>i</i>-ésimo vecino.
+     */
+    public V get(int i) {
+        return vecinos[i];
+    }
+
+    /**
+     * Regresa el peso de la arista hacia el <i>i</i>-ésimo vecino.
+     * @param i el índice del vecino.
+     * @return el peso de la arista hacia el <i>i</i>-ésimo vecino.
+     */
+    public double getPeso(int i) {
+        return pesos[i];
+    }
+
+    /**
+     * Regresa el peso de la arista hacia un vecino.
+     * @param vecino el vecino.
+     * @return el peso de la arista hacia el vecino.
+     * @throws NoSuchElementException si el vértice no está en la vecindad.
+     */
+    public double peso(V vecino) {
+        int i = posicion(vecino);
+        if (i == -1)
+            throw new NoSuchElementException();
+        return pesos[i];
+    }
+
+    /**
+     * Define el peso de la arista hacia un vecino.
+     * @param vecino el vecino.
+     * @param peso el nuevo peso.
+     * @throws NoSuchElementException si el vértice no está en la vecindad.
+     */
+    public void setPeso(V vecino, double peso) {
+        int i = posicion(vecino);
+        if (i == -1)
+            throw new NoSuchElementException();
+        pesos[i] = peso;
+    }
+
+    /**
+     * Agrega un vecino al final de la vecindad. No se verifica que no esté ya
+     * en ella.
+     * @param vecino el vecino a agregar.
+     * @param peso el peso de la arista hacia el vecino.
+     */
+    public void agrega(V vecino, double peso) {
+        if (grado == vecinos.length) {
+            V[] viejos = vecinos;
+            vecinos = nuevoArreglo(grado * 2);
+            System.arraycopy(viejos, 0, vecinos, 0, grado);
+            double[] viejosPesos = pesos;
+            pesos = new double[grado * 2];
+            System.arraycopy(viejosPesos, 0, pesos, 0, grado);
+        }
+        pesos[grado] = peso;
+        vecinos[grado++] = vecino;
+        if (posiciones != null)
+            posiciones.agrega(vecino, grado - 1);
+        else if (grado > UMBRAL)
+            indexa();
+    }
+
+    /**
+     * Nos dice si un vértice es vecino.
+     * @param vecino el vértice.
+     * @return <code>true</code> si el vértice está en la vecindad,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(V vecino) {
+        return posicion(vecino) != -1;
+    }
+
+    /**
+     * Elimina un vecino de la vecindad; su lugar lo ocupa el último vecino.
+     * @param vecino el vecino a eliminar.
+     * @throws NoSuchElementException si el vértice no está en la vecindad.
+     */
+    public void elimina(V vecino) {
+        int i = posicion(vecino);
+        if (i == -1)
+            throw new NoSuchElementException();
+        grado--;
+        V ultimo = vecinos[grado];
+        vecinos[i] = ultimo;
+        pesos[i] = pesos[grado];
+        vecinos[grado] = null;
+        if (posiciones != null) {
+            posiciones.elimina(vecino);
+            if (i != grado)
+                posiciones.agrega(ultimo, i);
+        }
+    }
+
+    /**
+     * Elimina a todos los vecinos.
+     */
+    public void limpia() {
+        vecinos = nuevoArreglo(4);
+        pesos = new double[4];
+        grado = 0;
+        posiciones = null;
+    }
+
+    /**
+     * Regresa un iterador para los vecinos.
+     * @return un iterador para los vecinos.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+
+    /* Regresa la posición del vecino, o -1 si no está. */
+    private int posicion(V vecino) {
+        if (posiciones != null) {
+            Integer i = posiciones.get(vecino);
+            return i == null ? -1 : i;
+        }
+        for (int i = 0; i < grado; i++)
+            if (vecinos[i] == vecino)
+                return i;
+        return -1;
+    }
+
+    /* Crea el diccionario de posiciones con los vecinos actuales. */
+    private void indexa() {
+        posiciones = new Diccionario<V, Integer>(UMBRAL * 4);
+        for (int i = 0; i < grado; i++)
+            posiciones.agrega(vecinos[i], i);
+    }
+}
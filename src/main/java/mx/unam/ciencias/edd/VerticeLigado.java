@@ -0,0 +1,55 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase abstracta para los vértices de una {@link GraficaLigada}. Cada
+ * vértice tiene su elemento, su color y su identificador denso, y apunta al
+ * vértice agregado antes y al agregado después de él. Las subclases dicen
+ * qué vecinos siguen los recorridos.
+ */
+abstract class VerticeLigado<T, V extends VerticeLigado<T, V>>
+    implements VerticeGrafica<T> {
+
+    /** El elemento del vértice. */
+    public T elemento;
+    /** El color del vértice. */
+    public Color color;
+    /** El identificador denso del vértice, entre 0 y n-1. */
+    public int id;
+    /** El vértice agregado antes de éste. */
+    public V anterior;
+    /** El vértice agregado después de éste. */
+    public V siguiente;
+
+    /**
+     * Construye un vértice sin color para el elemento recibido.
+     * @param elemento el elemento del vértice.
+     */
+    public VerticeLigado(T elemento) {
+        this.elemento = elemento;
+        color = Color.NINGUNO;
+    }
+
+    /**
+     * Regresa el elemento del vértice.
+     * @return el elemento del vértice.
+     */
+    @Override public T get() {
+        return elemento;
+    }
+
+    /**
+     * Regresa el color del vértice.
+     * @return el color del vértice.
+     */
+    @Override public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Regresa la vecindad que siguen los recorridos desde este vértice: sus
+     * vecinos en una gráfica, y los vértices a los que salen arcos de él en
+     * una gráfica dirigida.
+     * @return la vecindad que siguen los recorridos.
+     */
+    public abstract Vecindad<V> vecindad();
+}
@@ -67,6 +67,36 @@ public class TestArreglos {
         Assert.assertTrue(estaOrdenado(arreglo));
     }
 
+    /**
+     * Prueba unitaria para {@link Arreglos#quickSort(Comparable[])} con
+     * arreglos grandes ordenados, en reversa y con muchos repetidos.
+     */
+    @Test public void testQuickSortRepetidos() {
+        int n = 100000 + random.nextInt(1000);
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; i++)
+            a[i] = 7;
+        Arreglos.quickSort(a);
+        Assert.assertTrue(estaOrdenado(a));
+        for (int i = 0; i < n; i++)
+            a[i] = i;
+        Arreglos.quickSort(a);
+        Assert.assertTrue(estaOrdenado(a));
+        for (int i = 0; i < n; i++)
+            a[i] = n - i;
+        Arreglos.quickSort(a);
+        Assert.assertTrue(estaOrdenado(a));
+        int[] cuenta = new int[3];
+        for (int i = 0; i < n; i++)
+            cuenta[a[i] = random.nextInt(3)]++;
+        Arreglos.quickSort(a, (x, y) -> x.compareTo(y));
+        Assert.assertTrue(estaOrdenado(a));
+        for (int i = 0; i < n; i++)
+            cuenta[a[i]]--;
+        for (int c : cuenta)
+            Assert.assertTrue(c == 0);
+    }
+
     /**
      * Prueba unitaria para {@link Arreglos#selectionSort(Comparable[])}.
      */
@@ -0,0 +1,218 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.BitacoraGrafica;
+import mx.unam.ciencias.edd.CambioGrafica;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.ObservadorGrafica;
+import mx.unam.ciencias.edd.TipoCambio;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BitacoraGrafica}.
+ */
+public class TestBitacoraGrafica {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestBitacoraGrafica() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new Grafica<Integer>();
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#activaBitacora}, {@link
+     * Grafica#getBitacora} y {@link Grafica#desactivaBitacora}.
+     */
+    @Test public void testActivaBitacora() {
+        Assert.assertTrue(grafica.getBitacora() == null);
+        BitacoraGrafica<Integer> bitacora = grafica.activaBitacora(total);
+        Assert.assertTrue(bitacora.getCapacidad() == total);
+        Assert.assertTrue(bitacora.getVersion() == 0);
+        Assert.assertTrue(bitacora.getInicio() == 0);
+        Assert.assertTrue(grafica.getBitacora() == bitacora);
+        Assert.assertTrue(grafica.activaBitacora(0) == bitacora);
+        Assert.assertTrue(bitacora.getCapacidad() == total);
+        try {
+            grafica.activaBitacora(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            bitacora.suscribe(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        grafica.agrega(0);
+        Assert.assertTrue(bitacora.getVersion() == 1);
+        grafica.desactivaBitacora();
+        Assert.assertTrue(grafica.getBitacora() == null);
+        grafica.agrega(1);
+        Assert.assertTrue(bitacora.getVersion() == 1);
+    }
+
+    /**
+     * Prueba que cada operación de la gráfica se registra con su tipo, sus
+     * elementos y su peso.
+     */
+    @Test public void testRegistra() {
+        BitacoraGrafica<Integer> bitacora = grafica.activaBitacora(100);
+        Lista<CambioGrafica<Integer>> cambios =
+            new Lista<CambioGrafica<Integer>>();
+        bitacora.suscribe(c -> cambios.agrega(c));
+        grafica.agrega(1);
+        grafica.agrega(2);
+        grafica.conecta(1, 2, 3.5);
+        grafica.setPeso(2, 1, 4.5);
+        grafica.desconecta(2, 1);
+        grafica.limpia();
+        TipoCambio[] tipos = { TipoCambio.AGREGA, TipoCambio.AGREGA,
+                               TipoCambio.CONECTA, TipoCambio.PESO,
+                               TipoCambio.DESCONECTA, TipoCambio.LIMPIA };
+        Assert.assertTrue(cambios.getLongitud() == tipos.length);
+        int i = 0;
+        for (CambioGrafica<Integer> c : cambios) {
+            Assert.assertTrue(c.getVersion() == i);
+            Assert.assertTrue(c.getTipo() == tipos[i++]);
+        }
+        Assert.assertTrue(cambios.get(0).getA() == 1);
+        Assert.assertTrue(cambios.get(0).getB() == null);
+        Assert.assertTrue(cambios.get(2).getA() == 1);
+        Assert.assertTrue(cambios.get(2).getB() == 2);
+        Assert.assertTrue(cambios.get(2).getPeso() == 3.5);
+        Assert.assertTrue(cambios.get(3).getPeso() == 4.5);
+        Assert.assertTrue(cambios.get(4).getA() == 2);
+        Assert.assertTrue(cambios.get(4).getPeso() == 4.5);
+        Assert.assertTrue(cambios.get(5).getA() == null);
+        /* Lo que falla no se registra. */
+        try {
+            grafica.desconecta(1, 2);
+            Assert.fail();
+        } catch (RuntimeException re) {}
+        try {
+            grafica.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertTrue(bitacora.getVersion() == tipos.length);
+    }
+
+    /**
+     * Prueba que eliminar un vértice se registra como la desconexión de cada
+     * una de sus aristas seguida de su eliminación.
+     */
+    @Test public void testRegistraElimina() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(0, i, i);
+            if (i > 1)
+                grafica.conecta(i - 1, i);
+        }
+        BitacoraGrafica<Integer> bitacora = grafica.activaBitacora(0);
+        Lista<CambioGrafica<Integer>> cambios =
+            new Lista<CambioGrafica<Integer>>();
+        bitacora.suscribe(c -> cambios.agrega(c));
+        int aristas = grafica.getAristas();
+        grafica.elimina(0);
+        Assert.assertTrue(cambios.getLongitud() == total);
+        boolean[] vistos = new boolean[total];
+        int i = 0;
+        for (CambioGrafica<Integer> c : cambios) {
+            if (i++ == total - 1) {
+                Assert.assertTrue(c.getTipo() == TipoCambio.ELIMINA);
+                Assert.assertTrue(c.getA() == 0);
+                break;
+            }
+            Assert.assertTrue(c.getTipo() == TipoCambio.DESCONECTA);
+            Assert.assertTrue(c.getA() == 0);
+            Assert.assertFalse(vistos[c.getB()]);
+            vistos[c.getB()] = true;
+            Assert.assertTrue(c.getPeso() == c.getB());
+        }
+        Assert.assertFalse(grafica.contiene(0));
+        Assert.assertTrue(grafica.getAristas() == aristas - (total - 1));
+        for (int j = 1; j < total; j++)
+            Assert.assertTrue(grafica.vertice(j).getGrado() <= 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link BitacoraGrafica#paraCadaCambio}, incluyendo
+     * cuando la bitácora ya dio la vuelta.
+     */
+    @Test public void testParaCadaCambio() {
+        int capacidad = 1 + random.nextInt(total);
+        BitacoraGrafica<Integer> bitacora = grafica.activaBitacora(capacidad);
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            Assert.assertTrue(bitacora.getVersion() == i + 1);
+            Assert.assertTrue(bitacora.getInicio() ==
+                              Math.max(0, i + 1 - capacidad));
+        }
+        long inicio = bitacora.getInicio();
+        Lista<CambioGrafica<Integer>> cambios =
+            new Lista<CambioGrafica<Integer>>();
+        bitacora.paraCadaCambio(inicio, c -> cambios.agrega(c));
+        Assert.assertTrue(cambios.getLongitud() == total - inicio);
+        long v = inicio;
+        for (CambioGrafica<Integer> c : cambios) {
+            Assert.assertTrue(c.getVersion() == v);
+            Assert.assertTrue(c.getTipo() == TipoCambio.AGREGA);
+            Assert.assertTrue(c.getA() == v++);
+        }
+        int[] ninguno = { 0 };
+        bitacora.paraCadaCambio(total, c -> ninguno[0]++);
+        Assert.assertTrue(ninguno[0] == 0);
+        try {
+            bitacora.paraCadaCambio(total + 1, c -> {});
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        if (inicio > 0) {
+            try {
+                bitacora.paraCadaCambio(inicio - 1, c -> {});
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        /* Sin capacidad sólo se avisa. */
+        Grafica<Integer> g = new Grafica<Integer>();
+        BitacoraGrafica<Integer> b = g.activaBitacora(0);
+        g.agrega(0);
+        Assert.assertTrue(b.getInicio() == b.getVersion());
+        try {
+            b.paraCadaCambio(0, c -> {});
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BitacoraGrafica#suscribe} y {@link
+     * BitacoraGrafica#cancela}.
+     */
+    @Test public void testSuscribeCancela() {
+        BitacoraGrafica<Integer> bitacora = grafica.activaBitacora(0);
+        int[] cuenta = { 0 };
+        ObservadorGrafica<Integer> observador = c -> cuenta[0]++;
+        bitacora.suscribe(observador);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Assert.assertTrue(cuenta[0] == total);
+        bitacora.cancela(observador);
+        bitacora.cancela(observador);
+        grafica.conecta(0, 1);
+        Assert.assertTrue(cuenta[0] == total);
+        Assert.assertTrue(bitacora.getVersion() == total + 1);
+    }
+}
@@ -0,0 +1,142 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Random;
+import mx.unam.ciencias.edd.CargadorGrafica;
+import mx.unam.ciencias.edd.Grafica;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CargadorGrafica}.
+ */
+public class TestCargadorGrafica {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de aristas en el archivo. */
+    private int total;
+    /* Los extremos de las aristas en el archivo. */
+    private int[] extremos;
+    /* La gráfica que se espera obtener. */
+    private Grafica<Integer> esperada;
+    /* El archivo temporal. */
+    private Path archivo;
+
+    /**
+     * Crea una lista de aristas aleatoria, con repeticiones y lazos, y la
+     * gráfica que le corresponde, para cada prueba.
+     */
+    public TestCargadorGrafica() throws IOException {
+        random = new Random();
+        total = 1 + random.nextInt(500);
+        int rango = 2 + random.nextInt(100);
+        extremos = new int[2*total];
+        esperada = new Grafica<Integer>();
+        for (int i = 0; i < 2*total; i += 2) {
+            extremos[i] = random.nextInt(rango) - rango/2;
+            extremos[i+1] = random.nextInt(rango) - rango/2;
+            for (int k = 0; k < 2; k++)
+                if (!esperada.contiene(extremos[i+k]))
+                    esperada.agrega(extremos[i+k]);
+            if (extremos[i] != extremos[i+1] &&
+                !esperada.sonVecinos(extremos[i], extremos[i+1]))
+                esperada.conecta(extremos[i], extremos[i+1]);
+        }
+        archivo = Files.createTempFile("edd", ".aristas");
+    }
+
+    /**
+     * Borra el archivo temporal.
+     */
+    @After public void borra() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+
+    /* Verifica que la gráfica sea la esperada, con los vértices en el mismo
+       orden. */
+    private void verifica(Grafica<Integer> grafica) {
+        Assert.assertTrue(grafica.getElementos() == esperada.getElementos());
+        Assert.assertTrue(grafica.getAristas() == esperada.getAristas());
+        Iterator<Integer> i = esperada.iterator();
+        for (Integer e : grafica)
+            Assert.assertTrue(e.equals(i.next()));
+        for (Integer a : esperada)
+            for (Integer b : esperada)
+                if (!a.equals(b))
+                    Assert.assertTrue(grafica.sonVecinos(a, b) ==
+                                      esperada.sonVecinos(a, b));
+        Assert.assertTrue(grafica.esConexa() == esperada.esConexa());
+        Assert.assertTrue(grafica.equals(esperada));
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorGrafica#cargaTexto}.
+     */
+    @Test public void testCargaTexto() throws IOException {
+        StringBuilder sb = new StringBuilder("# comentario\n\n");
+        for (int i = 0; i < 2*total; i += 2) {
+            switch (random.nextInt(4)) {
+            case 0:
+                sb.append(String.format("%d %d\n", extremos[i],
+                                        extremos[i+1]));
+                break;
+            case 1:
+                sb.append(String.format("  %d\t%d\r\n", extremos[i],
+                                        extremos[i+1]));
+                break;
+            case 2:
+                sb.append(String.format("%d,%d,%d.5\n", extremos[i],
+                                        extremos[i+1], random.nextInt(9)));
+                break;
+            default:
+                sb.append(String.format("%% otro comentario\n%d %d\n",
+                                        extremos[i], extremos[i+1]));
+            }
+        }
+        if (random.nextBoolean())
+            sb.setLength(sb.length() - 1);
+        Files.write(archivo, sb.toString().getBytes(StandardCharsets.UTF_8));
+        verifica(CargadorGrafica.cargaTexto(archivo.toString()));
+        String[] invalidos = { "1\n", "1 x\n", "1 2\n3\n", "99999999999 1\n" };
+        for (String invalido : invalidos) {
+            Files.write(archivo, invalido.getBytes(StandardCharsets.UTF_8));
+            try {
+                CargadorGrafica.cargaTexto(archivo.toString());
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        Files.write(archivo, new byte[0]);
+        Assert.assertTrue(CargadorGrafica.cargaTexto(archivo.toString())
+                          .getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorGrafica#cargaBinaria}.
+     */
+    @Test public void testCargaBinaria() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(8*total);
+        bytes.order(ByteOrder.LITTLE_ENDIAN);
+        for (int e : extremos)
+            bytes.putInt(e);
+        Files.write(archivo, bytes.array());
+        verifica(CargadorGrafica.cargaBinaria(archivo.toString()));
+        Files.write(archivo, new byte[12]);
+        try {
+            CargadorGrafica.cargaBinaria(archivo.toString());
+            Assert.fail();
+        } catch (IOException ioe) {}
+    }
+}
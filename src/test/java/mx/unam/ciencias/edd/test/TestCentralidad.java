@@ -0,0 +1,214 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Centralidad;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Centralidad}.
+ */
+public class TestCentralidad {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Tolerancia para comparar dobles. */
+    private static final double EPSILON = 1e-9;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestCentralidad() {
+        random = new Random();
+        total = 3 + random.nextInt(50);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Llena la gráfica con una estrella: 0 es vecino de todos. */
+    private void estrella() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(0, i);
+    }
+
+    /* Llena la gráfica con una trayectoria 0, 1, ..., total-1. */
+    private void trayectoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+    }
+
+    /* Llena la gráfica con unas 3·total aristas al azar. */
+    private void aleatoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int k = 0; k < 3 * total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Centralidad#Centralidad}.
+     */
+    @Test public void testConstructor() {
+        try {
+            new Centralidad<Integer>(grafica, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        trayectoria();
+        Centralidad<Integer> c = new Centralidad<Integer>(grafica, 1);
+        grafica.agrega(total);
+        Assert.assertTrue(c.grado().getElementos() == total);
+    }
+
+    /**
+     * Prueba unitaria para {@link Centralidad#grado}.
+     */
+    @Test public void testGrado() {
+        estrella();
+        Diccionario<Integer, Double> d =
+            new Centralidad<Integer>(grafica, 2).grado();
+        Assert.assertTrue(d.get(0) == 1.0);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(Math.abs(d.get(i) - 1.0 / (total - 1)) < EPSILON);
+    }
+
+    /**
+     * Prueba unitaria para {@link Centralidad#pageRank}.
+     */
+    @Test public void testPageRank() {
+        estrella();
+        grafica.agrega(total);
+        Centralidad<Integer> c = new Centralidad<Integer>(grafica, 2);
+        Diccionario<Integer, Double> r = c.pageRank(0.85, 1e-12, 1000);
+        Assert.assertTrue(c.getIteraciones() > 0 &&
+                          c.getIteraciones() < 1000);
+        double suma = 0;
+        for (int i = 0; i <= total; i++)
+            suma += r.get(i);
+        Assert.assertTrue(Math.abs(suma - 1) < 1e-9);
+        for (int i = 1; i < total; i++) {
+            Assert.assertTrue(r.get(0) > r.get(i));
+            Assert.assertTrue(Math.abs(r.get(i) - r.get(1)) < 1e-12);
+        }
+        Assert.assertTrue(r.get(total) < r.get(1));
+        /* El punto fijo: cada valor es lo que le reparten sus vecinos. */
+        grafica = new Grafica<Integer>();
+        aleatoria();
+        c = new Centralidad<Integer>(grafica, 3);
+        r = c.pageRank(0.85, 1e-13, 10000);
+        double aislados = 0;
+        for (int i = 0; i < total; i++)
+            if (grafica.vertice(i).getGrado() == 0)
+                aislados += r.get(i);
+        for (int i = 0; i < total; i++) {
+            double esperado = 0.15 / total + 0.85 * aislados / total;
+            for (VerticeGrafica<Integer> v :
+                     grafica.vertice(i).vecinos())
+                esperado += 0.85 * r.get(v.get()) / v.getGrado();
+            Assert.assertTrue(Math.abs(r.get(i) - esperado) < 1e-10);
+        }
+        c.pageRank(0.85, 1, 1);
+        Assert.assertTrue(c.getIteraciones() == 1);
+        try {
+            c.pageRank(1.5, 1e-6, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            c.pageRank(0.85, 0, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Centralidad#cercania}.
+     */
+    @Test public void testCercania() {
+        trayectoria();
+        Centralidad<Integer> c = new Centralidad<Integer>(grafica, 2);
+        Diccionario<Integer, Double> d = c.cercania(total, 0);
+        for (int i = 0; i < total; i++) {
+            double suma = 0;
+            for (int j = 0; j < total; j++)
+                suma += Math.abs(i - j);
+            Assert.assertTrue(Math.abs(d.get(i) - (total - 1) / suma) <
+                              EPSILON);
+        }
+        /* Con un vértice aislado, su cercanía es 0 y la de los demás se
+           escala por la fracción alcanzable. */
+        grafica.agrega(total);
+        c = new Centralidad<Integer>(grafica, 1);
+        Diccionario<Integer, Double> e = c.cercania(total + 1, 0);
+        Assert.assertTrue(e.get(total) == 0);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(Math.abs(e.get(i) - d.get(i) * (total - 1) /
+                                       total) < EPSILON);
+        /* Con muestras, los valores son estimaciones no negativas, y las de
+           los vértices que no son orígenes son positivas. */
+        d = c.cercania(2, random.nextLong());
+        int positivos = 0;
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(d.get(i) >= 0);
+            if (d.get(i) > 0)
+                positivos++;
+        }
+        Assert.assertTrue(positivos >= total - 2);
+        try {
+            c.cercania(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Centralidad#intermediacion}.
+     */
+    @Test public void testIntermediacion() {
+        trayectoria();
+        Centralidad<Integer> c = new Centralidad<Integer>(grafica, 3);
+        Diccionario<Integer, Double> b = c.intermediacion(total, 0);
+        /* En una trayectoria, i está entre los i vértices a su izquierda y
+           los total-1-i a su derecha. */
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(Math.abs(b.get(i) - i * (total - 1.0 - i)) <
+                              EPSILON);
+        grafica = new Grafica<Integer>();
+        estrella();
+        c = new Centralidad<Integer>(grafica, 2);
+        b = c.intermediacion(total + 10, 0);
+        Assert.assertTrue(Math.abs(b.get(0) - (total - 1) * (total - 2) / 2.0)
+                          < EPSILON);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(b.get(i) == 0);
+        /* Un ciclo de 4: cada vértice está en la mitad de las trayectorias
+           entre sus dos vecinos. */
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < 4; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 4; i++)
+            grafica.conecta(i, (i + 1) % 4);
+        b = new Centralidad<Integer>(grafica, 2).intermediacion(4, 0);
+        for (int i = 0; i < 4; i++)
+            Assert.assertTrue(Math.abs(b.get(i) - 0.5) < EPSILON);
+        try {
+            c.intermediacion(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
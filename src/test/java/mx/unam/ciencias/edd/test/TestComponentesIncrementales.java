@@ -0,0 +1,142 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ComponentesIncrementales;
+import mx.unam.ciencias.edd.Grafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ComponentesIncrementales}.
+ */
+public class TestComponentesIncrementales {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestComponentesIncrementales() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Revisa las componentes contra las calculadas desde cero. */
+    private void revisa(ComponentesIncrementales<Integer> componentes) {
+        Assert.assertTrue(componentes.getComponentes() ==
+                          grafica.componentes());
+        for (Integer a : grafica) {
+            int[] tamano = { 0 };
+            grafica.bfs(a, v -> tamano[0]++);
+            Assert.assertTrue(componentes.getTamano(a) == tamano[0]);
+            Integer b = random.nextInt(total);
+            if (grafica.contiene(b))
+                Assert.assertTrue(componentes.conectados(a, b) ==
+                                  (grafica.distancia(a, b) != -1));
+        }
+    }
+
+    /* Hace un cambio al azar en la gráfica; las aristas son escasas para
+       que haya varias componentes. */
+    private void cambiaAlAzar() {
+        int a = random.nextInt(total), b = random.nextInt(total);
+        int r = random.nextInt(20);
+        if (r == 0) {
+            if (grafica.contiene(a))
+                grafica.elimina(a);
+            else
+                grafica.agrega(a);
+        } else if (grafica.contiene(a) && grafica.contiene(b) && a != b) {
+            if (grafica.sonVecinos(a, b))
+                grafica.desconecta(a, b);
+            else if (r < 12 && grafica.getAristas() < total)
+                grafica.conecta(a, b);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * ComponentesIncrementales#ComponentesIncrementales}.
+     */
+    @Test public void testConstructor() {
+        ComponentesIncrementales<Integer> componentes =
+            new ComponentesIncrementales<Integer>(grafica);
+        Assert.assertTrue(componentes.getComponentes() == 0);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 2; i < total; i += 2)
+            grafica.conecta(i - 2, i);
+        componentes = new ComponentesIncrementales<Integer>(grafica);
+        revisa(componentes);
+        Assert.assertTrue(componentes.getTamano(0) == (total + 1) / 2);
+        Assert.assertTrue(componentes.conectados(0, 2 * ((total - 1) / 2)));
+        Assert.assertFalse(componentes.conectados(0, 1));
+        try {
+            componentes.getTamano(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            componentes.conectados(0, null);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba que separar una trayectoria por en medio crea dos componentes,
+     * y que volver a unirla las junta.
+     */
+    @Test public void testSepara() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i - 1, i);
+        ComponentesIncrementales<Integer> componentes =
+            new ComponentesIncrementales<Integer>(grafica);
+        Assert.assertTrue(componentes.getComponentes() == 1);
+        int m = 1 + random.nextInt(total - 1);
+        grafica.desconecta(m - 1, m);
+        Assert.assertTrue(componentes.getComponentes() == 2);
+        Assert.assertTrue(componentes.getTamano(0) == m);
+        Assert.assertTrue(componentes.getTamano(total - 1) == total - m);
+        Assert.assertFalse(componentes.conectados(0, total - 1));
+        grafica.conecta(m - 1, m);
+        Assert.assertTrue(componentes.getComponentes() == 1);
+        Assert.assertTrue(componentes.getTamano(0) == total);
+        /* Un ciclo no se separa al quitarle una arista. */
+        grafica.conecta(0, total - 1);
+        grafica.desconecta(m - 1, m);
+        Assert.assertTrue(componentes.getComponentes() == 1);
+        Assert.assertTrue(componentes.conectados(m - 1, m));
+        revisa(componentes);
+    }
+
+    /**
+     * Prueba que las componentes siguen a la gráfica con cambios al azar.
+     */
+    @Test public void testCambios() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        ComponentesIncrementales<Integer> componentes =
+            new ComponentesIncrementales<Integer>(grafica);
+        for (int k = 0; k < 10 * total; k++) {
+            cambiaAlAzar();
+            revisa(componentes);
+        }
+        grafica.limpia();
+        revisa(componentes);
+        grafica.agrega(0);
+        revisa(componentes);
+    }
+}
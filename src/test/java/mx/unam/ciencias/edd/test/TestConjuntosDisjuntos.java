@@ -0,0 +1,116 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntosDisjuntos}.
+ */
+public class TestConjuntosDisjuntos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los conjuntos. */
+    private ConjuntosDisjuntos conjuntos;
+
+    /**
+     * Crea unos conjuntos disjuntos para cada prueba.
+     */
+    public TestConjuntosDisjuntos() {
+        random = new Random();
+        total = 100 + random.nextInt(1000);
+        conjuntos = new ConjuntosDisjuntos(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#ConjuntosDisjuntos}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(conjuntos.getElementos() == total);
+        Assert.assertTrue(conjuntos.getConjuntos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(conjuntos.encuentra(i) == i);
+        conjuntos = new ConjuntosDisjuntos();
+        Assert.assertTrue(conjuntos.getElementos() == 0);
+        Assert.assertTrue(conjuntos.getConjuntos() == 0);
+        try {
+            new ConjuntosDisjuntos(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#agrega}.
+     */
+    @Test public void testAgrega() {
+        conjuntos = new ConjuntosDisjuntos();
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(conjuntos.agrega() == i);
+            Assert.assertTrue(conjuntos.getElementos() == i+1);
+            Assert.assertTrue(conjuntos.getConjuntos() == i+1);
+            Assert.assertTrue(conjuntos.encuentra(i) == i);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#encuentra}.
+     */
+    @Test public void testEncuentra() {
+        for (int i = 1; i < total; i++)
+            conjuntos.une(i-1, i);
+        int r = conjuntos.encuentra(0);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(conjuntos.encuentra(i) == r);
+        try {
+            conjuntos.encuentra(-1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            conjuntos.encuentra(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#une} y {@link
+     * ConjuntosDisjuntos#mismoConjunto}.
+     */
+    @Test public void testUne() {
+        /* Se compara contra un arreglo de etiquetas que se reescribe
+           completo en cada unión. */
+        int[] etiquetas = new int[total];
+        for (int i = 0; i < total; i++)
+            etiquetas[i] = i;
+        int c = total;
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            boolean distintos = etiquetas[a] != etiquetas[b];
+            Assert.assertTrue(conjuntos.mismoConjunto(a, b) == !distintos);
+            Assert.assertTrue(conjuntos.une(a, b) == distintos);
+            if (distintos) {
+                int vieja = etiquetas[b];
+                for (int i = 0; i < total; i++)
+                    if (etiquetas[i] == vieja)
+                        etiquetas[i] = etiquetas[a];
+                c--;
+            }
+            Assert.assertTrue(conjuntos.mismoConjunto(a, b));
+            Assert.assertTrue(conjuntos.getConjuntos() == c);
+        }
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            Assert.assertTrue(conjuntos.mismoConjunto(a, b) ==
+                              (etiquetas[a] == etiquetas[b]));
+        }
+    }
+}
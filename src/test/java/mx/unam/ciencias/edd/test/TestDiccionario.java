@@ -0,0 +1,160 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Diccionario}.
+ */
+public class TestDiccionario {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El diccionario. */
+    private Diccionario<Integer, String> diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionario() {
+        random = new Random();
+        total = 100 + random.nextInt(1000);
+        diccionario = new Diccionario<Integer, String>();
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#Diccionario}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        diccionario = new Diccionario<Integer, String>(total);
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agrega}.
+     */
+    @Test public void testAgrega() {
+        try {
+            diccionario.agrega(null, "");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(i, String.valueOf(i));
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.get(i).equals(String.valueOf(i)));
+        }
+        diccionario.agrega(total/2, "");
+        Assert.assertTrue(diccionario.getElementos() == total);
+        Assert.assertTrue(diccionario.get(total/2).equals(""));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#get}.
+     */
+    @Test public void testGet() {
+        Assert.assertTrue(diccionario.get(0) == null);
+        Assert.assertTrue(diccionario.get(null) == null);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i * 31, String.valueOf(i));
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.get(i * 31).equals(String.valueOf(i)));
+            Assert.assertTrue(diccionario.get(i * 31 + 1) == null);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#contiene}.
+     */
+    @Test public void testContiene() {
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(diccionario.contiene(i));
+            diccionario.agrega(i, String.valueOf(i));
+            Assert.assertTrue(diccionario.contiene(i));
+        }
+        Assert.assertFalse(diccionario.contiene(-1));
+        Assert.assertFalse(diccionario.contiene(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#elimina}.
+     */
+    @Test public void testElimina() {
+        try {
+            diccionario.elimina(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i, String.valueOf(i));
+        for (int i = 0; i < total; i += 2) {
+            diccionario.elimina(i);
+            Assert.assertFalse(diccionario.contiene(i));
+        }
+        Assert.assertTrue(diccionario.getElementos() == total / 2);
+        for (int i = 1; i < total; i += 2)
+            Assert.assertTrue(diccionario.contiene(i));
+        try {
+            diccionario.elimina(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#esVacia}.
+     */
+    @Test public void testEsVacia() {
+        Assert.assertTrue(diccionario.esVacia());
+        diccionario.agrega(0, "");
+        Assert.assertFalse(diccionario.esVacia());
+        diccionario.elimina(0);
+        Assert.assertTrue(diccionario.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i, String.valueOf(i));
+        Assert.assertFalse(diccionario.esVacia());
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        for (int i = 0; i < total; i++)
+            Assert.assertFalse(diccionario.contiene(i));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#iterator}.
+     */
+    @Test public void testIterator() {
+        Lista<String> valores = new Lista<String>();
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(i, String.valueOf(i));
+            valores.agrega(String.valueOf(i));
+        }
+        int c = 0;
+        for (String s : diccionario) {
+            Assert.assertTrue(valores.contiene(s));
+            c++;
+        }
+        Assert.assertTrue(c == total);
+    }
+}
@@ -0,0 +1,155 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DistanciasIncrementales;
+import mx.unam.ciencias.edd.Grafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DistanciasIncrementales}.
+ */
+public class TestDistanciasIncrementales {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestDistanciasIncrementales() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Revisa las distancias contra las calculadas desde cero. */
+    private void revisa(DistanciasIncrementales<Integer> distancias) {
+        Integer origen = distancias.getOrigen();
+        for (Integer e : grafica) {
+            int d = grafica.contiene(origen) ?
+                grafica.distancia(origen, e) : -1;
+            Assert.assertTrue(distancias.getDistancia(e) == d);
+        }
+    }
+
+    /* Hace un cambio al azar en la gráfica, sin eliminar al 0; las aristas
+       son escasas para que las distancias sean largas. */
+    private void cambiaAlAzar() {
+        int a = random.nextInt(total), b = random.nextInt(total);
+        int r = random.nextInt(20);
+        if (r == 0 && a != 0) {
+            if (grafica.contiene(a))
+                grafica.elimina(a);
+            else
+                grafica.agrega(a);
+        } else if (grafica.contiene(a) && grafica.contiene(b) && a != b) {
+            if (grafica.sonVecinos(a, b))
+                grafica.desconecta(a, b);
+            else if (r < 12 && grafica.getAristas() < 3 * total / 2)
+                grafica.conecta(a, b);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * DistanciasIncrementales#DistanciasIncrementales}.
+     */
+    @Test public void testConstructor() {
+        try {
+            new DistanciasIncrementales<Integer>(grafica, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 2; i < total; i++)
+            grafica.conecta(i - 1, i);
+        DistanciasIncrementales<Integer> distancias =
+            new DistanciasIncrementales<Integer>(grafica, 1);
+        Assert.assertTrue(distancias.getOrigen() == 1);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(distancias.getDistancia(i) == i - 1);
+        Assert.assertTrue(distancias.getDistancia(0) == -1);
+        try {
+            distancias.getDistancia(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            distancias.getDistancia(null);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba que cerrar y abrir una trayectoria en ciclo ajusta las
+     * distancias.
+     */
+    @Test public void testCiclo() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i - 1, i);
+        DistanciasIncrementales<Integer> distancias =
+            new DistanciasIncrementales<Integer>(grafica, 0);
+        grafica.conecta(0, total - 1);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(distancias.getDistancia(i) ==
+                              Math.min(i, total - i));
+        grafica.desconecta(0, 1);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(distancias.getDistancia(i) == total - i);
+        grafica.desconecta(total - 1, total - 2);
+        Assert.assertTrue(distancias.getDistancia(total - 1) == 1);
+        for (int i = 1; i < total - 1; i++)
+            Assert.assertTrue(distancias.getDistancia(i) == -1);
+        revisa(distancias);
+    }
+
+    /**
+     * Prueba que las distancias siguen a la gráfica con cambios al azar.
+     */
+    @Test public void testCambios() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        DistanciasIncrementales<Integer> distancias =
+            new DistanciasIncrementales<Integer>(grafica, 0);
+        for (int k = 0; k < 10 * total; k++) {
+            cambiaAlAzar();
+            revisa(distancias);
+        }
+    }
+
+    /**
+     * Prueba que eliminar el origen deja todo inalcanzable, y que volver a
+     * agregarlo lo hace el origen otra vez.
+     */
+    @Test public void testEliminaOrigen() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i / 2, i);
+        DistanciasIncrementales<Integer> distancias =
+            new DistanciasIncrementales<Integer>(grafica, 0);
+        revisa(distancias);
+        grafica.elimina(0);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(distancias.getDistancia(i) == -1);
+        grafica.agrega(0);
+        Assert.assertTrue(distancias.getDistancia(0) == 0);
+        grafica.conecta(0, 1);
+        revisa(distancias);
+        grafica.limpia();
+        grafica.agrega(0);
+        Assert.assertTrue(distancias.getDistancia(0) == 0);
+    }
+}
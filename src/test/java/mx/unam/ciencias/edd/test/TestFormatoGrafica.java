@@ -0,0 +1,217 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Random;
+import mx.unam.ciencias.edd.CodificadorElementos;
+import mx.unam.ciencias.edd.FormatoGrafica;
+import mx.unam.ciencias.edd.Grafica;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FormatoGrafica}.
+ */
+public class TestFormatoGrafica {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+    /* El archivo temporal. */
+    private Path archivo;
+
+    /**
+     * Crea una gráfica aleatoria, con algunos vértices eliminados para que
+     * el orden de inserción no coincida con el de los identificadores, para
+     * cada prueba.
+     */
+    public TestFormatoGrafica() throws IOException {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(random.nextInt(1000) * total + i);
+        Integer[] elementos = new Integer[total];
+        int k = 0;
+        for (Integer e : grafica)
+            elementos[k++] = e;
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(elementos[i], elementos[j]);
+        for (int i = 0; i < total; i += 5)
+            grafica.elimina(elementos[i]);
+        archivo = Files.createTempFile("edd", ".grafica");
+    }
+
+    /**
+     * Borra el archivo temporal.
+     */
+    @After public void borra() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+
+    /* Verifica que las gráficas sean iguales, con los vértices en el mismo
+       orden y las aristas con los mismos pesos. */
+    private void verifica(Grafica<Integer> esperada,
+                          Grafica<Integer> obtenida) {
+        Assert.assertTrue(obtenida.getElementos() == esperada.getElementos());
+        Assert.assertTrue(obtenida.getAristas() == esperada.getAristas());
+        Iterator<Integer> i = obtenida.iterator();
+        for (Integer a : esperada) {
+            Assert.assertTrue(a.equals(i.next()));
+            Assert.assertTrue(obtenida.vertice(a).getGrado() ==
+                              esperada.vertice(a).getGrado());
+            for (Integer b : esperada)
+                if (!a.equals(b) && esperada.sonVecinos(a, b))
+                    Assert.assertTrue(obtenida.getPeso(a, b) ==
+                                      esperada.getPeso(a, b));
+        }
+        Assert.assertTrue(obtenida.equals(esperada));
+        Assert.assertTrue(obtenida.esConexa() == esperada.esConexa());
+    }
+
+    /**
+     * Prueba unitaria para {@link FormatoGrafica#escribe(Grafica,String,
+     * CodificadorElementos)} y {@link FormatoGrafica#lee(String,
+     * CodificadorElementos)}.
+     */
+    @Test public void testEscribeLee() throws IOException {
+        FormatoGrafica.escribe(grafica, archivo.toString(),
+                               CodificadorElementos.ENTEROS);
+        verifica(grafica, FormatoGrafica.lee(archivo.toString(),
+                                             CodificadorElementos.ENTEROS));
+        for (Integer a : grafica)
+            for (Integer b : grafica)
+                if (!a.equals(b) && grafica.sonVecinos(a, b))
+                    grafica.setPeso(a, b, 1 + random.nextInt(100) / 7.0);
+        FormatoGrafica.escribe(grafica, archivo.toString(),
+                               CodificadorElementos.ENTEROS);
+        verifica(grafica, FormatoGrafica.lee(archivo.toString(),
+                                             CodificadorElementos.ENTEROS));
+        grafica.limpia();
+        FormatoGrafica.escribe(grafica, archivo.toString(),
+                               CodificadorElementos.ENTEROS);
+        verifica(grafica, FormatoGrafica.lee(archivo.toString(),
+                                             CodificadorElementos.ENTEROS));
+    }
+
+    /**
+     * Prueba unitaria para {@link FormatoGrafica#escribe(Grafica,String)} y
+     * {@link FormatoGrafica#lee(String)}.
+     */
+    @Test public void testSinElementos() throws IOException {
+        Grafica<Integer> posiciones = new Grafica<Integer>();
+        Integer[] elementos = new Integer[grafica.getElementos()];
+        int k = 0;
+        for (Integer e : grafica) {
+            posiciones.agrega(k);
+            elementos[k++] = e;
+        }
+        for (int i = 0; i < k; i++)
+            for (int j = i+1; j < k; j++)
+                if (grafica.sonVecinos(elementos[i], elementos[j]))
+                    posiciones.conecta(i, j);
+        FormatoGrafica.escribe(grafica, archivo.toString());
+        verifica(posiciones, FormatoGrafica.lee(archivo.toString()));
+        try {
+            FormatoGrafica.lee(archivo.toString(),
+                               CodificadorElementos.ENTEROS);
+            Assert.fail();
+        } catch (IOException ioe) {}
+        FormatoGrafica.escribe(grafica, archivo.toString(),
+                               CodificadorElementos.ENTEROS);
+        verifica(posiciones, FormatoGrafica.lee(archivo.toString()));
+    }
+
+    /**
+     * Prueba unitaria para {@link CodificadorElementos#CADENAS}.
+     */
+    @Test public void testCadenas() throws IOException {
+        Grafica<String> cadenas = new Grafica<String>();
+        for (int i = 0; i < total; i++)
+            cadenas.agrega("vértice " + i);
+        for (int i = 1; i < total; i++)
+            cadenas.conecta("vértice " + random.nextInt(i), "vértice " + i);
+        FormatoGrafica.escribe(cadenas, archivo.toString(),
+                               CodificadorElementos.CADENAS);
+        Grafica<String> leida =
+            FormatoGrafica.lee(archivo.toString(),
+                               CodificadorElementos.CADENAS);
+        Assert.assertTrue(leida.equals(cadenas));
+        Assert.assertTrue(leida.esConexa());
+    }
+
+    /**
+     * Prueba unitaria para {@link FormatoGrafica#lee(String)} con archivos
+     * inválidos.
+     */
+    @Test public void testInvalidos() throws IOException {
+        FormatoGrafica.escribe(grafica, archivo.toString(),
+                               CodificadorElementos.ENTEROS);
+        byte[] bytes = Files.readAllBytes(archivo);
+        for (int r = 0; r < 20; r++) {
+            byte[] copia = bytes.clone();
+            int i = random.nextInt(copia.length);
+            copia[i] ^= 1 << random.nextInt(8);
+            Files.write(archivo, copia);
+            try {
+                FormatoGrafica.lee(archivo.toString());
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        byte[] truncado = new byte[random.nextInt(bytes.length)];
+        System.arraycopy(bytes, 0, truncado, 0, truncado.length);
+        Files.write(archivo, truncado);
+        try {
+            FormatoGrafica.lee(archivo.toString());
+            Assert.fail();
+        } catch (IOException ioe) {}
+        byte[] largo = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, largo, 0, bytes.length);
+        Files.write(archivo, largo);
+        try {
+            FormatoGrafica.lee(archivo.toString());
+            Assert.fail();
+        } catch (IOException ioe) {}
+        try {
+            FormatoGrafica.lee(archivo.toString(), null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba que una gráfica en modo denso sigue en modo denso después de
+     * escribirla y leerla.
+     */
+    @Test public void testDensa() throws IOException {
+        Grafica<Integer> densa = new Grafica<Integer>();
+        int n = 64 + random.nextInt(64);
+        for (int i = 0; i < n; i++)
+            densa.agrega(i);
+        for (int i = 0; i < n; i++)
+            for (int j = i + 1; j < n; j++)
+                if (random.nextInt(2) == 0)
+                    densa.conecta(i, j);
+        Assert.assertTrue(densa.esDensa());
+        FormatoGrafica.escribe(densa, archivo.toString());
+        Grafica<Integer> leida = FormatoGrafica.lee(archivo.toString());
+        Assert.assertTrue(leida.esDensa());
+        verifica(densa, leida);
+        for (int k = 0; k < n; k++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            Assert.assertTrue(leida.sonVecinos(a, b) == densa.sonVecinos(a, b));
+        }
+    }
+}
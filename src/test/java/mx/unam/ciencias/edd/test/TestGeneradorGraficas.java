@@ -0,0 +1,203 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.GeneradorGraficas;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaInt;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GeneradorGraficas}.
+ */
+public class TestGeneradorGraficas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La semilla de los generadores. */
+    private long semilla;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestGeneradorGraficas() {
+        random = new Random();
+        total = 10 + random.nextInt(200);
+        semilla = random.nextLong();
+    }
+
+    /* Revisa que las tres formas de construir la gráfica den lo mismo: como
+       conectar uno por uno lanza una excepción con aristas repetidas o
+       lazos, también revisa que la gráfica sea simple. Regresa la gráfica. */
+    private Grafica<Integer> revisa(GeneradorGraficas generador) {
+        int n = generador.getElementos();
+        Grafica<Integer> grafica = generador.grafica();
+        Grafica<Integer> conectada = new Grafica<Integer>();
+        generador.conecta(conectada);
+        GraficaInt enteros = generador.graficaInt();
+        GraficaInt enterosConectada = new GraficaInt();
+        generador.conecta(enterosConectada);
+        Assert.assertTrue(grafica.equals(conectada));
+        Assert.assertTrue(grafica.getElementos() == n);
+        Assert.assertTrue(grafica.getAristas() == generador.getAristas());
+        Assert.assertTrue(enteros.getElementos() == n);
+        Assert.assertTrue(enteros.getAristas() == generador.getAristas());
+        for (int v = 0; v < n; v++) {
+            int grado = grafica.vertice(v).getGrado();
+            Assert.assertTrue(enteros.getGrado(v) == grado);
+            Assert.assertTrue(enterosConectada.getGrado(v) == grado);
+        }
+        for (int k = 0; k < 3 * n; k++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            Assert.assertTrue(enteros.sonVecinos(a, b) ==
+                              grafica.sonVecinos(a, b));
+        }
+        Assert.assertTrue(enteros.componentes() == grafica.componentes());
+        return grafica;
+    }
+
+    /**
+     * Prueba unitaria para {@link GeneradorGraficas#erdosRenyi}.
+     */
+    @Test public void testErdosRenyi() {
+        Grafica<Integer> vacia =
+            revisa(GeneradorGraficas.erdosRenyi(total, 0, semilla));
+        Assert.assertTrue(vacia.getAristas() == 0);
+        Grafica<Integer> completa =
+            revisa(GeneradorGraficas.erdosRenyi(total, 1, semilla));
+        Assert.assertTrue(completa.getAristas() == total * (total - 1) / 2);
+        int n = 1000 + random.nextInt(1000);
+        double p = 0.001 + random.nextDouble() * 0.01;
+        Grafica<Integer> grafica =
+            revisa(GeneradorGraficas.erdosRenyi(n, p, semilla));
+        double media = n * (n - 1) / 2.0 * p;
+        Assert.assertTrue(Math.abs(grafica.getAristas() - media) <
+                          6 * Math.sqrt(media));
+        Assert.assertTrue(grafica.equals(GeneradorGraficas.erdosRenyi(n, p,
+                                                                      semilla)
+                                         .grafica()));
+        Assert.assertTrue(GeneradorGraficas.erdosRenyi(0, p, semilla)
+                          .getAristas() == 0);
+        try {
+            GeneradorGraficas.erdosRenyi(-1, p, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            GeneradorGraficas.erdosRenyi(total, 1.5, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            GeneradorGraficas.erdosRenyi(total, Double.NaN, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            GeneradorGraficas.erdosRenyi(1 << 20, 1, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GeneradorGraficas#barabasiAlbert}.
+     */
+    @Test public void testBarabasiAlbert() {
+        int k = 1 + random.nextInt(5);
+        int n = 1000 + random.nextInt(1000);
+        Grafica<Integer> grafica =
+            revisa(GeneradorGraficas.barabasiAlbert(n, k, semilla));
+        Assert.assertTrue(grafica.getAristas() ==
+                          k * (k + 1) / 2 + (n - k - 1) * k);
+        Assert.assertTrue(grafica.esConexa());
+        int maximo = 0;
+        for (int v = 0; v < n; v++) {
+            int grado = grafica.vertice(v).getGrado();
+            Assert.assertTrue(grado >= k);
+            maximo = Math.max(maximo, grado);
+        }
+        /* Con ley de potencias hay centros de grado mucho mayor que k. */
+        Assert.assertTrue(maximo > 5 * k);
+        Assert.assertTrue(grafica.equals(GeneradorGraficas
+                                         .barabasiAlbert(n, k, semilla)
+                                         .grafica()));
+        revisa(GeneradorGraficas.barabasiAlbert(total, total - 1, semilla));
+        try {
+            GeneradorGraficas.barabasiAlbert(total, 0, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            GeneradorGraficas.barabasiAlbert(total, total, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GeneradorGraficas#rejilla}.
+     */
+    @Test public void testRejilla() {
+        int r = 1 + random.nextInt(30), c = 1 + random.nextInt(30);
+        Grafica<Integer> grafica = revisa(GeneradorGraficas.rejilla(r, c));
+        Assert.assertTrue(grafica.getElementos() == r * c);
+        Assert.assertTrue(grafica.getAristas() == r * (c - 1) + c * (r - 1));
+        Assert.assertTrue(grafica.esConexa());
+        for (int i = 0; i < r; i++)
+            for (int j = 0; j < c; j++) {
+                int v = i * c + j;
+                if (j + 1 < c)
+                    Assert.assertTrue(grafica.sonVecinos(v, v + 1));
+                if (i + 1 < r)
+                    Assert.assertTrue(grafica.sonVecinos(v, v + c));
+                Assert.assertTrue(grafica.vertice(v).getGrado() <= 4);
+            }
+        if (r > 1 && c > 1)
+            Assert.assertTrue(grafica.distancia(0, r * c - 1) ==
+                              r + c - 2);
+        Assert.assertTrue(GeneradorGraficas.rejilla(0, c).getElementos() == 0);
+        try {
+            GeneradorGraficas.rejilla(-1, c);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GeneradorGraficas#regular}.
+     */
+    @Test public void testRegular() {
+        int n = total;
+        int[] grados = { 0, 1, 2, 3, n / 2, n - 2, n - 1 };
+        for (int d : grados) {
+            if (d < 0 || (n * d) % 2 != 0)
+                continue;
+            Grafica<Integer> grafica =
+                revisa(GeneradorGraficas.regular(n, d, semilla));
+            Assert.assertTrue(grafica.getAristas() == n * d / 2);
+            for (int v = 0; v < n; v++)
+                Assert.assertTrue(grafica.vertice(v).getGrado() == d);
+            Assert.assertTrue(grafica.equals(GeneradorGraficas
+                                             .regular(n, d, semilla)
+                                             .grafica()));
+        }
+        n = 2000 + 2 * random.nextInt(1000);
+        Grafica<Integer> grafica =
+            revisa(GeneradorGraficas.regular(n, 5, semilla));
+        for (int v = 0; v < n; v++)
+            Assert.assertTrue(grafica.vertice(v).getGrado() == 5);
+        try {
+            GeneradorGraficas.regular(5, 3, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            GeneradorGraficas.regular(total, total, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            GeneradorGraficas.regular(total, -2, semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -1,11 +1,18 @@
 package mx.unam.ciencias.edd.test;
 
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
 import mx.unam.ciencias.edd.AccionVerticeGrafica;
+import mx.unam.ciencias.edd.ArbolGeneradorMinimo;
+import mx.unam.ciencias.edd.AristaGrafica;
 import mx.unam.ciencias.edd.Color;
+import mx.unam.ciencias.edd.Diccionario;
 import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Heuristica;
 import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.TrayectoriaMinima;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -118,6 +125,373 @@ public class TestGrafica {
         } catch (IllegalArgumentException iae) {}
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#conecta(Object,Object,double)},
+     * {@link Grafica#getPeso} y {@link Grafica#setPeso}.
+     */
+    @Test public void testPeso() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j, i + j + 1);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i != j)
+                    Assert.assertTrue(grafica.getPeso(i, j) == i + j + 1);
+        grafica.setPeso(1, 0, 0.5);
+        Assert.assertTrue(grafica.getPeso(0, 1) == 0.5);
+        Assert.assertTrue(grafica.getPeso(1, 0) == 0.5);
+        grafica.desconecta(0, 1);
+        try {
+            grafica.getPeso(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.setPeso(0, 1, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, 1, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, 1, -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.getPeso(-1, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        grafica.conecta(0, 1);
+        Assert.assertTrue(grafica.getPeso(0, 1) == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstra}.
+     */
+    @Test public void testDijkstra() {
+        for (int i = 0; i < 6; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1, 7);
+        grafica.conecta(0, 2, 9);
+        grafica.conecta(0, 5, 14);
+        grafica.conecta(1, 2, 10);
+        grafica.conecta(1, 3, 15);
+        grafica.conecta(2, 3, 11);
+        grafica.conecta(2, 5, 2);
+        grafica.conecta(3, 4, 6);
+        grafica.conecta(4, 5, 9);
+        Lista<VerticeGrafica<Integer>> t = grafica.dijkstra(0, 4);
+        int[] esperada = { 0, 2, 5, 4 };
+        Assert.assertTrue(t.getLongitud() == esperada.length);
+        int c = 0;
+        for (VerticeGrafica<Integer> v : t)
+            Assert.assertTrue(v.get() == esperada[c++]);
+        t = grafica.dijkstra(0, 4, true);
+        Assert.assertTrue(t.getLongitud() == esperada.length);
+        c = 0;
+        for (VerticeGrafica<Integer> v : t)
+            Assert.assertTrue(v.get() == esperada[c++]);
+        t = grafica.dijkstra(3, 3);
+        Assert.assertTrue(t.getLongitud() == 1);
+        grafica.agrega(6);
+        Assert.assertTrue(grafica.dijkstra(0, 6).esVacia());
+        try {
+            grafica.dijkstra(0, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#distancias}.
+     */
+    @Test public void testDistancias() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i, 0.5);
+        for (int i = 2; i < total; i++)
+            grafica.conecta(0, i, i);
+        Diccionario<Integer, Double> d = grafica.distancias(0);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(d.get(i) == i * 0.5);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j, 1 + random.nextInt(10));
+        d = grafica.distancias(0);
+        Diccionario<Integer, Double> da = grafica.distancias(0, true);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(da.get(i).equals(d.get(i)));
+        for (int i = 1; i < total; i++) {
+            double s = 0;
+            Integer a = null;
+            for (VerticeGrafica<Integer> v : grafica.dijkstra(0, i)) {
+                if (a != null)
+                    s += grafica.getPeso(a, v.get());
+                a = v.get();
+            }
+            Assert.assertTrue(s == d.get(i));
+            for (int j = 0; j < total; j++)
+                if (j != i)
+                    Assert.assertTrue(d.get(i) <=
+                                      d.get(j) + grafica.getPeso(i, j));
+        }
+        grafica.agrega(-1);
+        d = grafica.distancias(0);
+        Assert.assertTrue(d.get(-1) == Double.POSITIVE_INFINITY);
+        d = grafica.distancias(0, true);
+        Assert.assertTrue(d.get(-1) == Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#aEstrella}.
+     */
+    @Test public void testAEstrella() {
+        /* Una cuadrícula de lado×lado, donde el elemento y·lado+x está en
+           (x, y), con pesos entre 1 y 5. */
+        int lado = 5 + random.nextInt(20);
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int y = 0; y < lado; y++)
+            for (int x = 0; x < lado; x++) {
+                if (x + 1 < lado)
+                    grafica.conecta(y*lado + x, y*lado + x+1,
+                                    1 + random.nextInt(5));
+                if (y + 1 < lado)
+                    grafica.conecta(y*lado + x, (y+1)*lado + x,
+                                    1 + random.nextInt(5));
+            }
+        Heuristica<Integer> manhattan = (a, b) ->
+            Math.abs(a % lado - b % lado) + Math.abs(a / lado - b / lado);
+        Heuristica<Integer> cero = (a, b) -> 0;
+        for (int i = 0; i < 5; i++) {
+            int a = random.nextInt(lado * lado);
+            int b = random.nextInt(lado * lado);
+            Diccionario<Integer, Double> d = grafica.distancias(a);
+            TrayectoriaMinima<Integer> t = grafica.aEstrella(a, b, manhattan);
+            TrayectoriaMinima<Integer> tc = grafica.aEstrella(a, b, cero);
+            Assert.assertTrue(t.getPeso() == d.get(b));
+            Assert.assertTrue(tc.getPeso() == d.get(b));
+            Assert.assertTrue(t.getExpandidos() <= tc.getExpandidos());
+            Assert.assertTrue(t.getTrayectoria().getPrimero().get() == a);
+            Assert.assertTrue(t.getTrayectoria().getUltimo().get() == b);
+            double s = 0;
+            Integer anterior = null;
+            for (VerticeGrafica<Integer> v : t.getTrayectoria()) {
+                if (anterior != null)
+                    s += grafica.getPeso(anterior, v.get());
+                anterior = v.get();
+            }
+            Assert.assertTrue(s == t.getPeso());
+        }
+        /* Una heurística admisible pero inconsistente obliga a reabrir
+           vértices; el peso debe seguir siendo mínimo. */
+        Heuristica<Integer> inconsistente = (a, b) ->
+            a % 2 == 0 ? manhattan.estima(a, b) : 0;
+        Diccionario<Integer, Double> d = grafica.distancias(0);
+        int b = lado * lado - 1;
+        Assert.assertTrue(grafica.aEstrella(0, b, inconsistente).getPeso() ==
+                          d.get(b));
+        TrayectoriaMinima<Integer> t = grafica.aEstrella(b, b, manhattan);
+        Assert.assertTrue(t.getPeso() == 0);
+        Assert.assertTrue(t.getExpandidos() == 1);
+        Assert.assertTrue(t.getTrayectoria().getLongitud() == 1);
+        grafica.agrega(-1);
+        t = grafica.aEstrella(0, -1, cero);
+        Assert.assertTrue(t.getTrayectoria().esVacia());
+        Assert.assertTrue(t.getPeso() == Double.POSITIVE_INFINITY);
+        Assert.assertTrue(t.getExpandidos() == lado * lado);
+        try {
+            grafica.aEstrella(0, -2, cero);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /* Llena la gráfica con vértices 0, ..., total-1 y unas 2·total aristas
+       al azar, más un vértice aislado -1. */
+    private void dispersa() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        grafica.agrega(-1);
+        for (int k = 0; k < 2 * total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+    }
+
+    /* Regresa las distancias en aristas desde el origen con un BFS simple; -1
+       para los inalcanzables. */
+    private Diccionario<Integer, Integer> saltos(int origen) {
+        Diccionario<Integer, Integer> d = new Diccionario<Integer, Integer>();
+        for (Integer e : grafica)
+            d.agrega(e, -1);
+        Lista<Integer> cola = new Lista<Integer>();
+        d.agrega(origen, 0);
+        cola.agrega(origen);
+        while (!cola.esVacia()) {
+            int v = cola.eliminaPrimero();
+            for (VerticeGrafica<Integer> u : grafica.vertice(v).vecinos())
+                if (d.get(u.get()) == -1) {
+                    d.agrega(u.get(), d.get(v) + 1);
+                    cola.agrega(u.get());
+                }
+        }
+        return d;
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#distancia}.
+     */
+    @Test public void testDistancia() {
+        dispersa();
+        for (int i = 0; i < 5; i++) {
+            int a = random.nextInt(total);
+            Diccionario<Integer, Integer> d = saltos(a);
+            for (Integer b : grafica) {
+                Assert.assertTrue(grafica.distancia(a, b) == d.get(b));
+                Assert.assertTrue(grafica.distancia(b, a) == d.get(b));
+            }
+        }
+        Assert.assertTrue(grafica.distancia(-1, -1) == 0);
+        Assert.assertTrue(grafica.distancia(0, -1) == -1);
+        try {
+            grafica.distancia(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#camino}.
+     */
+    @Test public void testCamino() {
+        dispersa();
+        for (int i = 0; i < 5; i++) {
+            int a = random.nextInt(total);
+            Diccionario<Integer, Integer> d = saltos(a);
+            for (Integer b : grafica) {
+                Lista<VerticeGrafica<Integer>> c = grafica.camino(a, b);
+                if (d.get(b) == -1) {
+                    Assert.assertTrue(c.esVacia());
+                    continue;
+                }
+                Assert.assertTrue(c.getLongitud() == d.get(b) + 1);
+                Assert.assertTrue(c.getPrimero().get() == a);
+                Assert.assertTrue(c.getUltimo().get().equals(b));
+                VerticeGrafica<Integer> anterior = null;
+                for (VerticeGrafica<Integer> v : c) {
+                    if (anterior != null)
+                        Assert.assertTrue(grafica.sonVecinos(anterior.get(),
+                                                             v.get()));
+                    anterior = v;
+                }
+            }
+        }
+        Assert.assertTrue(grafica.camino(-1, -1).getLongitud() == 1);
+        Assert.assertTrue(grafica.camino(0, -1).esVacia());
+        try {
+            grafica.camino(total, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /* Verifica que el árbol tenga los mismos elementos que la gráfica, en el
+       mismo orden, y que sea un bosque generador suyo con el peso dado. */
+    private void verificaArbol(ArbolGeneradorMinimo<Integer> amg) {
+        Grafica<Integer> arbol = amg.getArbol();
+        Assert.assertTrue(arbol.getElementos() == grafica.getElementos());
+        Iterator<Integer> it = arbol.iterator();
+        for (Integer e : grafica)
+            Assert.assertTrue(it.next().equals(e));
+        Assert.assertTrue(arbol.componentes() == grafica.componentes());
+        Assert.assertTrue(arbol.getAristas() ==
+                          grafica.getElementos() - grafica.componentes());
+        double[] s = { 0 };
+        arbol.paraCadaArista((a, b, peso) -> {
+                Assert.assertTrue(grafica.sonVecinos(a.get(), b.get()));
+                Assert.assertTrue(grafica.getPeso(a.get(), b.get()) == peso);
+                s[0] += peso;
+            });
+        Assert.assertTrue(s[0] == amg.getPeso());
+    }
+
+    /* Llena la gráfica con el ejemplo de Dijkstra. */
+    private void ejemplo() {
+        for (int i = 0; i < 6; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1, 7);
+        grafica.conecta(0, 2, 9);
+        grafica.conecta(0, 5, 14);
+        grafica.conecta(1, 2, 10);
+        grafica.conecta(1, 3, 15);
+        grafica.conecta(2, 3, 11);
+        grafica.conecta(2, 5, 2);
+        grafica.conecta(3, 4, 6);
+        grafica.conecta(4, 5, 9);
+    }
+
+    /* Llena la gráfica con dos componentes aleatorias, con pesos enteros
+       repetidos, y un vértice aislado. */
+    private void aleatoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        grafica.agrega(-1);
+        for (int i = 0; i < total; i++)
+            for (int j = i+2; j < total; j += 2)
+                if (random.nextInt(3) == 0 || j == i+2)
+                    grafica.conecta(i, j, 1 + random.nextInt(4));
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#prim}.
+     */
+    @Test public void testPrim() {
+        Assert.assertTrue(grafica.prim().getArbol().esVacia());
+        Assert.assertTrue(grafica.prim().getPeso() == 0);
+        ejemplo();
+        ArbolGeneradorMinimo<Integer> amg = grafica.prim();
+        verificaArbol(amg);
+        Assert.assertTrue(amg.getPeso() == 33);
+        Grafica<Integer> arbol = amg.getArbol();
+        Assert.assertTrue(arbol.sonVecinos(2, 5) && arbol.sonVecinos(3, 4) &&
+                          arbol.sonVecinos(0, 1) && arbol.sonVecinos(0, 2) &&
+                          arbol.sonVecinos(4, 5));
+        grafica = new Grafica<Integer>();
+        aleatoria();
+        verificaArbol(grafica.prim());
+        Assert.assertTrue(grafica.prim().getPeso() ==
+                          grafica.kruskal().getPeso());
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#kruskal}.
+     */
+    @Test public void testKruskal() {
+        Assert.assertTrue(grafica.kruskal().getArbol().esVacia());
+        Assert.assertTrue(grafica.kruskal().getPeso() == 0);
+        ejemplo();
+        ArbolGeneradorMinimo<Integer> amg = grafica.kruskal();
+        verificaArbol(amg);
+        Assert.assertTrue(amg.getPeso() == 33);
+        Assert.assertTrue(amg.getArbol().equals(grafica.prim().getArbol()));
+        grafica = new Grafica<Integer>();
+        aleatoria();
+        verificaArbol(grafica.kruskal());
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j);
+        amg = grafica.kruskal();
+        verificaArbol(amg);
+        Assert.assertTrue(amg.getPeso() == total - 1);
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#desconecta}.
      */
@@ -146,6 +520,40 @@ public class TestGrafica {
         } catch (NoSuchElementException nsee) {}
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#conecta}, {@link
+     * Grafica#sonVecinos} y {@link Grafica#desconecta} en un vértice con
+     * grado grande.
+     */
+    @Test public void testVerticeGradoGrande() {
+        total += 100;
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            Assert.assertFalse(grafica.sonVecinos(0, i));
+            grafica.conecta(i, 0);
+            Assert.assertTrue(grafica.sonVecinos(0, i));
+        }
+        int[] c = { 1 };
+        for (VerticeGrafica<Integer> vecino : grafica.vertice(0).vecinos())
+            Assert.assertTrue(vecino.get() == c[0]++);
+        for (int i = 1; i < total; i += 2) {
+            grafica.desconecta(0, i);
+            Assert.assertFalse(grafica.sonVecinos(i, 0));
+            Assert.assertTrue(grafica.vertice(i).getGrado() == 0);
+        }
+        for (int i = 2; i < total; i += 2)
+            Assert.assertTrue(grafica.sonVecinos(i, 0));
+        Assert.assertTrue(grafica.vertice(0).getGrado() == (total - 1) / 2);
+        Lista<Integer> vecinos = new Lista<Integer>();
+        for (VerticeGrafica<Integer> vecino : grafica.vertice(0).vecinos())
+            vecinos.agrega(vecino.get());
+        Lista<Integer> otra = new Lista<Integer>();
+        for (VerticeGrafica<Integer> vecino : grafica.vertice(0).vecinos())
+            otra.agrega(vecino.get());
+        Assert.assertTrue(vecinos.equals(otra));
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#contiene}.
      */
@@ -188,6 +596,58 @@ public class TestGrafica {
         } catch (NoSuchElementException nsee) {}
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#elimina} con vértices de grado
+     * grande en orden aleatorio: el orden de los que quedan se mantiene, y
+     * sus vecindades y los recorridos siguen siendo consistentes.
+     */
+    @Test public void testEliminaCentros() {
+        int n = 2000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        /* Los vértices 0 a 9 son centros; los demás forman una trayectoria
+           y cada uno es vecino de un centro. */
+        for (int i = 10; i < n; i++) {
+            grafica.conecta(i % 10, i);
+            if (i > 10)
+                grafica.conecta(i - 1, i);
+        }
+        boolean[] eliminado = new boolean[n];
+        int aristas = grafica.getAristas();
+        for (int k = 0; k < 40; k++) {
+            int e = random.nextInt(n);
+            if (k < 10)
+                e = k;
+            if (eliminado[e])
+                continue;
+            aristas -= grafica.vertice(e).getGrado();
+            grafica.elimina(e);
+            eliminado[e] = true;
+            Assert.assertFalse(grafica.contiene(e));
+            Assert.assertTrue(grafica.getAristas() == aristas);
+        }
+        int[] orden = new int[n];
+        int[] vivos = { 0 };
+        grafica.paraCadaVertice(v -> orden[vivos[0]++] = v.get());
+        Assert.assertTrue(vivos[0] == grafica.getElementos());
+        for (int i = 0; i < vivos[0]; i++)
+            Assert.assertTrue(!eliminado[orden[i]] &&
+                              (i == 0 || orden[i-1] < orden[i]));
+        int t = 0;
+        for (int e : grafica) {
+            Assert.assertTrue(e == orden[t++]);
+            for (VerticeGrafica<Integer> v : grafica.vertice(e).vecinos())
+                Assert.assertTrue(!eliminado[v.get()] &&
+                                  grafica.sonVecinos(v.get(), e));
+        }
+        Assert.assertTrue(t == vivos[0]);
+        grafica.agrega(n);
+        Assert.assertTrue(grafica.getElementos() == vivos[0] + 1);
+        int[] ultimo = { -1 };
+        grafica.paraCadaVertice(v -> ultimo[0] = v.get());
+        Assert.assertTrue(ultimo[0] == n);
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#sonVecinos}.
      */
@@ -295,6 +755,36 @@ public class TestGrafica {
         Assert.assertTrue(grafica.esConexa());
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#componentes}.
+     */
+    @Test public void testComponentes() {
+        if (total < 4)
+            total += 4;
+        Assert.assertTrue(grafica.componentes() == 0);
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            Assert.assertTrue(grafica.componentes() == i+1);
+        }
+        for (int i = 1; i < total; i += 2) {
+            grafica.conecta(i-1, i);
+            Assert.assertTrue(grafica.componentes() == total - (i+1)/2);
+        }
+        int c = total - total/2;
+        grafica.conecta(0, 2);
+        Assert.assertTrue(grafica.componentes() == c-1);
+        grafica.desconecta(0, 2);
+        Assert.assertTrue(grafica.componentes() == c);
+        grafica.elimina(0);
+        Assert.assertTrue(grafica.componentes() == c);
+        grafica.agrega(total);
+        Assert.assertTrue(grafica.componentes() == c+1);
+        grafica.conecta(total, 1);
+        Assert.assertTrue(grafica.componentes() == c);
+        grafica.limpia();
+        Assert.assertTrue(grafica.componentes() == 0);
+    }
+
    /**
      * Prueba unitaria para {@link Grafica#paraCadaVertice}.
      */
@@ -380,6 +870,42 @@ public class TestGrafica {
                                                        Color.NINGUNO));
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#bfs} y {@link Grafica#dfs} que
+     * verifica que los recorridos no modifican los colores, y que varios hilos
+     * pueden recorrer la misma gráfica al mismo tiempo.
+     */
+    @Test public void testRecorridosConcurrentes() throws InterruptedException {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(random.nextInt(i), i);
+        grafica.paraCadaVertice(v -> grafica.setColor(v, Color.ROJO));
+        int[] cuentas = new int[8];
+        Thread[] hilos = new Thread[cuentas.length];
+        for (int h = 0; h < hilos.length; h++) {
+            int k = h;
+            hilos[h] = new Thread(() -> {
+                    for (int r = 0; r < 10; r++) {
+                        if (k % 2 == 0)
+                            grafica.bfs(k % total, v -> cuentas[k]++);
+                        else
+                            grafica.dfs(k % total, v -> cuentas[k]++);
+                    }
+                });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        for (int c : cuentas)
+            Assert.assertTrue(c == 10 * total);
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.ROJO));
+        Assert.assertTrue(grafica.esConexa());
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.ROJO));
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#esVacia}.
      */
@@ -425,6 +951,100 @@ public class TestGrafica {
                 s += String.format("(%d, %d), ", i, j);
         s += "}";
         Assert.assertTrue(grafica.toString().equals(s));
+        Assert.assertTrue(grafica.toString().equals(s));
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.NINGUNO));
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#paraCadaArista}.
+     */
+    @Test public void testParaCadaArista() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextBoolean())
+                    grafica.conecta(j, i, 1 + random.nextInt(10));
+        grafica.elimina(0);
+        grafica.agrega(0);
+        grafica.conecta(0, 1);
+        int[] c = { 0 };
+        Diccionario<Integer, Integer> vistas =
+            new Diccionario<Integer, Integer>();
+        grafica.paraCadaArista((a, b, peso) -> {
+                Assert.assertTrue(grafica.sonVecinos(a.get(), b.get()));
+                Assert.assertTrue(grafica.getPeso(a.get(), b.get()) == peso);
+                /* 0 se agregó al último, así que sale del otro extremo. */
+                Assert.assertTrue(b.get() == 0 || a.get() < b.get());
+                Assert.assertFalse(vistas.contiene(a.get() * total + b.get()));
+                vistas.agrega(a.get() * total + b.get(), 1);
+                c[0]++;
+            });
+        Assert.assertTrue(c[0] == grafica.getAristas());
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.NINGUNO));
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#aristas}.
+     */
+    @Test public void testAristas() {
+        total += 1000;
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(random.nextInt(i), i);
+        for (int i = 0; i < total; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 2);
+        }
+        for (int i = 0; i < total; i += 7)
+            grafica.elimina(i);
+        Assert.assertTrue(grafica.aristas().count() == grafica.getAristas());
+        Assert.assertTrue(grafica.aristas().parallel().count() ==
+                          grafica.getAristas());
+        Assert.assertTrue(grafica.aristas().mapToDouble(a -> a.getPeso())
+                          .sum() ==
+                          grafica.aristas().parallel()
+                          .mapToDouble(a -> a.getPeso()).sum());
+        Diccionario<Long, Integer> vistas = new Diccionario<Long, Integer>();
+        grafica.aristas().forEach(a -> {
+                long x = Math.min(a.getA().get(), a.getB().get());
+                long y = Math.max(a.getA().get(), a.getB().get());
+                Assert.assertTrue(grafica.sonVecinos(a.getA().get(),
+                                                     a.getB().get()));
+                Assert.assertFalse(vistas.contiene(x * total + y));
+                vistas.agrega(x * total + y, 1);
+            });
+        int[] c = { 0 };
+        grafica.paraCadaArista((a, b, peso) -> {
+                long x = Math.min(a.get(), b.get());
+                long y = Math.max(a.get(), b.get());
+                Assert.assertTrue(vistas.contiene(x * total + y));
+                c[0]++;
+            });
+        Assert.assertTrue(c[0] == vistas.getElementos());
+        Spliterator<AristaGrafica<Integer>> s =
+            grafica.aristas().spliterator();
+        int[] d = { 0 };
+        while (s.tryAdvance(a -> d[0]++));
+        Assert.assertTrue(d[0] == grafica.getAristas());
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#stream}.
+     */
+    @Test public void testStream() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        grafica.elimina(0);
+        Assert.assertTrue(grafica.stream().count() == total - 1);
+        Assert.assertTrue(grafica.stream().parallel()
+                          .mapToLong(i -> i).sum() ==
+                          (long)total * (total - 1) / 2);
+        Assert.assertFalse(grafica.stream().anyMatch(i -> i == 0));
     }
 
     /**
@@ -457,6 +1077,58 @@ public class TestGrafica {
         Assert.assertFalse(grafica.equals(otra));
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#hashCode}, junto con {@link
+     * Grafica#equals}.
+     */
+    @Test public void testHashCode() {
+        Grafica<Integer> otra = new Grafica<Integer>();
+        Assert.assertTrue(grafica.hashCode() == otra.hashCode());
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = total - 1; i > -1; i--)
+            otra.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextBoolean())
+                    grafica.conecta(i, j);
+        for (int i = total - 1; i > -1; i--)
+            for (int j = i-1; j > -1; j--)
+                if (grafica.sonVecinos(i, j))
+                    otra.conecta(i, j, 1 + random.nextInt(10));
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(otra.equals(grafica));
+        Assert.assertTrue(grafica.hashCode() == otra.hashCode());
+        int h = otra.hashCode();
+        if (otra.sonVecinos(0, 1))
+            otra.desconecta(0, 1);
+        else
+            otra.conecta(0, 1);
+        Assert.assertFalse(grafica.equals(otra));
+        Assert.assertTrue(otra.hashCode() != h);
+        if (otra.sonVecinos(0, 1))
+            otra.desconecta(0, 1);
+        else
+            otra.conecta(0, 1);
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(otra.hashCode() == h);
+        int e = random.nextInt(total);
+        Lista<Integer> vecinos = new Lista<Integer>();
+        for (VerticeGrafica<Integer> v : otra.vertice(e).vecinos())
+            vecinos.agrega(v.get());
+        otra.elimina(e);
+        Assert.assertFalse(grafica.equals(otra));
+        otra.agrega(e);
+        for (Integer v : vecinos)
+            otra.conecta(e, v);
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(otra.hashCode() == h);
+        otra.limpia();
+        grafica.limpia();
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(grafica.hashCode() == otra.hashCode());
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#iterator}.
      */
@@ -535,4 +1207,188 @@ public class TestGrafica {
             Assert.assertTrue(vertice.getGrado() == c);
         }
     }
+
+    /* Revisa la gráfica contra una matriz de referencia de los elementos
+       presentes: vecinos, pesos, grados y el orden de los recorridos. */
+    private void revisaVecinos(boolean[][] vecinos, boolean[] presentes) {
+        int n = presentes.length;
+        for (int a = 0; a < n; a++) {
+            if (!presentes[a]) {
+                Assert.assertFalse(grafica.contiene(a));
+                continue;
+            }
+            int grado = 0;
+            for (int b = 0; b < n; b++) {
+                if (!presentes[b])
+                    continue;
+                Assert.assertTrue(grafica.sonVecinos(a, b) == vecinos[a][b]);
+                if (vecinos[a][b]) {
+                    grado++;
+                    Assert.assertTrue(grafica.getPeso(a, b) == 1 + a + b);
+                }
+            }
+            Assert.assertTrue(grafica.vertice(a).getGrado() == grado);
+        }
+        for (int a = 0; a < n; a++) {
+            if (!presentes[a])
+                continue;
+            Lista<Integer> esperada = new Lista<Integer>();
+            Lista<Integer> obtenida = new Lista<Integer>();
+            grafica.congela().bfs(a, v -> esperada.agrega(v.get()));
+            grafica.bfs(a, v -> obtenida.agrega(v.get()));
+            Assert.assertTrue(esperada.equals(obtenida));
+            esperada.limpia();
+            obtenida.limpia();
+            grafica.congela().dfs(a, v -> esperada.agrega(v.get()));
+            grafica.dfs(a, v -> obtenida.agrega(v.get()));
+            Assert.assertTrue(esperada.equals(obtenida));
+            break;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#esDensa}: la gráfica pasa a modo
+     * denso al rebasar el umbral y regresa al bajar de la mitad, y en ambos
+     * modos responde igual que una matriz de referencia.
+     */
+    @Test public void testModoDenso() {
+        int n = 70 + random.nextInt(100);
+        boolean[][] vecinos = new boolean[n][n];
+        boolean[] presentes = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            grafica.agrega(i);
+            presentes[i] = true;
+        }
+        Assert.assertFalse(grafica.esDensa());
+        double posibles = n * (n - 1) / 2.0;
+        while (grafica.getAristas() <= Grafica.UMBRAL_DENSIDAD * posibles) {
+            Assert.assertFalse(grafica.esDensa());
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a != b && !vecinos[a][b]) {
+                grafica.conecta(a, b, 1 + a + b);
+                vecinos[a][b] = vecinos[b][a] = true;
+            }
+        }
+        Assert.assertTrue(grafica.esDensa());
+        revisaVecinos(vecinos, presentes);
+        try {
+            int a = random.nextInt(n);
+            for (int b = 0; b < n; b++)
+                if (vecinos[a][b]) {
+                    grafica.conecta(a, b);
+                    Assert.fail();
+                }
+        } catch (IllegalArgumentException iae) {}
+        /* Eliminar vértices mueve los identificadores de la matriz. */
+        for (int k = 0; k < 5; k++) {
+            int a = random.nextInt(n);
+            if (!presentes[a])
+                continue;
+            grafica.elimina(a);
+            presentes[a] = false;
+            for (int b = 0; b < n; b++)
+                vecinos[a][b] = vecinos[b][a] = false;
+        }
+        grafica.agrega(n);
+        revisaVecinos(vecinos, presentes);
+        grafica.elimina(n);
+        /* Desconectar hasta bajar de la mitad del umbral. */
+        int restantes = grafica.getAristas();
+        for (int a = 0; a < n && grafica.esDensa(); a++)
+            for (int b = a + 1; b < n && grafica.esDensa(); b++)
+                if (vecinos[a][b]) {
+                    grafica.desconecta(b, a);
+                    vecinos[a][b] = vecinos[b][a] = false;
+                    restantes--;
+                }
+        Assert.assertFalse(grafica.esDensa());
+        Assert.assertTrue(grafica.getAristas() == restantes);
+        int m = grafica.getElementos();
+        Assert.assertTrue(restantes < Grafica.UMBRAL_DENSIDAD / 2 *
+                          (m * (m - 1) / 2.0));
+        revisaVecinos(vecinos, presentes);
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#setUmbralDensidad}.
+     */
+    @Test public void testSetUmbralDensidad() {
+        Assert.assertTrue(grafica.getUmbralDensidad() ==
+                          Grafica.UMBRAL_DENSIDAD);
+        try {
+            grafica.setUmbralDensidad(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.setUmbralDensidad(Double.NaN);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        int n = 64 + random.nextInt(64);
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(i - 1, i);
+        Assert.assertFalse(grafica.esDensa());
+        grafica.setUmbralDensidad(0.001);
+        Assert.assertTrue(grafica.esDensa());
+        Assert.assertTrue(grafica.sonVecinos(1, 0));
+        Assert.assertFalse(grafica.sonVecinos(0, 2));
+        int[] c = { 0 };
+        grafica.bfs(0, v -> Assert.assertTrue(v.get() == c[0]++));
+        Assert.assertTrue(c[0] == n);
+        grafica.setUmbralDensidad(2);
+        Assert.assertFalse(grafica.esDensa());
+        Assert.assertTrue(grafica.sonVecinos(1, 0));
+        for (int i = 0; i < n; i++)
+            for (int j = i + 2; j < n; j++)
+                grafica.conecta(i, j);
+        Assert.assertFalse(grafica.esDensa());
+        grafica.setUmbralDensidad(0.9);
+        Assert.assertTrue(grafica.esDensa());
+        grafica.limpia();
+        Assert.assertFalse(grafica.esDensa());
+        Assert.assertTrue(grafica.getUmbralDensidad() == 0.9);
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#equals} entre gráficas en modo
+     * denso y en modo disperso.
+     */
+    @Test public void testEqualsDensa() {
+        int n = 70 + random.nextInt(100);
+        int[] a = new int[n * n], b = new int[n * n];
+        int m = 0;
+        for (int i = 0; i < n; i++)
+            for (int j = i + 1; j < n; j++)
+                if (random.nextInt(3) == 0) {
+                    a[m] = i;
+                    b[m++] = j;
+                }
+        Grafica<Integer> otra = new Grafica<Integer>();
+        Grafica<Integer> dispersa = new Grafica<Integer>();
+        dispersa.setUmbralDensidad(2);
+        for (int i = 0; i < n; i++) {
+            grafica.agrega(i);
+            otra.agrega(n - 1 - i);
+            dispersa.agrega(i);
+        }
+        for (int k = 0; k < m; k++) {
+            grafica.conecta(a[k], b[k]);
+            dispersa.conecta(b[k], a[k]);
+        }
+        for (int k = m - 1; k >= 0; k--)
+            otra.conecta(b[k], a[k]);
+        Assert.assertTrue(grafica.esDensa());
+        Assert.assertTrue(otra.esDensa());
+        Assert.assertFalse(dispersa.esDensa());
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(otra.equals(grafica));
+        Assert.assertTrue(grafica.equals(dispersa));
+        Assert.assertTrue(dispersa.equals(grafica));
+        otra.desconecta(a[0], b[0]);
+        Assert.assertFalse(grafica.equals(otra));
+        Assert.assertFalse(otra.equals(grafica));
+        otra.conecta(a[0], b[0]);
+        Assert.assertTrue(grafica.equals(otra));
+    }
 }
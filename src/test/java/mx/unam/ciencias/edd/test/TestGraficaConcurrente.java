@@ -0,0 +1,438 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import mx.unam.ciencias.edd.AccionVerticeGrafica;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaConcurrente;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaConcurrente}.
+ */
+public class TestGraficaConcurrente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaConcurrente<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestGraficaConcurrente() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new GraficaConcurrente<Integer>(1 + random.nextInt(16));
+    }
+
+    /* Corre la acción recibida en el número de hilos recibido y espera a que
+       terminen todos; regresa si alguno lanzó una excepción. */
+    private boolean enHilos(int hilos, IntConsumer accion)
+        throws InterruptedException {
+        AtomicBoolean falla = new AtomicBoolean();
+        Thread[] t = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            int h = i;
+            t[i] = new Thread(() -> {
+                    try {
+                        accion.accept(h);
+                    } catch (RuntimeException | AssertionError e) {
+                        falla.set(true);
+                    }
+                });
+            t[i].start();
+        }
+        for (Thread h : t)
+            h.join();
+        return falla.get();
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaConcurrente#GraficaConcurrente}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(grafica.esVacia());
+        Assert.assertTrue(grafica.getElementos() == 0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+        Assert.assertTrue(new GraficaConcurrente<Integer>().esVacia());
+        try {
+            new GraficaConcurrente<Integer>(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new GraficaConcurrente<Integer>((1 << 16) + 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaConcurrente#agrega}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(grafica.contiene(i));
+            grafica.agrega(i);
+            Assert.assertTrue(grafica.contiene(i));
+            Assert.assertTrue(grafica.getElementos() == i + 1);
+        }
+        try {
+            grafica.agrega(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaConcurrente#conecta} y {@link
+     * GraficaConcurrente#desconecta}.
+     */
+    @Test public void testConectaDesconecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(0, i, i);
+            Assert.assertTrue(grafica.sonVecinos(0, i));
+            Assert.assertTrue(grafica.sonVecinos(i, 0));
+            Assert.assertTrue(grafica.getPeso(i, 0) == i);
+            Assert.assertTrue(grafica.getAristas() == i);
+        }
+        Assert.assertTrue(grafica.getGrado(0) == total - 1);
+        try {
+            grafica.conecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(1, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(1, 2, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(1, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            grafica.getPeso(1, 2);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        for (int i = 1; i < total; i++) {
+            grafica.desconecta(i, 0);
+            Assert.assertFalse(grafica.sonVecinos(0, i));
+            Assert.assertTrue(grafica.getAristas() == total - 1 - i);
+        }
+        try {
+            grafica.desconecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.desconecta(0, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaConcurrente#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(0, i);
+            if (i > 1)
+                grafica.conecta(i - 1, i);
+        }
+        int aristas = grafica.getAristas();
+        int grado = grafica.getGrado(0);
+        grafica.elimina(0);
+        Assert.assertFalse(grafica.contiene(0));
+        Assert.assertTrue(grafica.getAristas() == aristas - grado);
+        Assert.assertTrue(grafica.getElementos() == total - 1);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(grafica.getGrado(i) <= 2);
+        try {
+            grafica.elimina(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            grafica.sonVecinos(0, 1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        grafica.agrega(0);
+        Assert.assertTrue(grafica.getGrado(0) == 0);
+        grafica.limpia();
+        Assert.assertTrue(grafica.esVacia());
+        Assert.assertTrue(grafica.getAristas() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaConcurrente#instantanea}.
+     */
+    @Test public void testInstantanea() {
+        Grafica<Integer> esperada = new Grafica<Integer>();
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            esperada.agrega(i);
+        }
+        for (int k = 0; k < 3 * total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !esperada.sonVecinos(a, b)) {
+                double peso = 1 + random.nextInt(10);
+                grafica.conecta(a, b, peso);
+                esperada.conecta(a, b, peso);
+            }
+        }
+        Grafica<Integer> copia = grafica.instantanea();
+        Assert.assertTrue(copia.equals(esperada));
+        int[] i = { 0 };
+        copia.paraCadaVertice(v -> Assert.assertTrue(v.get() == i[0]++));
+        esperada.paraCadaArista((a, b, peso) ->
+                                Assert.assertTrue(copia.getPeso(a.get(),
+                                                                b.get()) ==
+                                                  peso));
+        /* La copia no cambia con la gráfica. */
+        grafica.elimina(0);
+        Assert.assertTrue(copia.contiene(0));
+        int[] bfs = { 0 };
+        int[] esperados = { 0 };
+        grafica.bfs(1, v -> bfs[0]++);
+        grafica.instantanea().bfs(1, v -> esperados[0]++);
+        Assert.assertTrue(bfs[0] == esperados[0]);
+        int[] dfs = { 0 };
+        grafica.dfs(1, v -> dfs[0]++);
+        Assert.assertTrue(dfs[0] == bfs[0]);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaConcurrente#conecta} desde varios
+     * hilos sobre los mismos vértices.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testConectaConcurrente() throws InterruptedException {
+        int n = 500;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        /* Cada hilo intenta todas las aristas (i, i+d) con i ≡ h (mod 4);
+           como las intentan dos hilos a la vez, sólo uno debe lograrlo. */
+        int[] logradas = new int[8];
+        Assert.assertFalse(enHilos(8, h -> {
+                    for (int d = 1; d <= 5; d++)
+                        for (int i = h % 4; i + d < n; i += 4) {
+                            try {
+                                grafica.conecta(i, i + d);
+                                logradas[h]++;
+                            } catch (IllegalArgumentException iae) {}
+                        }
+                }));
+        int esperadas = 0;
+        for (int d = 1; d <= 5; d++)
+            esperadas += n - d;
+        int suma = 0;
+        for (int x : logradas)
+            suma += x;
+        Assert.assertTrue(suma == esperadas);
+        Assert.assertTrue(grafica.getAristas() == esperadas);
+        for (int i = 0; i < n; i++)
+            for (int d = 1; d <= 5 && i + d < n; d++)
+                Assert.assertTrue(grafica.sonVecinos(i + d, i));
+    }
+
+    /**
+     * Prueba que una {@link GraficaConcurrente#instantanea} tomada mientras
+     * otro hilo escribe refleja un estado en el que estuvo la gráfica.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testInstantaneaConcurrente()
+        throws InterruptedException {
+        int n = 2000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        /* Un hilo conecta la trayectoria en orden, así que cualquier estado
+           por el que pase es un prefijo de ella. Los demás toman copias y
+           consultan. */
+        Assert.assertFalse(enHilos(4, h -> {
+                    if (h == 0) {
+                        for (int i = 1; i < n; i++)
+                            grafica.conecta(i - 1, i);
+                        return;
+                    }
+                    for (int k = 0; k < 20; k++) {
+                        Grafica<Integer> copia = grafica.instantanea();
+                        int m = copia.getAristas();
+                        Assert.assertTrue(copia.getElementos() == n);
+                        for (int i = 1; i < n; i++)
+                            Assert.assertTrue(copia.sonVecinos(i - 1, i) ==
+                                              (i <= m));
+                        int a = grafica.getAristas();
+                        Assert.assertTrue(a >= m);
+                        for (int i = 1; i <= a; i++)
+                            Assert.assertTrue(grafica.sonVecinos(i, i - 1));
+                    }
+                }));
+        Assert.assertTrue(grafica.getAristas() == n - 1);
+    }
+
+    /**
+     * Prueba que {@link GraficaConcurrente#bfs} y {@link
+     * GraficaConcurrente#dfs} mientras otro hilo escribe sólo siguen aristas
+     * que existen, y que la acción puede modificar la gráfica.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testRecorridoConcurrente()
+        throws InterruptedException {
+        int n = 2000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        /* Un hilo conecta la trayectoria en orden, así que desde 0 se
+           alcanza siempre un prefijo de ella, en orden en ambos recorridos. */
+        Assert.assertFalse(enHilos(4, h -> {
+                    if (h == 0) {
+                        for (int i = 1; i < n; i++)
+                            grafica.conecta(i - 1, i);
+                        return;
+                    }
+                    for (int k = 0; k < 50; k++) {
+                        int[] visitados = { 0 };
+                        AccionVerticeGrafica<Integer> accion = v ->
+                            Assert.assertTrue(v.get() == visitados[0]++);
+                        if (h % 2 == 0)
+                            grafica.bfs(0, accion);
+                        else
+                            grafica.dfs(0, accion);
+                        Assert.assertTrue(visitados[0] <=
+                                          grafica.getAristas() + 1);
+                    }
+                }));
+        int[] visitados = { 0 };
+        grafica.bfs(0, v -> {
+                if (v.get() % 2 == 0 && v.get() > 0)
+                    grafica.desconecta(v.get() - 1, v.get());
+                visitados[0]++;
+            });
+        Assert.assertTrue(visitados[0] == n);
+        Assert.assertTrue(grafica.getAristas() == n / 2);
+        visitados[0] = 0;
+        grafica.dfs(1, v -> visitados[0]++);
+        Assert.assertTrue(visitados[0] == 2);
+        /* El vecino que se elimina después de meterlo ya no se visita. */
+        visitados[0] = 0;
+        grafica.bfs(0, v -> {
+                if (v.get() == 0)
+                    grafica.elimina(1);
+                visitados[0]++;
+            });
+        Assert.assertTrue(visitados[0] == 1);
+        try {
+            grafica.bfs(-1, v -> {});
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba que limpiar la gráfica mientras otros hilos agregan y conectan
+     * vértices no deja aristas hacia vértices fuera de la gráfica.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testLimpiaConcurrente() throws InterruptedException {
+        AtomicBoolean termina = new AtomicBoolean();
+        Assert.assertFalse(enHilos(4, h -> {
+                    if (h == 0) {
+                        for (int k = 0; k < 200; k++) {
+                            grafica.limpia();
+                            Thread.yield();
+                        }
+                        termina.set(true);
+                        return;
+                    }
+                    for (int i = 0; !termina.get(); i += 2) {
+                        int a = (h << 24) + i;
+                        grafica.agrega(a);
+                        grafica.agrega(a + 1);
+                        try {
+                            grafica.conecta(a, a + 1);
+                        } catch (NoSuchElementException nsee) {}
+                    }
+                }));
+        Grafica<Integer> copia = grafica.instantanea();
+        Assert.assertTrue(copia.getElementos() == grafica.getElementos());
+        Assert.assertTrue(copia.getAristas() == grafica.getAristas());
+        int grados = 0;
+        for (Integer e : grafica)
+            grados += grafica.getGrado(e);
+        Assert.assertTrue(grados == 2 * grafica.getAristas());
+        grafica.limpia();
+        Assert.assertTrue(grafica.getElementos() == 0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+    }
+
+    /**
+     * Prueba que eliminar vértices mientras otros hilos conectan deja la
+     * gráfica consistente.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testEliminaConcurrente() throws InterruptedException {
+        int n = 1000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        long semilla = random.nextLong();
+        Assert.assertFalse(enHilos(4, h -> {
+                    Random r = new Random(semilla + h);
+                    for (int k = 0; k < 2000; k++) {
+                        int a = r.nextInt(n), b = r.nextInt(n);
+                        try {
+                            if (h == 0 && k % 10 == 0)
+                                grafica.elimina(a);
+                            else
+                                grafica.conecta(a, b);
+                        } catch (IllegalArgumentException |
+                                 NoSuchElementException e) {}
+                    }
+                }));
+        Grafica<Integer> copia = grafica.instantanea();
+        Assert.assertTrue(copia.getElementos() == grafica.getElementos());
+        Assert.assertTrue(copia.getAristas() == grafica.getAristas());
+        for (Integer e : grafica) {
+            Assert.assertTrue(copia.contiene(e));
+            VerticeGrafica<Integer> v = copia.vertice(e);
+            Assert.assertTrue(v.getGrado() == grafica.getGrado(e));
+            for (VerticeGrafica<Integer> u : v.vecinos())
+                Assert.assertTrue(grafica.sonVecinos(e, u.get()));
+        }
+    }
+
+    /**
+     * Prueba que la instantánea de una gráfica densa está en modo denso.
+     */
+    @Test public void testInstantaneaDensa() {
+        int n = 64 + random.nextInt(64);
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n; i++)
+            for (int j = i + 1; j < n; j++)
+                if (random.nextInt(2) == 0)
+                    grafica.conecta(i, j);
+        Grafica<Integer> copia = grafica.instantanea();
+        Assert.assertTrue(copia.esDensa());
+        for (int k = 0; k < n; k++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            Assert.assertTrue(copia.sonVecinos(a, b) ==
+                              grafica.sonVecinos(a, b));
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Color;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCongelada;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.NivelesBFS;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaCongelada}.
+ */
+public class TestGraficaCongelada {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestGraficaCongelada() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(i, j);
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#congela}.
+     */
+    @Test public void testCongela() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        Assert.assertTrue(congelada.getElementos() == grafica.getElementos());
+        Assert.assertTrue(congelada.getAristas() == grafica.getAristas());
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i != j)
+                    Assert.assertTrue(congelada.sonVecinos(i, j) ==
+                                      grafica.sonVecinos(i, j));
+        grafica.elimina(0);
+        Assert.assertTrue(congelada.contiene(0));
+        Assert.assertTrue(congelada.getElementos() == total);
+        for (int i = 2; i < total; i += 3)
+            grafica.elimina(i);
+        congelada = grafica.congela();
+        Assert.assertTrue(congelada.getElementos() == grafica.getElementos());
+        Assert.assertTrue(congelada.getAristas() == grafica.getAristas());
+        for (Integer i : grafica)
+            for (Integer j : grafica)
+                if (!i.equals(j))
+                    Assert.assertTrue(congelada.sonVecinos(i, j) ==
+                                      grafica.sonVecinos(i, j));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#getId} y {@link
+     * GraficaCongelada#get}.
+     */
+    @Test public void testGetId() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(congelada.getId(i) == i);
+            Assert.assertTrue(congelada.get(i) == i);
+        }
+        try {
+            congelada.getId(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#getGrado} y {@link
+     * GraficaCongelada#getVecino}.
+     */
+    @Test public void testGetVecino() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            VerticeGrafica<Integer> v = grafica.vertice(i);
+            Assert.assertTrue(congelada.getGrado(i) == v.getGrado());
+            int k = 0;
+            for (VerticeGrafica<Integer> u : v.vecinos())
+                Assert.assertTrue(congelada.get(congelada.getVecino(i, k++)) ==
+                                  u.get());
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#vertice}.
+     */
+    @Test public void testVertice() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            VerticeGrafica<Integer> v = congelada.vertice(i);
+            Assert.assertTrue(v.get() == i);
+            Assert.assertTrue(v.getColor() == Color.NINGUNO);
+            Assert.assertTrue(v.getGrado() == grafica.vertice(i).getGrado());
+            int c = 0;
+            for (VerticeGrafica<Integer> u : v.vecinos()) {
+                Assert.assertTrue(grafica.sonVecinos(i, u.get()));
+                c++;
+            }
+            Assert.assertTrue(c == v.getGrado());
+        }
+        try {
+            congelada.vertice(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#esConexa}.
+     */
+    @Test public void testEsConexa() {
+        Assert.assertTrue(grafica.congela().esConexa() == grafica.esConexa());
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        Assert.assertTrue(grafica.congela().esConexa());
+        grafica.desconecta(total-2, total-1);
+        Assert.assertFalse(grafica.congela().esConexa());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#bfs} y {@link
+     * GraficaCongelada#dfs}.
+     */
+    @Test public void testRecorridos() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            Lista<Integer> esperada = new Lista<Integer>();
+            Lista<Integer> obtenida = new Lista<Integer>();
+            grafica.bfs(i, v -> esperada.agrega(v.get()));
+            congelada.bfs(i, v -> obtenida.agrega(v.get()));
+            Assert.assertTrue(esperada.equals(obtenida));
+            esperada.limpia();
+            obtenida.limpia();
+            grafica.dfs(i, v -> esperada.agrega(v.get()));
+            congelada.dfs(i, v -> obtenida.agrega(v.get()));
+            Assert.assertTrue(esperada.equals(obtenida));
+        }
+        try {
+            congelada.bfs(-1, v -> {});
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#niveles(Object)}.
+     */
+    @Test public void testNiveles() {
+        grafica.agrega(total);
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        NivelesBFS niveles = congelada.niveles(0);
+        Assert.assertTrue(niveles.getNivel(0) == 0);
+        Assert.assertTrue(niveles.getNivel(total) == -1);
+        int[] visitados = { 0 };
+        congelada.bfs(0, v -> visitados[0]++);
+        Assert.assertTrue(niveles.getVisitados() == visitados[0]);
+        for (int i = 1; i < total; i++) {
+            int nivel = niveles.getNivel(i);
+            int minimo = -1;
+            for (int k = 0; k < congelada.getGrado(i); k++) {
+                int u = niveles.getNivel(congelada.getVecino(i, k));
+                if (u != -1 && (minimo == -1 || u < minimo))
+                    minimo = u;
+            }
+            Assert.assertTrue(nivel == (minimo == -1 ? -1 : minimo + 1));
+            Assert.assertTrue(nivel <= niveles.getProfundidad());
+        }
+        try {
+            congelada.niveles(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#niveles(Object,int)}.
+     */
+    @Test public void testNivelesParalelo() {
+        total = 3000 + random.nextInt(1000);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(random.nextInt(i), i);
+        for (int i = 0; i < total; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        grafica.agrega(-1);
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        NivelesBFS secuencial = congelada.niveles(0);
+        for (int hilos = 1; hilos <= 4; hilos++) {
+            NivelesBFS paralelo = congelada.niveles(0, hilos);
+            Assert.assertTrue(paralelo.equals(secuencial));
+            Assert.assertTrue(paralelo.hashCode() == secuencial.hashCode());
+            Assert.assertTrue(paralelo.getAristasExaminadas() ==
+                              secuencial.getAristasExaminadas());
+            Assert.assertTrue(paralelo.getVisitados() == total);
+            Assert.assertTrue(paralelo.getNivel(congelada.getId(-1)) == -1);
+        }
+        try {
+            congelada.niveles(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * GraficaCongelada#nivelesDireccionOptimizada}.
+     */
+    @Test public void testNivelesDireccionOptimizada() {
+        grafica.agrega(total);
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i <= total; i++) {
+            NivelesBFS esperados = congelada.niveles(i);
+            NivelesBFS niveles = congelada.nivelesDireccionOptimizada(i);
+            Assert.assertTrue(niveles.equals(esperados));
+            Assert.assertTrue(niveles.getVisitados() ==
+                              esperados.getVisitados());
+        }
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j);
+        congelada = grafica.congela();
+        NivelesBFS esperados = congelada.niveles(0);
+        NivelesBFS niveles = congelada.nivelesDireccionOptimizada(0);
+        Assert.assertTrue(niveles.equals(esperados));
+        Assert.assertTrue(niveles.hashCode() == esperados.hashCode());
+        Assert.assertTrue(esperados.getAristasExaminadas() ==
+                          total * (total - 1));
+        Assert.assertTrue(niveles.getAristasExaminadas() == total - 1);
+        try {
+            congelada.nivelesDireccionOptimizada(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#getPeso}.
+     */
+    @Test public void testGetPeso() {
+        for (int i = 0; i < total; i++)
+            for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos())
+                if (v.get() > i)
+                    grafica.setPeso(i, v.get(), 1 + random.nextInt(10));
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++)
+            for (int k = 0; k < congelada.getGrado(i); k++) {
+                int j = congelada.getVecino(i, k);
+                Assert.assertTrue(congelada.getPeso(i, k) ==
+                                  grafica.getPeso(i, j));
+            }
+        try {
+            congelada.getPeso(0, congelada.getGrado(0));
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * GraficaCongelada#distancias(int[],int,AccionDistancias)}.
+     */
+    @Test public void testDistanciasLote() {
+        for (int i = 0; i < total; i++)
+            for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos())
+                if (v.get() > i)
+                    grafica.setPeso(i, v.get(), 1 + random.nextInt(10));
+        grafica.agrega(total);
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int n = total + 1;
+        int[] origenes = new int[n];
+        for (int i = 0; i < n; i++)
+            origenes[i] = i;
+        for (int hilos = 1; hilos <= 4; hilos *= 2) {
+            double[][] resultados = new double[n][];
+            congelada.distancias(origenes, hilos,
+                                 (s, d) -> resultados[s] = d.clone());
+            for (int s = 0; s < n; s++) {
+                Diccionario<Integer, Double> esperadas =
+                    grafica.distancias(congelada.get(s));
+                for (int i = 0; i < n; i++)
+                    Assert.assertTrue(resultados[s][i] ==
+                                      esperadas.get(congelada.get(i)));
+            }
+        }
+        try {
+            congelada.distancias(new int[] { n }, 1, (s, d) -> {});
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            congelada.distancias(origenes, 0, (s, d) -> {});
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * GraficaCongelada#niveles(int[],int,AccionNiveles)}.
+     */
+    @Test public void testNivelesLote() {
+        grafica.agrega(total);
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int n = total + 1;
+        int[] origenes = new int[2 * n];
+        for (int i = 0; i < 2 * n; i++)
+            origenes[i] = random.nextInt(n);
+        int[] llamadas = { 0 };
+        congelada.niveles(origenes, 3, (s, niveles) -> {
+                NivelesBFS esperados = congelada.niveles(congelada.get(s));
+                for (int i = 0; i < n; i++)
+                    Assert.assertTrue(niveles[i] == esperados.getNivel(i));
+                synchronized (llamadas) {
+                    llamadas[0]++;
+                }
+            });
+        Assert.assertTrue(llamadas[0] == 2 * n);
+        congelada.niveles(new int[0], 2, (s, niveles) -> Assert.fail());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#paraCadaVertice} y {@link
+     * GraficaCongelada#iterator}.
+     */
+    @Test public void testParaCadaVertice() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int[] c = { 0 };
+        congelada.paraCadaVertice(v -> Assert.assertTrue(v.get() == c[0]++));
+        Assert.assertTrue(c[0] == total);
+        c[0] = 0;
+        for (Integer i : congelada)
+            Assert.assertTrue(i == c[0]++);
+        Assert.assertTrue(c[0] == total);
+    }
+}
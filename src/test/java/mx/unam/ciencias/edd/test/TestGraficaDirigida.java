@@ -0,0 +1,346 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaDirigida}.
+ */
+public class TestGraficaDirigida {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaDirigida<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestGraficaDirigida() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new GraficaDirigida<Integer>();
+    }
+
+    /* Llena la gráfica con total vértices y unos 2·total arcos al azar. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int k = 0; k < 2 * total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+    }
+
+    /* Nos dice si b es alcanzable desde a. */
+    private boolean alcanza(int a, int b) {
+        boolean[] r = { false };
+        grafica.bfs(a, v -> r[0] |= v.get() == b);
+        return r[0];
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#GraficaDirigida}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(grafica.esVacia());
+        Assert.assertTrue(grafica.getElementos() == 0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#agrega}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            Assert.assertTrue(grafica.contiene(i));
+            Assert.assertTrue(grafica.getElementos() == i+1);
+        }
+        try {
+            grafica.agrega(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#conecta(Object,Object)}.
+     */
+    @Test public void testConecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        Assert.assertTrue(grafica.sonVecinos(0, 1));
+        Assert.assertFalse(grafica.sonVecinos(1, 0));
+        Assert.assertTrue(grafica.getAristas() == 1);
+        Assert.assertTrue(grafica.vertice(0).getGrado() == 1);
+        Assert.assertTrue(grafica.vertice(1).getGrado() == 0);
+        Assert.assertTrue(grafica.getGradoEntrada(1) == 1);
+        Assert.assertTrue(grafica.getGradoEntrada(0) == 0);
+        grafica.conecta(1, 0, 3);
+        Assert.assertTrue(grafica.sonVecinos(1, 0));
+        Assert.assertTrue(grafica.getAristas() == 2);
+        Assert.assertTrue(grafica.getPeso(0, 1) == 1);
+        Assert.assertTrue(grafica.getPeso(1, 0) == 3);
+        try {
+            grafica.conecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            grafica.conecta(-1, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        if (total > 2)
+            try {
+                grafica.conecta(0, 2, 0);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#desconecta}.
+     */
+    @Test public void testDesconecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(1, 0);
+        grafica.desconecta(0, 1);
+        Assert.assertFalse(grafica.sonVecinos(0, 1));
+        Assert.assertTrue(grafica.sonVecinos(1, 0));
+        Assert.assertTrue(grafica.getAristas() == 1);
+        Assert.assertTrue(grafica.getGradoEntrada(1) == 0);
+        try {
+            grafica.desconecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.desconecta(0, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#elimina}.
+     */
+    @Test public void testElimina() {
+        llena();
+        int m = grafica.getAristas();
+        int e = random.nextInt(total);
+        int arcos = grafica.vertice(e).getGrado() + grafica.getGradoEntrada(e);
+        grafica.elimina(e);
+        Assert.assertFalse(grafica.contiene(e));
+        Assert.assertTrue(grafica.getElementos() == total - 1);
+        Assert.assertTrue(grafica.getAristas() == m - arcos);
+        int[] cuenta = { 0 };
+        for (Integer a : grafica)
+            for (VerticeGrafica<Integer> v : grafica.vertice(a).vecinos()) {
+                Assert.assertTrue(v.get() != e);
+                cuenta[0]++;
+            }
+        Assert.assertTrue(cuenta[0] == grafica.getAristas());
+        int entrada = 0;
+        for (Integer a : grafica)
+            entrada += grafica.getGradoEntrada(a);
+        Assert.assertTrue(entrada == grafica.getAristas());
+        try {
+            grafica.elimina(e);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#bfs} y {@link
+     * GraficaDirigida#dfs}.
+     */
+    @Test public void testRecorridos() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        int[] cuenta = { 0 };
+        grafica.bfs(0, v -> Assert.assertTrue(v.get() == cuenta[0]++));
+        Assert.assertTrue(cuenta[0] == total);
+        cuenta[0] = 0;
+        grafica.dfs(total - 1, v -> cuenta[0]++);
+        Assert.assertTrue(cuenta[0] == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#ordenTopologico}.
+     */
+    @Test public void testOrdenTopologico() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        /* Sólo arcos de menor a mayor en una permutación: no hay ciclos. */
+        int[] p = new int[total];
+        for (int i = 0; i < total; i++)
+            p[i] = i;
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        for (int k = 0; k < 3 * total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a < b && !grafica.sonVecinos(p[a], p[b]))
+                grafica.conecta(p[a], p[b]);
+        }
+        Lista<Integer> orden = grafica.ordenTopologico();
+        Assert.assertTrue(orden.getLongitud() == total);
+        Diccionario<Integer, Integer> posicion =
+            new Diccionario<Integer, Integer>();
+        int i = 0;
+        for (Integer e : orden)
+            posicion.agrega(e, i++);
+        for (Integer a : grafica)
+            for (VerticeGrafica<Integer> v : grafica.vertice(a).vecinos())
+                Assert.assertTrue(posicion.get(a) < posicion.get(v.get()));
+        Assert.assertFalse(grafica.tieneCiclos());
+        grafica.conecta(p[total-1], p[0]);
+        if (alcanza(p[0], p[total-1])) {
+            Assert.assertTrue(grafica.tieneCiclos());
+            try {
+                grafica.ordenTopologico();
+                Assert.fail();
+            } catch (IllegalStateException ise) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#tieneCiclos}.
+     */
+    @Test public void testTieneCiclos() {
+        Assert.assertFalse(grafica.tieneCiclos());
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        Assert.assertFalse(grafica.tieneCiclos());
+        grafica.conecta(total - 1, 0);
+        Assert.assertTrue(grafica.tieneCiclos());
+        grafica.desconecta(total / 2, total / 2 + 1 == total ?
+                           0 : total / 2 + 1);
+        Assert.assertFalse(grafica.tieneCiclos());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#componentesFuertes}.
+     */
+    @Test public void testComponentesFuertes() {
+        llena();
+        Lista<Lista<Integer>> componentes = grafica.componentesFuertes();
+        Diccionario<Integer, Integer> componente =
+            new Diccionario<Integer, Integer>();
+        int c = 0, elementos = 0;
+        for (Lista<Integer> l : componentes) {
+            for (Integer e : l)
+                componente.agrega(e, c);
+            elementos += l.getLongitud();
+            c++;
+        }
+        Assert.assertTrue(elementos == total);
+        for (int i = 0; i < 10; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            boolean mismas = componente.get(a).equals(componente.get(b));
+            Assert.assertTrue(mismas == (alcanza(a, b) && alcanza(b, a)));
+        }
+        /* Orden topológico inverso de las componentes. */
+        for (Integer a : grafica)
+            for (VerticeGrafica<Integer> v : grafica.vertice(a).vecinos())
+                Assert.assertTrue(componente.get(v.get()) <=
+                                  componente.get(a));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#componentesFuertes} y
+     * {@link GraficaDirigida#ordenTopologico} con una trayectoria larga,
+     * que desbordaría la pila con recursión.
+     */
+    @Test public void testTrayectoriaLarga() {
+        int n = 200000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(i-1, i);
+        Assert.assertTrue(grafica.ordenTopologico().getPrimero() == 0);
+        Assert.assertTrue(grafica.componentesFuertes().getLongitud() == n);
+        grafica.conecta(n-1, 0);
+        Assert.assertTrue(grafica.tieneCiclos());
+        Lista<Lista<Integer>> componentes = grafica.componentesFuertes();
+        Assert.assertTrue(componentes.getLongitud() == 1);
+        Assert.assertTrue(componentes.getPrimero().getLongitud() == n);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#equals}.
+     */
+    @Test public void testEquals() {
+        GraficaDirigida<Integer> otra = new GraficaDirigida<Integer>();
+        Assert.assertTrue(grafica.equals(otra));
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            otra.agrega(total - 1 - i);
+        }
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i-1, i);
+            otra.conecta(i-1, i);
+        }
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(grafica.hashCode() == otra.hashCode());
+        otra.desconecta(0, 1);
+        otra.conecta(1, 0);
+        Assert.assertFalse(grafica.equals(otra));
+        Assert.assertFalse(grafica.equals(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#toString}.
+     */
+    @Test public void testToString() {
+        for (int i = 0; i < 3; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(2, 0);
+        Assert.assertTrue(grafica.toString().equals(
+                              "{0, 1, 2, }, {(0, 1), (2, 0), }"));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#limpia}.
+     */
+    @Test public void testLimpia() {
+        llena();
+        grafica.limpia();
+        Assert.assertTrue(grafica.esVacia());
+        Assert.assertTrue(grafica.getAristas() == 0);
+        Assert.assertFalse(grafica.contiene(0));
+    }
+}
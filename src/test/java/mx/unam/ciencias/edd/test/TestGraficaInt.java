@@ -0,0 +1,349 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaInt;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaInt}.
+ */
+public class TestGraficaInt {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaInt grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestGraficaInt() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new GraficaInt();
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#GraficaInt}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(grafica.getElementos() == 0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+        Assert.assertTrue(grafica.esConexa());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#agrega}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            int e = i * 1000003 - total;
+            Assert.assertFalse(grafica.contiene(e));
+            grafica.agrega(e);
+            Assert.assertTrue(grafica.contiene(e));
+            Assert.assertTrue(grafica.getElementos() == i+1);
+            Assert.assertTrue(grafica.getGrado(e) == 0);
+            try {
+                grafica.agrega(e);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#conecta}.
+     */
+    @Test public void testConecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        int aristas = 0;
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++) {
+                grafica.conecta(i, j);
+                Assert.assertTrue(grafica.getAristas() == ++aristas);
+                try {
+                    grafica.conecta(j, i);
+                    Assert.fail();
+                } catch (IllegalArgumentException iae) {}
+            }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(grafica.getGrado(i) == total - 1);
+        try {
+            grafica.conecta(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(-1, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#desconecta}.
+     */
+    @Test public void testDesconecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j);
+        int aristas = grafica.getAristas();
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++) {
+                grafica.desconecta(j, i);
+                Assert.assertTrue(grafica.getAristas() == --aristas);
+                Assert.assertFalse(grafica.sonVecinos(i, j));
+                try {
+                    grafica.desconecta(i, j);
+                    Assert.fail();
+                } catch (IllegalArgumentException iae) {}
+            }
+        try {
+            grafica.desconecta(-1, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j);
+        int vertices = total;
+        int aristas = (total * (total - 1)) / 2;
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(grafica.getElementos() == vertices);
+            Assert.assertTrue(grafica.getAristas() == aristas);
+            for (int j = i; j < total; j++)
+                Assert.assertTrue(grafica.getGrado(j) == vertices - 1);
+            grafica.elimina(i);
+            Assert.assertFalse(grafica.contiene(i));
+            vertices--;
+            aristas -= vertices;
+            for (int j = i+1; j < total; j++)
+                for (int k = j+1; k < total; k++)
+                    Assert.assertTrue(grafica.sonVecinos(j, k));
+        }
+        Assert.assertTrue(grafica.getElementos() == 0);
+        try {
+            grafica.elimina(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#elimina} intercalado con {@link
+     * GraficaInt#agrega}, con elementos al azar.
+     */
+    @Test public void testEliminaAleatorio() {
+        Grafica<Integer> generica = new Grafica<Integer>();
+        int rango = 4 * total;
+        for (int i = 0; i < 20 * total; i++) {
+            int e = random.nextInt(rango) * 65536;
+            Assert.assertTrue(grafica.contiene(e) == generica.contiene(e));
+            if (generica.contiene(e)) {
+                grafica.elimina(e);
+                generica.elimina(e);
+            } else {
+                grafica.agrega(e);
+                generica.agrega(e);
+                int f = random.nextInt(rango) * 65536;
+                if (f != e && generica.contiene(f)) {
+                    grafica.conecta(e, f);
+                    generica.conecta(e, f);
+                }
+            }
+            Assert.assertTrue(grafica.getElementos() ==
+                              generica.getElementos());
+            Assert.assertTrue(grafica.getAristas() == generica.getAristas());
+        }
+        for (Integer e : generica)
+            Assert.assertTrue(grafica.getGrado(e) ==
+                              generica.vertice(e).getGrado());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#desconecta} y {@link
+     * GraficaInt#elimina} con vértices de grado grande: las vecindades
+     * indexadas se mantienen consistentes al mover el último vértice, y
+     * desconectar las hojas de un centro no recorre la vecindad del centro.
+     */
+    @Test public void testCentros() {
+        Grafica<Integer> generica = new Grafica<Integer>();
+        int n = 2000;
+        for (int i = 0; i < n; i++) {
+            grafica.agrega(i);
+            generica.agrega(i);
+        }
+        /* Los vértices 0 a 9 son centros, vecinos de todos los demás. */
+        for (int i = 10; i < n; i++)
+            for (int c = 0; c < 10; c++) {
+                grafica.conecta(c, i);
+                generica.conecta(c, i);
+            }
+        for (int k = 0; k < 500; k++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (!generica.contiene(a) || !generica.contiene(b) || a == b)
+                continue;
+            if (random.nextInt(4) == 0) {
+                grafica.elimina(a);
+                generica.elimina(a);
+            } else if (generica.sonVecinos(a, b)) {
+                grafica.desconecta(a, b);
+                generica.desconecta(a, b);
+            } else {
+                grafica.conecta(a, b);
+                generica.conecta(a, b);
+            }
+            Assert.assertTrue(grafica.getAristas() == generica.getAristas());
+        }
+        for (Integer e : generica) {
+            Assert.assertTrue(grafica.getGrado(e) ==
+                              generica.vertice(e).getGrado());
+            for (int c = 0; c < 10; c++)
+                if (generica.contiene(c) && c != e)
+                    Assert.assertTrue(grafica.sonVecinos(c, e) ==
+                                      generica.sonVecinos(c, e));
+        }
+        grafica.limpia();
+        n = 300000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(0, i);
+        /* En este orden cada hoja es la penúltima de la vecindad del
+           centro: buscarla recorriendo el arreglo tomaría tiempo cuadrático
+           en total. */
+        for (int i = n - 2; i > 0; i--)
+            grafica.desconecta(i, 0);
+        grafica.desconecta(n - 1, 0);
+        Assert.assertTrue(grafica.getGrado(0) == 0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#sonVecinos}.
+     */
+    @Test public void testSonVecinos() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++) {
+                Assert.assertFalse(grafica.sonVecinos(i, j));
+                grafica.conecta(i, j);
+                Assert.assertTrue(grafica.sonVecinos(i, j));
+                Assert.assertTrue(grafica.sonVecinos(j, i));
+            }
+        try {
+            grafica.sonVecinos(-1, -2);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#esConexa} y {@link
+     * GraficaInt#componentes}.
+     */
+    @Test public void testEsConexa() {
+        grafica.agrega(0);
+        for (int i = 1; i < total; i++) {
+            grafica.agrega(i);
+            Assert.assertFalse(grafica.esConexa());
+            Assert.assertTrue(grafica.componentes() == 2);
+            grafica.conecta(i-1, i);
+            Assert.assertTrue(grafica.esConexa());
+        }
+        grafica.desconecta(0, 1);
+        Assert.assertTrue(grafica.componentes() == 2);
+        grafica.elimina(0);
+        Assert.assertTrue(grafica.esConexa());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#bfs} y {@link GraficaInt#dfs},
+     * comparando contra {@link Grafica} con las mismas operaciones, incluidas
+     * eliminaciones.
+     */
+    @Test public void testRecorridos() {
+        Grafica<Integer> generica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            generica.agrega(i);
+        }
+        for (int i = 0; i < 3*total; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !generica.sonVecinos(a, b)) {
+                grafica.conecta(a, b);
+                generica.conecta(a, b);
+            }
+        }
+        for (int i = 0; i < total; i += 4) {
+            grafica.elimina(i);
+            generica.elimina(i);
+        }
+        Assert.assertTrue(grafica.getAristas() == generica.getAristas());
+        Assert.assertTrue(grafica.componentes() == generica.componentes());
+        for (Integer i : generica) {
+            Assert.assertTrue(grafica.getGrado(i) ==
+                              generica.vertice(i).getGrado());
+            Lista<Integer> esperada = new Lista<Integer>();
+            Lista<Integer> obtenida = new Lista<Integer>();
+            generica.bfs(i, v -> esperada.agrega(v.get()));
+            grafica.bfs(i, e -> obtenida.agrega(e));
+            Assert.assertTrue(esperada.equals(obtenida));
+            esperada.limpia();
+            obtenida.limpia();
+            generica.dfs(i, v -> esperada.agrega(v.get()));
+            grafica.dfs(i, e -> obtenida.agrega(e));
+            Assert.assertTrue(esperada.equals(obtenida));
+        }
+        try {
+            grafica.bfs(-1, e -> {});
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#paraCadaVertice}.
+     */
+    @Test public void testParaCadaVertice() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        int[] c = { 0 };
+        grafica.paraCadaVertice(e -> Assert.assertTrue(e == c[0]++));
+        Assert.assertTrue(c[0] == total);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaInt#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        grafica.limpia();
+        Assert.assertTrue(grafica.getElementos() == 0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(grafica.contiene(i));
+            grafica.agrega(i);
+        }
+        Assert.assertTrue(grafica.componentes() == total);
+    }
+}
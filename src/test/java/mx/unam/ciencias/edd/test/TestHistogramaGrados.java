@@ -0,0 +1,138 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.HistogramaGrados;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HistogramaGrados}.
+ */
+public class TestHistogramaGrados {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestHistogramaGrados() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Revisa el histograma contra uno calculado desde cero. */
+    private void revisa(HistogramaGrados<Integer> histograma) {
+        int[] cuentas = new int[total + 1];
+        int[] maximo = { -1 };
+        grafica.paraCadaVertice(v -> {
+                cuentas[v.getGrado()]++;
+                maximo[0] = Math.max(maximo[0], v.getGrado());
+            });
+        for (int g = 0; g <= total; g++)
+            Assert.assertTrue(histograma.getCuenta(g) == cuentas[g]);
+        Assert.assertTrue(histograma.getGradoMaximo() == maximo[0]);
+    }
+
+    /* Hace un cambio al azar en la gráfica. */
+    private void cambiaAlAzar() {
+        int a = random.nextInt(total), b = random.nextInt(total);
+        int r = random.nextInt(20);
+        if (r == 0) {
+            if (grafica.contiene(a))
+                grafica.elimina(a);
+            else
+                grafica.agrega(a);
+        } else if (grafica.contiene(a) && grafica.contiene(b) && a != b) {
+            if (grafica.sonVecinos(a, b))
+                grafica.desconecta(a, b);
+            else
+                grafica.conecta(a, b);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link HistogramaGrados#HistogramaGrados}.
+     */
+    @Test public void testConstructor() {
+        HistogramaGrados<Integer> histograma =
+            new HistogramaGrados<Integer>(grafica);
+        Assert.assertTrue(histograma.getGradoMaximo() == -1);
+        Assert.assertTrue(histograma.getCuenta(0) == 0);
+        Assert.assertTrue(histograma.getCuenta(-1) == 0);
+        Assert.assertTrue(grafica.getBitacora() != null);
+        Assert.assertTrue(grafica.getBitacora().getCapacidad() == 0);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(0, i);
+        histograma = new HistogramaGrados<Integer>(grafica);
+        revisa(histograma);
+        Assert.assertTrue(histograma.getCuenta(1) == total - 1);
+        Assert.assertTrue(histograma.getGradoMaximo() == total - 1);
+    }
+
+    /**
+     * Prueba que el histograma sigue a la gráfica con cambios al azar.
+     */
+    @Test public void testCambios() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        HistogramaGrados<Integer> histograma =
+            new HistogramaGrados<Integer>(grafica);
+        for (int k = 0; k < 20 * total; k++) {
+            cambiaAlAzar();
+            revisa(histograma);
+        }
+        /* El vértice de grado máximo se va. */
+        for (int i = 0; i < total; i++)
+            if (!grafica.contiene(i))
+                grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            if (!grafica.sonVecinos(0, i))
+                grafica.conecta(0, i);
+        revisa(histograma);
+        grafica.elimina(0);
+        revisa(histograma);
+        grafica.limpia();
+        revisa(histograma);
+        Assert.assertTrue(histograma.getGradoMaximo() == -1);
+    }
+
+    /**
+     * Prueba que el grado máximo sigue a un centro que crece y decrece, sin
+     * recorrer las cuentas vacías entre su grado y el siguiente: con
+     * trescientas mil hojas, hacerlo tardaría más que la expiración.
+     */
+    @Test public void testCentro() {
+        int hojas = 300000;
+        for (int i = 0; i <= hojas; i++)
+            grafica.agrega(i);
+        HistogramaGrados<Integer> histograma =
+            new HistogramaGrados<Integer>(grafica);
+        Assert.assertTrue(histograma.getGradoMaximo() == 0);
+        for (int i = 1; i <= hojas; i++) {
+            grafica.conecta(0, i);
+            Assert.assertTrue(histograma.getGradoMaximo() == i);
+            Assert.assertTrue(histograma.getCuenta(i) == (i == 1 ? 2 : 1));
+        }
+        Assert.assertTrue(histograma.getCuenta(1) == hojas);
+        for (int i = hojas; i >= 1; i--) {
+            grafica.desconecta(i, 0);
+            Assert.assertTrue(histograma.getGradoMaximo() ==
+                              Math.max(i - 1, i > 1 ? 1 : 0));
+        }
+        Assert.assertTrue(histograma.getCuenta(0) == hojas + 1);
+    }
+}
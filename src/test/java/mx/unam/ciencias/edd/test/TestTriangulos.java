@@ -0,0 +1,197 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Triangulos;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Triangulos}.
+ */
+public class TestTriangulos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Tolerancia para comparar dobles. */
+    private static final double EPSILON = 1e-9;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestTriangulos() {
+        random = new Random();
+        total = 3 + random.nextInt(50);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Cuenta los triángulos del elemento probando cada pareja de vecinos. */
+    private long triangulos(Integer e) {
+        long t = 0;
+        for (VerticeGrafica<Integer> u : grafica.vertice(e).vecinos())
+            for (VerticeGrafica<Integer> w : grafica.vertice(e).vecinos())
+                if (u.get() < w.get() && grafica.sonVecinos(u.get(), w.get()))
+                    t++;
+        return t;
+    }
+
+    /**
+     * Prueba unitaria para {@link Triangulos#Triangulos}.
+     */
+    @Test public void testConstructor() {
+        Triangulos<Integer> triangulos = new Triangulos<Integer>(grafica, 1);
+        Assert.assertTrue(triangulos.getTriangulos() == 0);
+        Assert.assertTrue(triangulos.getCoeficientePromedio() == 0);
+        Assert.assertTrue(triangulos.getTransitividad() == 0);
+        try {
+            new Triangulos<Integer>(grafica, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Triangulos#getTriangulos()} y {@link
+     * Triangulos#getTriangulos(Object)} en una gráfica completa.
+     */
+    @Test public void testCompleta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                grafica.conecta(i, j);
+        Triangulos<Integer> triangulos =
+            new Triangulos<Integer>(grafica, 1 + random.nextInt(4));
+        long n = total;
+        Assert.assertTrue(triangulos.getTriangulos() ==
+                          n * (n - 1) * (n - 2) / 6);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(triangulos.getTriangulos(i) ==
+                              (n - 1) * (n - 2) / 2);
+            Assert.assertTrue(Math.abs(triangulos.getCoeficiente(i) - 1) <
+                              EPSILON);
+        }
+        Assert.assertTrue(Math.abs(triangulos.getCoeficientePromedio() - 1) <
+                          EPSILON);
+        Assert.assertTrue(Math.abs(triangulos.getTransitividad() - 1) <
+                          EPSILON);
+        try {
+            triangulos.getTriangulos(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            triangulos.getCoeficiente(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba que un árbol y un ciclo de más de tres vértices no tienen
+     * triángulos.
+     */
+    @Test public void testSinTriangulos() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(random.nextInt(i), i);
+        Triangulos<Integer> triangulos = new Triangulos<Integer>(grafica, 2);
+        Assert.assertTrue(triangulos.getTriangulos() == 0);
+        Assert.assertTrue(triangulos.getTransitividad() == 0);
+        grafica = new Grafica<Integer>();
+        int n = total + 1;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n; i++)
+            grafica.conecta(i, (i + 1) % n);
+        triangulos = new Triangulos<Integer>(grafica, 2);
+        Assert.assertTrue(triangulos.getTriangulos() == 0);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(triangulos.getCoeficiente(i) == 0);
+    }
+
+    /**
+     * Prueba los conteos y coeficientes de una gráfica al azar contra
+     * contarlos probando cada pareja de vecinos.
+     */
+    @Test public void testAleatoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        double p = random.nextDouble();
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (random.nextDouble() < p)
+                    grafica.conecta(i, j);
+        /* Un centro de grado grande, para que el orden por grado importe. */
+        grafica.agrega(total);
+        for (int i = 0; i < total; i += 2)
+            grafica.conecta(total, i);
+        Triangulos<Integer> triangulos =
+            new Triangulos<Integer>(grafica, 1 + random.nextInt(4));
+        Diccionario<Integer, Long> porVertice = triangulos.triangulos();
+        Diccionario<Integer, Double> coeficientes =
+            triangulos.coeficientes();
+        long suma = 0, caminos = 0;
+        double promedio = 0;
+        for (Integer e : grafica) {
+            long t = triangulos(e);
+            long d = grafica.vertice(e).getGrado();
+            double c = d < 2 ? 0 : 2.0 * t / (d * (d - 1));
+            Assert.assertTrue(triangulos.getTriangulos(e) == t);
+            Assert.assertTrue(porVertice.get(e) == t);
+            Assert.assertTrue(Math.abs(triangulos.getCoeficiente(e) - c) <
+                              EPSILON);
+            Assert.assertTrue(Math.abs(coeficientes.get(e) - c) < EPSILON);
+            suma += t;
+            caminos += d * (d - 1) / 2;
+            promedio += c;
+        }
+        Assert.assertTrue(triangulos.getTriangulos() * 3 == suma);
+        promedio /= grafica.getElementos();
+        Assert.assertTrue(Math.abs(triangulos.getCoeficientePromedio() -
+                                   promedio) < EPSILON);
+        double transitividad = caminos == 0 ? 0 : (double)suma / caminos;
+        Assert.assertTrue(Math.abs(triangulos.getTransitividad() -
+                                   transitividad) < EPSILON);
+    }
+
+    /**
+     * Prueba que el conteo es el mismo con cualquier número de hilos, y que
+     * no cambia con la gráfica.
+     */
+    @Test public void testHilos() {
+        int n = 2000 + random.nextInt(2000);
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++) {
+            int v = random.nextInt(i);
+            if (!grafica.sonVecinos(i, v))
+                grafica.conecta(i, v);
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+            if (i > 1 && !grafica.sonVecinos(i, i - 2))
+                grafica.conecta(i, i - 2);
+        }
+        Triangulos<Integer> uno = new Triangulos<Integer>(grafica, 1);
+        Triangulos<Integer> varios = new Triangulos<Integer>(grafica, 4);
+        Assert.assertTrue(uno.getTriangulos() == varios.getTriangulos());
+        Assert.assertTrue(uno.getTriangulos() > 0);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(uno.getTriangulos(i) == varios.getTriangulos(i));
+        long antes = uno.getTriangulos();
+        grafica.limpia();
+        Assert.assertTrue(uno.getTriangulos() == antes);
+    }
+}